@@ -0,0 +1,339 @@
+package internal.io.zip;
+
+import internal.io.UncloseableOutputStream;
+import lombok.NonNull;
+import nbbrd.io.function.IOConsumer;
+import nbbrd.io.zip.Zip;
+import org.jspecify.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A zip writer that deflates entries concurrently and writes them in submission order.
+ * <p>
+ * Each entry is fully deflated in memory before being written, so memory use grows with
+ * {@code maxPendingEntries} times the deflated size of the largest entry, and a deflated
+ * entry must fit in a byte array (less than 2 GB). Compressed sizes therefore never need
+ * ZIP64 fields; uncompressed sizes, offsets and entry counts do when they exceed the
+ * classic zip limits.
+ * </p>
+ * <p>
+ * Once an entry fails to be deflated or written, the archive is incomplete: further
+ * entries are rejected and closing the writer throws instead of writing a central
+ * directory that would hide the missing entry.
+ * </p>
+ */
+public final class ParallelZipWriter implements Zip.Writer {
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+
+    private static final short ZIP64_EXTRA_ID = 0x0001;
+    private static final short UTF8_FLAG = 0x0800;
+    private static final short VERSION_DEFAULT = 20;
+    private static final short VERSION_ZIP64 = 45;
+
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+    private static final int MAX_NAME_LENGTH = 0xFFFF;
+
+    private final OutputStream output;
+    private final Executor executor;
+    private final int level;
+    private final int maxPendingEntries;
+
+    private final Deque<CompletableFuture<DeflatedEntry>> pending = new ArrayDeque<>();
+    private final List<CentralEntry> centralEntries = new ArrayList<>();
+    private final Set<String> names = new HashSet<>();
+    private long offset = 0;
+    private boolean closed = false;
+    private @Nullable IOException failure = null;
+
+    public ParallelZipWriter(@NonNull OutputStream output, @NonNull Executor executor, int level, int maxPendingEntries) {
+        if (maxPendingEntries < 1) {
+            throw new IllegalArgumentException("Invalid max pending entries: " + maxPendingEntries);
+        }
+        if ((level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        this.output = output;
+        this.executor = executor;
+        this.level = level;
+        this.maxPendingEntries = maxPendingEntries;
+    }
+
+    @Override
+    public void put(@NonNull String name, @NonNull IOConsumer<? super OutputStream> content) throws IOException {
+        checkNotClosed();
+        if (name.getBytes(UTF_8).length > MAX_NAME_LENGTH) {
+            throw new ZipException("Entry name too long");
+        }
+        if (!names.add(name)) {
+            throw new ZipException("Duplicate entry '" + name + "'");
+        }
+        long time = System.currentTimeMillis();
+        pending.add(CompletableFuture.supplyAsync(() -> deflate(name, time, content), executor));
+        try {
+            writeCompletedEntries(maxPendingEntries);
+        } catch (IOException ex) {
+            failure = ex;
+            throw ex;
+        } catch (RuntimeException ex) {
+            failure = new IOException(ex);
+            throw ex;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (failure != null) {
+                ZipException incomplete = new ZipException("Incomplete archive after a failed entry");
+                incomplete.initCause(failure);
+                throw incomplete;
+            }
+            writeCompletedEntries(0);
+            writeCentralDirectory();
+        } catch (IOException | RuntimeException ex) {
+            pending.forEach(task -> task.cancel(false));
+            pending.clear();
+            throw ex;
+        } finally {
+            output.close();
+        }
+    }
+
+    private void checkNotClosed() throws IOException {
+        if (closed) {
+            throw new IOException("Writer closed");
+        }
+        if (failure != null) {
+            throw new IOException("Writer failed", failure);
+        }
+    }
+
+    private void writeCompletedEntries(int maxPending) throws IOException {
+        while (!pending.isEmpty() && (pending.size() > maxPending || pending.peek().isDone())) {
+            writeLocalEntry(await(pending.remove()));
+        }
+    }
+
+    private DeflatedEntry deflate(String name, long time, IOConsumer<? super OutputStream> content) {
+        boolean directory = name.endsWith("/");
+        Deflater deflater = new Deflater(level, true);
+        try {
+            CRC32 crc = new CRC32();
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+            DeflaterOutputStream deflating = new DeflaterOutputStream(data, deflater);
+            try (OutputStream stream = new CheckedOutputStream(new UncloseableOutputStream(deflating), crc)) {
+                content.acceptWithIO(stream);
+            }
+            deflating.finish();
+            long size = deflater.getBytesRead();
+            if (directory && size == 0) {
+                return new DeflatedEntry(new EntryHeader(name.getBytes(UTF_8), toDosTime(time), 0, 0, 0, ZipEntry.STORED), new ByteArrayOutputStream(0));
+            }
+            return new DeflatedEntry(new EntryHeader(name.getBytes(UTF_8), toDosTime(time), crc.getValue(), data.size(), size, ZipEntry.DEFLATED), data);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private DeflatedEntry await(CompletableFuture<DeflatedEntry> task) throws IOException {
+        try {
+            return task.join();
+        } catch (CompletionException | CancellationException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new IOException("Failed to deflate entry", cause != null ? cause : ex);
+        }
+    }
+
+    private void writeLocalEntry(DeflatedEntry deflated) throws IOException {
+        EntryHeader entry = deflated.getHeader();
+        boolean zip64 = entry.getCompressedSize() >= ZIP64_MAGIC || entry.getSize() >= ZIP64_MAGIC;
+        ByteBuffer header = newBuffer(30 + entry.getName().length + (zip64 ? 20 : 0));
+        header.putInt(LOCAL_HEADER_SIGNATURE);
+        header.putShort(zip64 ? VERSION_ZIP64 : VERSION_DEFAULT);
+        header.putShort(UTF8_FLAG);
+        header.putShort((short) entry.getMethod());
+        header.putInt((int) entry.getDosTime());
+        header.putInt((int) entry.getCrc());
+        header.putInt((int) (zip64 ? ZIP64_MAGIC : entry.getCompressedSize()));
+        header.putInt((int) (zip64 ? ZIP64_MAGIC : entry.getSize()));
+        header.putShort((short) entry.getName().length);
+        header.putShort((short) (zip64 ? 20 : 0));
+        header.put(entry.getName());
+        if (zip64) {
+            header.putShort(ZIP64_EXTRA_ID);
+            header.putShort((short) 16);
+            header.putLong(entry.getSize());
+            header.putLong(entry.getCompressedSize());
+        }
+        centralEntries.add(new CentralEntry(entry, offset));
+        write(header);
+        deflated.getData().writeTo(output);
+        offset += deflated.getData().size();
+    }
+
+    private void writeCentralDirectory() throws IOException {
+        long centralOffset = offset;
+        for (CentralEntry entry : centralEntries) {
+            writeCentralEntry(entry);
+        }
+        long centralSize = offset - centralOffset;
+        int count = centralEntries.size();
+
+        boolean zip64 = count >= ZIP64_MAGIC_COUNT || centralOffset >= ZIP64_MAGIC || centralSize >= ZIP64_MAGIC;
+        if (zip64) {
+            long zip64EndOffset = offset;
+            ByteBuffer end64 = newBuffer(56 + 20);
+            end64.putInt(ZIP64_END_SIGNATURE);
+            end64.putLong(44);
+            end64.putShort(VERSION_ZIP64);
+            end64.putShort(VERSION_ZIP64);
+            end64.putInt(0);
+            end64.putInt(0);
+            end64.putLong(count);
+            end64.putLong(count);
+            end64.putLong(centralSize);
+            end64.putLong(centralOffset);
+            end64.putInt(ZIP64_LOCATOR_SIGNATURE);
+            end64.putInt(0);
+            end64.putLong(zip64EndOffset);
+            end64.putInt(1);
+            write(end64);
+        }
+
+        ByteBuffer end = newBuffer(22);
+        end.putInt(END_SIGNATURE);
+        end.putShort((short) 0);
+        end.putShort((short) 0);
+        end.putShort((short) Math.min(count, ZIP64_MAGIC_COUNT));
+        end.putShort((short) Math.min(count, ZIP64_MAGIC_COUNT));
+        end.putInt((int) Math.min(centralSize, ZIP64_MAGIC));
+        end.putInt((int) Math.min(centralOffset, ZIP64_MAGIC));
+        end.putShort((short) 0);
+        write(end);
+        output.flush();
+    }
+
+    private void writeCentralEntry(CentralEntry central) throws IOException {
+        EntryHeader entry = central.getHeader();
+        boolean sizeZip64 = entry.getSize() >= ZIP64_MAGIC;
+        boolean compressedSizeZip64 = entry.getCompressedSize() >= ZIP64_MAGIC;
+        boolean offsetZip64 = central.getOffset() >= ZIP64_MAGIC;
+        int extraLength = (sizeZip64 ? 8 : 0) + (compressedSizeZip64 ? 8 : 0) + (offsetZip64 ? 8 : 0);
+        boolean zip64 = extraLength > 0;
+
+        ByteBuffer header = newBuffer(46 + entry.getName().length + (zip64 ? 4 + extraLength : 0));
+        header.putInt(CENTRAL_HEADER_SIGNATURE);
+        header.putShort(VERSION_ZIP64);
+        header.putShort(zip64 ? VERSION_ZIP64 : VERSION_DEFAULT);
+        header.putShort(UTF8_FLAG);
+        header.putShort((short) entry.getMethod());
+        header.putInt((int) entry.getDosTime());
+        header.putInt((int) entry.getCrc());
+        header.putInt((int) (compressedSizeZip64 ? ZIP64_MAGIC : entry.getCompressedSize()));
+        header.putInt((int) (sizeZip64 ? ZIP64_MAGIC : entry.getSize()));
+        header.putShort((short) entry.getName().length);
+        header.putShort((short) (zip64 ? 4 + extraLength : 0));
+        header.putShort((short) 0);
+        header.putShort((short) 0);
+        header.putShort((short) 0);
+        header.putInt(0);
+        header.putInt((int) (offsetZip64 ? ZIP64_MAGIC : central.getOffset()));
+        header.put(entry.getName());
+        if (zip64) {
+            header.putShort(ZIP64_EXTRA_ID);
+            header.putShort((short) extraLength);
+            if (sizeZip64) {
+                header.putLong(entry.getSize());
+            }
+            if (compressedSizeZip64) {
+                header.putLong(entry.getCompressedSize());
+            }
+            if (offsetZip64) {
+                header.putLong(central.getOffset());
+            }
+        }
+        write(header);
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        output.write(buffer.array(), 0, buffer.position());
+        offset += buffer.position();
+    }
+
+    private static ByteBuffer newBuffer(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static long toDosTime(long time) {
+        LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault());
+        int year = dateTime.getYear() - 1980;
+        if (year < 0) {
+            return (1 << 21) | (1 << 16);
+        }
+        return ((long) year << 25
+                | dateTime.getMonthValue() << 21
+                | dateTime.getDayOfMonth() << 16
+                | dateTime.getHour() << 11
+                | dateTime.getMinute() << 5
+                | dateTime.getSecond() >> 1) & ZIP64_MAGIC;
+    }
+
+    @lombok.Value
+    private static class EntryHeader {
+        byte[] name;
+        long dosTime;
+        long crc;
+        long compressedSize;
+        long size;
+        int method;
+    }
+
+    @lombok.Value
+    private static class DeflatedEntry {
+        EntryHeader header;
+        ByteArrayOutputStream data;
+    }
+
+    @lombok.Value
+    private static class CentralEntry {
+        EntryHeader header;
+        long offset;
+    }
+}
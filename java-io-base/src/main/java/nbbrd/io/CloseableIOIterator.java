@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package nbbrd.io;
+
+import lombok.NonNull;
+import nbbrd.io.function.IORunnable;
+
+import java.io.Closeable;
+import java.util.stream.Stream;
+
+/**
+ * An iterator that holds resources until it is closed.
+ *
+ * @param <E>
+ * @author Philippe Charles
+ */
+public interface CloseableIOIterator<E> extends IOIterator<E>, Closeable {
+
+    /**
+     * {@inheritDoc}
+     * Closing the stream closes this iterator.
+     */
+    @Override
+    default @NonNull Stream<E> asStream() {
+        return IOIterator.super.asStream().onClose(IORunnable.unchecked(this::close));
+    }
+}
@@ -15,6 +15,11 @@ public final class EndOfProcessException extends IOException {
         return new EndOfProcessException(process.exitValue(), readErrorStream(process));
     }
 
+    @StaticFactoryMethod
+    static EndOfProcessException of(int exitValue, String errorMessage) {
+        return new EndOfProcessException(exitValue, errorMessage);
+    }
+
     @lombok.Getter
     private final int exitValue;
 
@@ -0,0 +1,521 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package nbbrd.io.sys;
+
+import lombok.NonNull;
+import nbbrd.design.StaticFactoryMethod;
+import nbbrd.design.ThreadSafe;
+import nbbrd.io.function.IOPredicate;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A pool of long-lived worker processes that exchange framed messages over their standard input and output.
+ * <p>
+ * Reusing warm processes avoids paying the cost of a fork/exec per call.
+ * Each worker handles one exchange at a time and the number of concurrent workers is bounded.
+ * Idle workers are evicted after a timeout by a shared daemon thread and checked for health before being reused.
+ * Broken workers are destroyed and replaced on demand,
+ * as are workers that exceed the optional exchange timeout.
+ * </p>
+ * <p>
+ * <b>Note</b>: the standard error of the workers is not consumed by the pool.
+ * It is discarded when the pool is built from a {@link Builder#command(String...) command};
+ * a custom {@link Builder#processBuilder(ProcessBuilder) process builder} should redirect it
+ * to avoid blocking a chatty worker.
+ * </p>
+ */
+@ThreadSafe
+public final class ProcessPool implements Closeable {
+
+    private static final int DEFAULT_MAX_PROCESSES = 1;
+    private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(1);
+    private static final Duration DEFAULT_ACQUIRE_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration NO_EXCHANGE_TIMEOUT = Duration.ZERO;
+
+    // ProcessBuilder.Redirect.DISCARD is only available since Java 9
+    private static final ProcessBuilder.Redirect DISCARD = ProcessBuilder.Redirect.to(new File(OS.NAME == OS.Name.WINDOWS ? "NUL" : "/dev/null"));
+
+    private final ProcessBuilder processBuilder;
+    private final Framing framing;
+    private final int maxProcesses;
+    private final long idleTimeoutNanos;
+    private final long acquireTimeoutNanos;
+    private final long exchangeTimeoutNanos;
+    private final IOPredicate<? super Worker> healthCheck;
+
+    private final Semaphore permits;
+    private final Deque<Worker> idleWorkers = new ArrayDeque<>();
+    private int workerCount = 0;
+    private boolean closed = false;
+    private ScheduledFuture<?> evictionTask = null;
+
+    private ProcessPool(ProcessBuilder processBuilder, Framing framing, int maxProcesses,
+                        Duration idleTimeout, Duration acquireTimeout, Duration exchangeTimeout, IOPredicate<? super Worker> healthCheck) {
+        this.processBuilder = processBuilder;
+        this.framing = framing;
+        this.maxProcesses = maxProcesses;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.exchangeTimeoutNanos = exchangeTimeout.toNanos();
+        this.healthCheck = healthCheck;
+        this.permits = new Semaphore(maxProcesses, true);
+    }
+
+    /**
+     * Sends a request to a worker and waits for its response.
+     *
+     * @param request non-null request
+     * @return a non-null response
+     * @throws IOException if no worker is available in time or if the exchange fails or times out
+     */
+    public byte @NonNull [] exchange(byte @NonNull [] request) throws IOException {
+        acquirePermit();
+        try {
+            Worker worker = borrowWorker();
+            ScheduledFuture<?> timeout = exchangeTimeoutNanos > 0
+                    ? Scheduler.INSTANCE.schedule(worker::timeOut, exchangeTimeoutNanos, TimeUnit.NANOSECONDS)
+                    : null;
+            byte[] result;
+            try {
+                result = worker.exchange(request);
+            } catch (IOException | RuntimeException ex) {
+                if (timeout != null) {
+                    timeout.cancel(false);
+                }
+                destroyWorker(worker);
+                if (worker.timedOut) {
+                    throw new IOException("Timed out exchanging with a worker process", ex);
+                }
+                throw ex;
+            }
+            if (timeout != null && !timeout.cancel(false)) {
+                // the timeout fired right after the response and the process is being destroyed
+                destroyWorker(worker);
+                return result;
+            }
+            releaseWorker(worker);
+            return result;
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Sends a text request to a worker and waits for its response.
+     *
+     * @param request non-null request
+     * @param charset non-null charset of request and response
+     * @return a non-null response
+     * @throws IOException if no worker is available in time or if the exchange fails
+     */
+    public @NonNull String exchange(@NonNull String request, @NonNull Charset charset) throws IOException {
+        return new String(exchange(request.getBytes(charset)), charset);
+    }
+
+    /**
+     * Destroys the idle workers that exceeded the idle timeout.
+     * This is also done on each exchange and by a shared daemon thread while there are idle workers,
+     * so that calling it explicitly is seldom needed.
+     */
+    public void evictIdleWorkers() {
+        long now = System.nanoTime();
+        synchronized (idleWorkers) {
+            for (Iterator<Worker> iterator = idleWorkers.descendingIterator(); iterator.hasNext(); ) {
+                Worker worker = iterator.next();
+                if (now - worker.lastUsedNanos < idleTimeoutNanos) {
+                    break;
+                }
+                iterator.remove();
+                destroyWorker(worker);
+            }
+        }
+    }
+
+    public int getMaxProcesses() {
+        return maxProcesses;
+    }
+
+    /**
+     * Gets the number of live workers, either idle or busy.
+     *
+     * @return a non-negative number
+     */
+    public int getWorkerCount() {
+        synchronized (idleWorkers) {
+            return workerCount;
+        }
+    }
+
+    /**
+     * Gets the number of idle workers.
+     *
+     * @return a non-negative number
+     */
+    public int getIdleWorkerCount() {
+        synchronized (idleWorkers) {
+            return idleWorkers.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (idleWorkers) {
+            closed = true;
+            if (evictionTask != null) {
+                evictionTask.cancel(false);
+                evictionTask = null;
+            }
+            while (!idleWorkers.isEmpty()) {
+                destroyWorker(idleWorkers.removeFirst());
+            }
+        }
+    }
+
+    private void acquirePermit() throws IOException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new IOException("Timed out waiting for a worker process");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrupted = new InterruptedIOException("Interrupted while waiting for a worker process");
+            interrupted.initCause(ex);
+            throw interrupted;
+        }
+    }
+
+    private Worker borrowWorker() throws IOException {
+        evictIdleWorkers();
+        while (true) {
+            Worker worker;
+            synchronized (idleWorkers) {
+                if (closed) {
+                    throw new IOException("Pool closed");
+                }
+                worker = idleWorkers.pollFirst();
+                if (worker == null) {
+                    workerCount++;
+                    break;
+                }
+            }
+            if (isHealthy(worker)) {
+                return worker;
+            }
+            destroyWorker(worker);
+        }
+        try {
+            return new Worker(processBuilder.start());
+        } catch (IOException | RuntimeException ex) {
+            synchronized (idleWorkers) {
+                workerCount--;
+            }
+            throw ex;
+        }
+    }
+
+    private boolean isHealthy(Worker worker) {
+        try {
+            return worker.getProcess().isAlive() && healthCheck.testWithIO(worker);
+        } catch (IOException | RuntimeException ex) {
+            return false;
+        }
+    }
+
+    private void releaseWorker(Worker worker) {
+        worker.lastUsedNanos = System.nanoTime();
+        synchronized (idleWorkers) {
+            if (!closed) {
+                idleWorkers.addFirst(worker);
+                if (evictionTask == null) {
+                    scheduleEviction(idleTimeoutNanos);
+                }
+                return;
+            }
+        }
+        destroyWorker(worker);
+    }
+
+    // guarded by idleWorkers; the task only runs while there are idle workers so that it does not retain the pool forever
+    private void scheduleEviction(long delayNanos) {
+        evictionTask = Scheduler.INSTANCE.schedule(this::runEviction, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+    }
+
+    private void runEviction() {
+        evictIdleWorkers();
+        synchronized (idleWorkers) {
+            evictionTask = null;
+            if (!closed && !idleWorkers.isEmpty()) {
+                scheduleEviction(idleWorkers.peekLast().lastUsedNanos + idleTimeoutNanos - System.nanoTime());
+            }
+        }
+    }
+
+    private void destroyWorker(Worker worker) {
+        synchronized (idleWorkers) {
+            workerCount--;
+        }
+        try {
+            worker.output.close();
+        } catch (IOException ignore) {
+            // the process is destroyed anyway
+        }
+        worker.getProcess().destroy();
+    }
+
+    /**
+     * A worker process of the pool.
+     */
+    public final class Worker {
+
+        @lombok.Getter
+        private final Process process;
+
+        private final InputStream input;
+        private final OutputStream output;
+        private long lastUsedNanos;
+        private volatile boolean timedOut = false;
+
+        private Worker(Process process) {
+            this.process = process;
+            this.input = new BufferedInputStream(process.getInputStream());
+            this.output = new BufferedOutputStream(process.getOutputStream());
+        }
+
+        /**
+         * Sends a request to this worker and waits for its response.
+         *
+         * @param request non-null request
+         * @return a non-null response
+         * @throws IOException if the exchange fails
+         */
+        public byte @NonNull [] exchange(byte @NonNull [] request) throws IOException {
+            framing.write(output, request);
+            output.flush();
+            return framing.read(input);
+        }
+
+        private void timeOut() {
+            timedOut = true;
+            // ends the pending read with an EOF or an error
+            process.destroyForcibly();
+        }
+    }
+
+    private static final class Scheduler {
+
+        // daemon thread so that an idle scheduler never prevents the JVM from exiting
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread result = new Thread(task, "nbbrd-io-process-pool-scheduler");
+            result.setDaemon(true);
+            return result;
+        });
+    }
+
+    /**
+     * A framing protocol that delimits messages on a stream.
+     */
+    public interface Framing {
+
+        void write(@NonNull OutputStream output, byte @NonNull [] message) throws IOException;
+
+        byte @NonNull [] read(@NonNull InputStream input) throws IOException;
+
+        /**
+         * Messages are terminated by a line feed that is not part of the message.
+         * A trailing carriage return is removed from read messages.
+         *
+         * @return a non-null framing
+         */
+        @StaticFactoryMethod
+        static @NonNull Framing lineDelimited() {
+            return Framings.LINE_DELIMITED;
+        }
+
+        /**
+         * Messages are prefixed by their length as a 4-byte big-endian integer.
+         *
+         * @return a non-null framing
+         */
+        @StaticFactoryMethod
+        static @NonNull Framing lengthPrefixed() {
+            return Framings.LENGTH_PREFIXED;
+        }
+    }
+
+    private enum Framings implements Framing {
+
+        LINE_DELIMITED {
+            @Override
+            public void write(@NonNull OutputStream output, byte @NonNull [] message) throws IOException {
+                for (byte b : message) {
+                    if (b == '\n') {
+                        throw new IOException("Line-delimited message cannot contain a line feed");
+                    }
+                }
+                output.write(message);
+                output.write('\n');
+            }
+
+            @Override
+            public byte @NonNull [] read(@NonNull InputStream input) throws IOException {
+                ByteArrayOutputStream result = new ByteArrayOutputStream();
+                int b;
+                while ((b = input.read()) != '\n') {
+                    if (b == -1) {
+                        throw new EOFException("End of worker output");
+                    }
+                    result.write(b);
+                }
+                byte[] bytes = result.toByteArray();
+                int length = bytes.length;
+                return length > 0 && bytes[length - 1] == '\r' ? Arrays.copyOf(bytes, length - 1) : bytes;
+            }
+        },
+        LENGTH_PREFIXED {
+            @Override
+            public void write(@NonNull OutputStream output, byte @NonNull [] message) throws IOException {
+                DataOutputStream data = new DataOutputStream(output);
+                data.writeInt(message.length);
+                data.write(message);
+            }
+
+            @Override
+            public byte @NonNull [] read(@NonNull InputStream input) throws IOException {
+                DataInputStream data = new DataInputStream(input);
+                int length = data.readInt();
+                if (length < 0) {
+                    throw new IOException("Invalid message length: " + length);
+                }
+                byte[] result = new byte[length];
+                data.readFully(result);
+                return result;
+            }
+        }
+    }
+
+    public static @NonNull Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private ProcessBuilder processBuilder;
+        private Framing framing = Framing.lineDelimited();
+        private int maxProcesses = DEFAULT_MAX_PROCESSES;
+        private Duration idleTimeout = DEFAULT_IDLE_TIMEOUT;
+        private Duration acquireTimeout = DEFAULT_ACQUIRE_TIMEOUT;
+        private Duration exchangeTimeout = NO_EXCHANGE_TIMEOUT;
+        private IOPredicate<? super Worker> healthCheck = IOPredicate.of(true);
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the builder used to start the worker processes.
+         * It must not be modified after the pool is built.
+         *
+         * @param processBuilder the process builder
+         * @return this builder
+         */
+        public @NonNull Builder processBuilder(@NonNull ProcessBuilder processBuilder) {
+            this.processBuilder = processBuilder;
+            return this;
+        }
+
+        /**
+         * Sets the command used to start the worker processes.
+         * Their standard error is discarded.
+         *
+         * @param command the command and its arguments
+         * @return this builder
+         */
+        public @NonNull Builder command(@NonNull String... command) {
+            return processBuilder(new ProcessBuilder(command).redirectError(DISCARD));
+        }
+
+        public @NonNull Builder framing(@NonNull Framing framing) {
+            this.framing = framing;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of concurrent worker processes.
+         *
+         * @param maxProcesses a positive number
+         * @return this builder
+         */
+        public @NonNull Builder maxProcesses(int maxProcesses) {
+            this.maxProcesses = maxProcesses;
+            return this;
+        }
+
+        public @NonNull Builder idleTimeout(@NonNull Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        public @NonNull Builder acquireTimeout(@NonNull Duration acquireTimeout) {
+            this.acquireTimeout = acquireTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the maximum duration of an exchange, after which the worker is destroyed and the exchange fails.
+         * A zero duration, the default, disables it.
+         *
+         * @param exchangeTimeout a non-negative duration
+         * @return this builder
+         */
+        public @NonNull Builder exchangeTimeout(@NonNull Duration exchangeTimeout) {
+            this.exchangeTimeout = exchangeTimeout;
+            return this;
+        }
+
+        /**
+         * Sets a check performed on an idle worker before reusing it, in addition to checking that its process is alive.
+         * An unhealthy worker is destroyed and replaced.
+         *
+         * @param healthCheck the health check, such as a ping exchange
+         * @return this builder
+         */
+        public @NonNull Builder healthCheck(@NonNull IOPredicate<? super Worker> healthCheck) {
+            this.healthCheck = healthCheck;
+            return this;
+        }
+
+        public @NonNull ProcessPool build() {
+            if (processBuilder == null) throw new IllegalStateException("processBuilder is required");
+            if (maxProcesses < 1) throw new IllegalArgumentException("maxProcesses must be positive");
+            if (idleTimeout.isNegative()) throw new IllegalArgumentException("idleTimeout must not be negative");
+            if (acquireTimeout.isNegative()) throw new IllegalArgumentException("acquireTimeout must not be negative");
+            if (exchangeTimeout.isNegative()) throw new IllegalArgumentException("exchangeTimeout must not be negative");
+            return new ProcessPool(processBuilder, framing, maxProcesses, idleTimeout, acquireTimeout, exchangeTimeout, healthCheck);
+        }
+    }
+}
@@ -16,14 +16,25 @@
  */
 package nbbrd.io.sys;
 
+import internal.io.InternalResource;
 import internal.io.text.InternalTextResource;
 import lombok.NonNull;
+import nbbrd.io.AbstractIOIterator;
+import nbbrd.io.CloseableIOIterator;
 import nbbrd.io.text.TextResource;
+import org.jspecify.annotations.Nullable;
 
 import java.io.BufferedReader;
 import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.Charset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 /**
  * @author Philippe Charles
@@ -59,7 +70,34 @@ public final class ProcessReader {
     }
 
     public static @NonNull BufferedReader newReader(@NonNull Charset charset, @NonNull Process process) {
-        return TextResource.newBufferedReader(new ProcessInputStream(process), charset);
+        return TextResource.newBufferedReader(new ProcessInputStream(process, null), charset);
+    }
+
+    /**
+     * Creates a reader of the standard output of a process while its standard error is pumped on the specified executor.
+     * This prevents a chatty process from blocking on a full error pipe.
+     * The tail of the standard error is kept in a bounded buffer and reported by {@link EndOfProcessException}.
+     *
+     * @param charset       non-null charset of the standard output
+     * @param process       non-null process
+     * @param errorExecutor non-null executor used to pump the standard error, such as a virtual thread executor
+     * @return a non-null reader
+     */
+    public static @NonNull BufferedReader newReader(@NonNull Charset charset, @NonNull Process process, @NonNull Executor errorExecutor) {
+        return TextResource.newBufferedReader(new ProcessInputStream(process, ErrorPump.start(process, errorExecutor)), charset);
+    }
+
+    /**
+     * Starts a process and creates a reader of its standard output while its standard error is pumped on a dedicated daemon thread;
+     * see {@link #newReader(Charset, Process, Executor)}.
+     *
+     * @param charset        non-null charset of the standard output
+     * @param processBuilder non-null process builder
+     * @return a non-null reader
+     * @throws IOException if the process cannot be started
+     */
+    public static @NonNull BufferedReader newReader(@NonNull Charset charset, @NonNull ProcessBuilder processBuilder) throws IOException {
+        return TextResource.newBufferedReader(newProcessInputStream(processBuilder, ProcessReader::startErrorPumpThread), charset);
     }
 
     public static @NonNull String readToString(@NonNull Charset charset, @NonNull String... args) throws IOException {
@@ -72,17 +110,97 @@ public final class ProcessReader {
         }
     }
 
+    public static @NonNull String readToString(@NonNull Charset charset, @NonNull Process process, @NonNull Executor errorExecutor) throws IOException {
+        try (BufferedReader reader = newReader(charset, process, errorExecutor)) {
+            return InternalTextResource.copyByLineToString(reader, System.lineSeparator());
+        }
+    }
+
+    /**
+     * Starts a process and iterates over the lines of its standard output as they are produced.
+     * Memory is bounded by the longest line.
+     * The standard error is pumped on a dedicated daemon thread; see {@link #lines(Charset, ProcessBuilder, Executor)}.
+     * Closing the iterator at its end waits for the end of the process and throws an {@link EndOfProcessException} if its exit value is not zero.
+     * Closing it earlier destroys the process instead of reading the rest of its output.
+     *
+     * @param charset        non-null charset of the standard output
+     * @param processBuilder non-null process builder
+     * @return a non-null iterator
+     * @throws IOException if the process cannot be started
+     */
+    public static @NonNull CloseableIOIterator<String> lines(@NonNull Charset charset, @NonNull ProcessBuilder processBuilder) throws IOException {
+        return lines(charset, processBuilder, ProcessReader::startErrorPumpThread);
+    }
+
+    /**
+     * Same as {@link #lines(Charset, ProcessBuilder)} but pumps the standard error on the specified executor.
+     *
+     * @param charset        non-null charset of the standard output
+     * @param processBuilder non-null process builder
+     * @param errorExecutor  non-null executor used to pump the standard error, such as a virtual thread executor
+     * @return a non-null iterator
+     * @throws IOException if the process cannot be started
+     */
+    public static @NonNull CloseableIOIterator<String> lines(@NonNull Charset charset, @NonNull ProcessBuilder processBuilder, @NonNull Executor errorExecutor) throws IOException {
+        return new LineIterator<>(newProcessInputStream(processBuilder, errorExecutor), charset, CharSequence::toString);
+    }
+
+    /**
+     * Same as {@link #lines(Charset, ProcessBuilder)} but reuses a single char sequence for all the lines
+     * in order to avoid allocations.
+     * A line is only valid until the iterator advances.
+     *
+     * @param charset        non-null charset of the standard output
+     * @param processBuilder non-null process builder
+     * @return a non-null iterator
+     * @throws IOException if the process cannot be started
+     */
+    public static @NonNull CloseableIOIterator<CharSequence> reusableLines(@NonNull Charset charset, @NonNull ProcessBuilder processBuilder) throws IOException {
+        return reusableLines(charset, processBuilder, ProcessReader::startErrorPumpThread);
+    }
+
+    /**
+     * Same as {@link #reusableLines(Charset, ProcessBuilder)} but pumps the standard error on the specified executor.
+     *
+     * @param charset        non-null charset of the standard output
+     * @param processBuilder non-null process builder
+     * @param errorExecutor  non-null executor used to pump the standard error, such as a virtual thread executor
+     * @return a non-null iterator
+     * @throws IOException if the process cannot be started
+     */
+    public static @NonNull CloseableIOIterator<CharSequence> reusableLines(@NonNull Charset charset, @NonNull ProcessBuilder processBuilder, @NonNull Executor errorExecutor) throws IOException {
+        return new LineIterator<>(newProcessInputStream(processBuilder, errorExecutor), charset, line -> line);
+    }
+
+    private static ProcessInputStream newProcessInputStream(ProcessBuilder processBuilder, Executor errorExecutor) throws IOException {
+        Process process = processBuilder.start();
+        return new ProcessInputStream(process, ErrorPump.start(process, errorExecutor));
+    }
+
+    private static void startErrorPumpThread(Runnable pump) {
+        Thread result = new Thread(pump, "nbbrd-io-process-error-pump");
+        result.setDaemon(true);
+        result.start();
+    }
+
     private static Charset getSystemCharset() {
         return Charset.defaultCharset();
     }
 
+    // drained bytes are discarded, so this buffer can be shared between threads
+    private static final byte[] DRAIN_BUFFER = new byte[InternalResource.DEFAULT_BUFFER_SIZE];
+
+    private static final int ERROR_TAIL_SIZE = 16 * 1024;
+
     private static final class ProcessInputStream extends FilterInputStream {
 
         private final Process process;
+        private final @Nullable ErrorPump errorPump;
 
-        public ProcessInputStream(Process process) {
+        public ProcessInputStream(Process process, @Nullable ErrorPump errorPump) {
             super(process.getInputStream());
             this.process = process;
+            this.errorPump = errorPump;
         }
 
         @Override
@@ -95,10 +213,27 @@ public final class ProcessReader {
             }
         }
 
+        /**
+         * Destroys the process instead of reading the rest of its output.
+         * Its exit value is then irrelevant and is not checked.
+         */
+        void abort() throws IOException {
+            try {
+                process.destroy();
+                try {
+                    process.waitFor();
+                } catch (InterruptedException ex) {
+                    throw new IOException(ex);
+                }
+            } finally {
+                super.close();
+            }
+        }
+
         // we need the process to end, else we'll get an illegal Thread State Exception
         @SuppressWarnings("StatementWithEmptyBody")
         private void readUntilEnd() throws IOException {
-            while (super.read() != -1) {
+            while (in.read(DRAIN_BUFFER, 0, DRAIN_BUFFER.length) != -1) {
             }
         }
 
@@ -108,9 +243,149 @@ public final class ProcessReader {
             } catch (InterruptedException ex) {
                 throw new IOException(ex);
             }
-            if (process.exitValue() != 0) {
+            if (errorPump != null) {
+                String errorMessage = errorPump.awaitTail();
+                if (process.exitValue() != 0) {
+                    throw EndOfProcessException.of(process.exitValue(), errorMessage);
+                }
+            } else if (process.exitValue() != 0) {
                 throw EndOfProcessException.of(process);
             }
         }
     }
+
+    private static final class LineIterator<E> extends AbstractIOIterator<E> implements CloseableIOIterator<E> {
+
+        private final ProcessInputStream stream;
+        private final Reader reader;
+        private final Function<StringBuilder, E> mapper;
+        private final char[] buffer = new char[InternalResource.DEFAULT_BUFFER_SIZE];
+        private final StringBuilder line = new StringBuilder();
+        private int position = 0;
+        private int limit = 0;
+        private boolean skipLineFeed = false;
+        private boolean ended = false;
+
+        LineIterator(ProcessInputStream stream, Charset charset, Function<StringBuilder, E> mapper) {
+            this.stream = stream;
+            this.reader = new InputStreamReader(stream, charset);
+            this.mapper = mapper;
+        }
+
+        @Override
+        protected E get() {
+            return mapper.apply(line);
+        }
+
+        @Override
+        protected boolean moveNext() throws IOException {
+            line.setLength(0);
+            boolean started = false;
+            while (true) {
+                if (position >= limit && !fill()) {
+                    return started;
+                }
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (buffer[position] == '\n') {
+                        position++;
+                        continue;
+                    }
+                }
+                started = true;
+                int start = position;
+                while (position < limit) {
+                    char c = buffer[position];
+                    if (c == '\n' || c == '\r') {
+                        line.append(buffer, start, position - start);
+                        position++;
+                        skipLineFeed = c == '\r';
+                        return true;
+                    }
+                    position++;
+                }
+                line.append(buffer, start, position - start);
+            }
+        }
+
+        private boolean fill() throws IOException {
+            int read = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            limit = Math.max(read, 0);
+            if (read == -1) {
+                ended = true;
+            }
+            return read > 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (ended) {
+                reader.close();
+            } else {
+                stream.abort();
+            }
+        }
+    }
+
+    private static final class ErrorPump {
+
+        static ErrorPump start(Process process, Executor executor) {
+            ErrorPump result = new ErrorPump(process.getErrorStream());
+            result.task = CompletableFuture.runAsync(result::pump, executor);
+            return result;
+        }
+
+        private final InputStream stream;
+        private final byte[] ring = new byte[ERROR_TAIL_SIZE];
+        private long count = 0;
+        private CompletableFuture<Void> task;
+
+        private ErrorPump(InputStream stream) {
+            this.stream = stream;
+        }
+
+        private void pump() {
+            byte[] buffer = new byte[InternalResource.DEFAULT_BUFFER_SIZE];
+            try (InputStream input = stream) {
+                int read;
+                while ((read = input.read(buffer, 0, buffer.length)) != -1) {
+                    append(buffer, read);
+                }
+            } catch (IOException ignore) {
+                // the error stream is only informative
+            }
+        }
+
+        private synchronized void append(byte[] buffer, int length) {
+            int offset = Math.max(0, length - ring.length);
+            int remaining = length - offset;
+            int position = (int) (count % ring.length);
+            int first = Math.min(remaining, ring.length - position);
+            System.arraycopy(buffer, offset, ring, position, first);
+            System.arraycopy(buffer, offset + first, ring, 0, remaining - first);
+            count += remaining;
+        }
+
+        String awaitTail() throws IOException {
+            try {
+                task.get();
+            } catch (InterruptedException ex) {
+                throw new IOException(ex);
+            } catch (ExecutionException ex) {
+                throw new IOException(ex.getCause());
+            }
+            return getTail();
+        }
+
+        private synchronized String getTail() {
+            int length = (int) Math.min(count, ring.length);
+            byte[] result = new byte[length];
+            int start = (int) ((count - length) % ring.length);
+            int first = Math.min(length, ring.length - start);
+            System.arraycopy(ring, start, result, 0, first);
+            System.arraycopy(ring, 0, result, first, length - first);
+            return new String(result, Charset.defaultCharset()).trim();
+        }
+    }
 }
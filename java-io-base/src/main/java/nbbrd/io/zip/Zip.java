@@ -17,14 +17,32 @@
 package nbbrd.io.zip;
 
 import internal.io.InternalResource;
+import internal.io.UncloseableInputStream;
+import internal.io.zip.ParallelZipWriter;
+import lombok.AccessLevel;
 import lombok.NonNull;
+import nbbrd.io.AbstractIOIterator;
+import nbbrd.io.CloseableIOIterator;
+import nbbrd.io.FileFormatter;
 import nbbrd.io.Resource;
+import nbbrd.io.function.IOConsumer;
 import nbbrd.io.function.IOPredicate;
+import nbbrd.io.function.IOSupplier;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.BiConsumer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
@@ -62,6 +80,292 @@ public class Zip {
         return Resource.Loader.of(o -> getInputStream(data, o));
     }
 
+    /**
+     * Creates a new iterator over the entries of a zip stream.
+     * The content of an entry is only read on demand and remains readable until the iterator advances.
+     * Closing the iterator closes the underlying stream.
+     *
+     * @param inputStream non-null content of zip file
+     * @param filter      non-null filter to skip some entries
+     * @return a non-null iterator
+     */
+    public @NonNull EntryIterator entries(@NonNull InputStream inputStream, @NonNull IOPredicate<? super ZipEntry> filter) {
+        return new StreamEntryIterator(new ZipInputStream(inputStream), filter);
+    }
+
+    /**
+     * Creates a new iterator over the entries of a zip file.
+     * The content of an entry is only read on demand and remains readable until the iterator is closed.
+     * Since the file is randomly accessed, entries can be read in any order and concurrently.
+     *
+     * @param file   non-null zip file
+     * @param filter non-null filter to skip some entries
+     * @return a non-null iterator
+     * @throws IOException
+     */
+    public @NonNull EntryIterator entries(@NonNull Path file, @NonNull IOPredicate<? super ZipEntry> filter) throws IOException {
+        return new FileEntryIterator(new ZipFile(file.toFile()), filter);
+    }
+
+    /**
+     * Extracts all the entries of a zip file into a target directory.
+     * Entries are inflated concurrently on the specified executor.
+     *
+     * @param file     non-null zip file
+     * @param target   non-null target directory
+     * @param executor non-null executor used to inflate entries
+     * @throws IOException if an entry cannot be extracted or lies outside the target directory
+     */
+    public void extractAll(@NonNull Path file, @NonNull Path target, @NonNull Executor executor) throws IOException {
+        Path root = target.toAbsolutePath().normalize();
+        try (EntryIterator entries = entries(file, IOPredicate.of(true))) {
+            // set on the first failure so that pending entries are skipped
+            AtomicBoolean aborted = new AtomicBoolean(false);
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            try {
+                while (entries.hasNextWithIO()) {
+                    Entry entry = entries.nextWithIO();
+                    Path destination = resolveEntry(root, entry.getName());
+                    if (entry.getMetadata().isDirectory()) {
+                        Files.createDirectories(destination);
+                    } else {
+                        tasks.add(CompletableFuture.runAsync(() -> extractEntry(entry, destination, aborted), executor));
+                    }
+                }
+            } catch (IOException | RuntimeException | Error ex) {
+                // the zip file must outlive the running entries
+                aborted.set(true);
+                awaitAll(tasks).exceptionally(ignore -> null).join();
+                throw ex;
+            }
+            join(awaitAll(tasks));
+        }
+    }
+
+    /**
+     * Creates a new writer that deflates entries concurrently on the specified executor.
+     * Entries are written in the order they are submitted.
+     * Each entry is deflated in memory, so its deflated size must stay well below 2 GB.
+     * Once an entry fails, the writer rejects further entries and throws on close.
+     * Closing the writer closes the underlying stream.
+     *
+     * @param outputStream non-null target of zip file
+     * @param executor     non-null executor used to deflate entries
+     * @return a non-null writer
+     */
+    public @NonNull Writer writerOf(@NonNull OutputStream outputStream, @NonNull Executor executor) {
+        return writerOf(outputStream, executor, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Creates a new writer that deflates entries concurrently on the specified executor
+     * at the specified compression level.
+     *
+     * @param outputStream non-null target of zip file
+     * @param executor     non-null executor used to deflate entries
+     * @param level        compression level from {@link Deflater#NO_COMPRESSION} to {@link Deflater#BEST_COMPRESSION},
+     *                     or {@link Deflater#DEFAULT_COMPRESSION}
+     * @return a non-null writer
+     * @throws IllegalArgumentException if the level is invalid
+     * @see #writerOf(OutputStream, Executor)
+     */
+    public @NonNull Writer writerOf(@NonNull OutputStream outputStream, @NonNull Executor executor, int level) {
+        return new ParallelZipWriter(outputStream, executor, level, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * A writer of zip entries.
+     */
+    public interface Writer extends Closeable {
+
+        /**
+         * Adds an entry to the archive.
+         * The content is written asynchronously, possibly on another thread, before this writer is closed.
+         * A name ending with a slash denotes a directory.
+         *
+         * @param name    non-null name of the entry
+         * @param content non-null function that writes the content of the entry
+         * @throws IOException
+         */
+        void put(@NonNull String name, @NonNull IOConsumer<? super OutputStream> content) throws IOException;
+
+        /**
+         * Adds an entry to the archive whose content is emitted by a formatter.
+         *
+         * @param name      non-null name of the entry
+         * @param formatter non-null formatter
+         * @param value     non-null value to format
+         * @param <T>       the type of the value
+         * @throws IOException
+         */
+        default <T> void put(@NonNull String name, @NonNull FileFormatter<T> formatter, @NonNull T value) throws IOException {
+            put(name, stream -> formatter.formatStream(value, stream));
+        }
+    }
+
+    /**
+     * A closeable iterator over zip entries.
+     */
+    public interface EntryIterator extends CloseableIOIterator<Entry> {
+    }
+
+    /**
+     * A zip entry whose content is read lazily.
+     */
+    @lombok.AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Entry {
+
+        @lombok.Getter
+        private final @NonNull ZipEntry metadata;
+
+        private final @NonNull IOSupplier<? extends InputStream> content;
+
+        public @NonNull String getName() {
+            return metadata.getName();
+        }
+
+        /**
+         * Opens the content of this entry.
+         *
+         * @return a non-null input stream
+         * @throws IOException
+         * @throws IllegalStateException if the content is no longer readable
+         */
+        public @NonNull InputStream openStream() throws IOException, IllegalStateException {
+            return InternalResource.openInputStream(content);
+        }
+    }
+
+    private static final class StreamEntryIterator extends AbstractIOIterator<Entry> implements EntryIterator {
+
+        private final ZipInputStream zis;
+        private final IOPredicate<? super ZipEntry> filter;
+        private ZipEntry current = null;
+        private int position = 0;
+
+        StreamEntryIterator(ZipInputStream zis, IOPredicate<? super ZipEntry> filter) {
+            this.zis = zis;
+            this.filter = filter;
+        }
+
+        @Override
+        protected boolean moveNext() throws IOException {
+            while ((current = zis.getNextEntry()) != null) {
+                position++;
+                if (filter.testWithIO(current)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        protected Entry get() {
+            ZipEntry entry = current;
+            int expected = position;
+            return new Entry(entry, () -> {
+                if (expected != position) {
+                    throw new IllegalStateException("Entry '" + entry.getName() + "' is no longer readable");
+                }
+                return new UncloseableInputStream(zis);
+            });
+        }
+
+        @Override
+        public void close() throws IOException {
+            zis.close();
+        }
+    }
+
+    private static final class FileEntryIterator extends AbstractIOIterator<Entry> implements EntryIterator {
+
+        private final ZipFile zipFile;
+        private final Enumeration<? extends ZipEntry> entries;
+        private final IOPredicate<? super ZipEntry> filter;
+        private ZipEntry current = null;
+
+        FileEntryIterator(ZipFile zipFile, IOPredicate<? super ZipEntry> filter) {
+            this.zipFile = zipFile;
+            this.entries = zipFile.entries();
+            this.filter = filter;
+        }
+
+        @Override
+        protected boolean moveNext() throws IOException {
+            while (entries.hasMoreElements()) {
+                current = entries.nextElement();
+                if (filter.testWithIO(current)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        protected Entry get() {
+            ZipEntry entry = current;
+            return new Entry(entry, () -> zipFile.getInputStream(entry));
+        }
+
+        @Override
+        public void close() throws IOException {
+            zipFile.close();
+        }
+    }
+
+    private Path resolveEntry(Path root, String name) throws IOException {
+        Path result = root.resolve(name).normalize();
+        if (!result.startsWith(root)) {
+            throw new IOException("Entry '" + name + "' is outside of target directory");
+        }
+        return result;
+    }
+
+    private void extractEntry(Entry entry, Path destination, AtomicBoolean aborted) {
+        if (aborted.get()) {
+            return;
+        }
+        try {
+            Files.createDirectories(destination.getParent());
+            try (InputStream input = entry.openStream(); OutputStream output = Files.newOutputStream(destination)) {
+                InternalResource.transferTo(input, output);
+            } catch (IOException | RuntimeException ex) {
+                deleteQuietly(destination, ex);
+                throw ex;
+            }
+        } catch (IOException ex) {
+            aborted.set(true);
+            throw new UncheckedIOException(ex);
+        } catch (RuntimeException ex) {
+            aborted.set(true);
+            throw ex;
+        }
+    }
+
+    private void deleteQuietly(Path file, Exception cause) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            cause.addSuppressed(ex);
+        }
+    }
+
+    private CompletableFuture<Void> awaitAll(List<CompletableFuture<Void>> tasks) {
+        return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private void join(CompletableFuture<Void> task) throws IOException {
+        try {
+            task.join();
+        } catch (CompletionException | CancellationException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new IOException("Failed to extract entries", cause != null ? cause : ex);
+        }
+    }
+
     private InputStream getInputStream(ZipFile zipFile, String name) throws IOException {
         ZipEntry result = zipFile.getEntry(name);
         if (result == null) {
@@ -80,28 +384,24 @@ public class Zip {
 
     private Map<String, byte[]> copyOf(InputStream stream, IOPredicate<? super ZipEntry> filter) throws IOException {
         Map<String, byte[]> result = new HashMap<>();
-        try (ZipInputStream zis = new ZipInputStream(stream)) {
-            Zip.forEach(zis, filter, (k, v) -> result.put(k.getName(), v));
-        }
-        return result;
-    }
-
-    private void forEach(ZipInputStream zis, IOPredicate<? super ZipEntry> filter, BiConsumer<ZipEntry, byte[]> consumer) throws IOException {
-        ZipEntry entry;
-        while ((entry = zis.getNextEntry()) != null) {
-            if (filter.testWithIO(entry)) {
-                consumer.accept(entry, Zip.toByteArray(entry, zis));
+        try (EntryIterator entries = entries(stream, filter)) {
+            while (entries.hasNextWithIO()) {
+                Entry entry = entries.nextWithIO();
+                result.put(entry.getName(), Zip.toByteArray(entry));
             }
         }
+        return result;
     }
 
-    private byte[] toByteArray(ZipEntry entry, ZipInputStream stream) throws IOException {
-        long size = entry.getSize();
+    private byte[] toByteArray(Entry entry) throws IOException {
+        long size = entry.getMetadata().getSize();
         if (size >= Integer.MAX_VALUE) {
             throw new IOException("ZIP entry size is too large");
         }
         ByteArrayOutputStream result = new ByteArrayOutputStream(size > 0 ? (int) size : InternalResource.DEFAULT_BUFFER_SIZE);
-        InternalResource.transferTo(stream, result);
+        try (InputStream stream = entry.openStream()) {
+            InternalResource.transferTo(stream, result);
+        }
         return result.toByteArray();
     }
 }
@@ -0,0 +1,199 @@
+package nbbrd.io.sys;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.*;
+
+public class ProcessPoolTest {
+
+    @SuppressWarnings("DataFlowIssue")
+    @Test
+    public void testBuilder() {
+        assertThatIllegalStateException().isThrownBy(() -> ProcessPool.builder().build());
+        assertThatIllegalArgumentException().isThrownBy(() -> ProcessPool.builder().command("cat").maxProcesses(0).build());
+        assertThatNullPointerException().isThrownBy(() -> ProcessPool.builder().processBuilder(null));
+        assertThatNullPointerException().isThrownBy(() -> ProcessPool.builder().framing(null));
+        assertThatIllegalArgumentException().isThrownBy(() -> ProcessPool.builder().command("cat").exchangeTimeout(Duration.ofSeconds(-1)).build());
+    }
+
+    @Test
+    public void testLineDelimited() throws Exception {
+        switch (OS.NAME) {
+            case LINUX:
+            case MACOS:
+            case SOLARIS:
+                try (ProcessPool pool = ProcessPool.builder().command("cat").maxProcesses(2).build()) {
+                    assertThat(pool.exchange("hello", UTF_8)).isEqualTo("hello");
+                    assertThat(pool.exchange("world", UTF_8)).isEqualTo("world");
+                    assertThat(pool.getWorkerCount()).isEqualTo(1);
+                    assertThatIOException().isThrownBy(() -> pool.exchange("a\nb", UTF_8));
+                    assertThat(pool.getWorkerCount()).isEqualTo(0);
+
+                    ExecutorService executor = Executors.newFixedThreadPool(8);
+                    try {
+                        List<Future<String>> results = new ArrayList<>();
+                        for (int i = 0; i < 100; i++) {
+                            String request = "request" + i;
+                            results.add(executor.submit(() -> pool.exchange(request, UTF_8)));
+                        }
+                        for (int i = 0; i < 100; i++) {
+                            assertThat(results.get(i).get()).isEqualTo("request" + i);
+                        }
+                    } finally {
+                        executor.shutdown();
+                    }
+                    assertThat(pool.getWorkerCount()).isBetween(1, 2);
+                }
+                break;
+        }
+    }
+
+    @Test
+    public void testLengthPrefixed() throws IOException {
+        switch (OS.NAME) {
+            case LINUX:
+            case MACOS:
+            case SOLARIS:
+                try (ProcessPool pool = ProcessPool.builder().command("cat").framing(ProcessPool.Framing.lengthPrefixed()).build()) {
+                    byte[] request = {0, 1, '\n', 3, '\r'};
+                    assertThat(pool.exchange(request)).containsExactly(request);
+                    assertThat(pool.exchange(new byte[0])).isEmpty();
+                }
+                break;
+        }
+    }
+
+    @Test
+    public void testHealthAndEviction() throws Exception {
+        switch (OS.NAME) {
+            case LINUX:
+            case MACOS:
+            case SOLARIS:
+                List<Process> seen = new ArrayList<>();
+                try (ProcessPool pool = ProcessPool.builder()
+                        .command("cat")
+                        .healthCheck(worker -> {
+                            seen.add(worker.getProcess());
+                            return "ping".equals(new String(worker.exchange("ping".getBytes(UTF_8)), UTF_8));
+                        })
+                        .build()) {
+                    assertThat(pool.exchange("hello", UTF_8)).isEqualTo("hello");
+                    assertThat(pool.exchange("hello", UTF_8)).isEqualTo("hello");
+                    assertThat(seen).hasSize(1);
+
+                    seen.get(0).destroy();
+                    seen.get(0).waitFor();
+                    assertThat(pool.exchange("hello", UTF_8)).isEqualTo("hello");
+                    assertThat(pool.getWorkerCount()).isEqualTo(1);
+                }
+
+                try (ProcessPool pool = ProcessPool.builder().command("cat").idleTimeout(Duration.ofMillis(10)).build()) {
+                    assertThat(pool.exchange("hello", UTF_8)).isEqualTo("hello");
+                    assertThat(pool.getIdleWorkerCount()).isEqualTo(1);
+
+                    Thread.sleep(100);
+                    pool.evictIdleWorkers();
+                    assertThat(pool.getIdleWorkerCount()).isEqualTo(0);
+                    assertThat(pool.getWorkerCount()).isEqualTo(0);
+                }
+                break;
+        }
+    }
+
+    @Test
+    public void testScheduledEviction() throws Exception {
+        switch (OS.NAME) {
+            case LINUX:
+            case MACOS:
+            case SOLARIS:
+                try (ProcessPool pool = ProcessPool.builder().command("cat").idleTimeout(Duration.ofMillis(10)).build()) {
+                    assertThat(pool.exchange("hello", UTF_8)).isEqualTo("hello");
+                    long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+                    while (pool.getWorkerCount() > 0 && System.nanoTime() < deadline) {
+                        Thread.sleep(10);
+                    }
+                    assertThat(pool.getIdleWorkerCount()).isEqualTo(0);
+                    assertThat(pool.getWorkerCount()).isEqualTo(0);
+                }
+                break;
+        }
+    }
+
+    @Test
+    public void testExchangeTimeout() throws Exception {
+        switch (OS.NAME) {
+            case LINUX:
+            case MACOS:
+            case SOLARIS:
+                try (ProcessPool pool = ProcessPool.builder().command("sleep", "60").exchangeTimeout(Duration.ofMillis(100)).build()) {
+                    long start = System.nanoTime();
+                    assertThatIOException()
+                            .isThrownBy(() -> pool.exchange("hello", UTF_8))
+                            .withMessage("Timed out exchanging with a worker process");
+                    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(30));
+                    assertThat(pool.getWorkerCount()).isEqualTo(0);
+                }
+
+                try (ProcessPool pool = ProcessPool.builder().command("cat").exchangeTimeout(Duration.ofSeconds(30)).build()) {
+                    assertThat(pool.exchange("hello", UTF_8)).isEqualTo("hello");
+                    assertThat(pool.getIdleWorkerCount()).isEqualTo(1);
+                }
+                break;
+        }
+    }
+
+    @Test
+    public void testChattyWorker() throws Exception {
+        switch (OS.NAME) {
+            case LINUX:
+            case MACOS:
+            case SOLARIS:
+                // writes more than a pipe buffer to its standard error before answering
+                try (ProcessPool pool = ProcessPool.builder().command("sh", "-c", "head -c 1000000 /dev/zero >&2; cat").exchangeTimeout(Duration.ofSeconds(30)).build()) {
+                    assertThat(pool.exchange("hello", UTF_8)).isEqualTo("hello");
+                }
+                break;
+        }
+    }
+
+    @Test
+    public void testInterruptedAcquire() throws IOException {
+        try (ProcessPool pool = ProcessPool.builder().command("cat").build()) {
+            Thread.currentThread().interrupt();
+            try {
+                assertThatExceptionOfType(InterruptedIOException.class)
+                        .isThrownBy(() -> pool.exchange("hello", UTF_8))
+                        .withCauseInstanceOf(InterruptedException.class);
+                assertThat(Thread.currentThread().isInterrupted()).isTrue();
+            } finally {
+                Thread.interrupted();
+            }
+            assertThat(pool.getWorkerCount()).isEqualTo(0);
+        }
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        switch (OS.NAME) {
+            case LINUX:
+            case MACOS:
+            case SOLARIS:
+                ProcessPool pool = ProcessPool.builder().command("cat").build();
+                assertThat(pool.exchange("hello", UTF_8)).isEqualTo("hello");
+                pool.close();
+                assertThat(pool.getWorkerCount()).isEqualTo(0);
+                assertThatIOException().isThrownBy(() -> pool.exchange("hello", UTF_8)).withMessage("Pool closed");
+                break;
+        }
+    }
+}
@@ -1,15 +1,23 @@
 package nbbrd.io.sys;
 
+import nbbrd.io.CloseableIOIterator;
 import org.junit.jupiter.api.Test;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static nbbrd.io.sys.ProcessReader.lines;
 import static nbbrd.io.sys.ProcessReader.newReader;
 import static nbbrd.io.sys.ProcessReader.readToString;
+import static nbbrd.io.sys.ProcessReader.reusableLines;
 import static org.assertj.core.api.Assertions.*;
 
 public class ProcessReaderTest {
@@ -26,6 +34,18 @@ public class ProcessReaderTest {
         assertThatNullPointerException().isThrownBy(() -> newReader(UTF_8, (Process) null));
         assertThatNullPointerException().isThrownBy(() -> readToString(UTF_8, (String[]) null));
         assertThatNullPointerException().isThrownBy(() -> readToString(UTF_8, (Process) null));
+
+        assertThatNullPointerException().isThrownBy(() -> newReader(UTF_8, (ProcessBuilder) null));
+        assertThatNullPointerException().isThrownBy(() -> newReader(null, new ProcessBuilder()));
+        assertThatNullPointerException().isThrownBy(() -> newReader(UTF_8, null, Runnable::run));
+        assertThatNullPointerException().isThrownBy(() -> readToString(UTF_8, null, Runnable::run));
+
+        assertThatNullPointerException().isThrownBy(() -> lines(UTF_8, null));
+        assertThatNullPointerException().isThrownBy(() -> lines(null, new ProcessBuilder()));
+        assertThatNullPointerException().isThrownBy(() -> reusableLines(UTF_8, null));
+        assertThatNullPointerException().isThrownBy(() -> reusableLines(null, new ProcessBuilder()));
+        assertThatNullPointerException().isThrownBy(() -> lines(UTF_8, new ProcessBuilder(), null));
+        assertThatNullPointerException().isThrownBy(() -> reusableLines(UTF_8, new ProcessBuilder(), null));
     }
 
     @Test
@@ -71,4 +91,107 @@ public class ProcessReaderTest {
                 break;
         }
     }
+
+    @Test
+    public void testErrorPump() throws IOException {
+        switch (OS.NAME) {
+            case LINUX:
+            case MACOS:
+            case SOLARIS:
+                ExecutorService executor = Executors.newCachedThreadPool();
+                try {
+                    Process chatty = new ProcessBuilder("sh", "-c", "yes error | head -n 100000 >&2; echo done").start();
+                    assertThat(readToString(UTF_8, chatty, executor)).isEqualTo("done");
+
+                    Process failing = new ProcessBuilder("sh", "-c", "yes error | head -n 100000 >&2; exit 3").start();
+                    assertThatExceptionOfType(EndOfProcessException.class)
+                            .isThrownBy(() -> readToString(UTF_8, failing, executor))
+                            .withMessageStartingWith("Invalid exit value")
+                            .matches(ex -> ex.getExitValue() == 3)
+                            .matches(ex -> ex.getErrorMessage().endsWith("error"))
+                            .matches(ex -> ex.getErrorMessage().length() <= 16 * 1024);
+                } finally {
+                    executor.shutdown();
+                }
+
+                try (BufferedReader reader = newReader(UTF_8, new ProcessBuilder("sh", "-c", "yes error | head -n 100000 >&2; echo done"))) {
+                    assertThat(reader.readLine()).isEqualTo("done");
+                }
+                break;
+        }
+    }
+
+    @Test
+    public void testLines() throws IOException {
+        switch (OS.NAME) {
+            case LINUX:
+            case MACOS:
+            case SOLARIS:
+                try (CloseableIOIterator<String> lines = lines(UTF_8, new ProcessBuilder("sh", "-c", "printf 'a\\nb\\r\\n\\r\\nc'"))) {
+                    assertThat(lines.asUnchecked()).toIterable().containsExactly("a", "b", "", "c");
+                }
+
+                try (CloseableIOIterator<CharSequence> lines = reusableLines(UTF_8, new ProcessBuilder("sh", "-c", "seq 1 100000"))) {
+                    long count = 0;
+                    CharSequence first = null;
+                    while (lines.hasNextWithIO()) {
+                        CharSequence line = lines.nextWithIO();
+                        if (first == null) {
+                            first = line;
+                        }
+                        assertThat(line).isSameAs(first);
+                        count++;
+                        assertThat(line.toString()).isEqualTo(Long.toString(count));
+                    }
+                    assertThat(count).isEqualTo(100000);
+                }
+
+                List<String> output = new ArrayList<>();
+                assertThatExceptionOfType(EndOfProcessException.class)
+                        .isThrownBy(() -> {
+                            try (CloseableIOIterator<String> lines = lines(UTF_8, new ProcessBuilder("sh", "-c", "echo hello; exit 3"))) {
+                                lines.forEachRemainingWithIO(output::add);
+                            }
+                        })
+                        .matches(ex -> ex.getExitValue() == 3);
+                assertThat(output).containsExactly("hello");
+                break;
+        }
+    }
+
+    @Test
+    public void testLinesWithChattyError() throws IOException {
+        switch (OS.NAME) {
+            case LINUX:
+            case MACOS:
+            case SOLARIS:
+                // more than a pipe buffer of standard error before the standard output
+                try (CloseableIOIterator<String> lines = lines(UTF_8, new ProcessBuilder("sh", "-c", "head -c 1000000 /dev/zero | tr '\\0' x >&2; echo done"))) {
+                    assertThat(lines.asUnchecked()).toIterable().containsExactly("done");
+                }
+
+                assertThatExceptionOfType(EndOfProcessException.class)
+                        .isThrownBy(() -> {
+                            try (CloseableIOIterator<CharSequence> lines = reusableLines(UTF_8, new ProcessBuilder("sh", "-c", "echo boom >&2; exit 2"))) {
+                                lines.forEachRemainingWithIO(line -> {});
+                            }
+                        })
+                        .withMessageContaining("boom");
+                break;
+        }
+    }
+
+    @Test
+    public void testLinesEarlyClose() throws IOException {
+        switch (OS.NAME) {
+            case LINUX:
+            case MACOS:
+            case SOLARIS:
+                // an endless process is destroyed instead of being read until its end
+                try (CloseableIOIterator<String> lines = lines(UTF_8, new ProcessBuilder("yes"))) {
+                    assertThat(lines.nextWithIO()).isEqualTo("y");
+                }
+                break;
+        }
+    }
 }
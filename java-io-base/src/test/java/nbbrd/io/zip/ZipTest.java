@@ -16,6 +16,7 @@
  */
 package nbbrd.io.zip;
 
+import nbbrd.io.FileFormatter;
 import nbbrd.io.Resource;
 import nbbrd.io.function.IOPredicate;
 import nbbrd.io.text.TextResource;
@@ -29,7 +30,21 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
+import static _test.io.Util.nullOutputStream;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static nbbrd.io.Resource.newInputStream;
 import static org.assertj.core.api.Assertions.*;
@@ -110,4 +125,237 @@ public class ZipTest {
             });
         }
     }
+
+    @Test
+    @SuppressWarnings("null")
+    public void testEntriesOfStream() throws IOException {
+        assertThatNullPointerException().isThrownBy(() -> Zip.entries((InputStream) null, IOPredicate.of(true)));
+        assertThatNullPointerException().isThrownBy(() -> Zip.entries(newInputStream(ZipTest.class, "test.zip"), null));
+
+        try (Zip.EntryIterator entries = Zip.entries(newInputStream(ZipTest.class, "test.zip"), o -> !o.isDirectory())) {
+            assertThat(entries.hasNextWithIO()).isTrue();
+            Zip.Entry first = entries.nextWithIO();
+            assertThat(first.getName()).isEqualTo("folder1/world.txt");
+            try (InputStream stream = first.openStream()) {
+                assertThat(TextResource.newBufferedReader(stream, UTF_8).lines()).containsExactly("world");
+            }
+
+            assertThat(entries.hasNextWithIO()).isTrue();
+            assertThatIllegalStateException().isThrownBy(first::openStream);
+
+            Zip.Entry second = entries.nextWithIO();
+            assertThat(second.getName()).isEqualTo("hello.txt");
+            try (InputStream stream = second.openStream()) {
+                assertThat(TextResource.newBufferedReader(stream, UTF_8).lines()).containsExactly("hello");
+            }
+
+            assertThat(entries.hasNextWithIO()).isFalse();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("null")
+    public void testEntriesOfPath() throws IOException {
+        assertThatNullPointerException().isThrownBy(() -> Zip.entries((Path) null, IOPredicate.of(true)));
+        assertThatNullPointerException().isThrownBy(() -> Zip.entries(FILE.toPath(), null));
+
+        List<Zip.Entry> list = new ArrayList<>();
+        try (Zip.EntryIterator entries = Zip.entries(FILE.toPath(), o -> !o.isDirectory())) {
+            entries.forEachRemainingWithIO(list::add);
+            assertThat(list).extracting(Zip.Entry::getName).containsExactlyInAnyOrder("folder1/world.txt", "hello.txt");
+            for (int i = list.size() - 1; i >= 0; i--) {
+                try (InputStream stream = list.get(i).openStream()) {
+                    assertThat(TextResource.newBufferedReader(stream, UTF_8).lines()).containsExactly(list.get(i).getName().equals("hello.txt") ? "hello" : "world");
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testExtractAll(@TempDir Path temp) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Path target = temp.resolve("target");
+            Zip.extractAll(FILE.toPath(), target, executor);
+            assertThat(target.resolve("hello.txt")).hasContent("hello");
+            assertThat(target.resolve("folder1").resolve("world.txt")).hasContent("world");
+
+            Path evil = temp.resolve("evil.zip");
+            try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(evil))) {
+                zos.putNextEntry(new ZipEntry("../evil.txt"));
+                zos.write("evil".getBytes(UTF_8));
+                zos.closeEntry();
+            }
+            assertThatIOException().isThrownBy(() -> Zip.extractAll(evil, temp.resolve("other"), executor));
+            assertThat(temp.resolve("evil.txt")).doesNotExist();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testExtractAllFailureAwaitsPendingEntries(@TempDir Path temp) throws IOException {
+        Path evil = temp.resolve("evil.zip");
+        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(evil))) {
+            for (String name : new String[]{"a.txt", "b.txt", "../evil.txt"}) {
+                zos.putNextEntry(new ZipEntry(name));
+                zos.write(name.getBytes(UTF_8));
+                zos.closeEntry();
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AtomicInteger submitted = new AtomicInteger();
+        AtomicInteger started = new AtomicInteger();
+        try {
+            // entries start late, once the loop has already failed
+            Executor delayed = task -> {
+                submitted.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        Thread.sleep(200);
+                        // counted before running since extractAll returns as soon as the task completes
+                        started.incrementAndGet();
+                        task.run();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            };
+
+            Path target = temp.resolve("target");
+            assertThatIOException().isThrownBy(() -> Zip.extractAll(evil, target, delayed));
+            assertThat(started).hasValue(submitted.get()).hasValue(2);
+            assertThat(target.resolve("a.txt")).doesNotExist();
+            assertThat(target.resolve("b.txt")).doesNotExist();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("null")
+    public void testWriterOf(@TempDir Path temp) throws IOException {
+        assertThatNullPointerException().isThrownBy(() -> Zip.writerOf(null, Runnable::run));
+        assertThatNullPointerException().isThrownBy(() -> Zip.writerOf(nullOutputStream(), null));
+
+        FileFormatter<String> formatter = FileFormatter.onFormattingStream((value, stream) -> stream.write(value.getBytes(UTF_8)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Path file = temp.resolve("out.zip");
+            try (Zip.Writer writer = Zip.writerOf(Files.newOutputStream(file), executor)) {
+                writer.put("folder1/", stream -> {
+                });
+                for (int i = 0; i < 100; i++) {
+                    writer.put("folder1/file" + i + ".txt", formatter, "hello" + i);
+                }
+                writer.put("empty.txt", stream -> {
+                });
+                assertThatIOException().isThrownBy(() -> writer.put("empty.txt", stream -> {
+                }));
+            }
+
+            try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(file))) {
+                assertThat(zis.getNextEntry()).extracting(ZipEntry::getName, ZipEntry::isDirectory).containsExactly("folder1/", true);
+                for (int i = 0; i < 100; i++) {
+                    assertThat(zis.getNextEntry()).extracting(ZipEntry::getName).isEqualTo("folder1/file" + i + ".txt");
+                    assertThat(TextResource.newBufferedReader(Resource.uncloseableInputStream(zis), UTF_8).lines()).containsExactly("hello" + i);
+                }
+                assertThat(zis.getNextEntry()).extracting(ZipEntry::getName, ZipEntry::getSize).containsExactly("empty.txt", 0L);
+                assertThat(zis.getNextEntry()).isNull();
+            }
+
+            try (ZipFile zipFile = new ZipFile(file.toFile())) {
+                assertThat(zipFile.size()).isEqualTo(102);
+                ZipEntry entry = zipFile.getEntry("folder1/file42.txt");
+                assertThat(entry.getSize()).isEqualTo(7);
+                try (InputStream stream = zipFile.getInputStream(entry)) {
+                    assertThat(TextResource.newBufferedReader(stream, UTF_8).lines()).containsExactly("hello42");
+                }
+            }
+
+            Path failing = temp.resolve("failing.zip");
+            assertThatIOException().isThrownBy(() -> {
+                try (Zip.Writer writer = Zip.writerOf(Files.newOutputStream(failing), executor)) {
+                    writer.put("error.txt", stream -> {
+                        throw new IOException("boom");
+                    });
+                }
+            }).withMessage("boom");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testWriterOfFailedEntry(@TempDir Path temp) throws IOException {
+        Path file = temp.resolve("failed.zip");
+        Zip.Writer writer = Zip.writerOf(Files.newOutputStream(file), Runnable::run);
+        writer.put("first.txt", stream -> stream.write(1));
+        assertThatIOException()
+                .isThrownBy(() -> writer.put("error.txt", stream -> {
+                    throw new IOException("boom");
+                }))
+                .withMessage("boom");
+        assertThatIOException()
+                .isThrownBy(() -> writer.put("last.txt", stream -> stream.write(2)))
+                .withMessage("Writer failed");
+        assertThatIOException()
+                .isThrownBy(writer::close)
+                .isInstanceOf(ZipException.class)
+                .withMessage("Incomplete archive after a failed entry");
+        writer.close();
+    }
+
+    @Test
+    public void testWriterOfLevel(@TempDir Path temp) throws IOException {
+        assertThatIllegalArgumentException().isThrownBy(() -> Zip.writerOf(nullOutputStream(), Runnable::run, 10));
+
+        byte[] content = new byte[10_000];
+        Path stored = temp.resolve("stored.zip");
+        try (Zip.Writer writer = Zip.writerOf(Files.newOutputStream(stored), Runnable::run, Deflater.NO_COMPRESSION)) {
+            writer.put("zeros.bin", stream -> stream.write(content));
+        }
+        Path deflated = temp.resolve("deflated.zip");
+        try (Zip.Writer writer = Zip.writerOf(Files.newOutputStream(deflated), Runnable::run, Deflater.BEST_COMPRESSION)) {
+            writer.put("zeros.bin", stream -> stream.write(content));
+        }
+        assertThat(Files.size(stored)).isGreaterThan(content.length);
+        assertThat(Files.size(deflated)).isLessThan(content.length / 10);
+    }
+
+    @Test
+    public void testWriterOfLongName() throws IOException {
+        char[] name = new char[0x8000];
+        Arrays.fill(name, '\u00e9');
+        try (Zip.Writer writer = Zip.writerOf(nullOutputStream(), Runnable::run)) {
+            assertThatIOException()
+                    .isThrownBy(() -> writer.put(new String(name), stream -> {
+                    }))
+                    .isInstanceOf(ZipException.class)
+                    .withMessage("Entry name too long");
+            writer.put(new String(name, 0, 0x7FFF), stream -> {
+            });
+        }
+    }
+
+    @Test
+    public void testWriterOfZip64(@TempDir Path temp) throws IOException {
+        int count = 0x10000 + 10;
+        Path file = temp.resolve("zip64.zip");
+        try (Zip.Writer writer = Zip.writerOf(Files.newOutputStream(file), Runnable::run)) {
+            for (int i = 0; i < count; i++) {
+                int value = i;
+                writer.put("entry" + i, stream -> stream.write(value));
+            }
+        }
+
+        try (ZipFile zipFile = new ZipFile(file.toFile())) {
+            assertThat(zipFile.size()).isEqualTo(count);
+            try (InputStream stream = zipFile.getInputStream(zipFile.getEntry("entry" + (count - 1)))) {
+                assertThat(stream.read()).isEqualTo((count - 1) & 0xFF);
+            }
+        }
+    }
 }
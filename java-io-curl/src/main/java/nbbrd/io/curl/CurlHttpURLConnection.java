@@ -186,7 +186,7 @@ public final class CurlHttpURLConnection extends HttpURLConnection {
     }
 
     private Curl.Head executeCurlCommand(String[] command) throws IOException {
-        try (BufferedReader reader = ProcessReader.newReader(Charset.defaultCharset(), command)) {
+        try (BufferedReader reader = ProcessReader.newReader(Charset.defaultCharset(), new ProcessBuilder(command))) {
             LinkedList<Curl.Head> curlHeads = Curl.Head.parseResponse(reader);
             return curlHeads.isEmpty() ? NO_HEAD : curlHeads.getLast();
         } catch (EndOfProcessException ex) {
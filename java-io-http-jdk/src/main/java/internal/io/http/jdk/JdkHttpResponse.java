@@ -0,0 +1,76 @@
+package internal.io.http.jdk;
+
+import lombok.NonNull;
+import nbbrd.io.http.HttpHeaders;
+import nbbrd.io.http.HttpResponse;
+import nbbrd.io.http.urlconnection.UrlConnectionEncoding;
+import nbbrd.io.net.MediaType;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@lombok.RequiredArgsConstructor
+public final class JdkHttpResponse implements HttpResponse {
+
+    public static void closeQuietly(java.net.http.@NonNull HttpResponse<InputStream> response) {
+        try {
+            response.body().close();
+        } catch (IOException ex) {
+            // nothing to do
+        }
+    }
+
+    @lombok.NonNull
+    private final java.net.http.HttpResponse<InputStream> response;
+
+    @lombok.NonNull
+    private final List<UrlConnectionEncoding> decoders;
+
+    @Override
+    public @NonNull MediaType getContentType() throws IOException {
+        String contentTypeOrNull = response.headers().firstValue(HttpHeaders.HTTP_CONTENT_TYPE_HEADER).orElse(null);
+        if (contentTypeOrNull == null) return NO_CONTENT_TYPE;
+        try {
+            return MediaType.parse(contentTypeOrNull);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Invalid content-type in HTTP response header: '" + contentTypeOrNull + "'", ex);
+        }
+    }
+
+    @Override
+    public long getContentLength() {
+        return response.headers().firstValueAsLong(HttpHeaders.HTTP_CONTENT_LENGTH_HEADER).orElse(NO_CONTENT_LENGTH);
+    }
+
+    @Override
+    public @NonNull HttpHeaders getHeaders() {
+        // java.net.http already exposes a case-insensitive map, without the HTTP/2 pseudo-headers
+        return HttpHeaders.of(response.headers().map());
+    }
+
+    @Override
+    public int getStatusCode() {
+        return response.statusCode();
+    }
+
+    @Override
+    public @NonNull InputStream getBody() throws IOException {
+        String encodingOrNull = response.headers().firstValue(HttpHeaders.HTTP_CONTENT_ENCODING_HEADER).orElse(null);
+        return findDecoderByName(encodingOrNull).decode(response.body());
+    }
+
+    private @NonNull UrlConnectionEncoding findDecoderByName(@Nullable String encodingOrNull) {
+        return decoders
+                .stream()
+                .filter(decoder -> decoder.getName().equals(encodingOrNull))
+                .findFirst()
+                .orElse(UrlConnectionEncoding.noOp());
+    }
+
+    @Override
+    public void close() throws IOException {
+        response.body().close();
+    }
+}
@@ -0,0 +1,67 @@
+package internal.io.http.jdk;
+
+import lombok.NonNull;
+
+import javax.net.ssl.SSLContext;
+import java.net.ProxySelector;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JDK clients shared by all {@link nbbrd.io.http.jdk.JdkHttpClient} instances with the
+ * same connection settings, so that short-lived clients still reuse connections and
+ * HTTP/2 streams instead of each opening its own pool and selector thread.
+ * <p>
+ * Proxy selectors and SSL contexts are compared by identity, which is what the default
+ * {@link nbbrd.io.http.HttpContext} suppliers return. The number of shared clients is
+ * bounded: the least recently used one is dropped from the cache, but keeps working
+ * for the instances that already use it.
+ * </p>
+ */
+@lombok.experimental.UtilityClass
+public class JdkSharedClients {
+
+    private static final int MAX_CLIENTS = 16;
+
+    private static final Map<Key, java.net.http.HttpClient> CLIENTS = new LinkedHashMap<Key, java.net.http.HttpClient>(MAX_CLIENTS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, java.net.http.HttpClient> eldest) {
+            return size() > MAX_CLIENTS;
+        }
+    };
+
+    public java.net.http.@NonNull HttpClient getClient(
+            java.net.http.HttpClient.@NonNull Version version,
+            @NonNull ProxySelector proxySelector,
+            @NonNull SSLContext sslContext,
+            int connectTimeout) {
+        Key key = new Key(version, proxySelector, sslContext, connectTimeout);
+        synchronized (CLIENTS) {
+            return CLIENTS.computeIfAbsent(key, JdkSharedClients::newClient);
+        }
+    }
+
+    private static java.net.http.HttpClient newClient(Key key) {
+        java.net.http.HttpClient.Builder result = java.net.http.HttpClient.newBuilder()
+                .version(key.getVersion())
+                .followRedirects(java.net.http.HttpClient.Redirect.NEVER)
+                .proxy(key.getProxySelector())
+                .sslContext(key.getSslContext());
+
+        if (key.getConnectTimeout() > 0) {
+            result.connectTimeout(Duration.ofMillis(key.getConnectTimeout()));
+        }
+
+        return result.build();
+    }
+
+    @lombok.Value
+    private static class Key {
+
+        java.net.http.HttpClient.Version version;
+        ProxySelector proxySelector;
+        SSLContext sslContext;
+        int connectTimeout;
+    }
+}
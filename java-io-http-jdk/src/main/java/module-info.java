@@ -0,0 +1,18 @@
+import nbbrd.io.http.HttpClientFactory;
+import nbbrd.io.http.jdk.JdkHttpClientFactory;
+
+module nbbrd.io.http.jdk {
+
+    requires static org.jspecify;
+    requires static lombok;
+    requires static nbbrd.design;
+    requires static nbbrd.service;
+
+    requires transitive nbbrd.io.http;
+    requires transitive java.net.http;
+
+    exports nbbrd.io.http.jdk;
+
+    provides HttpClientFactory with
+            JdkHttpClientFactory;
+}
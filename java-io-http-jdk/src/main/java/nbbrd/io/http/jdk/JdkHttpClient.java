@@ -0,0 +1,350 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package nbbrd.io.http.jdk;
+
+import internal.io.http.jdk.JdkHttpResponse;
+import internal.io.http.jdk.JdkSharedClients;
+import lombok.AccessLevel;
+import lombok.NonNull;
+import nbbrd.design.NonNegative;
+import nbbrd.io.http.AsyncHttpClient;
+import nbbrd.io.http.HttpClient;
+import nbbrd.io.http.HttpHeaders;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpRequestBody;
+import nbbrd.io.http.HttpResponse;
+import nbbrd.io.http.urlconnection.UrlConnectionEncoding;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.ProxySelector;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.nio.channels.UnresolvedAddressException;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * HTTP client implementation backed by {@link java.net.http.HttpClient} (JDK 11+).
+ * <p>
+ * This is a pure transport layer: it sends requests and returns responses for
+ * any HTTP status code, never following redirects. It negotiates HTTP/2 when
+ * the server supports it, multiplexing concurrent requests to the same host over
+ * a single connection. The underlying JDK client is thread-safe and shared by
+ * all requests, so this class also implements {@link AsyncHttpClient} natively.
+ * </p>
+ * <p>
+ * Response bodies are streamed through
+ * {@link java.net.http.HttpResponse.BodyHandlers#ofInputStream()}.
+ * </p>
+ * <p>
+ * Instances with the same version, proxy selector, SSL context and connection timeout
+ * share the same JDK client, so that short-lived instances still reuse connections.
+ * </p>
+ */
+@lombok.Getter
+@lombok.Builder(toBuilder = true)
+public final class JdkHttpClient implements HttpClient, AsyncHttpClient {
+
+    /**
+     * Creates a new builder pre-configured with gzip and deflate content encoding decoders.
+     *
+     * @return a new builder with default encoding support
+     */
+    public static @NonNull Builder builder() {
+        return new Builder()
+                .decoder(UrlConnectionEncoding.gzip())
+                .decoder(UrlConnectionEncoding.deflate());
+    }
+
+    private static final int DEFAULT_TIMEOUT = 2 * 60 * 1000;
+
+    // Headers that java.net.http manages itself and rejects when set explicitly;
+    // JDK 11 also restricts some headers that were allowed in JDK 12.
+    private static final Set<String> RESTRICTED_HEADERS = Runtime.version().feature() >= 12
+            ? Set.of("connection", "content-length", "expect", "host", "upgrade")
+            : Set.of("connection", "content-length", "date", "expect", "from", "host", "origin", "referer", "upgrade", "via", "warning");
+
+    /**
+     * Read timeout in milliseconds. A value of {@code 0} means no timeout.
+     * <p>
+     * {@link java.net.http.HttpClient} only supports a timeout on receiving the
+     * response headers; reading the body is not bounded by this value.
+     * </p>
+     */
+    @NonNegative
+    @lombok.Builder.Default
+    int readTimeout = DEFAULT_TIMEOUT;
+
+    /**
+     * Connection timeout in milliseconds. A value of {@code 0} means no timeout.
+     */
+    @NonNegative
+    @lombok.Builder.Default
+    int connectTimeout = DEFAULT_TIMEOUT;
+
+    /**
+     * Proxy selector used to determine the proxy for each request.
+     */
+    @lombok.NonNull
+    @lombok.Builder.Default
+    ProxySelector proxySelector = ProxySelector.getDefault();
+
+    /**
+     * SSL context used for HTTPS connections.
+     */
+    @lombok.NonNull
+    @lombok.Builder.Default
+    SSLContext sslContext = getDefaultSSLContext();
+
+    /**
+     * Preferred HTTP version. Defaults to {@link java.net.http.HttpClient.Version#HTTP_2},
+     * which falls back to HTTP/1.1 when the server does not support HTTP/2.
+     */
+    @lombok.NonNull
+    @lombok.Builder.Default
+    java.net.http.HttpClient.Version version = java.net.http.HttpClient.Version.HTTP_2;
+
+    /**
+     * Content encoding decoders applied to response bodies (e.g. gzip, deflate).
+     */
+    @lombok.Singular
+    List<UrlConnectionEncoding> decoders;
+
+    /**
+     * User-Agent header value sent with each request, or {@code null} to omit it.
+     */
+    @lombok.Builder.Default
+    String userAgent = null;
+
+    /**
+     * Whether to normalize the request URI (collapsing {@code .} and {@code ..}
+     * path segments) before sending. Defaults to {@code false}.
+     */
+    @lombok.Builder.Default
+    boolean normalizeUri = false;
+
+    /**
+     * Lazily-resolved JDK client shared across all requests, and with compatible
+     * instances, so that connections (and HTTP/2 streams) are reused.
+     */
+    @lombok.Getter(value = AccessLevel.PRIVATE, lazy = true)
+    private final java.net.http.HttpClient client = buildClient();
+
+    @Override
+    public @NonNull String getDescription() {
+        return "JDK client";
+    }
+
+    /**
+     * Sends an HTTP request and returns the response.
+     * <p>
+     * This method returns the response for any HTTP status code (including 3xx,
+     * 4xx, 5xx). Redirect following, authentication, retry, and error-status
+     * handling are left to decorators.
+     * </p>
+     *
+     * @param request the HTTP request to send
+     * @return the HTTP response from the server
+     * @throws IOException if a network or I/O error occurs
+     */
+    @Override
+    public @NonNull HttpResponse send(@NonNull HttpRequest request) throws IOException {
+        java.net.http.HttpRequest jdkRequest = toJdkRequest(request);
+        try {
+            return toResponse(getClient().send(jdkRequest, java.net.http.HttpResponse.BodyHandlers.ofInputStream()));
+        } catch (IOException ex) {
+            throw translate(ex, jdkRequest.uri());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException result = new InterruptedIOException("Interrupted while waiting for response");
+            result.initCause(ex);
+            throw result;
+        }
+    }
+
+    /**
+     * Sends an HTTP request asynchronously.
+     * <p>
+     * No thread is blocked while waiting for the response headers. Cancelling
+     * the returned future cancels the underlying exchange.
+     * </p>
+     *
+     * @param request the HTTP request to send
+     * @return a future completed with the HTTP response from the server
+     */
+    @Override
+    public @NonNull CompletableFuture<HttpResponse> sendAsync(@NonNull HttpRequest request) {
+        CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+        java.net.http.HttpRequest jdkRequest;
+        try {
+            jdkRequest = toJdkRequest(request);
+        } catch (IOException ex) {
+            result.completeExceptionally(ex);
+            return result;
+        }
+        CompletableFuture<java.net.http.HttpResponse<InputStream>> exchange = getClient()
+                .sendAsync(jdkRequest, java.net.http.HttpResponse.BodyHandlers.ofInputStream());
+        exchange.whenComplete((response, error) -> {
+            if (error != null) {
+                Throwable cause = unwrap(error);
+                result.completeExceptionally(cause instanceof IOException ? translate((IOException) cause, jdkRequest.uri()) : cause);
+            } else if (!result.complete(toResponse(response))) {
+                JdkHttpResponse.closeQuietly(response);
+            }
+        });
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private java.net.http.HttpRequest toJdkRequest(HttpRequest request) throws IOException {
+        URI query = normalizeUri ? request.getQuery().normalize() : request.getQuery();
+
+        if (!isHttpProtocol(query)) {
+            throw new IOException("Unsupported protocol '" + query.getScheme() + "'");
+        }
+
+        java.net.http.HttpRequest.Builder result = java.net.http.HttpRequest.newBuilder(query);
+
+        if (readTimeout > 0) {
+            result.timeout(Duration.ofMillis(readTimeout));
+        }
+
+        result.method(request.getMethod().name(), toBodyPublisher(request));
+
+        HttpHeaders headers = request.getHeaders()
+                .toBuilder()
+                .put(HttpHeaders.HTTP_ACCEPT_ENCODING_HEADER, getEncodingHeader())
+                .put(HttpHeaders.HTTP_USER_AGENT_HEADER, userAgent)
+                .build();
+
+        headers.keyValues()
+                .filter(header -> !RESTRICTED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT)))
+                .forEach(header -> result.header(header.getKey(), header.getValue()));
+
+        return result.build();
+    }
+
+    private static java.net.http.HttpRequest.BodyPublisher toBodyPublisher(HttpRequest request) throws IOException {
+        if (request.getBody() != null) {
+            return java.net.http.HttpRequest.BodyPublishers.ofByteArray(request.getBody());
+        }
+        HttpRequestBody body = request.getStreamingBody();
+        if (body == null || body.getLength() == 0) {
+            return java.net.http.HttpRequest.BodyPublishers.noBody();
+        }
+        if (body.getFile().isPresent()) {
+            return java.net.http.HttpRequest.BodyPublishers.ofFile(body.getFile().get());
+        }
+        java.net.http.HttpRequest.BodyPublisher result = java.net.http.HttpRequest.BodyPublishers.ofInputStream(() -> openStream(body));
+        // a negative length means chunked transfer encoding
+        return body.hasKnownLength()
+                ? java.net.http.HttpRequest.BodyPublishers.fromPublisher(result, body.getLength())
+                : result;
+    }
+
+    private static InputStream openStream(HttpRequestBody body) {
+        try {
+            return body.openStream();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private HttpResponse toResponse(java.net.http.HttpResponse<InputStream> response) {
+        return new JdkHttpResponse(response, decoders);
+    }
+
+    private String getEncodingHeader() {
+        String result = decoders
+                .stream()
+                .map(UrlConnectionEncoding::getName)
+                .collect(Collectors.joining(", "));
+        return result.isEmpty() ? null : result;
+    }
+
+    private java.net.http.HttpClient buildClient() {
+        return JdkSharedClients.getClient(version, proxySelector, sslContext, connectTimeout);
+    }
+
+    private static boolean isHttpProtocol(URI uri) {
+        return "http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme());
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        Throwable result = ex;
+        while ((result instanceof CompletionException || result instanceof ExecutionException) && result.getCause() != null) {
+            result = result.getCause();
+        }
+        return result;
+    }
+
+    // Align exceptions with the other backends so that decorators such as
+    // RetryDecorator can rely on their types.
+    private static IOException translate(IOException ex, URI query) {
+        if (ex instanceof ConnectException && hasCause(ex, UnresolvedAddressException.class)) {
+            UnknownHostException result = new UnknownHostException(query.getHost());
+            result.initCause(ex);
+            return result;
+        }
+        if (ex instanceof HttpTimeoutException && !(ex instanceof HttpConnectTimeoutException)) {
+            SocketTimeoutException result = new SocketTimeoutException("Read timed out");
+            result.initCause(ex);
+            return result;
+        }
+        return ex;
+    }
+
+    private static boolean hasCause(Throwable ex, Class<? extends Throwable> type) {
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static SSLContext getDefaultSSLContext() {
+        try {
+            return SSLContext.getDefault();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Cannot initialize default SSL context", ex);
+        }
+    }
+
+    public static class Builder {
+        // Fix Javadoc error
+    }
+}
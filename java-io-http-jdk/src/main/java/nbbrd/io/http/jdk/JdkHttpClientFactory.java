@@ -0,0 +1,97 @@
+package nbbrd.io.http.jdk;
+
+import lombok.NonNull;
+import nbbrd.io.http.AsyncHttpClient;
+import nbbrd.io.http.HttpClient;
+import nbbrd.io.http.HttpClientFactory;
+import nbbrd.io.http.HttpContext;
+import nbbrd.service.ServiceProvider;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link HttpClientFactory} backed by {@link JdkHttpClient}.
+ * <p>
+ * This factory is always available since it relies solely on the JDK
+ * {@link java.net.http.HttpClient}, but it is opt-in: its priority is lower than
+ * the {@code urlconnection} factory, so it must be selected by its id.
+ * </p>
+ * <p>
+ * Note that {@link HttpContext#getSslContext()} is used instead of
+ * {@link HttpContext#getSslSocketFactory()} and that
+ * {@link HttpContext#getHostnameVerifier()} is not supported by
+ * {@link java.net.http.HttpClient}: a context with a non-default hostname verifier,
+ * or with a non-default socket factory but the default SSL context, is rejected
+ * rather than silently losing its TLS configuration.
+ * Also note that the read timeout only bounds the reception of the response headers.
+ * </p>
+ * <p>
+ * The clients it creates are cheap: those created from compatible contexts share
+ * the same JDK client, and therefore its connections.
+ * </p>
+ */
+@ServiceProvider(HttpClientFactory.class)
+public final class JdkHttpClientFactory implements HttpClientFactory {
+
+    private static final int PRIORITY = 25;
+
+    @Override
+    public @NonNull String getFactoryId() {
+        return "jdk";
+    }
+
+    @Override
+    public boolean isFactoryAvailable() {
+        return true;
+    }
+
+    @Override
+    public int getFactoryPriority() {
+        return PRIORITY;
+    }
+
+    @Override
+    public @NonNull HttpClient getClient(@NonNull HttpContext context) {
+        return newClient(context);
+    }
+
+    @Override
+    public @NonNull AsyncHttpClient getAsyncClient(@NonNull HttpContext context, @NonNull Executor executor) {
+        return newClient(context);
+    }
+
+    private static JdkHttpClient newClient(HttpContext context) {
+        SSLContext sslContext = context.getSslContext().get();
+        checkTlsSupport(context, sslContext);
+        return JdkHttpClient
+                .builder()
+                .readTimeout(context.getReadTimeout())
+                .connectTimeout(context.getConnectTimeout())
+                .proxySelector(context.getProxySelector().get())
+                .sslContext(sslContext)
+                .userAgent(context.getUserAgent())
+                .normalizeUri(context.isNormalizeUri())
+                .build();
+    }
+
+    private static void checkTlsSupport(HttpContext context, SSLContext sslContext) {
+        if (context.getHostnameVerifier().get() != HttpsURLConnection.getDefaultHostnameVerifier()) {
+            throw new IllegalArgumentException("Custom hostname verifiers are not supported by the jdk backend");
+        }
+        if (context.getSslSocketFactory().get() != HttpsURLConnection.getDefaultSSLSocketFactory()
+                && sslContext == getDefaultSSLContext()) {
+            throw new IllegalArgumentException("Custom SSL socket factories are not supported by the jdk backend; set an SSL context instead");
+        }
+    }
+
+    private static SSLContext getDefaultSSLContext() {
+        try {
+            return SSLContext.getDefault();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Cannot initialize default SSL context", ex);
+        }
+    }
+}
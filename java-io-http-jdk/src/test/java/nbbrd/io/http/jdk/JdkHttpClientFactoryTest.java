@@ -0,0 +1,64 @@
+package nbbrd.io.http.jdk;
+
+import nbbrd.io.http.HttpClient;
+import nbbrd.io.http.HttpClientFactoryLoader;
+import nbbrd.io.http.HttpContext;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLContext;
+import java.security.GeneralSecurityException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class JdkHttpClientFactoryTest {
+
+    private final JdkHttpClientFactory x = new JdkHttpClientFactory();
+
+    @Test
+    public void testFactoryId() {
+        assertThat(x.getFactoryId())
+                .isEqualTo("jdk")
+                .matches(HttpClientFactoryLoader.ID_PATTERN.asPredicate());
+    }
+
+    @Test
+    public void testFactoryAvailable() {
+        assertThat(x.isFactoryAvailable()).isTrue();
+    }
+
+    @Test
+    public void testFactoryPriority() {
+        assertThat(x.getFactoryPriority()).isEqualTo(25);
+    }
+
+    @Test
+    public void testGetClient() {
+        HttpClient client = x.getClient(HttpContext.builder().build());
+
+        assertThat(client)
+                .isNotNull()
+                .extracting(HttpClient::getDescription)
+                .isEqualTo("JDK client");
+    }
+
+    @Test
+    public void testRejectsUnsupportedTlsSettings() throws GeneralSecurityException {
+        SSLContext custom = SSLContext.getInstance("TLS");
+        custom.init(null, null, null);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> x.getClient(HttpContext.builder().hostnameVerifier(() -> (hostname, session) -> true).build()));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> x.getClient(HttpContext.builder().sslSocketFactory(custom::getSocketFactory).build()))
+                .withMessageContaining("SSL context");
+        assertThat(x.getClient(HttpContext.builder().sslSocketFactory(custom::getSocketFactory).sslContext(() -> custom).build()))
+                .isNotNull();
+    }
+
+    @Test
+    public void testGetAsyncClient() {
+        assertThat(x.getAsyncClient(HttpContext.builder().build(), Runnable::run))
+                .isInstanceOf(JdkHttpClient.class);
+    }
+}
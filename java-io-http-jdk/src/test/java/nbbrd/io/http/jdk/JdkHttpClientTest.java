@@ -0,0 +1,121 @@
+package nbbrd.io.http.jdk;
+
+import internal.io.http.jdk.JdkSharedClients;
+import nbbrd.io.http.*;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JdkHttpClientTest extends HttpClientTest {
+
+    static {
+        // The wire certificate does not match 'localhost' and java.net.http has no hostname verifier;
+        // this property is read once, when the first client is created.
+        System.setProperty("jdk.internal.httpclient.disableHostnameVerification", "true");
+    }
+
+    // java.net.http cannot be configured with a socket factory nor a hostname verifier,
+    // so the wire SSL context is used whenever the test context asks for the wire socket factory.
+    @Override
+    protected HttpClient getClient(HttpContext context) {
+        return JdkHttpClient
+                .builder()
+                .readTimeout(context.getReadTimeout())
+                .connectTimeout(context.getConnectTimeout())
+                .proxySelector(context.getProxySelector().get())
+                .sslContext(isDefaultSSL(context) ? context.getSslContext().get() : wireSSLContext())
+                .userAgent(context.getUserAgent())
+                .normalizeUri(context.isNormalizeUri())
+                .build();
+    }
+
+    private static boolean isDefaultSSL(HttpContext context) {
+        return context.getSslSocketFactory().get() == HttpsURLConnection.getDefaultSSLSocketFactory();
+    }
+
+    @Test
+    public void testSendAsync() throws Exception {
+        JdkHttpClient x = JdkHttpClient
+                .builder()
+                .sslContext(wireSSLContext())
+                .build();
+
+        wire.resetAll();
+        wire.stubFor(get(SAMPLE_URL).willReturn(okXml(SAMPLE_XML)));
+
+        HttpRequest request = HttpRequest.builder().query(wireURL(SAMPLE_URL)).headers(GENERIC_DATA_21_HEADER).build();
+
+        List<CompletableFuture<HttpResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(x.sendAsync(request));
+        }
+        for (CompletableFuture<HttpResponse> future : futures) {
+            try (HttpResponse response = future.get(10, TimeUnit.SECONDS)) {
+                assertSameSampleContent(response);
+            }
+        }
+
+        wire.verify(10, getRequestedFor(urlEqualTo(SAMPLE_URL)));
+    }
+
+    @Test
+    public void testSendAsyncInvalidHost() {
+        JdkHttpClient x = JdkHttpClient.builder().build();
+
+        assertThat(x.sendAsync(HttpRequest.builder().query(URI.create("http://localhoooooost")).build()))
+                .failsWithin(10, TimeUnit.SECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(UnknownHostException.class);
+
+        assertThat(x.sendAsync(HttpRequest.builder().query(URI.create("ftp://localhost")).build()))
+                .isCompletedExceptionally();
+    }
+
+    @Test
+    public void testRestrictedHeadersAreIgnored() throws Exception {
+        HttpClient x = JdkHttpClient.builder().sslContext(wireSSLContext()).build();
+
+        wire.resetAll();
+        wire.stubFor(get(SAMPLE_URL).willReturn(okXml(SAMPLE_XML)));
+
+        HttpRequest request = HttpRequest
+                .builder()
+                .query(wireURL(SAMPLE_URL))
+                .headers(HttpHeaders.builder().put("Connection", "close").put("Host", "example.com").build())
+                .build();
+
+        try (HttpResponse response = x.send(request)) {
+            assertSameSampleContent(response);
+        }
+    }
+
+    @Test
+    public void testSharedClients() throws Exception {
+        // kept in this class so that the clients are created after hostname verification is disabled
+        ProxySelector proxySelector = ProxySelector.getDefault();
+        SSLContext sslContext = wireSSLContext();
+
+        java.net.http.HttpClient shared = JdkSharedClients.getClient(java.net.http.HttpClient.Version.HTTP_2, proxySelector, sslContext, 1234);
+        assertThat(shared)
+                .isSameAs(JdkSharedClients.getClient(java.net.http.HttpClient.Version.HTTP_2, proxySelector, sslContext, 1234))
+                .isNotSameAs(JdkSharedClients.getClient(java.net.http.HttpClient.Version.HTTP_1_1, proxySelector, sslContext, 1234))
+                .isNotSameAs(JdkSharedClients.getClient(java.net.http.HttpClient.Version.HTTP_2, proxySelector, sslContext, 5678))
+                .isNotSameAs(JdkSharedClients.getClient(java.net.http.HttpClient.Version.HTTP_2, proxySelector, wireSSLContext(), 1234))
+                .returns(java.net.http.HttpClient.Redirect.NEVER, java.net.http.HttpClient::followRedirects)
+                .returns(sslContext, java.net.http.HttpClient::sslContext);
+        assertThat(shared.connectTimeout()).contains(Duration.ofMillis(1234));
+    }
+}
@@ -0,0 +1,92 @@
+package internal.io.http;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the lock-free {@link TokenBucket} with the synchronized implementation it replaced,
+ * under contention.
+ * <p>
+ * Run with {@code mvn -P benchmarks -pl java-io-http test-compile exec:exec} once the other
+ * modules are installed; JMH options can be passed through the {@code jmh.args} property
+ * (e.g. {@code -Djmh.args="-t 8"}).
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class TokenBucketBenchmark {
+
+    // high enough that reservations never exceed the maximum wait
+    private static final double PERMITS_PER_SECOND = 100_000_000.0;
+    private static final int MAX_BURST = 100;
+
+    private TokenBucket lockFree;
+    private SynchronizedTokenBucket synchronizedBucket;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        lockFree = new TokenBucket(PERMITS_PER_SECOND, MAX_BURST, Long.MAX_VALUE);
+        synchronizedBucket = new SynchronizedTokenBucket(PERMITS_PER_SECOND, MAX_BURST, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long lockFree() {
+        return lockFree.reserve(System.nanoTime());
+    }
+
+    @Benchmark
+    public long synchronizedBucket() {
+        return synchronizedBucket.reserve(System.nanoTime());
+    }
+
+    /**
+     * The monitor-based token bucket that preceded the lock-free one, kept as a baseline.
+     */
+    static final class SynchronizedTokenBucket {
+
+        private final int maxBurst;
+        private final long maxWaitNanos;
+        private final double permitsPerSecond;
+
+        private double availableTokens;
+        private long lastRefillNanos;
+        private boolean seeded;
+
+        SynchronizedTokenBucket(double permitsPerSecond, int maxBurst, long maxWaitNanos) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.maxBurst = maxBurst;
+            this.maxWaitNanos = maxWaitNanos;
+            this.availableTokens = maxBurst;
+        }
+
+        synchronized long reserve(long nowNanos) {
+            refill(nowNanos);
+            double waitTokens = Math.max(0.0, 1.0 - availableTokens);
+            long waitNanos = (long) (waitTokens / permitsPerSecond * 1_000_000_000.0);
+            if (waitNanos > maxWaitNanos) {
+                return -1;
+            }
+            availableTokens -= 1.0;
+            return waitNanos;
+        }
+
+        private void refill(long nowNanos) {
+            if (!seeded) {
+                lastRefillNanos = nowNanos;
+                seeded = true;
+                return;
+            }
+            long elapsed = nowNanos - lastRefillNanos;
+            if (elapsed > 0) {
+                availableTokens = Math.min(maxBurst, availableTokens + elapsed * permitsPerSecond / 1_000_000_000.0);
+                lastRefillNanos = nowNanos;
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package internal.io.http;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Channel-to-channel copies that let {@link FileChannel} bypass intermediate heap buffers when possible.
+ */
+@lombok.experimental.UtilityClass
+public class ByteChannels {
+
+    private static final int CHUNK_SIZE = 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public long transfer(@NonNull ReadableByteChannel source, @NonNull WritableByteChannel target) throws IOException {
+        if (source instanceof FileChannel) {
+            return transferFromFile((FileChannel) source, target);
+        }
+        if (target instanceof FileChannel) {
+            return transferToFile(source, (FileChannel) target);
+        }
+        return copy(source, target);
+    }
+
+    private long transferFromFile(FileChannel source, WritableByteChannel target) throws IOException {
+        long position = source.position();
+        long size = source.size();
+        long result = 0;
+        while (position + result < size) {
+            result += source.transferTo(position + result, size - position - result, target);
+        }
+        source.position(position + result);
+        return result;
+    }
+
+    private long transferToFile(ReadableByteChannel source, FileChannel target) throws IOException {
+        long position = target.position();
+        long result = 0;
+        long n;
+        // a blocking source only transfers fewer bytes than requested at end of stream
+        while ((n = target.transferFrom(source, position + result, CHUNK_SIZE)) > 0) {
+            result += n;
+        }
+        target.position(position + result);
+        return result;
+    }
+
+    private long copy(ReadableByteChannel source, WritableByteChannel target) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long result = 0;
+        while (source.read(buffer) != -1) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                result += target.write(buffer);
+            }
+            buffer.clear();
+        }
+        return result;
+    }
+}
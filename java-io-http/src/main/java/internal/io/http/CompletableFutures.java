@@ -0,0 +1,87 @@
+package internal.io.http;
+
+import lombok.NonNull;
+import nbbrd.io.function.IOFunction;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Helpers that keep {@link java.io.IOException}s unwrapped across {@link CompletableFuture} stages.
+ */
+@lombok.experimental.UtilityClass
+public class CompletableFutures {
+
+    public @NonNull Throwable unwrap(@NonNull Throwable ex) {
+        Throwable result = ex;
+        while ((result instanceof CompletionException || result instanceof ExecutionException) && result.getCause() != null) {
+            result = result.getCause();
+        }
+        return result;
+    }
+
+    public <T> @NonNull CompletableFuture<T> failed(@NonNull Throwable ex) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        result.completeExceptionally(unwrap(ex));
+        return result;
+    }
+
+    /**
+     * Applies a function that may throw an {@link java.io.IOException} to the value of a future.
+     * <p>
+     * Cancelling the returned future cancels the source future, and a {@link Closeable}
+     * value that arrives after the returned future is done is closed instead of being dropped.
+     * </p>
+     */
+    public <T, R> @NonNull CompletableFuture<R> thenApplyIO(@NonNull CompletableFuture<T> future, @NonNull IOFunction<? super T, ? extends R> function) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        future.whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(unwrap(error));
+                return;
+            }
+            if (result.isDone()) {
+                closeQuietly(value);
+                return;
+            }
+            try {
+                R mapped = function.applyWithIO(value);
+                if (!result.complete(mapped)) {
+                    closeQuietly(mapped);
+                }
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+        propagateCancellation(result, future);
+        return result;
+    }
+
+    /**
+     * Cancels the source future when the target future is cancelled.
+     */
+    public void propagateCancellation(@NonNull CompletableFuture<?> target, @NonNull CompletableFuture<?> source) {
+        target.whenComplete((value, error) -> {
+            if (target.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+    }
+
+    /**
+     * Closes a value that is no longer wanted, such as a response that arrived too late.
+     */
+    public void closeQuietly(@Nullable Object value) {
+        if (value instanceof Closeable) {
+            try {
+                ((Closeable) value).close();
+            } catch (IOException ignore) {
+                // ignore cleanup failure
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package internal.io.http;
+
+import lombok.NonNull;
+import nbbrd.io.http.AsyncHttpClient;
+import nbbrd.io.http.HttpClient;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking {@link HttpClient} calls on an {@link Executor}, using a fresh client per request.
+ */
+@lombok.RequiredArgsConstructor
+public final class ExecutorAsyncHttpClient implements AsyncHttpClient {
+
+    @NonNull
+    private final Supplier<? extends HttpClient> clients;
+
+    @NonNull
+    private final Executor executor;
+
+    @Override
+    public @NonNull String getDescription() {
+        return "Async bridge of " + clients.get().getDescription();
+    }
+
+    @Override
+    public @NonNull CompletableFuture<HttpResponse> sendAsync(@NonNull HttpRequest request) {
+        CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> send(request, result));
+        } catch (RejectedExecutionException ex) {
+            result.completeExceptionally(ex);
+        }
+        return result;
+    }
+
+    private void send(HttpRequest request, CompletableFuture<HttpResponse> result) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            HttpResponse response = clients.get().send(request);
+            if (!result.complete(response)) {
+                response.close();
+            }
+        } catch (Throwable ex) {
+            result.completeExceptionally(ex);
+        }
+    }
+}
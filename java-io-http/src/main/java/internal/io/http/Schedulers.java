@@ -0,0 +1,27 @@
+package internal.io.http;
+
+import lombok.NonNull;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Shared scheduler for the short timer tasks of the decorators (hedges, delayed permits).
+ */
+@lombok.experimental.UtilityClass
+public class Schedulers {
+
+    public @NonNull ScheduledExecutorService getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    private static final class DefaultHolder {
+
+        // daemon thread so that an idle scheduler never prevents the JVM from exiting
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread result = new Thread(task, "nbbrd-io-http-scheduler");
+            result.setDaemon(true);
+            return result;
+        });
+    }
+}
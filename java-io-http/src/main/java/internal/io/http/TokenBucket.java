@@ -1,5 +1,7 @@
 package internal.io.http;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * A simple token-bucket rate limiter.
  * <p>
@@ -10,23 +12,35 @@ package internal.io.http;
  * to be served fairly without serializing on a monitor held during sleep.
  * </p>
  * <p>
- * Reservations let {@code availableTokens} go negative: each concurrent caller
+ * Reservations let the number of tokens go negative: each concurrent caller
  * reserves its own future token and receives an increasing wait time, so the
  * sustained rate is honored even under concurrency.
  * </p>
  * <p>
- * This implementation is thread-safe.
+ * This implementation is thread-safe and lock-free: the whole bucket is a single
+ * atomic timestamp (the time at which it holds zero tokens) updated with a
+ * compare-and-set loop, so that concurrent callers neither block nor pin virtual
+ * threads. Only rate updates, which are rare, are serialized.
  * </p>
  */
 public final class TokenBucket {
 
-    private final int maxBurst;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    // Bounds the burst window so that time arithmetic cannot overflow.
+    private static final long MAX_BURST_NANOS = Long.MAX_VALUE / 4;
+
+    // Marks a bucket that has not observed any time yet (and is therefore full).
+    private static final long NOT_SEEDED = Long.MIN_VALUE;
+
     private final long maxWaitNanos;
 
-    private double availableTokens;
-    private double permitsPerSecond;
-    private long lastRefillNanos;
-    private boolean seeded;
+    private volatile double permitsPerSecond;
+    private volatile int maxBurst;
+
+    // Time at which the bucket holds exactly zero tokens: an earlier time means that
+    // tokens have been refilled since, a later one that permits have been reserved ahead.
+    private final AtomicLong zeroTokensNanos = new AtomicLong(NOT_SEEDED);
 
     public TokenBucket(double permitsPerSecond, int maxBurst, long maxWaitNanos) {
         if (permitsPerSecond <= 0) throw new IllegalArgumentException("permitsPerSecond must be positive");
@@ -35,7 +49,6 @@ public final class TokenBucket {
         this.permitsPerSecond = permitsPerSecond;
         this.maxBurst = maxBurst;
         this.maxWaitNanos = maxWaitNanos;
-        this.availableTokens = maxBurst;
     }
 
     /**
@@ -48,21 +61,64 @@ public final class TokenBucket {
      * immediately available), or {@code -1} if the wait would exceed the
      * configured maximum (in which case no token is reserved)
      */
-    public synchronized long reserve(long nowNanos) {
-        refill(nowNanos);
+    public long reserve(long nowNanos) {
+        return reserve(nowNanos, 1);
+    }
+
+    /**
+     * Reserves several tokens at once, as for a costlier request, and returns the
+     * time the caller must wait before using them. A cost above the burst capacity
+     * is allowed and simply waits longer.
+     *
+     * @param nowNanos the current time in nanoseconds (from {@link System#nanoTime()})
+     * @param permits  the number of tokens to reserve
+     * @return the number of nanoseconds the caller must wait (0 if the tokens are
+     * immediately available), or {@code -1} if the wait would exceed the
+     * configured maximum (in which case no token is reserved)
+     */
+    public long reserve(long nowNanos, int permits) {
+        return reserve(nowNanos, permits, true);
+    }
 
-        // Wait is based on the current deficit; if tokens are available the wait is 0.
-        double waitTokens = Math.max(0.0, 1.0 - availableTokens);
-        long waitNanos = (long) (waitTokens / permitsPerSecond * 1_000_000_000.0);
+    /**
+     * Reserves several tokens only if they are immediately available, so that the
+     * caller never books tokens ahead of the others. Used by low-priority callers,
+     * which then retry after the returned estimate. A cost above the burst capacity
+     * only requires a full bucket and borrows the rest from later reservations.
+     *
+     * @param nowNanos the current time in nanoseconds (from {@link System#nanoTime()})
+     * @param permits  the number of tokens to reserve
+     * @return 0 if the tokens were reserved, the estimated number of nanoseconds
+     * until they might be available otherwise (in which case no token is reserved),
+     * or {@code -1} if that estimate exceeds the configured maximum
+     */
+    public long tryReserve(long nowNanos, int permits) {
+        return reserve(nowNanos, permits, false);
+    }
 
-        if (waitNanos > maxWaitNanos) {
-            return -1;
+    private long reserve(long nowNanos, int permits, boolean ahead) {
+        if (permits <= 0) throw new IllegalArgumentException("permits must be positive");
+        long intervalNanos = getIntervalNanos(permitsPerSecond);
+        long costNanos = (long) Math.min((double) permits * intervalNanos, MAX_BURST_NANOS);
+        long burstNanos = getBurstNanos(maxBurst, intervalNanos);
+        long fullNanos = nowNanos - burstNanos;
+        while (true) {
+            long current = zeroTokensNanos.get();
+            // Tokens are only capped on the positive side; reservations ahead are preserved.
+            long start = Math.max(current, fullNanos);
+            long next = start + costNanos;
+            long availableNanos = ahead ? next : start + Math.min(costNanos, burstNanos);
+            long waitNanos = Math.max(0, availableNanos - nowNanos);
+            if (waitNanos > maxWaitNanos) {
+                return -1;
+            }
+            if (!ahead && waitNanos > 0) {
+                return waitNanos;
+            }
+            if (zeroTokensNanos.compareAndSet(current, next)) {
+                return waitNanos;
+            }
         }
-
-        // Reserve the token; availableTokens may go negative to represent
-        // reservations made by concurrent callers.
-        availableTokens -= 1.0;
-        return waitNanos;
     }
 
     /**
@@ -71,40 +127,75 @@ public final class TokenBucket {
      *
      * @param newPermitsPerSecond the new rate
      */
-    public synchronized void setPermitsPerSecond(double newPermitsPerSecond) {
+    public void setPermitsPerSecond(double newPermitsPerSecond) {
+        setPermitsPerSecond(newPermitsPerSecond, System.nanoTime());
+    }
+
+    /**
+     * Updates the permit rate while keeping the current number of tokens (or of
+     * reservations ahead), which are converted to the new rate. Reservations made
+     * concurrently with the update may use either rate.
+     *
+     * @param newPermitsPerSecond the new rate
+     * @param nowNanos            the current time in nanoseconds (from {@link System#nanoTime()})
+     */
+    public synchronized void setPermitsPerSecond(double newPermitsPerSecond, long nowNanos) {
+        setLimits(newPermitsPerSecond, maxBurst, nowNanos);
+    }
+
+    /**
+     * Updates both the permit rate and the burst capacity. Tokens are converted to
+     * the new rate as in {@link #setPermitsPerSecond(double, long)} and are then capped
+     * at the new burst capacity; a zero capacity stores no token at all, so that every
+     * permit has to be refilled at the new rate.
+     *
+     * @param newPermitsPerSecond the new rate
+     * @param newMaxBurst         the new burst capacity
+     * @param nowNanos            the current time in nanoseconds (from {@link System#nanoTime()})
+     */
+    public synchronized void setLimits(double newPermitsPerSecond, int newMaxBurst, long nowNanos) {
         if (newPermitsPerSecond <= 0) throw new IllegalArgumentException("permitsPerSecond must be positive");
+        if (newMaxBurst < 0) throw new IllegalArgumentException("maxBurst must not be negative");
+        double oldPermitsPerSecond = permitsPerSecond;
+        long fullNanos = nowNanos - getBurstNanos(maxBurst, getIntervalNanos(oldPermitsPerSecond));
+        long current;
+        long next;
+        do {
+            current = zeroTokensNanos.get();
+            if (current == NOT_SEEDED) {
+                break;
+            }
+            long start = Math.max(current, fullNanos);
+            next = nowNanos - (long) ((nowNanos - start) * (oldPermitsPerSecond / newPermitsPerSecond));
+            // caps the tokens eagerly so that reservations still reading the old burst cannot exceed the new one
+            next = Math.max(next, nowNanos - getBurstNanos(newMaxBurst, getIntervalNanos(newPermitsPerSecond)));
+        } while (!zeroTokensNanos.compareAndSet(current, next));
+        this.maxBurst = newMaxBurst;
         this.permitsPerSecond = newPermitsPerSecond;
     }
 
-    public synchronized double getPermitsPerSecond() {
+    public int getMaxBurst() {
+        return maxBurst;
+    }
+
+    public double getPermitsPerSecond() {
         return permitsPerSecond;
     }
 
     /**
      * Returns true if this bucket is effectively unlimited (very high rate).
      */
-    public synchronized boolean isUnlimited() {
+    public boolean isUnlimited() {
         return permitsPerSecond >= UNLIMITED_THRESHOLD;
     }
 
-    private void refill(long nowNanos) {
-        if (!seeded) {
-            // The first observation seeds the clock; the bucket starts full.
-            lastRefillNanos = nowNanos;
-            seeded = true;
-            return;
-        }
-        long elapsed = nowNanos - lastRefillNanos;
-        if (elapsed > 0) {
-            double newTokens = elapsed * permitsPerSecond / 1_000_000_000.0;
-            // Only the positive side is capped at maxBurst; negative reservations are preserved.
-            availableTokens = Math.min(maxBurst, availableTokens + newTokens);
-            lastRefillNanos = nowNanos;
-        }
+    private static long getBurstNanos(int maxBurst, long intervalNanos) {
+        return (long) Math.min((double) maxBurst * intervalNanos, MAX_BURST_NANOS);
     }
 
+    private static long getIntervalNanos(double permitsPerSecond) {
+        return Math.max(1, Math.round(NANOS_PER_SECOND / permitsPerSecond));
+    }
 
     public static final double UNLIMITED_THRESHOLD = 1_000_000_000.0;
 }
-
-
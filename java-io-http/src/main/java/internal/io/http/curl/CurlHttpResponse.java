@@ -1,5 +1,6 @@
 package internal.io.http.curl;
 
+import internal.io.http.ByteChannels;
 import lombok.NonNull;
 import nbbrd.io.curl.Curl;
 import nbbrd.io.http.HttpHeaders;
@@ -9,7 +10,12 @@ import nbbrd.io.net.MediaType;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 /**
  * HTTP response backed by a curl invocation: headers and status come from the
@@ -76,6 +82,35 @@ public final class CurlHttpResponse implements HttpResponse {
         return stream;
     }
 
+    /**
+     * Moves the temporary body file to its destination instead of copying it,
+     * atomically when both paths are on the same file store.
+     * Falls back to a regular transfer if the body has already been opened.
+     */
+    @Override
+    public long transferTo(@NonNull Path file) throws IOException {
+        if (stream != null) {
+            return HttpResponse.super.transferTo(file);
+        }
+        long result = Files.size(body.toPath());
+        try {
+            Files.move(body.toPath(), file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(body.toPath(), file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return result;
+    }
+
+    @Override
+    public long transferTo(@NonNull WritableByteChannel target) throws IOException {
+        if (stream != null) {
+            return HttpResponse.super.transferTo(target);
+        }
+        try (FileChannel source = FileChannel.open(body.toPath())) {
+            return ByteChannels.transfer(source, target);
+        }
+    }
+
     @Override
     public void close() throws IOException {
         try {
@@ -0,0 +1,160 @@
+package internal.io.http.ext;
+
+import lombok.NonNull;
+import nbbrd.design.ThreadSafe;
+import nbbrd.io.http.ext.ConcurrencyLimiter;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Default {@link ConcurrencyLimiter} implementation: a monitor-guarded counter of
+ * requests in flight whose limit is updated by an {@link Algorithm} on every release.
+ * <p>
+ * Callers above the limit wait on the monitor until a permit is released or
+ * {@code maxWait} elapses.
+ * </p>
+ */
+@ThreadSafe
+public final class AdaptiveConcurrencyLimiter implements ConcurrencyLimiter {
+
+    /**
+     * Computes the next limit from the outcome of a request. Called while holding the
+     * limiter monitor, so implementations may keep unsynchronized state.
+     */
+    @FunctionalInterface
+    public interface Algorithm {
+
+        double update(double limit, long rttNanos, int inFlight, boolean dropped);
+    }
+
+    public static @NonNull Algorithm fixed() {
+        return (limit, rttNanos, inFlight, dropped) -> limit;
+    }
+
+    public static @NonNull Algorithm aimd(double backoffRatio) {
+        if (!(backoffRatio > 0 && backoffRatio < 1)) throw new IllegalArgumentException("backoffRatio must be in (0, 1)");
+        return (limit, rttNanos, inFlight, dropped) -> {
+            if (dropped) {
+                return limit * backoffRatio;
+            }
+            // only grows when the current limit is actually used
+            return inFlight * 2 >= limit ? limit + 1 / limit : limit;
+        };
+    }
+
+    public static @NonNull Algorithm gradient() {
+        return new Gradient();
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final Duration maxWait;
+    private final Algorithm algorithm;
+
+    // guarded by this
+    private double limit;
+    private int inFlight = 0;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, @NonNull Duration maxWait, @NonNull Algorithm algorithm) {
+        if (minLimit < 1) throw new IllegalArgumentException("minLimit must be positive");
+        if (initialLimit < minLimit || initialLimit > maxLimit) throw new IllegalArgumentException("initialLimit must be between minLimit and maxLimit");
+        if (maxWait.isNegative()) throw new IllegalArgumentException("maxWait must not be negative");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxWait = maxWait;
+        this.algorithm = algorithm;
+        this.limit = initialLimit;
+    }
+
+    @Override
+    public synchronized boolean tryAcquire() {
+        if (inFlight < getLimit()) {
+            inFlight++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized boolean acquire() throws InterruptedException {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        while (inFlight >= getLimit()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        inFlight++;
+        return true;
+    }
+
+    @Override
+    public synchronized @Nullable LimitChange release(@NonNull Duration rtt, boolean dropped) {
+        int oldLimit = getLimit();
+        limit = Math.max(minLimit, Math.min(maxLimit, algorithm.update(limit, rtt.toNanos(), inFlight, dropped)));
+        inFlight--;
+        notifyAll();
+        int newLimit = getLimit();
+        return oldLimit != newLimit ? new LimitChange(oldLimit, newLimit) : null;
+    }
+
+    @Override
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    @Override
+    public @NonNull Duration getMaxWait() {
+        return maxWait;
+    }
+
+    /**
+     * Gradient algorithm: compares the latest RTT to an exponential moving average of
+     * past RTTs; latencies above the average (with some tolerance) mean that requests are
+     * queueing and shrink the limit, while a square-root headroom keeps probing upward.
+     */
+    private static final class Gradient implements Algorithm {
+
+        private static final double RTT_TOLERANCE = 1.5;
+        private static final double MIN_GRADIENT = 0.5;
+        private static final int LONG_WINDOW = 100;
+        private static final double SMOOTHING = 0.2;
+        private static final double BACKOFF_RATIO = 0.9;
+
+        private double longRtt = 0;
+
+        @Override
+        public double update(double limit, long rttNanos, int inFlight, boolean dropped) {
+            if (dropped) {
+                return limit * BACKOFF_RATIO;
+            }
+            if (rttNanos <= 0) {
+                return limit;
+            }
+            if (longRtt == 0) {
+                longRtt = rttNanos;
+            } else {
+                longRtt += (rttNanos - longRtt) / LONG_WINDOW;
+                // recovers quickly once a burst of slow requests is over
+                if (longRtt > 2 * rttNanos) {
+                    longRtt *= 0.95;
+                }
+            }
+            // an under-used limit says nothing about the capacity of the backend
+            if (inFlight * 2 < limit) {
+                return limit;
+            }
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, RTT_TOLERANCE * longRtt / rttNanos));
+            double target = limit * gradient + Math.sqrt(limit);
+            return limit * (1 - SMOOTHING) + target * SMOOTHING;
+        }
+    }
+}
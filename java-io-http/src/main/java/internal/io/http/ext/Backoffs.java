@@ -0,0 +1,26 @@
+package internal.io.http.ext;
+
+import lombok.NonNull;
+
+import java.time.Duration;
+
+@lombok.experimental.UtilityClass
+public class Backoffs {
+
+    /**
+     * Computes {@code initial * 2^(attempt - 1)} capped at {@code max}, without overflow.
+     *
+     * @param initial the first delay
+     * @param max     the maximum delay
+     * @param attempt the number of the retry, starting at 1
+     * @return a non-null duration
+     */
+    public @NonNull Duration exponential(@NonNull Duration initial, @NonNull Duration max, int attempt) {
+        long cap = max.toNanos();
+        long result = initial.toNanos();
+        for (int i = 1; i < attempt && result < cap; i++) {
+            result = result > cap / 2 ? cap : result * 2;
+        }
+        return Duration.ofNanos(Math.min(result, cap));
+    }
+}
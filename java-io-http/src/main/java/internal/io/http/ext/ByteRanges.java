@@ -0,0 +1,90 @@
+package internal.io.http.ext;
+
+import lombok.NonNull;
+import nbbrd.io.http.HttpHeaders;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pure functions implementing byte range requests (RFC 9110 section 14).
+ */
+public final class ByteRanges {
+
+    private ByteRanges() {
+        // static utility
+    }
+
+    public static final String ACCEPT_RANGES_HEADER = "Accept-Ranges";
+    public static final String RANGE_HEADER = "Range";
+    public static final String IF_RANGE_HEADER = "If-Range";
+    public static final String CONTENT_RANGE_HEADER = "Content-Range";
+
+    public static final int HTTP_PARTIAL_CONTENT = 206;
+
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes\\s+(\\d+)-(\\d+)/(\\d+|\\*)", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Checks whether the server advertises support for byte ranges.
+     */
+    public static boolean acceptsByteRanges(@NonNull HttpHeaders headers) {
+        return headers.allValues(ACCEPT_RANGES_HEADER)
+                .stream()
+                .anyMatch(value -> value.toLowerCase(Locale.ROOT).contains("bytes"));
+    }
+
+    /**
+     * Gets a validator suitable for {@code If-Range}: a strong ETag if any, else the Last-Modified date.
+     */
+    public static @NonNull Optional<String> getIfRangeValidator(@NonNull HttpHeaders headers) {
+        Optional<String> etag = headers.firstValue(HttpCacheRules.ETAG_HEADER);
+        if (etag.isPresent()) {
+            // weak validators are not allowed in If-Range
+            return etag.filter(value -> !value.startsWith("W/"));
+        }
+        return headers.firstValue(HttpCacheRules.LAST_MODIFIED_HEADER);
+    }
+
+    /**
+     * Formats a {@code Range} header value; a negative {@code last} means "until the end".
+     */
+    public static @NonNull String formatRange(long first, long last) {
+        return "bytes=" + first + "-" + (last >= 0 ? String.valueOf(last) : "");
+    }
+
+    /**
+     * Parses a {@code Content-Range} header value, or returns {@code null} if absent or invalid.
+     */
+    public static @Nullable ContentRange parseContentRange(@Nullable String value) {
+        if (value == null) return null;
+        Matcher m = CONTENT_RANGE.matcher(value.trim());
+        if (!m.matches()) return null;
+        try {
+            long first = Long.parseLong(m.group(1));
+            long last = Long.parseLong(m.group(2));
+            long length = "*".equals(m.group(3)) ? -1 : Long.parseLong(m.group(3));
+            return first <= last ? new ContentRange(first, last, length) : null;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    @lombok.Value
+    public static class ContentRange {
+
+        long first;
+        long last;
+
+        /**
+         * Complete length of the representation, or {@code -1} if unknown.
+         */
+        long length;
+
+        public long size() {
+            return last - first + 1;
+        }
+    }
+}
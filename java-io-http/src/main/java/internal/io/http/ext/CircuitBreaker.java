@@ -0,0 +1,162 @@
+package internal.io.http.ext;
+
+import lombok.NonNull;
+import nbbrd.design.ThreadSafe;
+import nbbrd.io.http.ext.CircuitBreakerDecorator;
+
+/**
+ * Closed/open/half-open state machine of a single circuit.
+ * <p>
+ * While closed, the outcomes of the last {@code windowSize} calls are kept in a ring
+ * buffer; the circuit opens when at least {@code minimumCalls} outcomes are known and
+ * either the failure rate or the slow-call rate reaches its threshold. After
+ * {@code openDuration} millis the circuit lets {@code halfOpenCalls} trial calls through
+ * and closes or opens again depending on their outcomes.
+ * </p>
+ * <p>
+ * Each permit carries the generation of the state it was acquired in, so that calls
+ * completing after a transition do not affect the new state.
+ * </p>
+ */
+@ThreadSafe
+public final class CircuitBreaker {
+
+    public static final long NOT_PERMITTED = -1;
+
+    @FunctionalInterface
+    public interface Transition {
+
+        void onStateChanged(CircuitBreakerDecorator.@NonNull State from, CircuitBreakerDecorator.@NonNull State to);
+    }
+
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationMillis;
+    private final int halfOpenCalls;
+    private final Transition transition;
+
+    // guarded by this
+    private final byte[] window;
+    private int position = 0;
+    private int calls = 0;
+    private int failures = 0;
+    private int slowCalls = 0;
+    private CircuitBreakerDecorator.State state = CircuitBreakerDecorator.State.CLOSED;
+    private long generation = 0;
+    private long openedAt = 0;
+    private int trialPermits = 0;
+
+    public CircuitBreaker(double failureRateThreshold, double slowCallRateThreshold, int windowSize, int minimumCalls, long openDurationMillis, int halfOpenCalls, @NonNull Transition transition) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.window = new byte[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.openDurationMillis = openDurationMillis;
+        this.halfOpenCalls = halfOpenCalls;
+        this.transition = transition;
+    }
+
+    /**
+     * Tries to acquire a permit to send a call.
+     *
+     * @param now the current time in millis
+     * @return a permit to pass to {@link #onComplete(long, boolean, boolean)} or {@link #NOT_PERMITTED}
+     */
+    public synchronized long tryAcquire(long now) {
+        switch (getState(now)) {
+            case CLOSED:
+                return generation;
+            case HALF_OPEN:
+                if (trialPermits < halfOpenCalls) {
+                    trialPermits++;
+                    return generation;
+                }
+                return NOT_PERMITTED;
+            default:
+                return NOT_PERMITTED;
+        }
+    }
+
+    /**
+     * Records the outcome of a call.
+     *
+     * @param permit  the permit returned by {@link #tryAcquire(long)}
+     * @param failure true if the call failed
+     * @param slow    true if the call was slow
+     * @param now     the current time in millis
+     */
+    public synchronized void onComplete(long permit, boolean failure, boolean slow, long now) {
+        if (permit != generation) {
+            return;
+        }
+        record(failure, slow);
+        switch (state) {
+            case CLOSED:
+                if (calls >= minimumCalls && isAboveThresholds()) {
+                    transitionTo(CircuitBreakerDecorator.State.OPEN, now);
+                }
+                break;
+            case HALF_OPEN:
+                if (calls >= halfOpenCalls) {
+                    transitionTo(isAboveThresholds() ? CircuitBreakerDecorator.State.OPEN : CircuitBreakerDecorator.State.CLOSED, now);
+                }
+                break;
+        }
+    }
+
+    public synchronized CircuitBreakerDecorator.@NonNull State getState(long now) {
+        if (state == CircuitBreakerDecorator.State.OPEN && now - openedAt >= openDurationMillis) {
+            transitionTo(CircuitBreakerDecorator.State.HALF_OPEN, now);
+        }
+        return state;
+    }
+
+    /**
+     * Gets the time left before the circuit lets trial calls through.
+     *
+     * @param now the current time in millis
+     * @return a non-negative duration in millis
+     */
+    public synchronized long getRemainingOpenMillis(long now) {
+        return state == CircuitBreakerDecorator.State.OPEN ? Math.max(0, openDurationMillis - (now - openedAt)) : 0;
+    }
+
+    private boolean isAboveThresholds() {
+        return failures >= failureRateThreshold * calls
+                || slowCalls >= slowCallRateThreshold * calls;
+    }
+
+    private void record(boolean failure, boolean slow) {
+        byte outcome = (byte) ((failure ? FAILURE : 0) | (slow ? SLOW : 0));
+        if (calls == window.length) {
+            byte evicted = window[position];
+            if ((evicted & FAILURE) != 0) failures--;
+            if ((evicted & SLOW) != 0) slowCalls--;
+        } else {
+            calls++;
+        }
+        window[position] = outcome;
+        position = (position + 1) % window.length;
+        if (failure) failures++;
+        if (slow) slowCalls++;
+    }
+
+    private void transitionTo(CircuitBreakerDecorator.State target, long now) {
+        CircuitBreakerDecorator.State previous = state;
+        state = target;
+        generation++;
+        position = 0;
+        calls = 0;
+        failures = 0;
+        slowCalls = 0;
+        trialPermits = 0;
+        if (target == CircuitBreakerDecorator.State.OPEN) {
+            openedAt = now;
+        }
+        transition.onStateChanged(previous, target);
+    }
+}
@@ -0,0 +1,141 @@
+package internal.io.http.ext;
+
+import lombok.NonNull;
+import nbbrd.design.ThreadSafe;
+import nbbrd.design.VisibleForTesting;
+import nbbrd.io.http.ext.ConcurrencyLimiter;
+import nbbrd.io.http.ext.ConcurrencyLimiterRegistry;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Default {@link ConcurrencyLimiterRegistry} backed by a {@link ConcurrentHashMap}.
+ * <p>
+ * A fresh {@link ConcurrencyLimiter} is created lazily per key via the supplied factory
+ * and reused for subsequent lookups of the same key.
+ * </p>
+ * <p>
+ * When bounded, entries are cleaned up as in {@link ConcurrentRateLimiterRegistry},
+ * except that a limiter with requests in flight is never removed: a fresh limiter for
+ * the same key would otherwise let more requests through than the limit.
+ * </p>
+ */
+@ThreadSafe
+public final class ConcurrentConcurrencyLimiterRegistry implements ConcurrencyLimiterRegistry {
+
+    private final ConcurrentMap<String, Entry> limiters = new ConcurrentHashMap<>();
+    private final Supplier<? extends ConcurrencyLimiter> factory;
+    private final int maxSize;
+    private final long expireAfterAccessMillis;
+    private final long cleanupIntervalMillis;
+    private final Clock clock;
+    private final AtomicLong nextCleanup;
+
+    public ConcurrentConcurrencyLimiterRegistry(@NonNull Supplier<? extends ConcurrencyLimiter> factory) {
+        this(factory, Integer.MAX_VALUE, null, Clock.systemUTC());
+    }
+
+    public ConcurrentConcurrencyLimiterRegistry(@NonNull Supplier<? extends ConcurrencyLimiter> factory, int maxSize, @Nullable Duration expireAfterAccess, @NonNull Clock clock) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be positive");
+        if (expireAfterAccess != null && expireAfterAccess.isNegative()) throw new IllegalArgumentException("expireAfterAccess must not be negative");
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.expireAfterAccessMillis = expireAfterAccess != null ? expireAfterAccess.toMillis() : Long.MAX_VALUE;
+        this.cleanupIntervalMillis = expireAfterAccess != null ? Math.max(1, expireAfterAccessMillis / 4) : Long.MAX_VALUE;
+        this.clock = clock;
+        this.nextCleanup = new AtomicLong(saturatedAdd(clock.millis(), cleanupIntervalMillis));
+    }
+
+    @Override
+    public @NonNull ConcurrencyLimiter forKey(@NonNull String key) {
+        Entry result = limiters.get(key);
+        if (result == null) {
+            result = limiters.computeIfAbsent(key, ignore -> new Entry(factory.get(), clock.millis()));
+        }
+        if (isBounded()) {
+            long now = clock.millis();
+            result.lastAccess = now;
+            cleanUpIfNeeded(now);
+        }
+        return result.limiter;
+    }
+
+    @VisibleForTesting
+    int size() {
+        return limiters.size();
+    }
+
+    private boolean isBounded() {
+        return maxSize != Integer.MAX_VALUE || expireAfterAccessMillis != Long.MAX_VALUE;
+    }
+
+    private void cleanUpIfNeeded(long now) {
+        long next = nextCleanup.get();
+        if ((now >= next || limiters.size() > maxSize)
+                && nextCleanup.compareAndSet(next, saturatedAdd(now, cleanupIntervalMillis))) {
+            cleanUp(now);
+        }
+    }
+
+    private void cleanUp(long now) {
+        if (expireAfterAccessMillis != Long.MAX_VALUE) {
+            long threshold = now - expireAfterAccessMillis;
+            for (String key : limiters.keySet()) {
+                // re-checked atomically so that an entry accessed meanwhile is kept
+                limiters.computeIfPresent(key, (k, entry) -> entry.lastAccess <= threshold && isIdle(entry) ? null : entry);
+            }
+        }
+        int overflow = limiters.size() - maxSize;
+        if (overflow > 0) {
+            int count = overflow + maxSize / 10;
+            // snapshots the access times so that the sort sees consistent values
+            List<Candidate> candidates = new ArrayList<>();
+            limiters.forEach((key, entry) -> {
+                if (isIdle(entry)) {
+                    candidates.add(new Candidate(key, entry, entry.lastAccess));
+                }
+            });
+            candidates.sort(Comparator.comparingLong(Candidate::getLastAccess));
+            for (Candidate candidate : candidates.subList(0, Math.min(count, candidates.size()))) {
+                limiters.remove(candidate.getKey(), candidate.getEntry());
+            }
+        }
+    }
+
+    private static boolean isIdle(Entry entry) {
+        return entry.limiter.getInFlight() == 0;
+    }
+
+    private static long saturatedAdd(long x, long y) {
+        long result = x + y;
+        return ((x ^ result) & (y ^ result)) < 0 ? Long.MAX_VALUE : result;
+    }
+
+    private static final class Entry {
+
+        private final ConcurrencyLimiter limiter;
+        private volatile long lastAccess;
+
+        private Entry(ConcurrencyLimiter limiter, long lastAccess) {
+            this.limiter = limiter;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    @lombok.Value
+    private static class Candidate {
+
+        String key;
+        Entry entry;
+        long lastAccess;
+    }
+}
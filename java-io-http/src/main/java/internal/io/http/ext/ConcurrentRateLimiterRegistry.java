@@ -2,11 +2,21 @@ package internal.io.http.ext;
 
 import lombok.NonNull;
 import nbbrd.design.ThreadSafe;
+import nbbrd.design.VisibleForTesting;
 import nbbrd.io.http.ext.RateLimiter;
 import nbbrd.io.http.ext.RateLimiterRegistry;
+import org.jspecify.annotations.Nullable;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 /**
@@ -15,20 +25,166 @@ import java.util.function.Supplier;
  * A fresh {@link RateLimiter} is created lazily per key via the supplied factory
  * and reused for subsequent lookups of the same key.
  * </p>
+ * <p>
+ * When bounded, each entry records its last access time. Lookups trigger a cleanup
+ * at most every quarter of {@code expireAfterAccess}, or as soon as the registry holds
+ * more than {@code maxSize} entries; the cleanup then removes the expired entries and
+ * the least recently accessed ones down to 90% of {@code maxSize}, so that its cost is
+ * amortized over many lookups. The learned rate of a removed limiter is kept as a
+ * restored rate, so that it survives until the limiter is created again or the rates
+ * are stored.
+ * </p>
  */
 @ThreadSafe
 public final class ConcurrentRateLimiterRegistry implements RateLimiterRegistry {
 
-    private final ConcurrentMap<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Entry> limiters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Double> restoredRates = new ConcurrentHashMap<>();
     private final Supplier<? extends RateLimiter> factory;
+    private final int maxSize;
+    private final long expireAfterAccessMillis;
+    private final long cleanupIntervalMillis;
+    private final Clock clock;
+    private final AtomicLong nextCleanup;
 
-    public ConcurrentRateLimiterRegistry(@NonNull Supplier<? extends RateLimiter> factory) {
+    public ConcurrentRateLimiterRegistry(@NonNull Supplier<? extends RateLimiter> factory, int maxSize, @Nullable Duration expireAfterAccess, @NonNull Clock clock) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be positive");
+        if (expireAfterAccess != null && expireAfterAccess.isNegative()) throw new IllegalArgumentException("expireAfterAccess must not be negative");
         this.factory = factory;
+        this.maxSize = maxSize;
+        this.expireAfterAccessMillis = expireAfterAccess != null ? expireAfterAccess.toMillis() : Long.MAX_VALUE;
+        this.cleanupIntervalMillis = expireAfterAccess != null ? Math.max(1, expireAfterAccessMillis / 4) : Long.MAX_VALUE;
+        this.clock = clock;
+        this.nextCleanup = new AtomicLong(saturatedAdd(clock.millis(), cleanupIntervalMillis));
     }
 
     @Override
     public @NonNull RateLimiter forKey(@NonNull String key) {
-        return limiters.computeIfAbsent(key, ignore -> factory.get());
+        Entry result = limiters.get(key);
+        if (result == null) {
+            result = limiters.computeIfAbsent(key, this::create);
+        }
+        if (isBounded()) {
+            long now = clock.millis();
+            result.lastAccess = now;
+            cleanUpIfNeeded(now);
+        }
+        return result.limiter;
     }
-}
 
+    @Override
+    public @NonNull Map<String, Double> getRates() {
+        Map<String, Double> result = new HashMap<>(restoredRates);
+        limiters.forEach((key, entry) -> {
+            double rate = entry.limiter.getLearnedPermitsPerSecond();
+            if (!Double.isNaN(rate)) {
+                result.put(key, rate);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void restoreRates(@NonNull Map<String, Double> rates) {
+        rates.forEach((key, rate) -> {
+            Entry entry = limiters.get(key);
+            if (entry != null) {
+                entry.limiter.restorePermitsPerSecond(rate);
+            } else {
+                putRestoredRate(key, rate);
+            }
+        });
+    }
+
+    private void putRestoredRate(String key, double rate) {
+        if (restoredRates.size() < maxSize || restoredRates.containsKey(key)) {
+            restoredRates.put(key, rate);
+        }
+    }
+
+    private void evict(String key, Entry entry) {
+        double rate = entry.limiter.getLearnedPermitsPerSecond();
+        if (!Double.isNaN(rate)) {
+            putRestoredRate(key, rate);
+        }
+    }
+
+    @VisibleForTesting
+    int size() {
+        return limiters.size();
+    }
+
+    private Entry create(String key) {
+        RateLimiter result = factory.get();
+        Double rate = restoredRates.remove(key);
+        if (rate != null) {
+            result.restorePermitsPerSecond(rate);
+        }
+        return new Entry(result, clock.millis());
+    }
+
+    private boolean isBounded() {
+        return maxSize != Integer.MAX_VALUE || expireAfterAccessMillis != Long.MAX_VALUE;
+    }
+
+    private void cleanUpIfNeeded(long now) {
+        long next = nextCleanup.get();
+        if ((now >= next || limiters.size() > maxSize)
+                && nextCleanup.compareAndSet(next, saturatedAdd(now, cleanupIntervalMillis))) {
+            cleanUp(now);
+        }
+    }
+
+    private void cleanUp(long now) {
+        if (expireAfterAccessMillis != Long.MAX_VALUE) {
+            long threshold = now - expireAfterAccessMillis;
+            for (String key : limiters.keySet()) {
+                // re-checked atomically so that an entry accessed meanwhile is kept
+                limiters.computeIfPresent(key, (k, entry) -> {
+                    if (entry.lastAccess > threshold) {
+                        return entry;
+                    }
+                    evict(k, entry);
+                    return null;
+                });
+            }
+        }
+        int overflow = limiters.size() - maxSize;
+        if (overflow > 0) {
+            int count = overflow + maxSize / 10;
+            // snapshots the access times so that the sort sees consistent values
+            List<Candidate> candidates = new ArrayList<>();
+            limiters.forEach((key, entry) -> candidates.add(new Candidate(key, entry, entry.lastAccess)));
+            candidates.sort(Comparator.comparingLong(Candidate::getLastAccess));
+            for (Candidate candidate : candidates.subList(0, Math.min(count, candidates.size()))) {
+                if (limiters.remove(candidate.getKey(), candidate.getEntry())) {
+                    evict(candidate.getKey(), candidate.getEntry());
+                }
+            }
+        }
+    }
+
+    private static long saturatedAdd(long x, long y) {
+        long result = x + y;
+        return ((x ^ result) & (y ^ result)) < 0 ? Long.MAX_VALUE : result;
+    }
+
+    private static final class Entry {
+
+        private final RateLimiter limiter;
+        private volatile long lastAccess;
+
+        private Entry(RateLimiter limiter, long lastAccess) {
+            this.limiter = limiter;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    @lombok.Value
+    private static class Candidate {
+
+        String key;
+        Entry entry;
+        long lastAccess;
+    }
+}
@@ -0,0 +1,54 @@
+package internal.io.http.ext;
+
+import nbbrd.design.ThreadSafe;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of the most recent latencies, used to estimate percentiles.
+ */
+@ThreadSafe
+public final class LatencyTracker {
+
+    private final long[] samples;
+    private final int minSamples;
+    private int count = 0;
+    private int next = 0;
+
+    /**
+     * @param windowSize the number of most recent samples kept
+     * @param minSamples the number of samples required before estimating a percentile
+     */
+    public LatencyTracker(int windowSize, int minSamples) {
+        if (windowSize < 1) throw new IllegalArgumentException("windowSize must be positive");
+        this.samples = new long[windowSize];
+        this.minSamples = Math.min(Math.max(1, minSamples), windowSize);
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * Estimates a percentile with the nearest-rank method.
+     *
+     * @param percentile a value in {@code (0, 1]}
+     * @return the latency in nanoseconds, or {@code -1} if there are not enough samples
+     */
+    public long percentile(double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            if (count < minSamples) return -1;
+            sorted = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.min(sorted.length, Math.max(1, rank)) - 1];
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+}
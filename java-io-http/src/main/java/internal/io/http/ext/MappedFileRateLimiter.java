@@ -0,0 +1,229 @@
+package internal.io.http.ext;
+
+import lombok.NonNull;
+import nbbrd.design.ThreadSafe;
+import nbbrd.design.VisibleForTesting;
+import nbbrd.io.http.ext.RateLimiter;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fixed-rate {@link RateLimiter} whose token bucket lives in a small memory-mapped
+ * file, so that co-located processes using the same file share a single quota.
+ * <p>
+ * The bucket is the same single timestamp as in {@link internal.io.http.TokenBucket}
+ * (the time at which it holds zero tokens), expressed in epoch microseconds so that
+ * all processes read the same time base. Each update holds a {@link FileLock} on the
+ * file; threads of the same JVM are serialized beforehand since file locks are held
+ * on behalf of the whole JVM.
+ * </p>
+ * <p>
+ * All processes are expected to use the same rate and burst, and the wall clock is
+ * expected not to step back (a step back delays the reservations by as much). The file
+ * stays open for the lifetime of the limiter, which is meant to be application-scoped.
+ * This limiter does not adapt its rate.
+ * </p>
+ */
+@ThreadSafe
+public final class MappedFileRateLimiter implements RateLimiter {
+
+    private static final int MAGIC = 0x524C4D31; // "RLM1"
+    private static final int MAGIC_OFFSET = 0;
+    private static final int ZERO_TOKENS_OFFSET = 8;
+    private static final int SIZE = 16;
+
+    // Marks a bucket that has not observed any time yet (and is therefore full).
+    private static final long NOT_SEEDED = 0L;
+
+    private static final double MICROS_PER_SECOND = 1_000_000.0;
+
+    // Bounds durations so that time arithmetic cannot overflow.
+    private static final long MAX_MICROS = Long.MAX_VALUE / 4;
+
+    // File locks are held per JVM, so concurrent updates of a file are first serialized per JVM;
+    // the locks are only weakly referenced so that files of discarded limiters are forgotten.
+    // Guarded by JVM_LOCKS.
+    private static final Map<Path, WeakReference<Object>> JVM_LOCKS = new HashMap<>();
+
+    private final Path file;
+    private final double permitsPerSecond;
+    private final Duration maxWait;
+    private final long intervalMicros;
+    private final long burstMicros;
+    private final long maxWaitMicros;
+    private final Clock clock;
+    private final Object jvmLock;
+    private final MappedByteBuffer buffer;
+
+    // Guarded by jvmLock; reopened if an interrupt closed it.
+    private FileChannel channel;
+
+    public MappedFileRateLimiter(@NonNull Path file, double permitsPerSecond, int maxBurst, @NonNull Duration maxWait, @NonNull Clock clock) throws IOException {
+        if (!(permitsPerSecond > 0)) throw new IllegalArgumentException("permitsPerSecond must be positive");
+        if (maxBurst <= 0) throw new IllegalArgumentException("maxBurst must be positive");
+        if (maxWait.isNegative()) throw new IllegalArgumentException("maxWait must not be negative");
+        this.permitsPerSecond = permitsPerSecond;
+        this.maxWait = maxWait;
+        this.intervalMicros = Math.max(1, Math.round(MICROS_PER_SECOND / permitsPerSecond));
+        this.burstMicros = multiply(maxBurst, intervalMicros);
+        this.maxWaitMicros = toMicros(maxWait);
+        this.clock = clock;
+        this.channel = open(file);
+        try {
+            this.file = file.toRealPath();
+            this.jvmLock = getJvmLock(this.file);
+            this.buffer = map(channel, jvmLock, file);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public long reserve() {
+        return reserve(1);
+    }
+
+    @Override
+    public long reserve(int permits) {
+        return reserve(permits, true);
+    }
+
+    @Override
+    public long tryReserve(int permits) {
+        return reserve(permits, false);
+    }
+
+    private long reserve(int permits, boolean ahead) {
+        if (permits <= 0) throw new IllegalArgumentException("permits must be positive");
+        long costMicros = multiply(permits, intervalMicros);
+        synchronized (jvmLock) {
+            try (FileLock ignore = getChannel().lock(0, SIZE, false)) {
+                long nowMicros = toMicros(clock.instant());
+                long current = buffer.getLong(ZERO_TOKENS_OFFSET);
+                // Tokens are only capped on the positive side; reservations ahead are preserved.
+                long start = current != NOT_SEEDED ? Math.max(current, nowMicros - burstMicros) : nowMicros - burstMicros;
+                long next = start + costMicros;
+                long availableMicros = ahead ? next : start + Math.min(costMicros, burstMicros);
+                long waitMicros = Math.max(0, availableMicros - nowMicros);
+                if (waitMicros > maxWaitMicros) {
+                    return WAIT_EXCEEDED;
+                }
+                if (!ahead && waitMicros > 0) {
+                    return toNanos(waitMicros);
+                }
+                buffer.putLong(ZERO_TOKENS_OFFSET, next);
+                return toNanos(waitMicros);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to update rate limiter file '" + file + "'", ex);
+            }
+        }
+    }
+
+    @Override
+    public @NonNull Duration getMaxWait() {
+        return maxWait;
+    }
+
+    @Override
+    public @Nullable RateChange onSuccess() {
+        return null;
+    }
+
+    @Override
+    public @Nullable RateChange onThrottled(@NonNull Duration retryAfter) {
+        return null;
+    }
+
+    @Override
+    public @Nullable RateChange onQuota(long remaining, @NonNull Duration reset) {
+        return null;
+    }
+
+    @Override
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    @Override
+    public void restorePermitsPerSecond(double permitsPerSecond) {
+        if (!(permitsPerSecond > 0)) throw new IllegalArgumentException("permitsPerSecond must be positive");
+    }
+
+    private FileChannel getChannel() throws IOException {
+        if (!channel.isOpen()) {
+            channel = open(file);
+        }
+        return channel;
+    }
+
+    private static Object getJvmLock(Path file) {
+        synchronized (JVM_LOCKS) {
+            JVM_LOCKS.values().removeIf(ref -> ref.get() == null);
+            WeakReference<Object> ref = JVM_LOCKS.get(file);
+            Object result = ref != null ? ref.get() : null;
+            if (result == null) {
+                result = new Object();
+                JVM_LOCKS.put(file, new WeakReference<>(result));
+            }
+            return result;
+        }
+    }
+
+    @VisibleForTesting
+    static int getJvmLockCount() {
+        synchronized (JVM_LOCKS) {
+            JVM_LOCKS.values().removeIf(ref -> ref.get() == null);
+            return JVM_LOCKS.size();
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, Object jvmLock, Path file) throws IOException {
+        synchronized (jvmLock) {
+            try (FileLock ignore = channel.lock()) {
+                // maps beyond the end of a new file, which then grows to SIZE zero bytes
+                MappedByteBuffer result = channel.map(FileChannel.MapMode.READ_WRITE, 0, SIZE);
+                if (result.getInt(MAGIC_OFFSET) == 0 && result.getLong(ZERO_TOKENS_OFFSET) == NOT_SEEDED) {
+                    result.putInt(MAGIC_OFFSET, MAGIC);
+                }
+                if (result.getInt(MAGIC_OFFSET) != MAGIC) {
+                    throw new IOException("Not a rate limiter file: '" + file + "'");
+                }
+                return result;
+            }
+        }
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+    }
+
+    private static long toMicros(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000;
+    }
+
+    private static long toMicros(Duration duration) {
+        return (long) Math.min(duration.getSeconds() * MICROS_PER_SECOND + duration.getNano() / 1_000, MAX_MICROS);
+    }
+
+    private static long toNanos(long micros) {
+        return Math.min(micros, Long.MAX_VALUE / 1_000) * 1_000;
+    }
+
+    private static long multiply(long count, long micros) {
+        return (long) Math.min((double) count * micros, MAX_MICROS);
+    }
+}
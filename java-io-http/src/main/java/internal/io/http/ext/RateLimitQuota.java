@@ -0,0 +1,142 @@
+package internal.io.http.ext;
+
+import lombok.NonNull;
+import nbbrd.design.StaticFactoryMethod;
+import nbbrd.io.http.HttpHeaders;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Remaining request quota advertised by a server through rate-limit response headers.
+ * <p>
+ * The following forms are recognized, in order of precedence:
+ * </p>
+ * <ul>
+ *     <li>{@code RateLimit: limit=100, remaining=50, reset=30} and its structured-field
+ *     variant {@code RateLimit: "default";r=50;t=30} (IETF httpapi drafts)</li>
+ *     <li>{@code RateLimit-Remaining: 50} with {@code RateLimit-Reset: 30} (earlier drafts)</li>
+ *     <li>{@code X-RateLimit-Remaining: 50} with {@code X-RateLimit-Reset} (de-facto
+ *     convention), whose reset is either a number of seconds or an epoch timestamp in
+ *     seconds or milliseconds</li>
+ * </ul>
+ *
+ * @see <a href="https://datatracker.ietf.org/doc/draft-ietf-httpapi-ratelimit-headers/">RateLimit header fields for HTTP</a>
+ */
+@lombok.Value
+public class RateLimitQuota {
+
+    public static final String RATE_LIMIT_HEADER = "RateLimit";
+    public static final String RATE_LIMIT_REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RATE_LIMIT_RESET_HEADER = "RateLimit-Reset";
+    public static final String X_RATE_LIMIT_REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String X_RATE_LIMIT_RESET_HEADER = "X-RateLimit-Reset";
+
+    // Values above these thresholds cannot be windows and are therefore timestamps.
+    private static final double EPOCH_SECONDS_THRESHOLD = 1e9;
+    private static final double EPOCH_MILLIS_THRESHOLD = 1e12;
+
+    /**
+     * The number of requests still allowed in the current window.
+     */
+    long remaining;
+
+    /**
+     * The time until the current window resets.
+     */
+    @NonNull
+    Duration reset;
+
+    /**
+     * Parses the quota from response headers.
+     *
+     * @param headers        the response headers
+     * @param nowEpochMillis the current time, used to resolve timestamp resets
+     * @return the quota, or {@code null} if the headers do not advertise a complete one
+     */
+    @StaticFactoryMethod
+    public static @Nullable RateLimitQuota parse(@NonNull HttpHeaders headers, long nowEpochMillis) {
+        RateLimitQuota result = headers.firstValue(RATE_LIMIT_HEADER)
+                .map(RateLimitQuota::parseRateLimitField)
+                .orElse(null);
+        if (result == null) {
+            result = parseSeparateFields(headers, RATE_LIMIT_REMAINING_HEADER, RATE_LIMIT_RESET_HEADER, nowEpochMillis);
+        }
+        if (result == null) {
+            result = parseSeparateFields(headers, X_RATE_LIMIT_REMAINING_HEADER, X_RATE_LIMIT_RESET_HEADER, nowEpochMillis);
+        }
+        return result;
+    }
+
+    private static @Nullable RateLimitQuota parseRateLimitField(String value) {
+        Long remaining = null;
+        Double reset = null;
+        for (String token : value.split("[,;]")) {
+            int eq = token.indexOf('=');
+            if (eq == -1) {
+                continue;
+            }
+            String name = token.substring(0, eq).trim().toLowerCase(Locale.ROOT);
+            String argument = token.substring(eq + 1);
+            switch (name) {
+                case "remaining":
+                case "r":
+                    remaining = parseCount(argument);
+                    break;
+                case "reset":
+                case "t":
+                    reset = parseNumber(argument);
+                    break;
+            }
+        }
+        return of(remaining, reset != null ? toDuration(reset) : null);
+    }
+
+    private static @Nullable RateLimitQuota parseSeparateFields(HttpHeaders headers, String remainingHeader, String resetHeader, long nowEpochMillis) {
+        Long remaining = headers.firstValue(remainingHeader).map(RateLimitQuota::parseCount).orElse(null);
+        Double reset = headers.firstValue(resetHeader).map(RateLimitQuota::parseNumber).orElse(null);
+        return of(remaining, reset != null ? toDuration(reset, nowEpochMillis) : null);
+    }
+
+    private static @Nullable RateLimitQuota of(@Nullable Long remaining, @Nullable Duration reset) {
+        return remaining != null && reset != null ? new RateLimitQuota(remaining, reset) : null;
+    }
+
+    private static @Nullable Long parseCount(String value) {
+        Double result = parseNumber(value);
+        return result != null ? (long) Math.floor(result) : null;
+    }
+
+    private static @Nullable Double parseNumber(String value) {
+        // keeps the leading number only, dropping any policy suffix such as "100, 100;w=60"
+        String text = value.trim();
+        int end = 0;
+        while (end < text.length() && (Character.isDigit(text.charAt(end)) || text.charAt(end) == '.')) {
+            end++;
+        }
+        if (end == 0) {
+            return null;
+        }
+        try {
+            double result = Double.parseDouble(text.substring(0, end));
+            return Double.isFinite(result) ? result : null;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static Duration toDuration(double seconds) {
+        return Duration.ofMillis((long) (seconds * 1000));
+    }
+
+    private static Duration toDuration(double value, long nowEpochMillis) {
+        if (value >= EPOCH_MILLIS_THRESHOLD) {
+            return Duration.ofMillis(Math.max(0, (long) value - nowEpochMillis));
+        }
+        if (value >= EPOCH_SECONDS_THRESHOLD) {
+            return Duration.ofMillis(Math.max(0, (long) (value * 1000) - nowEpochMillis));
+        }
+        return toDuration(value);
+    }
+}
@@ -0,0 +1,64 @@
+package internal.io.http.ext;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Reads and writes the rates of a {@link nbbrd.io.http.ext.RateLimiterRegistry} as a
+ * properties file (key = permits per second).
+ */
+@lombok.experimental.UtilityClass
+public class RateLimiterRates {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    public void store(@NonNull Path file, @NonNull Map<String, Double> rates) throws IOException {
+        Properties properties = new Properties();
+        rates.forEach((key, rate) -> properties.setProperty(key, Double.toString(rate)));
+        Path temp = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+        try {
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                properties.store(output, "Rate limiter rates (permits per second)");
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public @NonNull Map<String, Double> load(@NonNull Path file) throws IOException {
+        Map<String, Double> result = new HashMap<>();
+        if (!Files.exists(file)) {
+            return result;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(file)) {
+            properties.load(input);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                double rate = Double.parseDouble(properties.getProperty(key));
+                if (rate > 0) {
+                    result.put(key, rate);
+                }
+            } catch (NumberFormatException ex) {
+                // skips invalid entries
+            }
+        }
+        return result;
+    }
+}
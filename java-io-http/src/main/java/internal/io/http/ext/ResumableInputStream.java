@@ -0,0 +1,112 @@
+package internal.io.http.ext;
+
+import lombok.NonNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+
+/**
+ * Input stream that reopens its source at the current position when a read fails.
+ *
+ * <p>Any {@link IOException} other than an {@link InterruptedIOException} (timeouts,
+ * interrupts) triggers a resume, as does an end of stream before the expected length.
+ * Reopening is attempted again on {@link SocketException}. The number of resumes is
+ * bounded; once exhausted, the failure is rethrown.</p>
+ */
+public final class ResumableInputStream extends InputStream {
+
+    @FunctionalInterface
+    public interface Reopener {
+
+        @NonNull
+        InputStream reopen(long position, int attempt, @NonNull IOException cause) throws IOException;
+    }
+
+    private final long length;
+    private final int maxResumes;
+    private final Reopener reopener;
+    private InputStream delegate;
+    private long position = 0;
+    private int resumes = 0;
+
+    /**
+     * @param delegate   the initial stream
+     * @param length     the expected total length, or {@code -1} if unknown
+     * @param maxResumes the maximum number of resumes
+     * @param reopener   the function that reopens the source at a position
+     */
+    public ResumableInputStream(@NonNull InputStream delegate, long length, int maxResumes, @NonNull Reopener reopener) {
+        this.delegate = delegate;
+        this.length = length;
+        this.maxResumes = maxResumes;
+        this.reopener = reopener;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int n = read(single, 0, 1);
+        return n == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte @NonNull [] b, int off, int len) throws IOException {
+        while (true) {
+            try {
+                int result = delegate.read(b, off, len);
+                if (result == -1 && length >= 0 && position < length) {
+                    throw new EOFException("Premature end of stream at byte " + position + " of " + length);
+                }
+                if (result > 0) {
+                    position += result;
+                }
+                return result;
+            } catch (IOException ex) {
+                if (ex instanceof InterruptedIOException || resumes >= maxResumes) {
+                    throw ex;
+                }
+                resume(ex);
+            }
+        }
+    }
+
+    @Override
+    public int available() throws IOException {
+        return delegate.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    private void resume(IOException cause) throws IOException {
+        try {
+            delegate.close();
+        } catch (IOException ex) {
+            cause.addSuppressed(ex);
+        }
+        IOException last = cause;
+        while (true) {
+            resumes++;
+            try {
+                delegate = reopener.reopen(position, resumes, last);
+                return;
+            } catch (IOException ex) {
+                // only connection failures are worth another attempt when reopening
+                if (!(ex instanceof SocketException) || resumes >= maxResumes) {
+                    ex.addSuppressed(cause);
+                    throw ex;
+                }
+                last = ex;
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package internal.io.http.ext;
+
+import internal.io.http.ByteChannels;
+import lombok.NonNull;
+import nbbrd.io.http.HttpHeaders;
+import nbbrd.io.http.HttpResponse;
+import nbbrd.io.net.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * {@link HttpResponse} whose body has been fully downloaded to a temporary file.
+ *
+ * <p>{@link #transferTo(Path)} moves the file instead of copying it, and
+ * {@link #close()} deletes the file if it is still there.</p>
+ */
+@lombok.RequiredArgsConstructor
+public final class TempFileHttpResponse implements HttpResponse {
+
+    private final int statusCode;
+
+    @lombok.NonNull
+    private final HttpHeaders headers;
+
+    @lombok.NonNull
+    private final Path file;
+
+    private InputStream stream = null;
+
+    @Override
+    public @NonNull MediaType getContentType() throws IOException {
+        String contentTypeOrNull = headers.firstValue(HttpHeaders.HTTP_CONTENT_TYPE_HEADER).orElse(null);
+        if (contentTypeOrNull == null) return NO_CONTENT_TYPE;
+        try {
+            return MediaType.parse(contentTypeOrNull);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Invalid content-type in HTTP response header: '" + contentTypeOrNull + "'", ex);
+        }
+    }
+
+    @Override
+    public long getContentLength() throws IOException {
+        return Files.size(file);
+    }
+
+    @Override
+    public @NonNull HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    @Override
+    public @NonNull InputStream getBody() throws IOException {
+        if (stream == null) {
+            stream = Files.newInputStream(file);
+        }
+        return stream;
+    }
+
+    @Override
+    public long transferTo(@NonNull Path target) throws IOException {
+        if (stream != null) {
+            return HttpResponse.super.transferTo(target);
+        }
+        long result = Files.size(file);
+        try {
+            Files.move(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return result;
+    }
+
+    @Override
+    public long transferTo(@NonNull WritableByteChannel target) throws IOException {
+        if (stream != null) {
+            return HttpResponse.super.transferTo(target);
+        }
+        try (FileChannel source = FileChannel.open(file)) {
+            return ByteChannels.transfer(source, target);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (stream != null) {
+                stream.close();
+                stream = null;
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
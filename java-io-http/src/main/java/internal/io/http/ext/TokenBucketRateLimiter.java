@@ -14,6 +14,12 @@ import java.time.Duration;
  * adaptive learning state (current rate and success streak). A single instance is
  * meant to be shared across many short-lived clients.
  * </p>
+ * <p>
+ * A quota advertised by the server overrides the learned rate and burst until its
+ * window resets: half of the remaining requests (up to the configured burst) stay
+ * available at once and the other half is spread over the window, so that the quota
+ * cannot be exceeded. The learned limits are restored once the window is over.
+ * </p>
  */
 @ThreadSafe
 public final class TokenBucketRateLimiter implements RateLimiter {
@@ -28,14 +34,21 @@ public final class TokenBucketRateLimiter implements RateLimiter {
     private static final int RECOVERY_SUCCESS_THRESHOLD = 5;
     private static final double RECOVERY_FACTOR = 2.0;
     private static final double MIN_RATE = 0.1;
+    private static final long NO_QUOTA = Long.MIN_VALUE;
+    private static final long MAX_QUOTA_RESET_NANOS = Long.MAX_VALUE / 4;
 
     private final TokenBucket bucket;
     private final Duration maxWait;
     private final boolean adaptive;
     private final double initialPermitsPerSecond;
+    private final int maxBurst;
 
     // Guarded by this monitor (adaptation is best-effort and off the hot path).
     private int consecutiveSuccesses;
+    private double learnedPermitsPerSecond;
+
+    // Written under this monitor; read without it by reserve().
+    private volatile long quotaResetNanos = NO_QUOTA;
 
     public TokenBucketRateLimiter(double permitsPerSecond, int maxBurst, Duration maxWait, boolean adaptive) {
         if (maxWait == null || maxWait.isNegative()) throw new IllegalArgumentException("maxWait must not be negative");
@@ -43,15 +56,41 @@ public final class TokenBucketRateLimiter implements RateLimiter {
         this.maxWait = maxWait;
         this.adaptive = adaptive;
         this.initialPermitsPerSecond = permitsPerSecond;
+        this.maxBurst = maxBurst;
     }
 
     @Override
     public long reserve() {
-        // Fast path: an effectively unlimited bucket never throttles.
-        if (bucket.isUnlimited()) {
+        return reserve(1);
+    }
+
+    @Override
+    public long reserve(int permits) {
+        long nowNanos = System.nanoTime();
+        if (isUnlimited(nowNanos, permits)) {
             return NO_WAIT;
         }
-        return bucket.reserve(System.nanoTime());
+        return bucket.reserve(nowNanos, permits);
+    }
+
+    @Override
+    public long tryReserve(int permits) {
+        long nowNanos = System.nanoTime();
+        if (isUnlimited(nowNanos, permits)) {
+            return NO_WAIT;
+        }
+        return bucket.tryReserve(nowNanos, permits);
+    }
+
+    // Also ends an expired quota window, so that reservations see the restored limits.
+    private boolean isUnlimited(long nowNanos, int permits) {
+        if (permits <= 0) throw new IllegalArgumentException("permits must be positive");
+        long resetNanos = quotaResetNanos;
+        if (resetNanos != NO_QUOTA && nowNanos - resetNanos >= 0) {
+            endQuota(nowNanos);
+        }
+        // Fast path: an effectively unlimited bucket never throttles.
+        return bucket.isUnlimited();
     }
 
     @Override
@@ -60,8 +99,30 @@ public final class TokenBucketRateLimiter implements RateLimiter {
     }
 
     @Override
-    public synchronized @Nullable RateChange onSuccess() {
+    public double getPermitsPerSecond() {
+        return bucket.getPermitsPerSecond();
+    }
+
+    @Override
+    public synchronized double getLearnedPermitsPerSecond() {
+        return quotaResetNanos != NO_QUOTA ? learnedPermitsPerSecond : bucket.getPermitsPerSecond();
+    }
+
+    @Override
+    public synchronized void restorePermitsPerSecond(double permitsPerSecond) {
+        if (!(permitsPerSecond > 0)) throw new IllegalArgumentException("permitsPerSecond must be positive");
         if (!adaptive) {
+            return;
+        }
+        consecutiveSuccesses = 0;
+        quotaResetNanos = NO_QUOTA;
+        bucket.setLimits(Math.max(Math.min(permitsPerSecond, initialPermitsPerSecond), MIN_RATE), maxBurst, System.nanoTime());
+    }
+
+    @Override
+    public synchronized @Nullable RateChange onSuccess() {
+        // The advertised quota is more accurate than blind probing.
+        if (!adaptive || quotaResetNanos != NO_QUOTA) {
             return null;
         }
         double currentRate = bucket.getPermitsPerSecond();
@@ -85,8 +146,9 @@ public final class TokenBucketRateLimiter implements RateLimiter {
         if (!adaptive) {
             return null;
         }
-        // A 429 breaks any recovery streak.
+        // A 429 breaks any recovery streak and shows that the quota was not accurate.
         consecutiveSuccesses = 0;
+        quotaResetNanos = NO_QUOTA;
 
         double oldRate = bucket.getPermitsPerSecond();
         double newRate;
@@ -99,8 +161,39 @@ public final class TokenBucketRateLimiter implements RateLimiter {
             newRate = oldRate / 2.0;
         }
         newRate = Math.max(newRate, MIN_RATE);
-        bucket.setPermitsPerSecond(newRate);
+        bucket.setLimits(newRate, maxBurst, System.nanoTime());
         return new RateChange(oldRate, newRate);
     }
-}
 
+    @Override
+    public synchronized @Nullable RateChange onQuota(long remaining, Duration reset) {
+        if (remaining < 0) throw new IllegalArgumentException("remaining must not be negative");
+        if (!adaptive || reset.isNegative() || reset.isZero()) {
+            return null;
+        }
+        consecutiveSuccesses = 0;
+        long nowNanos = System.nanoTime();
+        if (quotaResetNanos == NO_QUOTA) {
+            learnedPermitsPerSecond = bucket.getPermitsPerSecond();
+        }
+        double oldRate = bucket.getPermitsPerSecond();
+        int burst = (int) Math.min(maxBurst, remaining / 2);
+        double newRate = Math.max(remaining - burst, 1) / (reset.getSeconds() + reset.getNano() / 1e9);
+        if (newRate >= learnedPermitsPerSecond) {
+            // The quota is looser than the learned rate.
+            endQuota(nowNanos);
+        } else {
+            bucket.setLimits(newRate, burst, nowNanos);
+            quotaResetNanos = nowNanos + (reset.getSeconds() < MAX_QUOTA_RESET_NANOS / 1_000_000_000 ? reset.toNanos() : MAX_QUOTA_RESET_NANOS);
+        }
+        newRate = bucket.getPermitsPerSecond();
+        return oldRate != newRate ? new RateChange(oldRate, newRate) : null;
+    }
+
+    private synchronized void endQuota(long nowNanos) {
+        if (quotaResetNanos != NO_QUOTA) {
+            quotaResetNanos = NO_QUOTA;
+            bucket.setLimits(learnedPermitsPerSecond, maxBurst, nowNanos);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package internal.io.http.ext;
+
+import nbbrd.design.ThreadSafe;
+import nbbrd.io.http.ext.RetryBudget;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Default {@link RetryBudget}: a lock-free balance of tokens, counted in thousandths
+ * so that fractional deposits do not need floating-point arithmetic.
+ */
+@ThreadSafe
+public final class TokenRetryBudget implements RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    public TokenRetryBudget(double retryRatio, int maxRetries) {
+        if (!(retryRatio >= 0 && retryRatio <= 1)) throw new IllegalArgumentException("retryRatio must be in [0, 1]");
+        if (maxRetries < 0) throw new IllegalArgumentException("maxRetries must not be negative");
+        this.deposit = Math.round(retryRatio * SCALE);
+        this.capacity = maxRetries * SCALE;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    @Override
+    public void onRequest() {
+        balance.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+    }
+
+    @Override
+    public boolean tryRetry() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+}
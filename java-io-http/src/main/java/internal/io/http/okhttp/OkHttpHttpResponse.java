@@ -1,5 +1,6 @@
 package internal.io.http.okhttp;
 
+import internal.io.http.ByteChannels;
 import lombok.NonNull;
 import nbbrd.io.http.HttpHeaders;
 import nbbrd.io.http.HttpResponse;
@@ -8,6 +9,7 @@ import okhttp3.Response;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -59,6 +61,12 @@ public final class OkHttpHttpResponse implements HttpResponse {
         return response.body().byteStream();
     }
 
+    @Override
+    public long transferTo(@NonNull WritableByteChannel target) throws IOException {
+        // okio sources are channels themselves, so no stream adapter is needed
+        return ByteChannels.transfer(response.body().source(), target);
+    }
+
     @Override
     public void close() {
         response.close();
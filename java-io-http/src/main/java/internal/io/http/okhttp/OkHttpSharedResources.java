@@ -0,0 +1,90 @@
+package internal.io.http.okhttp;
+
+import lombok.NonNull;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OkHttp resources shared by all clients of this library, so that short-lived clients
+ * reuse connections and threads instead of creating their own.
+ * <p>
+ * Connection pools are shared per configuration (idle connections and keep-alive), and
+ * so are dispatchers (concurrent asynchronous calls in total and per host).
+ * A pooled connection is only handed to a client whose address matches, including its
+ * proxy selector, socket factory and hostname verifier, so clients with different
+ * settings can safely share a pool.
+ * </p>
+ */
+@lombok.experimental.UtilityClass
+public class OkHttpSharedResources {
+
+    private static final ConcurrentMap<PoolKey, ConnectionPool> POOLS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<DispatcherKey, Dispatcher> DISPATCHERS = new ConcurrentHashMap<>();
+
+    public @NonNull ConnectionPool getConnectionPool(int maxIdleConnections, long keepAliveMillis) {
+        if (maxIdleConnections < 0) throw new IllegalArgumentException("maxIdleConnections must not be negative");
+        if (keepAliveMillis <= 0) throw new IllegalArgumentException("keepAliveMillis must be positive");
+        return POOLS.computeIfAbsent(new PoolKey(maxIdleConnections, keepAliveMillis),
+                key -> new ConnectionPool(key.getMaxIdleConnections(), key.getKeepAliveMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    public @NonNull Dispatcher getDispatcher(int maxRequests, int maxRequestsPerHost) {
+        if (maxRequests <= 0) throw new IllegalArgumentException("maxRequests must be positive");
+        if (maxRequestsPerHost <= 0) throw new IllegalArgumentException("maxRequestsPerHost must be positive");
+        return DISPATCHERS.computeIfAbsent(new DispatcherKey(maxRequests, maxRequestsPerHost), OkHttpSharedResources::newDispatcher);
+    }
+
+    public @NonNull X509TrustManager getDefaultTrustManager() {
+        return TrustManagerHolder.INSTANCE;
+    }
+
+    @lombok.Value
+    private static class PoolKey {
+
+        int maxIdleConnections;
+        long keepAliveMillis;
+    }
+
+    @lombok.Value
+    private static class DispatcherKey {
+
+        int maxRequests;
+        int maxRequestsPerHost;
+    }
+
+    private static Dispatcher newDispatcher(DispatcherKey key) {
+        Dispatcher result = new Dispatcher();
+        result.setMaxRequests(key.getMaxRequests());
+        result.setMaxRequestsPerHost(key.getMaxRequestsPerHost());
+        return result;
+    }
+
+    private static final class TrustManagerHolder {
+
+        private static final X509TrustManager INSTANCE = loadDefaultTrustManager();
+
+        private static X509TrustManager loadDefaultTrustManager() {
+            try {
+                TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+                tmf.init((KeyStore) null);
+                return Arrays.stream(tmf.getTrustManagers())
+                        .filter(X509TrustManager.class::isInstance)
+                        .map(X509TrustManager.class::cast)
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalStateException("No X509TrustManager found"));
+            } catch (NoSuchAlgorithmException | KeyStoreException ex) {
+                throw new IllegalStateException("Cannot initialize default trust manager", ex);
+            }
+        }
+    }
+}
@@ -4,28 +4,58 @@ import lombok.NonNull;
 import nbbrd.io.Resource;
 import nbbrd.io.http.HttpHeaders;
 import nbbrd.io.http.HttpResponse;
+import nbbrd.io.http.ext.MetricsListener;
 import nbbrd.io.http.urlconnection.UrlConnectionEncoding;
 import nbbrd.io.net.MediaType;
 import org.jspecify.annotations.Nullable;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.net.HttpURLConnection;
+import java.net.URI;
 import java.util.List;
 
 /**
+ * {@link HttpResponse} backed by an {@link HttpURLConnection}.
+ * <p>
+ * On close, the unread part of the body is drained (up to {@code drainLimit} bytes and
+ * {@code drainTimeoutMillis}) so that the connection goes back to the keep-alive cache
+ * of {@link HttpURLConnection}; the connection is only disconnected when the body is
+ * too large or too slow to drain. Closing the body stream does the same.
+ * The drain timeout is best-effort: it is checked between reads, so a single blocked
+ * read is only bounded by the read timeout of the connection, which cannot be changed
+ * once the response has been received.
+ * </p>
+ *
  * @author Philippe Charles
  */
 @lombok.RequiredArgsConstructor
 public final class UrlConnectionHttpResponse implements HttpResponse {
 
+    private static final int DRAIN_BUFFER_SIZE = 8192;
+
     @lombok.NonNull
     private final HttpURLConnection conn;
 
     @lombok.NonNull
     private final List<UrlConnectionEncoding> decoders;
 
+    @lombok.NonNull
+    private final URI query;
+
+    private final long drainLimit;
+
+    private final int drainTimeoutMillis;
+
+    @lombok.NonNull
+    private final MetricsListener listener;
+
+    private @Nullable InputStream responseStream = null;
+
+    private boolean released = false;
+
     @Override
     public @NonNull MediaType getContentType() throws IOException {
         String contentTypeOrNull = conn.getContentType();
@@ -55,13 +85,20 @@ public final class UrlConnectionHttpResponse implements HttpResponse {
     @Override
     public @NonNull InputStream getBody() throws IOException {
         String encodingOrNull = conn.getContentEncoding();
-        return findDecoderByName(encodingOrNull).decode(getResponseStream());
+        return findDecoderByName(encodingOrNull).decode(new ReleasingInputStream(getResponseStream()));
     }
 
     // Mirror the behavior of the okhttp and curl implementations: the body must be
     // available for any status code. HttpURLConnection#getInputStream throws on error
     // codes (>= 400), so the error body must be read from #getErrorStream instead.
     private @NonNull InputStream getResponseStream() throws IOException {
+        if (responseStream == null) {
+            responseStream = openResponseStream();
+        }
+        return responseStream;
+    }
+
+    private @NonNull InputStream openResponseStream() throws IOException {
         if (conn.getResponseCode() >= HttpURLConnection.HTTP_BAD_REQUEST) {
             InputStream errorStream = conn.getErrorStream();
             return errorStream != null ? errorStream : Resource.nullInputStream();
@@ -79,10 +116,67 @@ public final class UrlConnectionHttpResponse implements HttpResponse {
 
     @Override
     public void close() throws IOException {
+        release();
+    }
+
+    private void release() throws IOException {
+        if (released) {
+            return;
+        }
+        released = true;
+        boolean keptAlive = false;
+        try {
+            keptAlive = drain();
+        } finally {
+            if (!keptAlive) {
+                disconnect();
+            }
+            listener.onConnectionReleased(query, keptAlive);
+        }
+    }
+
+    // Closing a fully read stream hands the connection over to the keep-alive cache,
+    // whereas disconnecting would close it.
+    private boolean drain() {
+        try {
+            if (responseStream == null && conn.getContentLengthLong() > drainLimit) {
+                return false;
+            }
+            InputStream stream = getResponseStream();
+            long deadline = System.nanoTime() + drainTimeoutMillis * 1_000_000L;
+            byte[] buffer = new byte[DRAIN_BUFFER_SIZE];
+            long drained = 0;
+            int count;
+            while ((count = stream.read(buffer)) != -1) {
+                drained += count;
+                if (drained > drainLimit || System.nanoTime() - deadline > 0) {
+                    return false;
+                }
+            }
+            stream.close();
+            return true;
+        } catch (IOException | UncheckedIOException ex) {
+            return false;
+        }
+    }
+
+    private void disconnect() throws IOException {
         try {
             conn.disconnect();
         } catch (UncheckedIOException ex) {
             throw ex.getCause();
         }
     }
+
+    private final class ReleasingInputStream extends FilterInputStream {
+
+        private ReleasingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() throws IOException {
+            release();
+        }
+    }
 }
@@ -0,0 +1,48 @@
+package nbbrd.io.http;
+
+import internal.io.http.ExecutorAsyncHttpClient;
+import lombok.NonNull;
+import nbbrd.design.StaticFactoryMethod;
+import nbbrd.design.ThreadSafe;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of {@link HttpClient}.
+ * <p>
+ * The returned future completes with the response as soon as its status line
+ * and headers are available; the body is read afterwards through
+ * {@link HttpResponse#getBody()}. Failures complete the future exceptionally
+ * with the original {@link java.io.IOException} (not wrapped).
+ * </p>
+ * <p>
+ * Unlike {@link HttpClient}, implementations must be thread-safe so that a
+ * single instance can fan out many concurrent requests.
+ * </p>
+ */
+@ThreadSafe
+public interface AsyncHttpClient {
+
+    @NonNull String getDescription();
+
+    @NonNull CompletableFuture<HttpResponse> sendAsync(@NonNull HttpRequest request);
+
+    /**
+     * Bridges blocking {@link HttpClient}s to the asynchronous API by running each
+     * request on the given executor.
+     * <p>
+     * Since {@link HttpClient} is not thread-safe, a client is obtained from
+     * {@code clients} for every request.
+     * </p>
+     *
+     * @param clients  the supplier of blocking clients
+     * @param executor the executor running the blocking calls
+     * @return a non-null asynchronous client
+     */
+    @StaticFactoryMethod
+    static @NonNull AsyncHttpClient bridge(@NonNull Supplier<? extends HttpClient> clients, @NonNull Executor executor) {
+        return new ExecutorAsyncHttpClient(clients, executor);
+    }
+}
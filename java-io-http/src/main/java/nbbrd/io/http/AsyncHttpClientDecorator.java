@@ -0,0 +1,9 @@
+package nbbrd.io.http;
+
+import lombok.NonNull;
+
+public interface AsyncHttpClientDecorator extends AsyncHttpClient {
+
+    @NonNull
+    AsyncHttpClient getDecorated();
+}
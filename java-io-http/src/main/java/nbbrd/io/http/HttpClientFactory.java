@@ -3,6 +3,8 @@ package nbbrd.io.http;
 import lombok.NonNull;
 import nbbrd.service.*;
 
+import java.util.concurrent.Executor;
+
 @ServiceDefinition(
         quantifier = Quantifier.MULTIPLE
 )
@@ -20,4 +22,20 @@ public interface HttpClientFactory {
 
     @NonNull
     HttpClient getClient(@NonNull HttpContext context);
+
+    /**
+     * Creates an asynchronous client for the given context.
+     * <p>
+     * The default implementation bridges {@link #getClient(HttpContext)} to the
+     * given executor; factories whose backend is natively asynchronous may
+     * override it and ignore the executor.
+     * </p>
+     *
+     * @param context  the HTTP context
+     * @param executor the executor running blocking calls, if any
+     * @return a non-null asynchronous client
+     */
+    default @NonNull AsyncHttpClient getAsyncClient(@NonNull HttpContext context, @NonNull Executor executor) {
+        return AsyncHttpClient.bridge(() -> getClient(context), executor);
+    }
 }
@@ -5,8 +5,10 @@ import org.jspecify.annotations.Nullable;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLSocketFactory;
 import java.net.ProxySelector;
+import java.security.NoSuchAlgorithmException;
 import java.util.function.Supplier;
 
 @lombok.Value
@@ -29,6 +31,14 @@ public class HttpContext {
     @lombok.Builder.Default
     Supplier<SSLSocketFactory> sslSocketFactory = HttpsURLConnection::getDefaultSSLSocketFactory;
 
+    /**
+     * SSL context for backends that cannot be configured with a socket factory
+     * (e.g. {@code java.net.http}).
+     */
+    @lombok.NonNull
+    @lombok.Builder.Default
+    Supplier<SSLContext> sslContext = HttpContext::getDefaultSSLContext;
+
     @lombok.NonNull
     @lombok.Builder.Default
     Supplier<HostnameVerifier> hostnameVerifier = HttpsURLConnection::getDefaultHostnameVerifier;
@@ -39,4 +49,12 @@ public class HttpContext {
 
     @lombok.Builder.Default
     boolean normalizeUri = false;
+
+    private static SSLContext getDefaultSSLContext() {
+        try {
+            return SSLContext.getDefault();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Cannot initialize default SSL context", ex);
+        }
+    }
 }
@@ -1,14 +1,15 @@
 package nbbrd.io.http;
 
-import lombok.AccessLevel;
 import lombok.NonNull;
+import org.jspecify.annotations.Nullable;
 
+import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 
 @lombok.Value
 @lombok.Builder(toBuilder = true)
-@lombok.AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class HttpRequest {
 
     @NonNull
@@ -25,10 +26,41 @@ public class HttpRequest {
     @lombok.Builder.Default
     byte[] body = null;
 
+    /**
+     * Streaming alternative to {@link #body}; both cannot be set at the same time.
+     */
+    @Nullable
+    @lombok.Builder.Default
+    HttpRequestBody streamingBody = null;
+
+    private HttpRequest(@NonNull HttpMethod method, @NonNull URI query, @NonNull HttpHeaders headers, byte @Nullable [] body, @Nullable HttpRequestBody streamingBody) {
+        if (body != null && streamingBody != null) {
+            throw new IllegalArgumentException("Cannot set both body and streaming body");
+        }
+        this.method = method;
+        this.query = query;
+        this.headers = headers;
+        this.body = body;
+        this.streamingBody = streamingBody;
+    }
+
+    /**
+     * Gets the body to send, whether it was set as bytes or as a streaming body.
+     *
+     * @return the body to send, or {@code null} if the request has no body
+     */
+    public @Nullable HttpRequestBody getEffectiveBody() {
+        return body != null ? HttpRequestBody.ofBytes(body) : streamingBody;
+    }
+
     public static final class Builder {
 
         public Builder bodyOf(String content) {
             return body(content.getBytes(StandardCharsets.UTF_8));
         }
+
+        public Builder bodyOf(Path file) throws IOException {
+            return streamingBody(HttpRequestBody.ofFile(file));
+        }
     }
 }
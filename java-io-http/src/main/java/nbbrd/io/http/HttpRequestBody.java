@@ -0,0 +1,104 @@
+package nbbrd.io.http;
+
+import lombok.AccessLevel;
+import lombok.NonNull;
+import nbbrd.design.StaticFactoryMethod;
+import nbbrd.io.function.IOSupplier;
+import org.jspecify.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Streaming HTTP request body.
+ * <p>
+ * The content is opened on demand, possibly more than once (e.g. when a backend
+ * retries the request), so the supplier must return a fresh stream on each call.
+ * A body with an unknown length ({@link #UNKNOWN_LENGTH}) is sent with chunked
+ * transfer encoding by the backends that support it.
+ * </p>
+ */
+@lombok.Value
+@lombok.AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class HttpRequestBody {
+
+    public static final long UNKNOWN_LENGTH = -1;
+
+    @StaticFactoryMethod
+    public static @NonNull HttpRequestBody ofBytes(@NonNull byte[] bytes) {
+        return new HttpRequestBody(() -> new ByteArrayInputStream(bytes), bytes.length, null);
+    }
+
+    @StaticFactoryMethod
+    public static @NonNull HttpRequestBody ofStream(@NonNull IOSupplier<? extends InputStream> content) {
+        return new HttpRequestBody(content, UNKNOWN_LENGTH, null);
+    }
+
+    @StaticFactoryMethod
+    public static @NonNull HttpRequestBody ofStream(@NonNull IOSupplier<? extends InputStream> content, long length) {
+        if (length < UNKNOWN_LENGTH) {
+            throw new IllegalArgumentException("Invalid length: " + length);
+        }
+        return new HttpRequestBody(content, length, null);
+    }
+
+    /**
+     * Creates a body backed by a file whose length is read when the body is created.
+     *
+     * @param file the file to upload
+     * @return a non-null body
+     * @throws IOException if the file size cannot be read
+     */
+    @StaticFactoryMethod
+    public static @NonNull HttpRequestBody ofFile(@NonNull Path file) throws IOException {
+        return new HttpRequestBody(() -> Files.newInputStream(file), Files.size(file), file);
+    }
+
+    @lombok.Getter(AccessLevel.NONE)
+    @NonNull
+    IOSupplier<? extends InputStream> content;
+
+    /**
+     * Length in bytes, or {@link #UNKNOWN_LENGTH}.
+     */
+    long length;
+
+    @lombok.Getter(AccessLevel.NONE)
+    @Nullable
+    Path file;
+
+    public boolean hasKnownLength() {
+        return length != UNKNOWN_LENGTH;
+    }
+
+    /**
+     * Gets the backing file, if any, so that backends can upload it directly.
+     *
+     * @return a non-null optional
+     */
+    public @NonNull Optional<Path> getFile() {
+        return Optional.ofNullable(file);
+    }
+
+    public @NonNull InputStream openStream() throws IOException {
+        return content.getWithIO();
+    }
+
+    public long writeTo(@NonNull OutputStream output) throws IOException {
+        try (InputStream input = openStream()) {
+            byte[] buffer = new byte[8192];
+            long result = 0;
+            int n;
+            while ((n = input.read(buffer)) != -1) {
+                output.write(buffer, 0, n);
+                result += n;
+            }
+            return result;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package nbbrd.io.http;
 
+import internal.io.http.ByteChannels;
 import internal.io.http.DisconnectingInputStream;
 import lombok.NonNull;
 import nbbrd.design.NotThreadSafe;
@@ -7,7 +8,13 @@ import nbbrd.io.net.MediaType;
 import nbbrd.io.text.TextResource;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 @NotThreadSafe
 public interface HttpResponse extends Closeable {
@@ -47,6 +54,39 @@ public interface HttpResponse extends Closeable {
         }
     }
 
+    /**
+     * Transfers the body to a channel without going through an intermediate byte array.
+     * <p>
+     * When the target is a {@link FileChannel}, the bytes are transferred with
+     * {@link FileChannel#transferFrom(ReadableByteChannel, long, long)}. Backends that
+     * hold the body in a file or in a native buffer may override this method to avoid
+     * copies altogether. The target channel is not closed.
+     * </p>
+     *
+     * @param target the channel to write to
+     * @return the number of bytes transferred
+     * @throws IOException if an I/O error occurs
+     */
+    default long transferTo(@NonNull WritableByteChannel target) throws IOException {
+        try (ReadableByteChannel source = Channels.newChannel(getBody())) {
+            return ByteChannels.transfer(source, target);
+        }
+    }
+
+    /**
+     * Transfers the body to a file, replacing it if it already exists.
+     *
+     * @param file the file to write to
+     * @return the number of bytes transferred
+     * @throws IOException if an I/O error occurs
+     * @see #transferTo(WritableByteChannel)
+     */
+    default long transferTo(@NonNull Path file) throws IOException {
+        try (FileChannel target = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return transferTo(target);
+        }
+    }
+
     default @NonNull InputStream asDisconnectingInputStream() throws IOException {
         return DisconnectingInputStream.of(this);
     }
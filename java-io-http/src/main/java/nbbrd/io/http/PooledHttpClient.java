@@ -0,0 +1,365 @@
+package nbbrd.io.http;
+
+import lombok.AccessLevel;
+import lombok.NonNull;
+import nbbrd.design.StaticFactoryMethod;
+import nbbrd.design.ThreadSafe;
+import nbbrd.design.VisibleForTesting;
+import nbbrd.io.net.MediaType;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe {@link HttpClient} that leases non-thread-safe clients from a bounded pool.
+ * <p>
+ * Each call to {@link #send(HttpRequest)} borrows an idle client (or creates a new one
+ * while the pool is not full) and sends the request. By default, the client is leased
+ * until the response or its body is closed, so that concurrent downloads are bounded
+ * globally by {@code maxClients} and per host by {@code maxClientsPerHost}. Callers
+ * must therefore close their responses, and must not wait for a new response while
+ * holding as many open ones as the limits allow.
+ * </p>
+ * <p>
+ * Alternatively, the lease may end as soon as the response headers are available
+ * (see {@link Builder#leaseUntilClosed(boolean)}). Response bodies are then read
+ * outside of the lease, which is consistent with the existing backends whose
+ * responses do not depend on the client that produced them; only the sending is
+ * bounded.
+ * </p>
+ * <p>
+ * A caller that cannot obtain a client within {@code acquireTimeout} gets an
+ * {@link InterruptedIOException}.
+ * </p>
+ */
+@ThreadSafe
+public final class PooledHttpClient implements HttpClient {
+
+    @StaticFactoryMethod
+    public static @NonNull Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Wraps a single non-thread-safe client so that concurrent calls are serialized.
+     * The lease ends when the response headers are available, so that a caller may
+     * hold several responses at once.
+     *
+     * @param client the client to wrap
+     * @return a non-null thread-safe client
+     */
+    @StaticFactoryMethod
+    public static @NonNull PooledHttpClient of(@NonNull HttpClient client) {
+        return builder().clients(() -> client).maxClients(1).leaseUntilClosed(false).build();
+    }
+
+    private static final int DEFAULT_MAX_CLIENTS = 8;
+    private static final Duration DEFAULT_ACQUIRE_TIMEOUT = Duration.ofMinutes(2);
+
+    private final Supplier<? extends HttpClient> clients;
+    private final int maxClients;
+    private final int maxClientsPerHost;
+    private final long acquireTimeoutNanos;
+    private final boolean leaseUntilClosed;
+
+    private final Semaphore permits;
+    // Only holds the hosts that have pending or leased requests.
+    private final ConcurrentMap<String, Host> hosts = new ConcurrentHashMap<>();
+    private final Deque<HttpClient> idleClients = new ConcurrentLinkedDeque<>();
+
+    // asks the supplier directly: offering its client to idleClients would queue a leased client with of(client)
+    @lombok.Getter(value = AccessLevel.PRIVATE, lazy = true)
+    private final String poolDescription = "Pool (" + maxClients + ") of " + clients.get().getDescription();
+
+    private PooledHttpClient(Supplier<? extends HttpClient> clients, int maxClients, int maxClientsPerHost, Duration acquireTimeout, boolean leaseUntilClosed) {
+        this.clients = clients;
+        this.maxClients = maxClients;
+        this.maxClientsPerHost = maxClientsPerHost;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.leaseUntilClosed = leaseUntilClosed;
+        this.permits = new Semaphore(maxClients, true);
+    }
+
+    @Override
+    public @NonNull String getDescription() {
+        return getPoolDescription();
+    }
+
+    @Override
+    public @NonNull HttpResponse send(@NonNull HttpRequest request) throws IOException {
+        Lease lease = new Lease(getHostKey(request.getQuery()));
+        try {
+            HttpResponse result = lease.acquire().send(request);
+            if (!leaseUntilClosed) {
+                lease.close();
+                return result;
+            }
+            return new LeasedHttpResponse(result, lease);
+        } catch (IOException | RuntimeException | Error ex) {
+            lease.close();
+            throw ex;
+        }
+    }
+
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    public int getMaxClientsPerHost() {
+        return maxClientsPerHost;
+    }
+
+    public int getIdleClientCount() {
+        return idleClients.size();
+    }
+
+    public boolean isLeaseUntilClosed() {
+        return leaseUntilClosed;
+    }
+
+    @VisibleForTesting
+    int getHostCount() {
+        return hosts.size();
+    }
+
+    private HttpClient borrow() {
+        HttpClient result = idleClients.poll();
+        return result != null ? result : clients.get();
+    }
+
+    private static void acquire(Semaphore semaphore, long timeoutNanos) throws IOException {
+        try {
+            if (!semaphore.tryAcquire(Math.max(0, timeoutNanos), TimeUnit.NANOSECONDS)) {
+                throw new InterruptedIOException("Timed out waiting for a pooled client");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException result = new InterruptedIOException("Interrupted while waiting for a pooled client");
+            result.initCause(ex);
+            throw result;
+        }
+    }
+
+    private Host retainHost(String hostKey) {
+        return hosts.compute(hostKey, (key, host) -> {
+            Host result = host != null ? host : new Host(new Semaphore(maxClientsPerHost, true));
+            result.users++;
+            return result;
+        });
+    }
+
+    private void releaseHost(String hostKey) {
+        hosts.computeIfPresent(hostKey, (key, host) -> --host.users == 0 ? null : host);
+    }
+
+    @VisibleForTesting
+    static String getHostKey(URI uri) {
+        String host = uri.getHost();
+        return (host != null ? host.toLowerCase(Locale.ROOT) : "") + ":" + uri.getPort();
+    }
+
+    @lombok.RequiredArgsConstructor
+    private static final class Host {
+
+        private final Semaphore permits;
+
+        // guarded by the map entry of the host
+        private int users = 0;
+    }
+
+    /**
+     * Host permit, global permit and client held by a request; released once.
+     */
+    private final class Lease implements Closeable {
+
+        private final String hostKey;
+        private final Host host;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+        private boolean hostAcquired = false;
+        private boolean globalAcquired = false;
+        private HttpClient client = null;
+
+        Lease(String hostKey) {
+            this.hostKey = hostKey;
+            this.host = retainHost(hostKey);
+        }
+
+        HttpClient acquire() throws IOException {
+            long deadline = System.nanoTime() + acquireTimeoutNanos;
+            PooledHttpClient.acquire(host.permits, acquireTimeoutNanos);
+            hostAcquired = true;
+            PooledHttpClient.acquire(permits, deadline - System.nanoTime());
+            globalAcquired = true;
+            client = borrow();
+            return client;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                if (client != null) {
+                    idleClients.push(client);
+                }
+                if (globalAcquired) {
+                    permits.release();
+                }
+                if (hostAcquired) {
+                    host.permits.release();
+                }
+                releaseHost(hostKey);
+            }
+        }
+    }
+
+    @lombok.AllArgsConstructor
+    private static final class LeasedHttpResponse implements HttpResponse {
+
+        private final HttpResponse delegate;
+        private final Lease lease;
+
+        @Override
+        public @NonNull MediaType getContentType() throws IOException {
+            return delegate.getContentType();
+        }
+
+        @Override
+        public long getContentLength() throws IOException {
+            return delegate.getContentLength();
+        }
+
+        @Override
+        public @NonNull HttpHeaders getHeaders() throws IOException {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public int getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public @NonNull InputStream getBody() throws IOException {
+            return new FilterInputStream(delegate.getBody()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        lease.close();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public long transferTo(@NonNull WritableByteChannel target) throws IOException {
+            return delegate.transferTo(target);
+        }
+
+        @Override
+        public long transferTo(@NonNull Path file) throws IOException {
+            return delegate.transferTo(file);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                delegate.close();
+            } finally {
+                lease.close();
+            }
+        }
+    }
+
+    public static final class Builder {
+
+        private Supplier<? extends HttpClient> clients;
+        private int maxClients = DEFAULT_MAX_CLIENTS;
+        private Integer maxClientsPerHost = null;
+        private Duration acquireTimeout = DEFAULT_ACQUIRE_TIMEOUT;
+        private boolean leaseUntilClosed = true;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the supplier used to create new clients when the pool is not full.
+         *
+         * @param clients the client supplier
+         * @return this builder
+         */
+        public @NonNull Builder clients(@NonNull Supplier<? extends HttpClient> clients) {
+            this.clients = clients;
+            return this;
+        }
+
+        /**
+         * Creates new clients from a factory and a context.
+         *
+         * @param factory the client factory
+         * @param context the context passed to the factory
+         * @return this builder
+         */
+        public @NonNull Builder factory(@NonNull HttpClientFactory factory, @NonNull HttpContext context) {
+            return clients(() -> factory.getClient(context));
+        }
+
+        public @NonNull Builder maxClients(int maxClients) {
+            this.maxClients = maxClients;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of concurrent requests per host. Defaults to {@code maxClients}.
+         *
+         * @param maxClientsPerHost a positive value
+         * @return this builder
+         */
+        public @NonNull Builder maxClientsPerHost(int maxClientsPerHost) {
+            this.maxClientsPerHost = maxClientsPerHost;
+            return this;
+        }
+
+        public @NonNull Builder acquireTimeout(@NonNull Duration acquireTimeout) {
+            this.acquireTimeout = acquireTimeout;
+            return this;
+        }
+
+        /**
+         * Sets whether a client is leased until its response is closed (the default) or
+         * only until the response headers are available.
+         *
+         * @param leaseUntilClosed true to also bound the reading of response bodies
+         * @return this builder
+         */
+        public @NonNull Builder leaseUntilClosed(boolean leaseUntilClosed) {
+            this.leaseUntilClosed = leaseUntilClosed;
+            return this;
+        }
+
+        public @NonNull PooledHttpClient build() {
+            if (clients == null) throw new IllegalStateException("clients or factory is required");
+            if (maxClients < 1) throw new IllegalArgumentException("maxClients must be positive");
+            int perHost = maxClientsPerHost != null ? maxClientsPerHost : maxClients;
+            if (perHost < 1) throw new IllegalArgumentException("maxClientsPerHost must be positive");
+            if (acquireTimeout.isNegative()) throw new IllegalArgumentException("acquireTimeout must not be negative");
+            return new PooledHttpClient(clients, maxClients, Math.min(perHost, maxClients), acquireTimeout, leaseUntilClosed);
+        }
+    }
+}
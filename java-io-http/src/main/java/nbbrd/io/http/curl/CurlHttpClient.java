@@ -9,6 +9,7 @@ import nbbrd.io.curl.Curl;
 import nbbrd.io.http.HttpClient;
 import nbbrd.io.http.HttpHeaders;
 import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpRequestBody;
 import nbbrd.io.http.HttpResponse;
 import nbbrd.io.sys.EndOfProcessException;
 import nbbrd.io.sys.OS;
@@ -18,6 +19,7 @@ import nbbrd.io.sys.SystemProperties;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.Proxy;
 import java.net.ProxySelector;
 import java.net.URI;
@@ -157,12 +159,9 @@ public final class CurlHttpClient implements HttpClient {
                 .put(HttpHeaders.HTTP_USER_AGENT_HEADER, userAgent)
                 .build();
 
-        boolean hasBody = request.getBody() != null;
-        if (hasBody) {
-            Files.write(dataFile.toPath(), request.getBody());
-        }
+        File dataFileOrNull = prepareDataFile(request, dataFile);
 
-        String[] command = createCurlCommand(request, url, proxy, headers, bodyFile, hasBody ? dataFile : null);
+        String[] command = createCurlCommand(request, url, proxy, headers, bodyFile, dataFileOrNull);
 
         try {
             Curl.Head head = executeCurlCommand(command, url, proxy);
@@ -175,6 +174,25 @@ public final class CurlHttpClient implements HttpClient {
         }
     }
 
+    // File bodies are passed as-is to curl; other bodies are copied to a temporary data file.
+    private static @org.jspecify.annotations.Nullable File prepareDataFile(HttpRequest request, File dataFile) throws IOException {
+        if (request.getBody() != null) {
+            Files.write(dataFile.toPath(), request.getBody());
+            return dataFile;
+        }
+        HttpRequestBody body = request.getStreamingBody();
+        if (body == null) {
+            return null;
+        }
+        if (body.getFile().isPresent()) {
+            return body.getFile().get().toFile();
+        }
+        try (OutputStream output = Files.newOutputStream(dataFile.toPath())) {
+            body.writeTo(output);
+        }
+        return dataFile;
+    }
+
     @VisibleForTesting
     String[] createCurlCommand(HttpRequest request, URL url, Proxy proxy, HttpHeaders headers, File bodyFile, @org.jspecify.annotations.Nullable File dataFile) {
         return new Curl.CommandBuilder()
@@ -197,7 +215,7 @@ public final class CurlHttpClient implements HttpClient {
     }
 
     private Curl.Head executeCurlCommand(String[] command, URL url, Proxy proxy) throws IOException {
-        try (BufferedReader reader = ProcessReader.newReader(Charset.defaultCharset(), command)) {
+        try (BufferedReader reader = ProcessReader.newReader(Charset.defaultCharset(), new ProcessBuilder(command))) {
             // Note: the process exit value is only checked when the reader is closed,
             // so an empty response here must not shadow the EndOfProcessException below.
             LinkedList<Curl.Head> heads = Curl.Head.parseResponse(reader);
@@ -0,0 +1,37 @@
+package nbbrd.io.http.ext;
+
+import internal.io.http.CompletableFutures;
+import lombok.NonNull;
+import nbbrd.design.DecoratorPattern;
+import nbbrd.io.http.AsyncHttpClient;
+import nbbrd.io.http.AsyncHttpClientDecorator;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous counterpart of {@link LoggingDecorator}.
+ */
+@DecoratorPattern(AsyncHttpClient.class)
+@lombok.AllArgsConstructor
+public final class AsyncLoggingDecorator implements AsyncHttpClientDecorator {
+
+    @lombok.Getter
+    @lombok.NonNull
+    private final AsyncHttpClient decorated;
+
+    @lombok.NonNull
+    private final LoggingHandler logger;
+
+    @Override
+    public @NonNull String getDescription() {
+        return "Logging " + decorated.getDescription();
+    }
+
+    @Override
+    public @NonNull CompletableFuture<HttpResponse> sendAsync(@NonNull HttpRequest request) {
+        logger.onRequest(request.getMethod(), request.getQuery(), request.getHeaders());
+        return CompletableFutures.thenApplyIO(decorated.sendAsync(request), response -> LoggingDecorator.logResponse(logger, request, response));
+    }
+}
@@ -0,0 +1,41 @@
+package nbbrd.io.http.ext;
+
+import internal.io.http.CompletableFutures;
+import lombok.NonNull;
+import nbbrd.design.DecoratorPattern;
+import nbbrd.io.http.AsyncHttpClient;
+import nbbrd.io.http.AsyncHttpClientDecorator;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous counterpart of {@link MetricsDecorator}.
+ * <p>
+ * The network time covers the interval between the call to {@link #sendAsync(HttpRequest)}
+ * and the completion of the decorated future.
+ * </p>
+ */
+@DecoratorPattern(AsyncHttpClient.class)
+@lombok.AllArgsConstructor
+public final class AsyncMetricsDecorator implements AsyncHttpClientDecorator {
+
+    @lombok.Getter
+    @NonNull
+    private final AsyncHttpClient decorated;
+
+    @NonNull
+    private final MetricsListener listener;
+
+    @Override
+    public @NonNull String getDescription() {
+        return "Metrics on " + decorated.getDescription();
+    }
+
+    @Override
+    public @NonNull CompletableFuture<HttpResponse> sendAsync(@NonNull HttpRequest request) {
+        long startNanos = System.nanoTime();
+        return CompletableFutures.thenApplyIO(decorated.sendAsync(request), response -> new MetricsDecorator.MetricsResponse(response, request, System.nanoTime() - startNanos, startNanos, listener));
+    }
+}
@@ -0,0 +1,298 @@
+package nbbrd.io.http.ext;
+
+import internal.io.http.CompletableFutures;
+import internal.io.http.Schedulers;
+import lombok.NonNull;
+import nbbrd.design.DecoratorPattern;
+import nbbrd.design.NonNegative;
+import nbbrd.io.http.AsyncHttpClient;
+import nbbrd.io.http.AsyncHttpClientDecorator;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpResponse;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Asynchronous counterpart of {@link RateLimitingDecorator}.
+ * <p>
+ * The same proactive and reactive throttling applies, but waits are scheduled on a
+ * {@link ScheduledExecutorService} instead of sleeping: a throttled request holds no
+ * thread until its permit is due, so that many throttled requests can wait at once
+ * on top of an asynchronous client.
+ * </p>
+ */
+@DecoratorPattern(AsyncHttpClient.class)
+public final class AsyncRateLimitingDecorator implements AsyncHttpClientDecorator {
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+
+    @lombok.Getter
+    @NonNull
+    private final AsyncHttpClient decorated;
+
+    @NonNull
+    private final RateLimiterProvider rateLimiterProvider;
+
+    @NonNegative
+    private final int maxRetries;
+
+    @NonNull
+    private final RateLimitingListener listener;
+
+    @NonNull
+    private final ScheduledExecutorService scheduler;
+
+    @NonNull
+    private final ToIntFunction<? super HttpRequest> cost;
+
+    @NonNull
+    private final Function<? super HttpRequest, RateLimitPriority> priority;
+
+    private AsyncRateLimitingDecorator(@NonNull AsyncHttpClient decorated, @NonNull RateLimiterProvider rateLimiterProvider,
+                                       int maxRetries, @NonNull RateLimitingListener listener, @NonNull ScheduledExecutorService scheduler,
+                                       @NonNull ToIntFunction<? super HttpRequest> cost, @NonNull Function<? super HttpRequest, RateLimitPriority> priority) {
+        this.decorated = decorated;
+        this.rateLimiterProvider = rateLimiterProvider;
+        this.maxRetries = maxRetries;
+        this.listener = listener;
+        this.scheduler = scheduler;
+        this.cost = cost;
+        this.priority = priority;
+    }
+
+    @Override
+    public @NonNull String getDescription() {
+        return "Rate-limiting on " + decorated.getDescription();
+    }
+
+    @Override
+    public @NonNull CompletableFuture<HttpResponse> sendAsync(@NonNull HttpRequest request) {
+        CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+        try {
+            RateLimiter rateLimiter = rateLimiterProvider.getRateLimiter(request);
+            int permits = cost.applyAsInt(request);
+            if (priority.apply(request) == RateLimitPriority.BULK) {
+                long deadline = System.nanoTime() + rateLimiter.getMaxWait().toNanos();
+                acquireBulkPermit(request, rateLimiter, permits, deadline, result);
+                return result;
+            }
+            long waitNanos = RateLimitingDecorator.reserve(rateLimiter, permits);
+            if (waitNanos == RateLimiter.WAIT_EXCEEDED) {
+                throw new IOException("Rate limit wait time exceeds maximum allowed duration");
+            }
+            if (waitNanos > 0) {
+                listener.onRateLimited(request, Duration.ofNanos(waitNanos));
+            }
+            schedule(() -> send(request, rateLimiter, 0, result), waitNanos, result);
+        } catch (IOException | RuntimeException ex) {
+            result.completeExceptionally(ex);
+        }
+        return result;
+    }
+
+    private void acquireBulkPermit(HttpRequest request, RateLimiter rateLimiter, int permits, long deadline, CompletableFuture<HttpResponse> result) {
+        if (result.isDone()) {
+            // cancelled while waiting
+            return;
+        }
+        long waitNanos;
+        try {
+            waitNanos = RateLimitingDecorator.tryReserve(rateLimiter, permits);
+        } catch (IOException | RuntimeException ex) {
+            result.completeExceptionally(ex);
+            return;
+        }
+        if (waitNanos == RateLimiter.NO_WAIT) {
+            send(request, rateLimiter, 0, result);
+            return;
+        }
+        if (waitNanos == RateLimiter.WAIT_EXCEEDED || System.nanoTime() + waitNanos - deadline > 0) {
+            result.completeExceptionally(new IOException("Rate limit wait time exceeds maximum allowed duration"));
+            return;
+        }
+        // Nothing is reserved meanwhile, so that interactive requests can go first.
+        listener.onRateLimited(request, Duration.ofNanos(waitNanos));
+        schedule(() -> acquireBulkPermit(request, rateLimiter, permits, deadline, result), waitNanos, result);
+    }
+
+    private void send(HttpRequest request, RateLimiter rateLimiter, int attempt, CompletableFuture<HttpResponse> result) {
+        if (result.isDone()) {
+            // cancelled while waiting
+            return;
+        }
+        decorated.sendAsync(request).whenComplete((response, error) -> {
+            if (error != null) {
+                result.completeExceptionally(CompletableFutures.unwrap(error));
+                return;
+            }
+            try {
+                onResponse(request, rateLimiter, attempt, response, result);
+            } catch (IOException | RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+    }
+
+    private void onResponse(HttpRequest request, RateLimiter rateLimiter, int attempt, HttpResponse response, CompletableFuture<HttpResponse> result) throws IOException {
+        Duration retryAfter;
+        try {
+            if (response.getStatusCode() != HTTP_TOO_MANY_REQUESTS) {
+                notify(RateLimitingDecorator.onSuccess(rateLimiter, response));
+                complete(result, response);
+                return;
+            }
+            if (attempt >= maxRetries) {
+                complete(result, response);
+                return;
+            }
+            retryAfter = RateLimitingDecorator.getRetryAfter(response);
+        } catch (IOException | RuntimeException ex) {
+            response.close();
+            throw ex;
+        }
+        response.close();
+
+        notify(rateLimiter.onThrottled(retryAfter));
+        Duration maxWait = rateLimiter.getMaxWait();
+        if (retryAfter.compareTo(maxWait) > 0) {
+            throw new IOException("Retry-After wait time (" + retryAfter + ") exceeds maximum allowed duration (" + maxWait + ")");
+        }
+        listener.onRateLimited(request, retryAfter);
+        schedule(() -> send(request, rateLimiter, attempt + 1, result), retryAfter.toNanos(), result);
+    }
+
+    private void schedule(Runnable task, long delayNanos, CompletableFuture<HttpResponse> result) {
+        if (delayNanos <= 0) {
+            task.run();
+            return;
+        }
+        scheduler.schedule(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void notify(RateLimiter.@Nullable RateChange change) {
+        if (change != null) {
+            listener.onRateAdjusted(change.getOldRate(), change.getNewRate());
+        }
+    }
+
+    private static void complete(CompletableFuture<HttpResponse> result, HttpResponse response) throws IOException {
+        if (!result.complete(response)) {
+            // cancelled in the meantime
+            response.close();
+        }
+    }
+
+    public static @NonNull Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private AsyncHttpClient decorated;
+        private RateLimiterProvider rateLimiterProvider;
+        private int maxRetries = DEFAULT_MAX_RETRIES;
+        private RateLimitingListener listener = RateLimitingListener.noOp();
+        private ScheduledExecutorService scheduler = Schedulers.getDefault();
+        private ToIntFunction<? super HttpRequest> cost = request -> 1;
+        private Function<? super HttpRequest, RateLimitPriority> priority = request -> RateLimitPriority.INTERACTIVE;
+
+        private Builder() {
+        }
+
+        public @NonNull Builder decorated(@NonNull AsyncHttpClient decorated) {
+            this.decorated = decorated;
+            return this;
+        }
+
+        /**
+         * Uses a single shared limiter for all requests.
+         *
+         * @param rateLimiter the shared limiter
+         * @return this builder
+         */
+        public @NonNull Builder rateLimiter(@NonNull RateLimiter rateLimiter) {
+            this.rateLimiterProvider = RateLimiterProvider.of(rateLimiter);
+            return this;
+        }
+
+        /**
+         * Resolves the limiter per request (e.g. per host).
+         *
+         * @param rateLimiterProvider the provider
+         * @return this builder
+         */
+        public @NonNull Builder rateLimiterProvider(@NonNull RateLimiterProvider rateLimiterProvider) {
+            this.rateLimiterProvider = rateLimiterProvider;
+            return this;
+        }
+
+        public @NonNull Builder maxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        public @NonNull Builder listener(@NonNull RateLimitingListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Sets the scheduler that runs delayed requests. Scheduled tasks only send
+         * requests, so a single thread is enough; defaults to a shared daemon scheduler.
+         *
+         * @param scheduler the scheduler
+         * @return this builder
+         */
+        public @NonNull Builder scheduler(@NonNull ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Sets the number of permits each request costs; defaults to one.
+         *
+         * @param cost a function returning a positive cost for a request
+         * @return this builder
+         */
+        public @NonNull Builder cost(@NonNull ToIntFunction<? super HttpRequest> cost) {
+            this.cost = cost;
+            return this;
+        }
+
+        /**
+         * Sets the priority of each request; defaults to {@link RateLimitPriority#INTERACTIVE}.
+         *
+         * @param priority a function returning the priority of a request
+         * @return this builder
+         */
+        public @NonNull Builder priority(@NonNull Function<? super HttpRequest, RateLimitPriority> priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        public @NonNull AsyncRateLimitingDecorator build() {
+            if (decorated == null) throw new IllegalStateException("decorated client is required");
+            if (rateLimiterProvider == null) throw new IllegalStateException("rateLimiter or rateLimiterProvider is required");
+            if (maxRetries < 0) throw new IllegalArgumentException("maxRetries must not be negative");
+            if (listener == null) throw new IllegalArgumentException("listener must not be null");
+            if (scheduler == null) throw new IllegalArgumentException("scheduler must not be null");
+            if (cost == null) throw new IllegalArgumentException("cost must not be null");
+            if (priority == null) throw new IllegalArgumentException("priority must not be null");
+            return new AsyncRateLimitingDecorator(decorated, rateLimiterProvider, maxRetries, listener, scheduler, cost, priority);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package nbbrd.io.http.ext;
+
+import internal.io.http.CompletableFutures;
+import internal.io.http.Schedulers;
+import lombok.NonNull;
+import nbbrd.design.DecoratorPattern;
+import nbbrd.design.NonNegative;
+import nbbrd.io.http.AsyncHttpClient;
+import nbbrd.io.http.AsyncHttpClientDecorator;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpResponse;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous counterpart of {@link RetryDecorator}.
+ * <p>
+ * Retries are chained on the completion of the previous attempt, so no thread
+ * is blocked between attempts. The same retry policy applies: only transient
+ * network errors on idempotent requests are retried.
+ * </p>
+ * <p>
+ * The {@link #builder() builder} offers the same options as the one of {@link RetryDecorator}
+ * (backoff policy, retry budget, retry of 502/503/504 responses honoring {@code Retry-After});
+ * the delays are scheduled on a {@link ScheduledExecutorService} instead of sleeping.
+ * The public constructor keeps the original behavior: immediate retries of network errors only.
+ * </p>
+ * <p>
+ * Cancelling the returned future cancels the pending attempt, and a response
+ * that arrives after cancellation is closed.
+ * </p>
+ */
+@DecoratorPattern(AsyncHttpClient.class)
+public final class AsyncRetryDecorator implements AsyncHttpClientDecorator {
+
+    @lombok.Getter
+    private final AsyncHttpClient decorated;
+
+    @NonNegative
+    private final int maxRetries;
+
+    private final RetryListener listener;
+    private final BackoffPolicy backoff;
+    private final RetryBudget budget;
+    private final boolean retryOnStatus;
+    private final Duration maxRetryAfter;
+    private final ScheduledExecutorService scheduler;
+
+    public AsyncRetryDecorator(@NonNull AsyncHttpClient decorated, @NonNegative int maxRetries, @NonNull RetryListener listener) {
+        this(decorated, maxRetries, listener, BackoffPolicy.none(), RetryBudget.unlimited(), false, RetryDecorator.DEFAULT_MAX_RETRY_AFTER, null);
+    }
+
+    @lombok.Builder
+    private AsyncRetryDecorator(
+            @NonNull AsyncHttpClient decorated,
+            @Nullable Integer maxRetries,
+            @Nullable RetryListener listener,
+            @Nullable BackoffPolicy backoff,
+            @Nullable RetryBudget budget,
+            @Nullable Boolean retryOnStatus,
+            @Nullable Duration maxRetryAfter,
+            @Nullable ScheduledExecutorService scheduler) {
+        if (maxRetries != null && maxRetries < 0) throw new IllegalArgumentException("maxRetries must not be negative");
+        if (maxRetryAfter != null && maxRetryAfter.isNegative()) throw new IllegalArgumentException("maxRetryAfter must not be negative");
+        this.decorated = decorated;
+        this.maxRetries = maxRetries != null ? maxRetries : RetryDecorator.DEFAULT_MAX_RETRIES;
+        this.listener = listener != null ? listener : RetryListener.noOp();
+        this.backoff = backoff != null ? backoff : BackoffPolicy.exponentialWithJitter(RetryDecorator.DEFAULT_INITIAL_BACKOFF, RetryDecorator.DEFAULT_MAX_BACKOFF);
+        this.budget = budget != null ? budget : RetryBudget.unlimited();
+        this.retryOnStatus = retryOnStatus != null ? retryOnStatus : true;
+        this.maxRetryAfter = maxRetryAfter != null ? maxRetryAfter : RetryDecorator.DEFAULT_MAX_RETRY_AFTER;
+        this.scheduler = scheduler != null ? scheduler : Schedulers.getDefault();
+    }
+
+    @Override
+    public @NonNull String getDescription() {
+        return "Retrying (" + maxRetries + ") on " + decorated.getDescription();
+    }
+
+    @Override
+    public @NonNull CompletableFuture<HttpResponse> sendAsync(@NonNull HttpRequest request) {
+        budget.onRequest();
+        CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+        sendAsync(request, 0, Duration.ZERO, result);
+        return result;
+    }
+
+    private void sendAsync(HttpRequest request, int attempt, Duration delay, CompletableFuture<HttpResponse> result) {
+        if (result.isDone()) {
+            return;
+        }
+        CompletableFuture<HttpResponse> current;
+        try {
+            current = decorated.sendAsync(request);
+        } catch (RuntimeException ex) {
+            result.completeExceptionally(ex);
+            return;
+        }
+        CompletableFutures.propagateCancellation(result, current);
+        current.whenComplete((response, error) -> {
+            try {
+                if (error == null) {
+                    onResponse(request, attempt, delay, response, result);
+                } else {
+                    onFailure(request, attempt, delay, CompletableFutures.unwrap(error), result);
+                }
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+    }
+
+    private void onFailure(HttpRequest request, int attempt, Duration delay, Throwable cause, CompletableFuture<HttpResponse> result) {
+        if (result.isDone()) {
+            return;
+        }
+        if (attempt >= maxRetries
+                || !(cause instanceof IOException)
+                || !RetryDecorator.isRetryable(request, (IOException) cause)
+                || !tryRetry(request, attempt + 1)) {
+            result.completeExceptionally(cause);
+            return;
+        }
+        listener.onRetry(request, attempt + 1, (IOException) cause);
+        retryLater(request, attempt + 1, delay, null, result);
+    }
+
+    private void onResponse(HttpRequest request, int attempt, Duration delay, HttpResponse response, CompletableFuture<HttpResponse> result) {
+        if (result.isDone()) {
+            CompletableFutures.closeQuietly(response);
+            return;
+        }
+        if (attempt >= maxRetries || !retryOnStatus || !RetryDecorator.isIdempotent(request.getMethod())) {
+            complete(result, response);
+            return;
+        }
+        int statusCode;
+        Duration retryAfter;
+        try {
+            statusCode = response.getStatusCode();
+            retryAfter = RetryDecorator.isRetryable(statusCode) ? RetryDecorator.getRetryAfter(response) : null;
+        } catch (IOException ex) {
+            CompletableFutures.closeQuietly(response);
+            result.completeExceptionally(ex);
+            return;
+        }
+        if (!RetryDecorator.isRetryable(statusCode)
+                || retryAfter != null && retryAfter.compareTo(maxRetryAfter) > 0
+                || !tryRetry(request, attempt + 1)) {
+            complete(result, response);
+            return;
+        }
+        CompletableFutures.closeQuietly(response);
+        listener.onRetryStatus(request, attempt + 1, statusCode);
+        retryLater(request, attempt + 1, delay, retryAfter, result);
+    }
+
+    private boolean tryRetry(HttpRequest request, int attempt) {
+        if (budget.tryRetry()) {
+            return true;
+        }
+        listener.onBudgetExhausted(request, attempt);
+        return false;
+    }
+
+    private void retryLater(HttpRequest request, int attempt, Duration previous, @Nullable Duration retryAfter, CompletableFuture<HttpResponse> result) {
+        Duration delay = backoff.getDelay(attempt, previous);
+        if (retryAfter != null && retryAfter.compareTo(delay) > 0) {
+            delay = retryAfter;
+        }
+        listener.onBackoff(request, attempt, delay);
+        if (delay.isZero()) {
+            sendAsync(request, attempt, delay, result);
+            return;
+        }
+        Duration next = delay;
+        try {
+            ScheduledFuture<?> timer = scheduler.schedule(() -> sendAsync(request, attempt, next, result), delay.toNanos(), TimeUnit.NANOSECONDS);
+            result.whenComplete((value, error) -> timer.cancel(false));
+        } catch (RejectedExecutionException ex) {
+            result.completeExceptionally(ex);
+        }
+    }
+
+    private static void complete(CompletableFuture<HttpResponse> result, HttpResponse response) {
+        if (!result.complete(response)) {
+            CompletableFutures.closeQuietly(response);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package nbbrd.io.http.ext;
+
+import internal.io.http.CompletableFutures;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import nbbrd.design.DecoratorPattern;
+import nbbrd.io.http.AsyncHttpClient;
+import nbbrd.io.http.AsyncHttpClientDecorator;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntPredicate;
+
+/**
+ * Asynchronous counterpart of {@link ThrowingStatusDecorator}: the returned future
+ * completes exceptionally with a {@link ThrowingStatusException} when
+ * {@code shouldThrow} returns {@code true} for the response status code.
+ */
+@DecoratorPattern(AsyncHttpClient.class)
+@AllArgsConstructor
+public final class AsyncThrowingStatusDecorator implements AsyncHttpClientDecorator {
+
+    @lombok.Getter
+    @NonNull
+    private final AsyncHttpClient decorated;
+
+    @NonNull
+    private final IntPredicate shouldThrow;
+
+    @Override
+    public @NonNull String getDescription() {
+        return "Throwing on error status of " + decorated.getDescription();
+    }
+
+    @Override
+    public @NonNull CompletableFuture<HttpResponse> sendAsync(@NonNull HttpRequest request) {
+        return CompletableFutures.thenApplyIO(decorated.sendAsync(request), response -> ThrowingStatusDecorator.checkStatus(response, shouldThrow));
+    }
+}
@@ -0,0 +1,96 @@
+package nbbrd.io.http.ext;
+
+import internal.io.http.ext.Backoffs;
+import lombok.NonNull;
+import nbbrd.design.StaticFactoryMethod;
+import nbbrd.design.ThreadSafe;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Computes how long {@link RetryDecorator} waits before each retry.
+ *
+ * <p>Implementations MUST be thread-safe.</p>
+ */
+@ThreadSafe
+@FunctionalInterface
+public interface BackoffPolicy {
+
+    /**
+     * Returns the delay before a retry.
+     *
+     * @param attempt  the number of the retry, starting at 1
+     * @param previous the delay before the previous retry, {@link Duration#ZERO} before the first one
+     * @return a non-null, non-negative duration
+     */
+    @NonNull
+    Duration getDelay(int attempt, @NonNull Duration previous);
+
+    /**
+     * Retries immediately.
+     *
+     * @return a non-null policy
+     */
+    @StaticFactoryMethod
+    static @NonNull BackoffPolicy none() {
+        return (attempt, previous) -> Duration.ZERO;
+    }
+
+    /**
+     * Waits the same delay before each retry.
+     *
+     * @param delay a non-negative delay
+     * @return a non-null policy
+     */
+    @StaticFactoryMethod
+    static @NonNull BackoffPolicy fixed(@NonNull Duration delay) {
+        if (delay.isNegative()) throw new IllegalArgumentException("delay must not be negative");
+        return (attempt, previous) -> delay;
+    }
+
+    /**
+     * Doubles the delay after each retry, starting at {@code initial} and capped at {@code max}.
+     *
+     * @param initial the delay before the first retry
+     * @param max     the maximum delay
+     * @return a non-null policy
+     */
+    @StaticFactoryMethod
+    static @NonNull BackoffPolicy exponential(@NonNull Duration initial, @NonNull Duration max) {
+        if (initial.isNegative() || max.compareTo(initial) < 0) throw new IllegalArgumentException("initial must be between zero and max");
+        return (attempt, previous) -> Backoffs.exponential(initial, max, attempt);
+    }
+
+    /**
+     * Picks a random delay between zero and the {@link #exponential(Duration, Duration) exponential}
+     * delay ("full jitter"), so that clients failing together do not retry together.
+     *
+     * @param initial the upper bound of the first delay
+     * @param max     the maximum delay
+     * @return a non-null policy
+     */
+    @StaticFactoryMethod
+    static @NonNull BackoffPolicy exponentialWithJitter(@NonNull Duration initial, @NonNull Duration max) {
+        if (initial.isNegative() || max.compareTo(initial) < 0) throw new IllegalArgumentException("initial must be between zero and max");
+        return (attempt, previous) -> Duration.ofNanos(ThreadLocalRandom.current().nextLong(Backoffs.exponential(initial, max, attempt).toNanos() + 1));
+    }
+
+    /**
+     * Picks a random delay between {@code base} and three times the previous delay, capped
+     * at {@code max} ("decorrelated jitter").
+     *
+     * @param base the minimum delay
+     * @param max  the maximum delay
+     * @return a non-null policy
+     */
+    @StaticFactoryMethod
+    static @NonNull BackoffPolicy decorrelatedJitter(@NonNull Duration base, @NonNull Duration max) {
+        if (base.isNegative() || max.compareTo(base) < 0) throw new IllegalArgumentException("base must be between zero and max");
+        return (attempt, previous) -> {
+            long low = base.toNanos();
+            long high = Math.max(low, Math.min(max.toNanos(), Math.max(previous.toNanos(), low) * 3));
+            return Duration.ofNanos(ThreadLocalRandom.current().nextLong(low, high + 1));
+        };
+    }
+}
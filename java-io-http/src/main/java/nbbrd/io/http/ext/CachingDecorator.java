@@ -30,8 +30,15 @@ import java.util.concurrent.ForkJoinPool;
  * However, {@code stale-while-revalidate} still dispatches revalidation to the
  * configured {@link Executor} on background threads. The per-key {@link CacheLock}
  * therefore provides thundering-herd protection (deduplicating a foreground request
- * and a concurrent background revalidation for the same resource), and access to the
- * underlying {@link nbbrd.design.NotThreadSafe} {@link HttpClient} is serialized.</p>
+ * and a concurrent background revalidation for the same resource).</p>
+ *
+ * <p>Network calls go through a {@link PooledHttpClient}: when the decorated client is
+ * already pooled, cache misses for different keys run in parallel; otherwise the
+ * {@link nbbrd.design.NotThreadSafe} decorated client is wrapped in a single-client
+ * pool and its calls are serialized. Only a decorated client that is itself a
+ * {@link PooledHttpClient} is detected: a pool hidden behind another decorator is seen as
+ * a plain client, so the pool must be placed directly under this decorator to get
+ * parallel cache misses.</p>
  */
 public final class CachingDecorator implements HttpClientDecorator {
 
@@ -80,10 +87,10 @@ public final class CachingDecorator implements HttpClientDecorator {
     private final Executor executor;
     private final Duration maxHeuristicLifetime;
 
-    // Per-key locks for thundering-herd protection; a single monitor serializes the non-thread-safe client.
+    // Per-key locks for thundering-herd protection; the pool guards the non-thread-safe client.
     private final CacheLock cacheLock;
     private final Set<String> backgroundRevalidations = ConcurrentHashMap.newKeySet();
-    private final Object clientLock = new Object();
+    private final PooledHttpClient pool;
 
     @lombok.Builder
     private CachingDecorator(
@@ -103,6 +110,7 @@ public final class CachingDecorator implements HttpClientDecorator {
         this.executor = executor != null ? executor : ForkJoinPool.commonPool();
         this.maxHeuristicLifetime = maxHeuristicLifetime != null ? maxHeuristicLifetime : HttpCacheRules.DEFAULT_MAX_HEURISTIC_LIFETIME;
         this.cacheLock = cacheLock != null ? cacheLock : CacheLock.ofReferenceCounted();
+        this.pool = decorated instanceof PooledHttpClient ? (PooledHttpClient) decorated : PooledHttpClient.of(decorated);
     }
 
     @Override
@@ -237,9 +245,7 @@ public final class CachingDecorator implements HttpClientDecorator {
     }
 
     private HttpResponse sendDelegate(HttpRequest request) throws IOException {
-        synchronized (clientLock) {
-            return decorated.send(request);
-        }
+        return pool.send(request);
     }
 
 
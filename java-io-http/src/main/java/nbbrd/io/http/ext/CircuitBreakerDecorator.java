@@ -0,0 +1,165 @@
+package nbbrd.io.http.ext;
+
+import internal.io.http.ext.CircuitBreaker;
+import lombok.NonNull;
+import nbbrd.design.DecoratorPattern;
+import nbbrd.design.ThreadSafe;
+import nbbrd.design.VisibleForTesting;
+import nbbrd.io.http.HttpClient;
+import nbbrd.io.http.HttpClientDecorator;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpResponse;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Thread-safe {@link HttpClient} decorator that stops sending requests to failing hosts.
+ * <p>
+ * Each host has its own circuit. While {@link State#CLOSED closed}, the outcomes of the
+ * last {@code windowSize} requests are recorded; a request fails when it throws an
+ * {@link IOException} or gets a 5xx response, and is slow when it takes at least
+ * {@code slowCallDuration}. Once at least {@code minimumCalls} outcomes are known and
+ * either the failure rate reaches {@code failureRateThreshold} or the slow-call rate
+ * reaches {@code slowCallRateThreshold}, the circuit {@link State#OPEN opens}: requests
+ * then fail fast with a {@link CircuitBreakerOpenException} without being sent.
+ * </p>
+ * <p>
+ * After {@code openDuration}, the circuit is {@link State#HALF_OPEN half-open} and lets
+ * {@code halfOpenCalls} trial requests through; it closes if their rates stay below the
+ * thresholds and opens again otherwise.
+ * </p>
+ * <p>
+ * Open circuits are not retried by {@link RetryDecorator} since the rejection is not a
+ * transient network error.
+ * </p>
+ */
+@ThreadSafe
+@DecoratorPattern(HttpClient.class)
+public final class CircuitBreakerDecorator implements HttpClientDecorator {
+
+    public enum State {CLOSED, OPEN, HALF_OPEN}
+
+    private static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+    private static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 1.0;
+    private static final Duration DEFAULT_SLOW_CALL_DURATION = Duration.ofSeconds(60);
+    private static final int DEFAULT_WINDOW_SIZE = 100;
+    private static final int DEFAULT_MINIMUM_CALLS = 10;
+    private static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(60);
+    private static final int DEFAULT_HALF_OPEN_CALLS = 3;
+
+    @lombok.Getter
+    private final HttpClient decorated;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallMillis;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final long openDurationMillis;
+    private final int halfOpenCalls;
+    private final Clock clock;
+    private final CircuitBreakerListener listener;
+
+    private final ConcurrentMap<String, CircuitBreaker> circuits = new ConcurrentHashMap<>();
+
+    @lombok.Builder
+    private CircuitBreakerDecorator(
+            @NonNull HttpClient decorated,
+            @Nullable Double failureRateThreshold,
+            @Nullable Double slowCallRateThreshold,
+            @Nullable Duration slowCallDuration,
+            @Nullable Integer windowSize,
+            @Nullable Integer minimumCalls,
+            @Nullable Duration openDuration,
+            @Nullable Integer halfOpenCalls,
+            @Nullable Clock clock,
+            @Nullable CircuitBreakerListener listener) {
+        if (failureRateThreshold != null && !(failureRateThreshold > 0 && failureRateThreshold <= 1)) throw new IllegalArgumentException("failureRateThreshold must be in (0, 1]");
+        if (slowCallRateThreshold != null && !(slowCallRateThreshold > 0 && slowCallRateThreshold <= 1)) throw new IllegalArgumentException("slowCallRateThreshold must be in (0, 1]");
+        if (slowCallDuration != null && slowCallDuration.isNegative()) throw new IllegalArgumentException("slowCallDuration must not be negative");
+        if (windowSize != null && windowSize < 1) throw new IllegalArgumentException("windowSize must be positive");
+        if (minimumCalls != null && minimumCalls < 1) throw new IllegalArgumentException("minimumCalls must be positive");
+        if (openDuration != null && openDuration.isNegative()) throw new IllegalArgumentException("openDuration must not be negative");
+        if (halfOpenCalls != null && halfOpenCalls < 1) throw new IllegalArgumentException("halfOpenCalls must be positive");
+        this.decorated = decorated;
+        this.failureRateThreshold = failureRateThreshold != null ? failureRateThreshold : DEFAULT_FAILURE_RATE_THRESHOLD;
+        this.slowCallRateThreshold = slowCallRateThreshold != null ? slowCallRateThreshold : DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+        this.slowCallMillis = (slowCallDuration != null ? slowCallDuration : DEFAULT_SLOW_CALL_DURATION).toMillis();
+        this.windowSize = windowSize != null ? windowSize : DEFAULT_WINDOW_SIZE;
+        this.minimumCalls = minimumCalls != null ? minimumCalls : Math.min(DEFAULT_MINIMUM_CALLS, this.windowSize);
+        this.openDurationMillis = (openDuration != null ? openDuration : DEFAULT_OPEN_DURATION).toMillis();
+        this.halfOpenCalls = halfOpenCalls != null ? halfOpenCalls : Math.min(DEFAULT_HALF_OPEN_CALLS, this.windowSize);
+        this.clock = clock != null ? clock : Clock.systemUTC();
+        this.listener = listener != null ? listener : CircuitBreakerListener.noOp();
+        if (this.minimumCalls > this.windowSize) throw new IllegalArgumentException("minimumCalls must not exceed windowSize");
+        if (this.halfOpenCalls > this.windowSize) throw new IllegalArgumentException("halfOpenCalls must not exceed windowSize");
+    }
+
+    @Override
+    public @NonNull String getDescription() {
+        return "Circuit breaker on " + decorated.getDescription();
+    }
+
+    @Override
+    public @NonNull HttpResponse send(@NonNull HttpRequest request) throws IOException {
+        String host = getHostKey(request.getQuery());
+        CircuitBreaker circuit = getCircuit(host);
+        long start = clock.millis();
+        long permit = circuit.tryAcquire(start);
+        if (permit == CircuitBreaker.NOT_PERMITTED) {
+            Duration retryAfter = Duration.ofMillis(circuit.getRemainingOpenMillis(start));
+            listener.onRejected(request, retryAfter);
+            throw new CircuitBreakerOpenException(host, retryAfter);
+        }
+        boolean failure = true;
+        try {
+            HttpResponse result = decorated.send(request);
+            failure = isFailure(result.getStatusCode());
+            return result;
+        } catch (IOException ex) {
+            failure = isFailure(ex);
+            throw ex;
+        } finally {
+            long end = clock.millis();
+            circuit.onComplete(permit, failure, end - start >= slowCallMillis, end);
+        }
+    }
+
+    /**
+     * Gets the current state of the circuit of a host.
+     *
+     * @param uri any URI of the host
+     * @return a non-null state
+     */
+    public @NonNull State getState(@NonNull URI uri) {
+        CircuitBreaker circuit = circuits.get(getHostKey(uri));
+        return circuit != null ? circuit.getState(clock.millis()) : State.CLOSED;
+    }
+
+    private CircuitBreaker getCircuit(String host) {
+        return circuits.computeIfAbsent(host, key -> new CircuitBreaker(
+                failureRateThreshold, slowCallRateThreshold, windowSize, minimumCalls, openDurationMillis, halfOpenCalls,
+                (from, to) -> listener.onStateChanged(key, from, to)));
+    }
+
+    private static boolean isFailure(int statusCode) {
+        return statusCode >= 500;
+    }
+
+    private static boolean isFailure(IOException ex) {
+        // client errors reported by ThrowingStatusDecorator say nothing about the health of the host
+        return !(ex instanceof ThrowingStatusException) || isFailure(((ThrowingStatusException) ex).getResponseCode());
+    }
+
+    @VisibleForTesting
+    static String getHostKey(URI uri) {
+        String host = uri.getHost();
+        return (host != null ? host.toLowerCase(Locale.ROOT) : "") + ":" + uri.getPort();
+    }
+}
@@ -0,0 +1,42 @@
+package nbbrd.io.http.ext;
+
+import lombok.NonNull;
+import nbbrd.design.StaticFactoryMethod;
+import nbbrd.io.http.HttpRequest;
+
+import java.time.Duration;
+
+/**
+ * Listener for circuit-breaking events.
+ */
+public interface CircuitBreakerListener {
+
+    /**
+     * Called when the circuit of a host changes its state.
+     * <p>
+     * This method is called while the state of the circuit is locked and should
+     * therefore return quickly.
+     * </p>
+     *
+     * @param host the host key of the circuit
+     * @param from the previous state
+     * @param to   the new state
+     */
+    default void onStateChanged(@NonNull String host, CircuitBreakerDecorator.@NonNull State from, CircuitBreakerDecorator.@NonNull State to) {
+    }
+
+    /**
+     * Called when a request is rejected because its circuit is open.
+     *
+     * @param request    the rejected request
+     * @param retryAfter the time left before the circuit lets trial requests through
+     */
+    default void onRejected(@NonNull HttpRequest request, @NonNull Duration retryAfter) {
+    }
+
+    @StaticFactoryMethod
+    static @NonNull CircuitBreakerListener noOp() {
+        return new CircuitBreakerListener() {
+        };
+    }
+}
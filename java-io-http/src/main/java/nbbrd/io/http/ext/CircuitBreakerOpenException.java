@@ -0,0 +1,23 @@
+package nbbrd.io.http.ext;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Thrown by {@link CircuitBreakerDecorator} when a request is rejected without being sent
+ * because the circuit of its host is open.
+ */
+@lombok.Getter
+public final class CircuitBreakerOpenException extends IOException {
+
+    private final String host;
+    private final Duration retryAfter;
+
+    public CircuitBreakerOpenException(@NonNull String host, @NonNull Duration retryAfter) {
+        super("Circuit breaker is open for '" + host + "'");
+        this.host = host;
+        this.retryAfter = retryAfter;
+    }
+}
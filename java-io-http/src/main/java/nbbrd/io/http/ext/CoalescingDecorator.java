@@ -0,0 +1,270 @@
+package nbbrd.io.http.ext;
+
+import lombok.NonNull;
+import nbbrd.design.DecoratorPattern;
+import nbbrd.design.ThreadSafe;
+import nbbrd.io.http.*;
+import nbbrd.io.net.MediaType;
+import org.jspecify.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe {@link HttpClient} decorator that coalesces identical concurrent safe requests.
+ *
+ * <p>GET and HEAD requests sharing the same {@link CacheKeyGenerator} key while one of them
+ * is in flight are sent only once ("single-flight"): the first caller sends the request and
+ * reads the whole response, which is then shared with every caller that waited for it.
+ * Bodies up to {@code maxBufferSize} bytes are kept in memory; larger ones are spooled to a
+ * temporary file that is deleted once all the shared responses are closed. Nothing is kept
+ * after the last waiter is served, so this also applies to non-cacheable responses
+ * (see {@link CachingDecorator} for caching).</p>
+ *
+ * <p>A failure of the shared request is thrown to all its waiters. The key should include
+ * every request header that may change the response (e.g. credentials); the default
+ * {@link CacheKeyGenerator#basic()} only uses the method and the URI.</p>
+ *
+ * <p>Network calls go through a {@link PooledHttpClient}, as in {@link CachingDecorator}.</p>
+ */
+@ThreadSafe
+@DecoratorPattern(HttpClient.class)
+public final class CoalescingDecorator implements HttpClientDecorator {
+
+    private static final int DEFAULT_MAX_BUFFER_SIZE = 1024 * 1024;
+
+    @lombok.Getter
+    private final HttpClient decorated;
+    private final CacheKeyGenerator keyGenerator;
+    private final int maxBufferSize;
+    private final Path tempDir;
+    private final PooledHttpClient pool;
+
+    private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    @lombok.Builder
+    private CoalescingDecorator(
+            @NonNull HttpClient decorated,
+            @Nullable CacheKeyGenerator keyGenerator,
+            @Nullable Integer maxBufferSize,
+            @Nullable Path tempDir) {
+        if (maxBufferSize != null && maxBufferSize < 0) throw new IllegalArgumentException("maxBufferSize must not be negative");
+        this.decorated = decorated;
+        this.keyGenerator = keyGenerator != null ? keyGenerator : CacheKeyGenerator.basic();
+        this.maxBufferSize = maxBufferSize != null ? maxBufferSize : DEFAULT_MAX_BUFFER_SIZE;
+        this.tempDir = tempDir != null ? tempDir : Paths.get(System.getProperty("java.io.tmpdir"));
+        this.pool = decorated instanceof PooledHttpClient ? (PooledHttpClient) decorated : PooledHttpClient.of(decorated);
+    }
+
+    @Override
+    public @NonNull String getDescription() {
+        return "Coalescing of " + decorated.getDescription();
+    }
+
+    @Override
+    public @NonNull HttpResponse send(@NonNull HttpRequest request) throws IOException {
+        if (!isCoalescable(request)) {
+            return pool.send(request);
+        }
+        String key = keyGenerator.generateKey(request);
+        Flight candidate = new Flight();
+        Flight flight = inFlight.compute(key, (k, current) -> {
+            if (current == null) {
+                return candidate;
+            }
+            current.waiters++;
+            return current;
+        });
+        return flight == candidate
+                ? lead(request, key, flight)
+                : await(flight).open();
+    }
+
+    /**
+     * Gets the number of distinct requests currently in flight.
+     *
+     * @return a non-negative count
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private HttpResponse lead(HttpRequest request, String key, Flight flight) throws IOException {
+        SharedResponse shared;
+        try (HttpResponse response = pool.send(request)) {
+            shared = read(response);
+        } catch (IOException | RuntimeException ex) {
+            inFlight.remove(key, flight);
+            flight.future.completeExceptionally(ex);
+            throw ex;
+        }
+        // no waiter can join once the flight is removed, so the count of references is final
+        inFlight.remove(key, flight);
+        shared.references.set(1 + flight.waiters);
+        flight.future.complete(shared);
+        return shared.open();
+    }
+
+    private static SharedResponse await(Flight flight) throws IOException {
+        try {
+            return flight.future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            // gives back the reference that was counted for this waiter
+            flight.future.thenAccept(SharedResponse::releaseQuietly);
+            InterruptedIOException result = new InterruptedIOException("Interrupted while waiting for a coalesced response");
+            result.initCause(ex);
+            throw result;
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    private SharedResponse read(HttpResponse response) throws IOException {
+        int statusCode = response.getStatusCode();
+        HttpHeaders headers = response.getHeaders();
+        MediaType contentType = response.getContentType();
+        long contentLength = response.getContentLength();
+        try (InputStream body = response.getBody()) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            if (copy(body, buffer, maxBufferSize + 1L) <= maxBufferSize) {
+                return new SharedResponse(statusCode, headers, contentType, contentLength, buffer.toByteArray(), null);
+            }
+            Path file = Files.createTempFile(tempDir, "coalesced_", ".tmp");
+            try (OutputStream output = Files.newOutputStream(file)) {
+                buffer.writeTo(output);
+                copy(body, output, Long.MAX_VALUE);
+            } catch (IOException | RuntimeException ex) {
+                Files.deleteIfExists(file);
+                throw ex;
+            }
+            return new SharedResponse(statusCode, headers, contentType, contentLength, null, file);
+        }
+    }
+
+    private static long copy(InputStream input, OutputStream output, long limit) throws IOException {
+        byte[] buffer = new byte[8192];
+        long result = 0;
+        int n;
+        while (result < limit && (n = input.read(buffer, 0, (int) Math.min(buffer.length, limit - result))) != -1) {
+            output.write(buffer, 0, n);
+            result += n;
+        }
+        return result;
+    }
+
+    private static boolean isCoalescable(HttpRequest request) {
+        return (request.getMethod() == HttpMethod.GET || request.getMethod() == HttpMethod.HEAD)
+                && request.getEffectiveBody() == null;
+    }
+
+    private static final class Flight {
+
+        private final CompletableFuture<SharedResponse> future = new CompletableFuture<>();
+
+        // guarded by the map entry of the flight
+        private int waiters = 0;
+    }
+
+    @lombok.RequiredArgsConstructor
+    private static final class SharedResponse {
+
+        private final int statusCode;
+        private final HttpHeaders headers;
+        private final MediaType contentType;
+        // as advertised by the original response, which differs from the body size for HEAD
+        private final long contentLength;
+        private final byte @Nullable [] bytes;
+        private final @Nullable Path file;
+
+        // one per caller: the leader and its waiters
+        private final AtomicInteger references = new AtomicInteger();
+
+        HttpResponse open() {
+            return new CoalescedResponse(this);
+        }
+
+        void release() throws IOException {
+            if (references.decrementAndGet() == 0 && file != null) {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        void releaseQuietly() {
+            try {
+                release();
+            } catch (IOException ex) {
+                // nothing to do
+            }
+        }
+
+        InputStream newBody() throws IOException {
+            return bytes != null ? new ByteArrayInputStream(bytes) : Files.newInputStream(file);
+        }
+    }
+
+    @lombok.RequiredArgsConstructor
+    private static final class CoalescedResponse implements HttpResponse {
+
+        private final SharedResponse shared;
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private InputStream body = null;
+
+        @Override
+        public @NonNull MediaType getContentType() {
+            return shared.contentType;
+        }
+
+        @Override
+        public long getContentLength() {
+            return shared.contentLength;
+        }
+
+        @Override
+        public @NonNull HttpHeaders getHeaders() {
+            return shared.headers;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return shared.statusCode;
+        }
+
+        @Override
+        public @NonNull InputStream getBody() throws IOException {
+            if (body == null) {
+                body = shared.newBody();
+            }
+            return body;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed.compareAndSet(false, true)) {
+                try {
+                    if (body != null) {
+                        body.close();
+                    }
+                } finally {
+                    shared.release();
+                }
+            }
+        }
+    }
+}
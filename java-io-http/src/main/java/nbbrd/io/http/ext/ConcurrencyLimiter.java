@@ -0,0 +1,126 @@
+package nbbrd.io.http.ext;
+
+import internal.io.http.ext.AdaptiveConcurrencyLimiter;
+import lombok.NonNull;
+import nbbrd.design.StaticFactoryMethod;
+import nbbrd.design.ThreadSafe;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Shared, application-scoped concurrency-limiting policy for {@link ConcurrencyLimitingDecorator}.
+ *
+ * <p>Bounds the number of requests in flight. Adaptive limiters learn the limit from the
+ * round-trip times (RTT) and the dropped requests (network errors, 429 and 503 responses)
+ * they observe, so that a backend is not pushed past the point where it starts queueing.</p>
+ *
+ * <p>Implementations MUST be thread-safe.</p>
+ */
+@ThreadSafe
+public interface ConcurrencyLimiter {
+
+    /**
+     * Acquires a permit if one is immediately available.
+     *
+     * @return true if a permit was acquired
+     */
+    boolean tryAcquire();
+
+    /**
+     * Acquires a permit, waiting at most {@link #getMaxWait()} for one to be released.
+     *
+     * @return true if a permit was acquired, false if the wait timed out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean acquire() throws InterruptedException;
+
+    /**
+     * Releases a permit and feeds the outcome of its request to the limit algorithm.
+     *
+     * @param rtt     the time between sending the request and receiving its response
+     * @param dropped true if the request failed or was rejected because of overload
+     * @return the resulting limit change, or {@code null} if the limit was unchanged
+     */
+    @Nullable
+    LimitChange release(@NonNull Duration rtt, boolean dropped);
+
+    /**
+     * Returns the current maximum number of requests in flight.
+     *
+     * @return a positive limit
+     */
+    int getLimit();
+
+    /**
+     * Returns the current number of requests in flight.
+     *
+     * @return a non-negative count
+     */
+    int getInFlight();
+
+    /**
+     * Returns the maximum duration a caller should wait for a permit.
+     * A zero duration rejects callers above the limit immediately.
+     *
+     * @return a non-null, non-negative duration
+     */
+    @NonNull
+    Duration getMaxWait();
+
+    /**
+     * Creates a limiter with a fixed limit.
+     *
+     * @param limit   the maximum number of requests in flight
+     * @param maxWait the maximum time a caller may wait
+     * @return a new thread-safe limiter
+     */
+    @StaticFactoryMethod
+    static @NonNull ConcurrencyLimiter fixed(int limit, @NonNull Duration maxWait) {
+        return new AdaptiveConcurrencyLimiter(limit, limit, limit, maxWait, AdaptiveConcurrencyLimiter.fixed());
+    }
+
+    /**
+     * Creates an additive-increase/multiplicative-decrease limiter: the limit grows by one
+     * per window of successful requests while it is used, and is cut by
+     * {@code backoffRatio} on every dropped request.
+     *
+     * @param initialLimit the starting limit
+     * @param minLimit     the lowest limit
+     * @param maxLimit     the highest limit
+     * @param backoffRatio the factor applied on drops, in (0, 1)
+     * @param maxWait      the maximum time a caller may wait
+     * @return a new thread-safe limiter
+     */
+    @StaticFactoryMethod
+    static @NonNull ConcurrencyLimiter aimd(int initialLimit, int minLimit, int maxLimit, double backoffRatio, @NonNull Duration maxWait) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, maxWait, AdaptiveConcurrencyLimiter.aimd(backoffRatio));
+    }
+
+    /**
+     * Creates a gradient (Vegas-style) limiter: the limit follows the ratio between a
+     * long-term average RTT and the latest RTT, so that it shrinks as soon as latencies
+     * rise because requests are queueing, plus a small headroom to probe for more
+     * capacity. Dropped requests cut the limit as in {@link #aimd(int, int, int, double, Duration)}.
+     *
+     * @param initialLimit the starting limit
+     * @param minLimit     the lowest limit
+     * @param maxLimit     the highest limit
+     * @param maxWait      the maximum time a caller may wait
+     * @return a new thread-safe limiter
+     */
+    @StaticFactoryMethod
+    static @NonNull ConcurrencyLimiter gradient(int initialLimit, int minLimit, int maxLimit, @NonNull Duration maxWait) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, maxWait, AdaptiveConcurrencyLimiter.gradient());
+    }
+
+    /**
+     * An immutable description of a limit adjustment.
+     */
+    @lombok.Value
+    class LimitChange {
+
+        int oldLimit;
+        int newLimit;
+    }
+}
@@ -0,0 +1,65 @@
+package nbbrd.io.http.ext;
+
+import internal.io.http.ext.ConcurrentConcurrencyLimiterRegistry;
+import lombok.NonNull;
+import nbbrd.design.StaticFactoryMethod;
+import nbbrd.design.ThreadSafe;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * A thread-safe registry that vends a distinct {@link ConcurrencyLimiter} per key.
+ *
+ * <p>Typically used to enforce independent limits per host, so that a slow backend
+ * does not reduce the concurrency allowed for the others. Limiters are created lazily
+ * on first use and reused for subsequent requests with the same key.</p>
+ *
+ * <p>Implementations MUST be thread-safe.</p>
+ */
+@ThreadSafe
+public interface ConcurrencyLimiterRegistry {
+
+    /**
+     * Returns the {@link ConcurrencyLimiter} associated with the given key, creating it
+     * on first use.
+     *
+     * @param key a non-null key (e.g. a host name)
+     * @return a non-null, shared concurrency limiter for the key
+     */
+    @NonNull
+    ConcurrencyLimiter forKey(@NonNull String key);
+
+    /**
+     * Creates a registry that lazily builds a fresh {@link ConcurrencyLimiter} per key
+     * using the given factory, backed by a concurrent map.
+     *
+     * @param factory a non-null supplier invoked once per new key
+     * @return a new thread-safe registry
+     */
+    @StaticFactoryMethod
+    static @NonNull ConcurrencyLimiterRegistry of(@NonNull Supplier<? extends ConcurrencyLimiter> factory) {
+        return new ConcurrentConcurrencyLimiterRegistry(factory);
+    }
+
+    /**
+     * Creates a registry that forgets the limiters of keys that are no longer used, for
+     * workloads with an open-ended set of keys (e.g. a crawler limiting per host).
+     * <p>
+     * A limiter is dropped when it has not been requested for {@code expireAfterAccess},
+     * or when the registry exceeds {@code maxSize} limiters, starting with the least
+     * recently requested ones. Limiters with requests in flight are kept, so the size
+     * may temporarily exceed {@code maxSize}. Cleanup is amortized over the lookups.
+     * </p>
+     *
+     * @param factory           a non-null supplier invoked once per new key
+     * @param maxSize           the maximum number of idle limiters
+     * @param expireAfterAccess the idle time after which a limiter is dropped
+     * @return a new thread-safe registry
+     */
+    @StaticFactoryMethod
+    static @NonNull ConcurrencyLimiterRegistry bounded(@NonNull Supplier<? extends ConcurrencyLimiter> factory, int maxSize, @NonNull Duration expireAfterAccess) {
+        return new ConcurrentConcurrencyLimiterRegistry(factory, maxSize, expireAfterAccess, Clock.systemUTC());
+    }
+}
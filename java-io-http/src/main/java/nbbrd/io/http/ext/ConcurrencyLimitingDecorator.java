@@ -0,0 +1,146 @@
+package nbbrd.io.http.ext;
+
+import lombok.NonNull;
+import nbbrd.design.DecoratorPattern;
+import nbbrd.design.StaticFactoryMethod;
+import nbbrd.design.ThreadSafe;
+import nbbrd.io.http.HttpClient;
+import nbbrd.io.http.HttpClientDecorator;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpResponse;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Thread-safe {@link HttpClient} decorator that bounds the number of requests in flight.
+ * <p>
+ * Where {@link RateLimitingDecorator} limits requests per second, this decorator limits
+ * concurrency, which is what overloads backends that process requests in parallel.
+ * Each request holds a permit of its {@link ConcurrencyLimiter} until its response
+ * headers are available (unlike the default lease of {@link nbbrd.io.http.PooledHttpClient}); the round-trip
+ * time and the outcome are then fed to the limiter so that adaptive limiters can adjust
+ * the limit. Network errors and 429/503 responses count as dropped requests.
+ * </p>
+ * <p>
+ * Callers above the limit wait up to {@link ConcurrencyLimiter#getMaxWait()} for a
+ * permit and then fail with an {@link IOException}; a zero wait rejects them at once.
+ * Limiters are either shared by all requests or resolved per host from a
+ * {@link ConcurrencyLimiterRegistry}.
+ * </p>
+ */
+@ThreadSafe
+@DecoratorPattern(HttpClient.class)
+public final class ConcurrencyLimitingDecorator implements HttpClientDecorator {
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int HTTP_SERVICE_UNAVAILABLE = 503;
+
+    /**
+     * Creates a decorator that applies a single limiter to all requests.
+     *
+     * @param decorated the client to decorate
+     * @param limiter   the shared limiter
+     * @return a new decorator
+     */
+    @StaticFactoryMethod
+    public static @NonNull ConcurrencyLimitingDecorator of(@NonNull HttpClient decorated, @NonNull ConcurrencyLimiter limiter) {
+        return builder().decorated(decorated).limiter(limiter).build();
+    }
+
+    /**
+     * Creates a decorator that applies an independent limiter per host.
+     *
+     * @param decorated the client to decorate
+     * @param registry  the registry of limiters, keyed by host
+     * @return a new decorator
+     */
+    @StaticFactoryMethod
+    public static @NonNull ConcurrencyLimitingDecorator perHost(@NonNull HttpClient decorated, @NonNull ConcurrencyLimiterRegistry registry) {
+        return builder().decorated(decorated).registry(registry).build();
+    }
+
+    @lombok.Getter
+    private final HttpClient decorated;
+    private final @Nullable ConcurrencyLimiter limiter;
+    private final @Nullable ConcurrencyLimiterRegistry registry;
+    private final ConcurrencyLimitingListener listener;
+
+    @lombok.Builder
+    private ConcurrencyLimitingDecorator(
+            @NonNull HttpClient decorated,
+            @Nullable ConcurrencyLimiter limiter,
+            @Nullable ConcurrencyLimiterRegistry registry,
+            @Nullable ConcurrencyLimitingListener listener) {
+        if ((limiter == null) == (registry == null)) throw new IllegalArgumentException("either limiter or registry is required");
+        this.decorated = decorated;
+        this.limiter = limiter;
+        this.registry = registry;
+        this.listener = listener != null ? listener : ConcurrencyLimitingListener.noOp();
+    }
+
+    @Override
+    public @NonNull String getDescription() {
+        return "Concurrency limiting on " + decorated.getDescription();
+    }
+
+    @Override
+    public @NonNull HttpResponse send(@NonNull HttpRequest request) throws IOException {
+        ConcurrencyLimiter current = getLimiter(request);
+        acquire(request, current);
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            HttpResponse result = decorated.send(request);
+            dropped = isDropped(result.getStatusCode());
+            return result;
+        } catch (IOException ex) {
+            dropped = isDropped(ex);
+            throw ex;
+        } finally {
+            ConcurrencyLimiter.LimitChange change = current.release(Duration.ofNanos(System.nanoTime() - start), dropped);
+            if (change != null) {
+                listener.onLimitAdjusted(change.getOldLimit(), change.getNewLimit());
+            }
+        }
+    }
+
+    private ConcurrencyLimiter getLimiter(HttpRequest request) {
+        return limiter != null ? limiter : registry.forKey(getHostKey(request.getQuery()));
+    }
+
+    private void acquire(HttpRequest request, ConcurrencyLimiter current) throws IOException {
+        if (current.tryAcquire()) {
+            return;
+        }
+        listener.onQueued(request, current.getInFlight());
+        try {
+            if (!current.acquire()) {
+                listener.onRejected(request);
+                throw new IOException("Concurrency limit (" + current.getLimit() + ") reached for '" + request.getQuery() + "'");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException result = new InterruptedIOException("Interrupted while waiting for a concurrency permit");
+            result.initCause(ex);
+            throw result;
+        }
+    }
+
+    private static boolean isDropped(int statusCode) {
+        return statusCode == HTTP_TOO_MANY_REQUESTS || statusCode == HTTP_SERVICE_UNAVAILABLE;
+    }
+
+    private static boolean isDropped(IOException ex) {
+        return !(ex instanceof ThrowingStatusException) || isDropped(((ThrowingStatusException) ex).getResponseCode());
+    }
+
+    private static String getHostKey(URI uri) {
+        String host = uri.getHost();
+        return (host != null ? host.toLowerCase(Locale.ROOT) : "") + ":" + uri.getPort();
+    }
+}
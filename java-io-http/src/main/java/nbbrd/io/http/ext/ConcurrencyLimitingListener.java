@@ -0,0 +1,43 @@
+package nbbrd.io.http.ext;
+
+import lombok.NonNull;
+import nbbrd.design.StaticFactoryMethod;
+import nbbrd.io.http.HttpRequest;
+
+/**
+ * Listener for concurrency-limiting events.
+ */
+public interface ConcurrencyLimitingListener {
+
+    /**
+     * Called when a request has to wait for a permit because its limit is reached.
+     *
+     * @param request  the queued request
+     * @param inFlight the number of requests in flight for its limiter
+     */
+    default void onQueued(@NonNull HttpRequest request, int inFlight) {
+    }
+
+    /**
+     * Called when a request is rejected because no permit was released in time.
+     *
+     * @param request the rejected request
+     */
+    default void onRejected(@NonNull HttpRequest request) {
+    }
+
+    /**
+     * Called when the adaptive algorithm adjusts the limit.
+     *
+     * @param oldLimit the previous maximum number of requests in flight
+     * @param newLimit the new maximum number of requests in flight
+     */
+    default void onLimitAdjusted(int oldLimit, int newLimit) {
+    }
+
+    @StaticFactoryMethod
+    static @NonNull ConcurrencyLimitingListener noOp() {
+        return new ConcurrencyLimitingListener() {
+        };
+    }
+}
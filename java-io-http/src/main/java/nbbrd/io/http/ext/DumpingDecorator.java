@@ -44,11 +44,14 @@ public final class DumpingDecorator implements HttpClientDecorator {
     }
 
     private void dumpRequestBody(HttpRequest request, String prefix) throws IOException {
-        if (request.getBody() != null) {
+        HttpRequestBody body = request.getEffectiveBody();
+        if (body != null) {
             Files.createDirectories(folder);
             Path requestDump = folder.resolve(prefix + "_request.tmp");
             onDump.accept(requestDump);
-            Files.write(requestDump, request.getBody());
+            try (OutputStream output = Files.newOutputStream(requestDump)) {
+                body.writeTo(output);
+            }
         }
     }
 
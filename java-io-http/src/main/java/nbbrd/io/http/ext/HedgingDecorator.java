@@ -0,0 +1,287 @@
+package nbbrd.io.http.ext;
+
+import internal.io.http.CompletableFutures;
+import internal.io.http.Schedulers;
+import internal.io.http.ext.LatencyTracker;
+import internal.io.http.ext.TokenRetryBudget;
+import lombok.NonNull;
+import nbbrd.design.DecoratorPattern;
+import nbbrd.io.http.AsyncHttpClient;
+import nbbrd.io.http.AsyncHttpClientDecorator;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpResponse;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AsyncHttpClient} decorator that hedges idempotent requests to reduce tail latency.
+ * <p>
+ * When no response has been received after the hedge delay, another copy of the request
+ * is sent, up to {@code maxHedges} copies. The first response that is not a server error
+ * (5xx) wins; pending copies are cancelled and late responses are closed. A copy that
+ * fails with a transient network error (see {@link RetryDecorator}) or a server error
+ * immediately triggers the next one, while any other failure is reported at once. When
+ * all the copies fail, the last server error response is returned if there is one.
+ * </p>
+ * <p>
+ * The delay is either fixed or, when {@code latencyPercentile} is set, derived from the
+ * latencies of the original requests (e.g. {@code 0.95} hedges requests that are slower
+ * than 95% of the previous ones); the fixed {@code delay} is used until enough latencies
+ * have been observed. The latency of an original request is recorded whether it wins,
+ * loses or fails; when a copy wins first, the time until then is recorded as a lower
+ * bound, so that hedging does not bias the percentile toward fast responses.
+ * </p>
+ * <p>
+ * The extra copies are bounded by a budget: each hedged request earns
+ * {@code maxHedgeRatio} of a copy (10% by default), with bursts of up to
+ * 10 copies. Once the budget is exhausted, requests simply wait
+ * for their pending copies.
+ * </p>
+ * <p>
+ * Hedging relies on the decorated client being able to send concurrent requests, hence
+ * the asynchronous API; blocking clients can be adapted with
+ * {@link AsyncHttpClient#bridge(java.util.function.Supplier, java.util.concurrent.Executor)}.
+ * </p>
+ */
+@DecoratorPattern(AsyncHttpClient.class)
+public final class HedgingDecorator implements AsyncHttpClientDecorator {
+
+    private static final Duration DEFAULT_DELAY = Duration.ofMillis(100);
+    private static final int WINDOW_SIZE = 256;
+    private static final int MIN_SAMPLES = 20;
+    private static final double DEFAULT_MAX_HEDGE_RATIO = 0.1;
+    private static final int MAX_HEDGE_BURST = 10;
+
+    @lombok.Getter
+    private final AsyncHttpClient decorated;
+    private final int maxHedges;
+    private final long delayNanos;
+    private final double latencyPercentile;
+    private final ScheduledExecutorService scheduler;
+    private final HedgingListener listener;
+    private final RetryBudget budget;
+
+    private final LatencyTracker latencies = new LatencyTracker(WINDOW_SIZE, MIN_SAMPLES);
+
+    @lombok.Builder
+    private HedgingDecorator(
+            @NonNull AsyncHttpClient decorated,
+            @Nullable Integer maxHedges,
+            @Nullable Duration delay,
+            @Nullable Double latencyPercentile,
+            @Nullable ScheduledExecutorService scheduler,
+            @Nullable HedgingListener listener,
+            @Nullable Double maxHedgeRatio) {
+        if (maxHedges != null && maxHedges < 0) throw new IllegalArgumentException("maxHedges must not be negative");
+        if (delay != null && delay.isNegative()) throw new IllegalArgumentException("delay must not be negative");
+        if (latencyPercentile != null && !(latencyPercentile > 0 && latencyPercentile <= 1)) throw new IllegalArgumentException("latencyPercentile must be in (0, 1]");
+        if (maxHedgeRatio != null && !(maxHedgeRatio >= 0 && maxHedgeRatio <= 1)) throw new IllegalArgumentException("maxHedgeRatio must be in [0, 1]");
+        this.decorated = decorated;
+        this.maxHedges = maxHedges != null ? maxHedges : 1;
+        this.delayNanos = (delay != null ? delay : DEFAULT_DELAY).toNanos();
+        this.latencyPercentile = latencyPercentile != null ? latencyPercentile : Double.NaN;
+        this.scheduler = scheduler != null ? scheduler : Schedulers.getDefault();
+        this.listener = listener != null ? listener : HedgingListener.noOp();
+        this.budget = new TokenRetryBudget(maxHedgeRatio != null ? maxHedgeRatio : DEFAULT_MAX_HEDGE_RATIO, MAX_HEDGE_BURST);
+    }
+
+    @Override
+    public @NonNull String getDescription() {
+        return "Hedging (" + maxHedges + ") on " + decorated.getDescription();
+    }
+
+    @Override
+    public @NonNull CompletableFuture<HttpResponse> sendAsync(@NonNull HttpRequest request) {
+        if (maxHedges == 0 || !RetryDecorator.isIdempotent(request.getMethod())) {
+            return decorated.sendAsync(request);
+        }
+        Exchange result = new Exchange(request, getHedgeDelayNanos());
+        budget.onRequest();
+        result.launch();
+        return result.response;
+    }
+
+    /**
+     * Gets the current delay before a request is hedged.
+     *
+     * @return a non-null duration
+     */
+    public @NonNull Duration getHedgeDelay() {
+        return Duration.ofNanos(getHedgeDelayNanos());
+    }
+
+    private long getHedgeDelayNanos() {
+        if (Double.isNaN(latencyPercentile)) {
+            return delayNanos;
+        }
+        long result = latencies.percentile(latencyPercentile);
+        return result >= 0 ? result : delayNanos;
+    }
+
+    private static void closeQuietly(HttpResponse response) {
+        try {
+            response.close();
+        } catch (IOException ex) {
+            // nothing to do
+        }
+    }
+
+    @lombok.RequiredArgsConstructor
+    private final class Exchange {
+
+        private final HttpRequest request;
+        private final long hedgeDelayNanos;
+        private final long startNanos = System.nanoTime();
+        private final CompletableFuture<HttpResponse> response = new CompletableFuture<>();
+
+        // guarded by this
+        private final List<CompletableFuture<HttpResponse>> attempts = new ArrayList<>();
+        private ScheduledFuture<?> timer = null;
+        private int failures = 0;
+        private Throwable failure = null;
+        private HttpResponse serverError = null;
+
+        private void hedge() {
+            launch();
+        }
+
+        synchronized boolean launch() {
+            if (response.isDone() || attempts.size() > maxHedges) {
+                return false;
+            }
+            int attempt = attempts.size();
+            if (attempt > 0 && !budget.tryRetry()) {
+                return false;
+            }
+            if (timer != null) {
+                timer.cancel(false);
+                timer = null;
+            }
+            if (attempt == 0) {
+                response.whenComplete((value, error) -> cancelAll());
+            } else {
+                listener.onHedge(request, attempt, Duration.ofNanos(System.nanoTime() - startNanos));
+            }
+            CompletableFuture<HttpResponse> future = decorated.sendAsync(request);
+            attempts.add(future);
+            if (attempts.size() <= maxHedges && !response.isDone()) {
+                timer = scheduler.schedule(this::hedge, hedgeDelayNanos, TimeUnit.NANOSECONDS);
+            }
+            // a losing copy may still deliver a response, e.g. when a decorator in the
+            // chain cannot cancel its own upstream in time: close it once the exchange is settled
+            future.whenComplete((value, error) -> {
+                if (value != null) {
+                    response.whenComplete((winner, ignore) -> {
+                        if (value != winner) {
+                            closeQuietly(value);
+                        }
+                    });
+                }
+            });
+            future.whenComplete((value, error) -> {
+                if (attempt == 0) {
+                    // also recorded when cancelled by a winning copy, as a lower bound
+                    latencies.record(System.nanoTime() - startNanos);
+                }
+                if (error == null) {
+                    onResponse(value);
+                } else {
+                    onFailure(CompletableFutures.unwrap(error));
+                }
+            });
+            return true;
+        }
+
+        private void onResponse(HttpResponse value) {
+            int statusCode;
+            try {
+                statusCode = value.getStatusCode();
+            } catch (IOException ex) {
+                closeQuietly(value);
+                onFailure(ex);
+                return;
+            }
+            if (statusCode < 500) {
+                response.complete(value);
+                return;
+            }
+            boolean next;
+            synchronized (this) {
+                if (response.isDone()) {
+                    return;
+                }
+                failures++;
+                if (serverError != null) {
+                    closeQuietly(serverError);
+                }
+                serverError = value;
+                next = attempts.size() <= maxHedges;
+            }
+            onFailedAttempt(next);
+        }
+
+        private void onFailure(Throwable error) {
+            boolean next;
+            synchronized (this) {
+                if (response.isDone()) {
+                    return;
+                }
+                failures++;
+                if (failure == null) {
+                    failure = error;
+                } else if (failure != error) {
+                    failure.addSuppressed(error);
+                }
+                boolean transientError = error instanceof IOException && RetryDecorator.isRetryable(request, (IOException) error);
+                if (!transientError) {
+                    response.completeExceptionally(failure);
+                    return;
+                }
+                next = attempts.size() <= maxHedges;
+            }
+            onFailedAttempt(next);
+        }
+
+        private void onFailedAttempt(boolean next) {
+            if (next && launch()) {
+                return;
+            }
+            synchronized (this) {
+                if (response.isDone() || failures < attempts.size()) {
+                    return;
+                }
+                if (serverError != null) {
+                    HttpResponse result = serverError;
+                    serverError = null;
+                    response.complete(result);
+                } else {
+                    response.completeExceptionally(failure);
+                }
+            }
+        }
+
+        private synchronized void cancelAll() {
+            if (timer != null) {
+                timer.cancel(false);
+                timer = null;
+            }
+            for (CompletableFuture<HttpResponse> attempt : attempts) {
+                if (!attempt.isDone()) {
+                    attempt.cancel(true);
+                }
+            }
+            if (serverError != null) {
+                closeQuietly(serverError);
+                serverError = null;
+            }
+        }
+    }
+}
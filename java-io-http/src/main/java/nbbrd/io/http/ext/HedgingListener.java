@@ -0,0 +1,26 @@
+package nbbrd.io.http.ext;
+
+import lombok.NonNull;
+import nbbrd.design.StaticFactoryMethod;
+import nbbrd.io.http.HttpRequest;
+
+import java.time.Duration;
+
+@FunctionalInterface
+public interface HedgingListener {
+
+    /**
+     * Called when an additional copy of a request is sent.
+     *
+     * @param request the hedged request
+     * @param attempt the number of the copy, starting at 1
+     * @param delay   the time elapsed since the original request was sent
+     */
+    void onHedge(@NonNull HttpRequest request, int attempt, @NonNull Duration delay);
+
+    @StaticFactoryMethod
+    static @NonNull HedgingListener noOp() {
+        return (request, attempt, delay) -> {
+        };
+    }
+}
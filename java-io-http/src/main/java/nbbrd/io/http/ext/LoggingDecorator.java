@@ -30,7 +30,10 @@ public final class LoggingDecorator implements HttpClientDecorator {
     @Override
     public @NonNull HttpResponse send(@NonNull HttpRequest request) throws IOException {
         logger.onRequest(request.getMethod(), request.getQuery(), request.getHeaders());
-        HttpResponse result = decorated.send(request);
+        return logResponse(logger, request, decorated.send(request));
+    }
+
+    static HttpResponse logResponse(LoggingHandler logger, HttpRequest request, HttpResponse result) throws IOException {
         try {
             logger.onResponse(result.getStatusCode(), result.getContentType(), result.getContentLength(), request.getHeaders());
         } catch (Throwable ex) {
@@ -8,6 +8,8 @@ import nbbrd.io.net.MediaType;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -40,7 +42,7 @@ public final class MetricsDecorator implements HttpClientDecorator {
     }
 
     @lombok.RequiredArgsConstructor
-    private static final class MetricsResponse implements HttpResponse {
+    static final class MetricsResponse implements HttpResponse {
 
         @NonNull
         private final HttpResponse delegate;
@@ -82,6 +84,20 @@ public final class MetricsDecorator implements HttpClientDecorator {
             return new CountingInputStream(delegate.getBody(), byteCount);
         }
 
+        @Override
+        public long transferTo(@NonNull WritableByteChannel target) throws IOException {
+            long result = delegate.transferTo(target);
+            byteCount.addAndGet(result);
+            return result;
+        }
+
+        @Override
+        public long transferTo(@NonNull Path file) throws IOException {
+            long result = delegate.transferTo(file);
+            byteCount.addAndGet(result);
+            return result;
+        }
+
         @Override
         public void close() throws IOException {
             try {
@@ -3,11 +3,25 @@ package nbbrd.io.http.ext;
 import lombok.NonNull;
 import nbbrd.design.StaticFactoryMethod;
 
+import java.net.URI;
+
 @FunctionalInterface
 public interface MetricsListener {
 
     void onCompleted(@NonNull MetricsEvent event);
 
+    /**
+     * Called by transports that manage keep-alive connections themselves (such as
+     * {@link nbbrd.io.http.urlconnection.UrlConnectionHttpClient}) when a response is
+     * closed and its connection released.
+     *
+     * @param requestUri the request URI
+     * @param keptAlive  true if the connection was kept alive for reuse (a keep-alive hit),
+     *                   false if it had to be closed (a miss)
+     */
+    default void onConnectionReleased(@NonNull URI requestUri, boolean keptAlive) {
+    }
+
     @StaticFactoryMethod
     static @NonNull MetricsListener noOp() {
         return event -> {
@@ -0,0 +1,23 @@
+package nbbrd.io.http.ext;
+
+/**
+ * Priority of a request competing for the permits of a shared {@link RateLimiter}.
+ *
+ * <p>Interactive requests queue for permits in arrival order. Bulk requests never
+ * queue ahead of them: they only take the permits that are available when they ask
+ * and otherwise retry later, so that interactive requests are not starved behind
+ * batch jobs sharing the same limiter.</p>
+ */
+public enum RateLimitPriority {
+
+    /**
+     * Queues for permits in arrival order (the default).
+     */
+    INTERACTIVE,
+
+    /**
+     * Only takes permits that are available now, leaving queued permits to
+     * interactive requests.
+     */
+    BULK
+}
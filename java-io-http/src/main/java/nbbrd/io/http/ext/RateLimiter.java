@@ -1,11 +1,15 @@
 package nbbrd.io.http.ext;
 
+import internal.io.http.ext.MappedFileRateLimiter;
 import internal.io.http.ext.TokenBucketRateLimiter;
 import lombok.NonNull;
 import nbbrd.design.StaticFactoryMethod;
 import nbbrd.design.ThreadSafe;
 import org.jspecify.annotations.Nullable;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
 import java.time.Duration;
 
 /**
@@ -42,6 +46,52 @@ public interface RateLimiter {
      */
     long reserve();
 
+    /**
+     * Reserves several permits at once for a costlier request, queueing behind
+     * earlier reservations, and returns how long the caller must wait before using
+     * them, <b>without blocking</b>.
+     * <p>
+     * The default implementation reserves the permits one by one through
+     * {@link #reserve()} and returns the longest wait; the permits reserved before a
+     * {@link #WAIT_EXCEEDED} are not given back.
+     * </p>
+     *
+     * @param permits the positive cost of the request
+     * @return the number of nanoseconds to wait ({@link #NO_WAIT} if none), or
+     * {@link #WAIT_EXCEEDED} if the wait would exceed {@link #getMaxWait()}
+     */
+    default long reserve(int permits) {
+        if (permits <= 0) throw new IllegalArgumentException("permits must be positive");
+        long result = NO_WAIT;
+        for (int i = 0; i < permits; i++) {
+            long wait = reserve();
+            if (wait == WAIT_EXCEEDED) {
+                return WAIT_EXCEEDED;
+            }
+            result = Math.max(result, wait);
+        }
+        return result;
+    }
+
+    /**
+     * Reserves several permits only if they are available now, <b>without
+     * blocking</b> and without queueing ahead of other callers. Low-priority callers
+     * use it to leave queued permits to high-priority ones and retry later.
+     * <p>
+     * The default implementation cannot tell whether the permits are available
+     * without reserving them, so it falls back to {@link #reserve(int)} and gives no
+     * priority to other callers.
+     * </p>
+     *
+     * @param permits the positive cost of the request
+     * @return {@link #NO_WAIT} if the permits were reserved, the estimated number of
+     * nanoseconds after which to retry otherwise, or {@link #WAIT_EXCEEDED} if that
+     * estimate exceeds {@link #getMaxWait()}
+     */
+    default long tryReserve(int permits) {
+        return reserve(permits);
+    }
+
     /**
      * Returns the maximum duration a caller should ever wait, both for a proactive
      * permit and for a server-driven back-off.
@@ -70,6 +120,55 @@ public interface RateLimiter {
     @Nullable
     RateChange onThrottled(@NonNull Duration retryAfter);
 
+    /**
+     * Signals the remaining quota advertised by a successful response (through
+     * {@code RateLimit} or {@code X-RateLimit-*} headers), allowing an adaptive limiter
+     * to spread the remaining requests over the window instead of waiting for a 429.
+     * Called in place of {@link #onSuccess()} when such headers are present.
+     * <p>
+     * The default implementation ignores the quota and calls {@link #onSuccess()}.
+     * </p>
+     *
+     * @param remaining the number of requests still allowed in the current window
+     * @param reset     the time until the current window resets
+     * @return the resulting rate change, or {@code null} if the rate was unchanged
+     */
+    @Nullable
+    default RateChange onQuota(long remaining, @NonNull Duration reset) {
+        return onSuccess();
+    }
+
+    /**
+     * Returns the current permit rate, which an adaptive limiter may have lowered.
+     *
+     * @return the permits-per-second rate, or {@link Double#NaN} if unknown (the default)
+     */
+    default double getPermitsPerSecond() {
+        return Double.NaN;
+    }
+
+    /**
+     * Returns the rate learned by this limiter, which is worth persisting. It differs
+     * from the {@link #getPermitsPerSecond() current rate} while a temporary rate
+     * applies, such as the one of a quota advertised by the server.
+     *
+     * @return the permits-per-second rate, or {@link Double#NaN} if unknown
+     */
+    default double getLearnedPermitsPerSecond() {
+        return getPermitsPerSecond();
+    }
+
+    /**
+     * Restores a rate learned earlier (e.g. by a previous run of the application) so
+     * that it does not have to be rediscovered through 429 responses. Adaptive limiters
+     * cap it at their configured rate; fixed limiters ignore it, as does the default
+     * implementation.
+     *
+     * @param permitsPerSecond a positive rate
+     */
+    default void restorePermitsPerSecond(double permitsPerSecond) {
+    }
+
     /**
      * Creates a fixed-rate limiter with no adaptation.
      *
@@ -83,9 +182,27 @@ public interface RateLimiter {
         return new TokenBucketRateLimiter(permitsPerSecond, maxBurst, maxWait, false);
     }
 
+    /**
+     * Creates a fixed-rate limiter whose state lives in a memory-mapped file, so that
+     * all the limiters using that file, in this process or in other processes on the
+     * same machine, share a single quota. All of them should use the same rate and burst.
+     *
+     * @param file             the file holding the shared state, created if needed
+     * @param permitsPerSecond the maximum sustained request rate
+     * @param maxBurst         the burst capacity
+     * @param maxWait          the maximum time a caller may wait
+     * @return a new thread-safe rate limiter
+     * @throws IOException if the file cannot be opened or is not a rate limiter file
+     */
+    @StaticFactoryMethod
+    static @NonNull RateLimiter fixed(@NonNull Path file, double permitsPerSecond, int maxBurst, @NonNull Duration maxWait) throws IOException {
+        return new MappedFileRateLimiter(file, permitsPerSecond, maxBurst, maxWait, Clock.systemUTC());
+    }
+
     /**
      * Creates an adaptive limiter that reduces its rate on 429 responses and
-     * recovers after sustained success.
+     * recovers after sustained success, and that follows the quota advertised by
+     * rate-limit response headers.
      *
      * @param initialPermitsPerSecond the starting (and maximum recoverable) rate
      * @param maxBurst                the burst capacity
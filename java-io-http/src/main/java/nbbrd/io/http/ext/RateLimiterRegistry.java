@@ -1,10 +1,17 @@
 package nbbrd.io.http.ext;
 
 import internal.io.http.ext.ConcurrentRateLimiterRegistry;
+import internal.io.http.ext.RateLimiterRates;
 import lombok.NonNull;
 import nbbrd.design.StaticFactoryMethod;
 import nbbrd.design.ThreadSafe;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
 import java.util.function.Supplier;
 
 /**
@@ -15,6 +22,10 @@ import java.util.function.Supplier;
  * requests to another. Limiters are created lazily on first use and reused for
  * subsequent requests with the same key.</p>
  *
+ * <p>The rates learned by adaptive limiters can be saved with {@link #storeRates(Path)}
+ * and reloaded on the next run with {@link #loadRates(Path)}, so that they do not have
+ * to be rediscovered through 429 responses.</p>
+ *
  * <p>Implementations MUST be thread-safe.</p>
  */
 @ThreadSafe
@@ -30,6 +41,46 @@ public interface RateLimiterRegistry {
     @NonNull
     RateLimiter forKey(@NonNull String key);
 
+    /**
+     * Returns the learned rate of the limiters of this registry, including restored
+     * rates of limiters that have not been created yet. Limiters whose rate is unknown
+     * (see {@link RateLimiter#getLearnedPermitsPerSecond()}) are left out.
+     *
+     * @return a non-null map of permits-per-second rates by key
+     */
+    default @NonNull Map<String, Double> getRates() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Restores rates learned earlier: they are applied to existing limiters at once and
+     * to the other ones when they are created (see {@link RateLimiter#restorePermitsPerSecond(double)}).
+     *
+     * @param rates a non-null map of permits-per-second rates by key
+     */
+    default void restoreRates(@NonNull Map<String, Double> rates) {
+    }
+
+    /**
+     * Writes the current rates to a file, replacing it atomically.
+     *
+     * @param file a non-null file
+     * @throws IOException if the file cannot be written
+     */
+    default void storeRates(@NonNull Path file) throws IOException {
+        RateLimiterRates.store(file, getRates());
+    }
+
+    /**
+     * Restores the rates written by {@link #storeRates(Path)}. A missing file is ignored.
+     *
+     * @param file a non-null file
+     * @throws IOException if the file cannot be read
+     */
+    default void loadRates(@NonNull Path file) throws IOException {
+        restoreRates(RateLimiterRates.load(file));
+    }
+
     /**
      * Creates a registry that lazily builds a fresh {@link RateLimiter} per key
      * using the given factory, backed by a concurrent map.
@@ -39,7 +90,26 @@ public interface RateLimiterRegistry {
      */
     @StaticFactoryMethod
     static @NonNull RateLimiterRegistry of(@NonNull Supplier<? extends RateLimiter> factory) {
-        return new ConcurrentRateLimiterRegistry(factory);
+        return new ConcurrentRateLimiterRegistry(factory, Integer.MAX_VALUE, null, Clock.systemUTC());
     }
-}
 
+    /**
+     * Creates a registry that forgets the limiters of keys that are no longer used, for
+     * workloads with an open-ended set of keys (e.g. a crawler limiting per host).
+     * <p>
+     * A limiter is dropped when it has not been requested for {@code expireAfterAccess},
+     * or when the registry exceeds {@code maxSize} limiters, starting with the least
+     * recently requested ones. Limiters of active keys, and their adapted rates, are kept.
+     * Cleanup is amortized over the lookups.
+     * </p>
+     *
+     * @param factory           a non-null supplier invoked once per new key
+     * @param maxSize           the maximum number of limiters
+     * @param expireAfterAccess the idle time after which a limiter is dropped
+     * @return a new thread-safe registry
+     */
+    @StaticFactoryMethod
+    static @NonNull RateLimiterRegistry bounded(@NonNull Supplier<? extends RateLimiter> factory, int maxSize, @NonNull Duration expireAfterAccess) {
+        return new ConcurrentRateLimiterRegistry(factory, maxSize, expireAfterAccess, Clock.systemUTC());
+    }
+}
@@ -1,6 +1,7 @@
 package nbbrd.io.http.ext;
 
 import internal.io.http.RetryAfterParser;
+import internal.io.http.ext.RateLimitQuota;
 import lombok.NonNull;
 import nbbrd.design.DecoratorPattern;
 import nbbrd.design.NonNegative;
@@ -9,7 +10,10 @@ import nbbrd.io.http.*;
 import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 /**
  * {@link HttpClient} decorator that applies rate limiting through a shared
@@ -25,13 +29,17 @@ import java.time.Duration;
  * <p>
  * <b>Proactive throttling</b>: the limiter meters the sustained request rate and
  * this decorator sleeps for the reserved wait time before sending.
+ * {@link AsyncRateLimitingDecorator} schedules these waits instead of sleeping.
+ * Requests may cost several permits, and {@link RateLimitPriority#BULK bulk}
+ * requests give way to interactive ones sharing the same limiter.
  * </p>
  * <p>
  * <b>Reactive throttling</b>: when the server responds with 429 Too Many Requests,
  * the decorator reads the {@code Retry-After} header and waits before retrying,
  * up to {@code maxRetries} times, notifying the limiter so an adaptive one can
  * reduce its rate. Successful responses are reported so an adaptive limiter can
- * probe its rate back upward.
+ * probe its rate back upward, or follow the remaining quota when the server
+ * advertises it through {@code RateLimit} or {@code X-RateLimit-*} headers.
  * </p>
  * <p>
  * <b>Note</b>: a rate adjustment triggered by a 429 applies to <em>subsequent</em>
@@ -65,12 +73,21 @@ public final class RateLimitingDecorator implements HttpClientDecorator {
     @NonNull
     private final RateLimitingListener listener;
 
+    @NonNull
+    private final ToIntFunction<? super HttpRequest> cost;
+
+    @NonNull
+    private final Function<? super HttpRequest, RateLimitPriority> priority;
+
     private RateLimitingDecorator(@NonNull HttpClient decorated, @NonNull RateLimiterProvider rateLimiterProvider,
-                                  int maxRetries, @NonNull RateLimitingListener listener) {
+                                  int maxRetries, @NonNull RateLimitingListener listener,
+                                  @NonNull ToIntFunction<? super HttpRequest> cost, @NonNull Function<? super HttpRequest, RateLimitPriority> priority) {
         this.decorated = decorated;
         this.rateLimiterProvider = rateLimiterProvider;
         this.maxRetries = maxRetries;
         this.listener = listener;
+        this.cost = cost;
+        this.priority = priority;
     }
 
     /**
@@ -141,7 +158,12 @@ public final class RateLimitingDecorator implements HttpClientDecorator {
             HttpResponse response = decorated.send(request);
 
             if (response.getStatusCode() != HTTP_TOO_MANY_REQUESTS) {
-                notify(rateLimiter.onSuccess());
+                try {
+                    notify(onSuccess(rateLimiter, response));
+                } catch (IOException | RuntimeException ex) {
+                    response.close();
+                    throw ex;
+                }
                 return response;
             }
 
@@ -158,7 +180,12 @@ public final class RateLimitingDecorator implements HttpClientDecorator {
     }
 
     private void acquirePermit(HttpRequest request, RateLimiter rateLimiter) throws IOException {
-        long waitNanos = rateLimiter.reserve();
+        int permits = cost.applyAsInt(request);
+        if (priority.apply(request) == RateLimitPriority.BULK) {
+            acquireBulkPermit(request, rateLimiter, permits);
+            return;
+        }
+        long waitNanos = reserve(rateLimiter, permits);
         if (waitNanos == RateLimiter.WAIT_EXCEEDED) {
             throw new IOException("Rate limit wait time exceeds maximum allowed duration");
         }
@@ -169,13 +196,53 @@ public final class RateLimitingDecorator implements HttpClientDecorator {
         }
     }
 
+    private void acquireBulkPermit(HttpRequest request, RateLimiter rateLimiter, int permits) throws IOException {
+        long deadline = System.nanoTime() + rateLimiter.getMaxWait().toNanos();
+        while (true) {
+            long waitNanos = tryReserve(rateLimiter, permits);
+            if (waitNanos == RateLimiter.NO_WAIT) {
+                return;
+            }
+            if (waitNanos == RateLimiter.WAIT_EXCEEDED || System.nanoTime() + waitNanos - deadline > 0) {
+                throw new IOException("Rate limit wait time exceeds maximum allowed duration");
+            }
+            // Nothing is reserved meanwhile, so that interactive requests can go first.
+            listener.onRateLimited(request, Duration.ofNanos(waitNanos));
+            sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000), "Interrupted while waiting for rate limit permit");
+        }
+    }
+
     private void notify(RateLimiter.@Nullable RateChange change) {
         if (change != null) {
             listener.onRateAdjusted(change.getOldRate(), change.getNewRate());
         }
     }
 
-    private Duration getRetryAfter(HttpResponse response) throws IOException {
+    // Limiters backed by a file report its I/O failures unchecked.
+    static long reserve(RateLimiter rateLimiter, int permits) throws IOException {
+        try {
+            return rateLimiter.reserve(permits);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    static long tryReserve(RateLimiter rateLimiter, int permits) throws IOException {
+        try {
+            return rateLimiter.tryReserve(permits);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    static RateLimiter.@Nullable RateChange onSuccess(RateLimiter rateLimiter, HttpResponse response) throws IOException {
+        RateLimitQuota quota = RateLimitQuota.parse(response.getHeaders(), System.currentTimeMillis());
+        return quota != null
+                ? rateLimiter.onQuota(quota.getRemaining(), quota.getReset())
+                : rateLimiter.onSuccess();
+    }
+
+    static Duration getRetryAfter(HttpResponse response) throws IOException {
         String headerValue = response.getHeaders()
                 .firstValue(HTTP_RETRY_AFTER_HEADER)
                 .orElse(null);
@@ -212,6 +279,8 @@ public final class RateLimitingDecorator implements HttpClientDecorator {
         private RateLimiterProvider rateLimiterProvider;
         private int maxRetries = DEFAULT_MAX_RETRIES;
         private RateLimitingListener listener = RateLimitingListener.noOp();
+        private ToIntFunction<? super HttpRequest> cost = request -> 1;
+        private Function<? super HttpRequest, RateLimitPriority> priority = request -> RateLimitPriority.INTERACTIVE;
 
         private Builder() {
         }
@@ -253,12 +322,36 @@ public final class RateLimitingDecorator implements HttpClientDecorator {
             return this;
         }
 
+        /**
+         * Sets the number of permits each request costs; defaults to one.
+         *
+         * @param cost a function returning a positive cost for a request
+         * @return this builder
+         */
+        public @NonNull Builder cost(@NonNull ToIntFunction<? super HttpRequest> cost) {
+            this.cost = cost;
+            return this;
+        }
+
+        /**
+         * Sets the priority of each request; defaults to {@link RateLimitPriority#INTERACTIVE}.
+         *
+         * @param priority a function returning the priority of a request
+         * @return this builder
+         */
+        public @NonNull Builder priority(@NonNull Function<? super HttpRequest, RateLimitPriority> priority) {
+            this.priority = priority;
+            return this;
+        }
+
         public @NonNull RateLimitingDecorator build() {
             if (decorated == null) throw new IllegalStateException("decorated client is required");
             if (rateLimiterProvider == null) throw new IllegalStateException("rateLimiter or rateLimiterProvider is required");
             if (maxRetries < 0) throw new IllegalArgumentException("maxRetries must not be negative");
             if (listener == null) throw new IllegalArgumentException("listener must not be null");
-            return new RateLimitingDecorator(decorated, rateLimiterProvider, maxRetries, listener);
+            if (cost == null) throw new IllegalArgumentException("cost must not be null");
+            if (priority == null) throw new IllegalArgumentException("priority must not be null");
+            return new RateLimitingDecorator(decorated, rateLimiterProvider, maxRetries, listener, cost, priority);
         }
     }
 }
@@ -0,0 +1,162 @@
+package nbbrd.io.http.ext;
+
+import internal.io.http.ext.ByteRanges;
+import internal.io.http.ext.ResumableInputStream;
+import lombok.NonNull;
+import nbbrd.design.DecoratorPattern;
+import nbbrd.design.NonNegative;
+import nbbrd.io.http.*;
+import nbbrd.io.net.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+/**
+ * {@link HttpClient} decorator that resumes response bodies after transient read failures.
+ * <p>
+ * When a GET response advertises {@code Accept-Ranges: bytes} together with a validator
+ * (a strong {@code ETag} or a {@code Last-Modified} date) and has no
+ * {@code Content-Encoding}, its body stream survives connection failures: the remaining
+ * bytes are requested with {@code Range: bytes=N-} and {@code If-Range}, and reading
+ * continues transparently on the same {@link InputStream}. A premature end of stream
+ * before {@code Content-Length} is handled the same way. Timeouts
+ * ({@link InterruptedIOException}) are not resumed.
+ * </p>
+ * <p>
+ * At most {@code maxResumes} resumes are attempted per response, each one reported to the
+ * listener. If the resource has changed (the server ignores the range or reports another
+ * complete length) the read fails with an {@link IOException}. Unlike {@link RetryDecorator}, which replays the whole request
+ * when sending fails, this decorator keeps the bytes already received.
+ * </p>
+ */
+@DecoratorPattern(HttpClient.class)
+@lombok.AllArgsConstructor
+public final class ResumingDecorator implements HttpClientDecorator {
+
+    @lombok.Getter
+    @NonNull
+    private final HttpClient decorated;
+
+    @NonNegative
+    private final int maxResumes;
+
+    @NonNull
+    private final RetryListener listener;
+
+    @Override
+    public @NonNull String getDescription() {
+        return "Resuming (" + maxResumes + ") on " + decorated.getDescription();
+    }
+
+    @Override
+    public @NonNull HttpResponse send(@NonNull HttpRequest request) throws IOException {
+        HttpResponse response = decorated.send(request);
+        if (maxResumes == 0 || !isResumable(request)) {
+            return response;
+        }
+        try {
+            String validator = getValidator(response);
+            return validator != null ? new ResumingResponse(request, response, validator) : response;
+        } catch (IOException ex) {
+            response.close();
+            throw ex;
+        }
+    }
+
+    private static boolean isResumable(HttpRequest request) {
+        return request.getMethod() == HttpMethod.GET
+                && !request.getHeaders().firstValue(ByteRanges.RANGE_HEADER).isPresent();
+    }
+
+    private static String getValidator(HttpResponse response) throws IOException {
+        HttpHeaders headers = response.getHeaders();
+        if (response.getStatusCode() != 200
+                || !ByteRanges.acceptsByteRanges(headers)
+                || headers.firstValue(HttpHeaders.HTTP_CONTENT_ENCODING_HEADER).filter(encoding -> !encoding.equalsIgnoreCase("identity")).isPresent()) {
+            return null;
+        }
+        return ByteRanges.getIfRangeValidator(headers).orElse(null);
+    }
+
+    @DecoratorPattern(HttpResponse.class)
+    @lombok.RequiredArgsConstructor
+    private final class ResumingResponse implements HttpResponse {
+
+        @lombok.NonNull
+        private final HttpRequest request;
+
+        @lombok.NonNull
+        private final HttpResponse first;
+
+        @lombok.NonNull
+        private final String validator;
+
+        private HttpResponse current = null;
+        private InputStream body = null;
+
+        @Override
+        public @NonNull MediaType getContentType() throws IOException {
+            return first.getContentType();
+        }
+
+        @Override
+        public long getContentLength() throws IOException {
+            return first.getContentLength();
+        }
+
+        @Override
+        public @NonNull HttpHeaders getHeaders() throws IOException {
+            return first.getHeaders();
+        }
+
+        @Override
+        public int getStatusCode() throws IOException {
+            return first.getStatusCode();
+        }
+
+        @Override
+        public @NonNull InputStream getBody() throws IOException {
+            if (body == null) {
+                current = first;
+                body = new ResumableInputStream(first.getBody(), first.getContentLength(), maxResumes, this::reopen);
+            }
+            return body;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (current != null && current != first) {
+                    current.close();
+                }
+            } finally {
+                first.close();
+            }
+        }
+
+        private InputStream reopen(long position, int attempt, IOException cause) throws IOException {
+            listener.onRetry(request, attempt, cause);
+            current.close();
+            HttpRequest rangeRequest = request
+                    .toBuilder()
+                    .headers(request.getHeaders()
+                            .toBuilder()
+                            .put(ByteRanges.RANGE_HEADER, ByteRanges.formatRange(position, -1))
+                            .put(ByteRanges.IF_RANGE_HEADER, validator)
+                            .build())
+                    .build();
+            HttpResponse response = decorated.send(rangeRequest);
+            current = response;
+            ByteRanges.ContentRange range = ByteRanges.parseContentRange(response.getHeaders().firstValue(ByteRanges.CONTENT_RANGE_HEADER).orElse(null));
+            long length = first.getContentLength();
+            if (response.getStatusCode() != ByteRanges.HTTP_PARTIAL_CONTENT
+                    || range == null || range.getFirst() != position
+                    // a different complete length means that another version of the resource is served
+                    || length >= 0 && range.getLength() != length) {
+                throw new IOException("Cannot resume '" + request.getQuery() + "' at byte " + position + ": status " + response.getStatusCode());
+            }
+            return response.getBody();
+        }
+    }
+}
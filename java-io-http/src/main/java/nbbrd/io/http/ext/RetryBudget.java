@@ -0,0 +1,65 @@
+package nbbrd.io.http.ext;
+
+import internal.io.http.ext.TokenRetryBudget;
+import lombok.NonNull;
+import nbbrd.design.StaticFactoryMethod;
+import nbbrd.design.ThreadSafe;
+
+/**
+ * Bounds the retries of {@link RetryDecorator} to a fraction of the traffic.
+ *
+ * <p>A single instance is meant to be shared by all the decorators that call the same
+ * backend, so that an incident does not turn into a retry storm: once the budget is
+ * exhausted, failures are reported instead of being retried.</p>
+ *
+ * <p>Implementations MUST be thread-safe.</p>
+ */
+@ThreadSafe
+public interface RetryBudget {
+
+    /**
+     * Signals a first attempt of a request, which may earn credit for retries.
+     */
+    void onRequest();
+
+    /**
+     * Tries to spend credit for a retry.
+     *
+     * @return true if the retry is allowed
+     */
+    boolean tryRetry();
+
+    /**
+     * Creates a budget that never limits retries.
+     *
+     * @return a non-null budget
+     */
+    @StaticFactoryMethod
+    static @NonNull RetryBudget unlimited() {
+        return new RetryBudget() {
+            @Override
+            public void onRequest() {
+            }
+
+            @Override
+            public boolean tryRetry() {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Creates a token-based budget: each request deposits {@code retryRatio} token and each
+     * retry withdraws one, with a balance that starts at and is capped by {@code maxRetries}.
+     * Retries are therefore bounded by {@code retryRatio} of the requests in the long run,
+     * while bursts of up to {@code maxRetries} retries are allowed.
+     *
+     * @param retryRatio the fraction of requests that may be retried, in [0, 1]
+     * @param maxRetries the maximum number of retries in a burst
+     * @return a new thread-safe budget
+     */
+    @StaticFactoryMethod
+    static @NonNull RetryBudget of(double retryRatio, int maxRetries) {
+        return new TokenRetryBudget(retryRatio, maxRetries);
+    }
+}
@@ -1,5 +1,6 @@
 package nbbrd.io.http.ext;
 
+import internal.io.http.RetryAfterParser;
 import lombok.NonNull;
 import nbbrd.design.DecoratorPattern;
 import nbbrd.design.NonNegative;
@@ -8,10 +9,13 @@ import nbbrd.io.http.HttpClientDecorator;
 import nbbrd.io.http.HttpMethod;
 import nbbrd.io.http.HttpRequest;
 import nbbrd.io.http.HttpResponse;
+import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.time.Duration;
 
 /**
  * {@link HttpClient} decorator that retries requests on transient network errors
@@ -22,22 +26,67 @@ import java.net.SocketTimeoutException;
  * retrying would violate that contract. DNS failures and other non-transient
  * errors are not retried either. Only requests using idempotent HTTP methods
  * (see {@link #isIdempotent(HttpMethod)}) are retried.
+ * Failures while reading a response body are handled by {@link ResumingDecorator}.
  * A {@code maxRetries} value of {@code 0} means no retries (fail immediately).
  * </p>
+ * <p>
+ * The {@link #builder() builder} adds the options that prevent retry storms during
+ * upstream incidents: a {@link BackoffPolicy} between attempts (exponential with jitter
+ * by default), a {@link RetryBudget} shared across requests and the retry of
+ * 502/503/504 responses, waiting at least their {@code Retry-After} delay. A response
+ * whose {@code Retry-After} exceeds {@code maxRetryAfter}, or the last response when
+ * retries are exhausted, is returned as is. The public constructor keeps the original
+ * behavior: immediate retries of network errors only.
+ * </p>
  */
 @DecoratorPattern(HttpClient.class)
-@lombok.AllArgsConstructor
 public final class RetryDecorator implements HttpClientDecorator {
 
+    static final int DEFAULT_MAX_RETRIES = 3;
+    static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(100);
+    static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(10);
+    static final Duration DEFAULT_MAX_RETRY_AFTER = Duration.ofSeconds(60);
+
+    private static final String HTTP_RETRY_AFTER_HEADER = "Retry-After";
+    private static final int HTTP_BAD_GATEWAY = 502;
+    private static final int HTTP_SERVICE_UNAVAILABLE = 503;
+    private static final int HTTP_GATEWAY_TIMEOUT = 504;
+
     @lombok.Getter
-    @NonNull
     private final HttpClient decorated;
 
     @NonNegative
     private final int maxRetries;
 
-    @NonNull
     private final RetryListener listener;
+    private final BackoffPolicy backoff;
+    private final RetryBudget budget;
+    private final boolean retryOnStatus;
+    private final Duration maxRetryAfter;
+
+    public RetryDecorator(@NonNull HttpClient decorated, @NonNegative int maxRetries, @NonNull RetryListener listener) {
+        this(decorated, maxRetries, listener, BackoffPolicy.none(), RetryBudget.unlimited(), false, DEFAULT_MAX_RETRY_AFTER);
+    }
+
+    @lombok.Builder
+    private RetryDecorator(
+            @NonNull HttpClient decorated,
+            @Nullable Integer maxRetries,
+            @Nullable RetryListener listener,
+            @Nullable BackoffPolicy backoff,
+            @Nullable RetryBudget budget,
+            @Nullable Boolean retryOnStatus,
+            @Nullable Duration maxRetryAfter) {
+        if (maxRetries != null && maxRetries < 0) throw new IllegalArgumentException("maxRetries must not be negative");
+        if (maxRetryAfter != null && maxRetryAfter.isNegative()) throw new IllegalArgumentException("maxRetryAfter must not be negative");
+        this.decorated = decorated;
+        this.maxRetries = maxRetries != null ? maxRetries : DEFAULT_MAX_RETRIES;
+        this.listener = listener != null ? listener : RetryListener.noOp();
+        this.backoff = backoff != null ? backoff : BackoffPolicy.exponentialWithJitter(DEFAULT_INITIAL_BACKOFF, DEFAULT_MAX_BACKOFF);
+        this.budget = budget != null ? budget : RetryBudget.unlimited();
+        this.retryOnStatus = retryOnStatus != null ? retryOnStatus : true;
+        this.maxRetryAfter = maxRetryAfter != null ? maxRetryAfter : DEFAULT_MAX_RETRY_AFTER;
+    }
 
     @Override
     public @NonNull String getDescription() {
@@ -46,19 +95,86 @@ public final class RetryDecorator implements HttpClientDecorator {
 
     @Override
     public @NonNull HttpResponse send(@NonNull HttpRequest request) throws IOException {
+        budget.onRequest();
+        Duration delay = Duration.ZERO;
         for (int attempt = 0; ; attempt++) {
+            HttpResponse response;
             try {
-                return decorated.send(request);
+                response = decorated.send(request);
             } catch (IOException ex) {
-                if (attempt >= maxRetries || !isRetryable(request, ex)) {
+                if (attempt >= maxRetries || !isRetryable(request, ex) || !tryRetry(request, attempt + 1)) {
                     throw ex;
                 }
                 listener.onRetry(request, attempt + 1, ex);
+                delay = backoff(request, attempt + 1, delay, null);
+                continue;
+            }
+            if (attempt >= maxRetries || !retryOnStatus || !isIdempotent(request.getMethod())) {
+                return response;
+            }
+            int statusCode;
+            Duration retryAfter;
+            try {
+                statusCode = response.getStatusCode();
+                retryAfter = isRetryable(statusCode) ? getRetryAfter(response) : null;
+            } catch (IOException ex) {
+                response.close();
+                throw ex;
+            }
+            if (!isRetryable(statusCode)
+                    || retryAfter != null && retryAfter.compareTo(maxRetryAfter) > 0
+                    || !tryRetry(request, attempt + 1)) {
+                return response;
+            }
+            response.close();
+            listener.onRetryStatus(request, attempt + 1, statusCode);
+            delay = backoff(request, attempt + 1, delay, retryAfter);
+        }
+    }
+
+    private boolean tryRetry(HttpRequest request, int attempt) {
+        if (budget.tryRetry()) {
+            return true;
+        }
+        listener.onBudgetExhausted(request, attempt);
+        return false;
+    }
+
+    private Duration backoff(HttpRequest request, int attempt, Duration previous, @Nullable Duration retryAfter) throws IOException {
+        Duration result = backoff.getDelay(attempt, previous);
+        if (retryAfter != null && retryAfter.compareTo(result) > 0) {
+            result = retryAfter;
+        }
+        listener.onBackoff(request, attempt, result);
+        if (!result.isZero()) {
+            try {
+                Thread.sleep(result.toMillis(), result.getNano() % 1_000_000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                InterruptedIOException interrupted = new InterruptedIOException("Interrupted while waiting for retry");
+                interrupted.initCause(ex);
+                throw interrupted;
             }
         }
+        return result;
+    }
+
+    static boolean isRetryable(int statusCode) {
+        switch (statusCode) {
+            case HTTP_BAD_GATEWAY:
+            case HTTP_SERVICE_UNAVAILABLE:
+            case HTTP_GATEWAY_TIMEOUT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    static @Nullable Duration getRetryAfter(HttpResponse response) throws IOException {
+        return RetryAfterParser.parse(response.getHeaders().firstValue(HTTP_RETRY_AFTER_HEADER).orElse(null));
     }
 
-    private static boolean isRetryable(HttpRequest request, IOException ex) {
+    static boolean isRetryable(HttpRequest request, IOException ex) {
         // Only retry idempotent requests to avoid duplicating side effects.
         return isIdempotent(request.getMethod()) && isTransient(ex);
     }
@@ -71,7 +187,7 @@ public final class RetryDecorator implements HttpClientDecorator {
         return ex instanceof SocketException;
     }
 
-    private static boolean isIdempotent(HttpMethod method) {
+    static boolean isIdempotent(HttpMethod method) {
         switch (method) {
             case GET:
             case HEAD:
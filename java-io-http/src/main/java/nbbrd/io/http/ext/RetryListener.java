@@ -5,12 +5,42 @@ import nbbrd.design.StaticFactoryMethod;
 import nbbrd.io.http.HttpRequest;
 
 import java.io.IOException;
+import java.time.Duration;
 
 @FunctionalInterface
 public interface RetryListener {
 
     void onRetry(@NonNull HttpRequest request, int attempt, @NonNull IOException cause);
 
+    /**
+     * Called when a request is retried because of its response status (e.g. 503).
+     *
+     * @param request    the retried request
+     * @param attempt    the number of the retry, starting at 1
+     * @param statusCode the status of the discarded response
+     */
+    default void onRetryStatus(@NonNull HttpRequest request, int attempt, int statusCode) {
+    }
+
+    /**
+     * Called before waiting for a retry.
+     *
+     * @param request the retried request
+     * @param attempt the number of the retry, starting at 1
+     * @param delay   the time to wait before sending it
+     */
+    default void onBackoff(@NonNull HttpRequest request, int attempt, @NonNull Duration delay) {
+    }
+
+    /**
+     * Called when a retry is given up because the {@link RetryBudget} is exhausted.
+     *
+     * @param request the request that is not retried
+     * @param attempt the number of the retry that was denied, starting at 1
+     */
+    default void onBudgetExhausted(@NonNull HttpRequest request, int attempt) {
+    }
+
     @StaticFactoryMethod
     static @NonNull RetryListener noOp() {
         return (request, attempt, cause) -> {
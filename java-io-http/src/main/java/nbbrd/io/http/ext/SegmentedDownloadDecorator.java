@@ -0,0 +1,267 @@
+package nbbrd.io.http.ext;
+
+import internal.io.http.CompletableFutures;
+import internal.io.http.ext.ByteRanges;
+import internal.io.http.ext.TempFileHttpResponse;
+import lombok.NonNull;
+import nbbrd.design.DecoratorPattern;
+import nbbrd.design.VisibleForTesting;
+import nbbrd.io.http.*;
+import org.jspecify.annotations.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link HttpClient} decorator that downloads large GET responses as several
+ * concurrent byte ranges.
+ *
+ * <p>When a GET response advertises {@code Accept-Ranges: bytes}, has a
+ * {@code Content-Length} of at least {@code minContentLength}, a validator (a strong
+ * {@code ETag} or a {@code Last-Modified} date) and no {@code Content-Encoding}, the
+ * remaining ranges are requested in parallel with
+ * {@code Range} and {@code If-Range} headers while the first range is read from the
+ * original response. The parts are written at their offsets in a pre-allocated
+ * temporary file, which backs the single {@link HttpResponse} returned to the caller
+ * (see {@link HttpResponse#transferTo(Path)} to move it without copying).
+ * Other responses are returned unchanged.</p>
+ *
+ * <p>If the resource changes between requests (a range request answered without a
+ * matching {@code 206 Partial Content} of the same complete length) or any part fails, the whole download fails
+ * with an {@link IOException} and the temporary file is deleted.</p>
+ *
+ * <p>Range requests are sent through a {@link PooledHttpClient}. Real parallelism
+ * therefore requires the decorated client to be a {@link PooledHttpClient} itself:
+ * any other client is wrapped in a pool of a single client, so that the range
+ * requests are sent one at a time and only their bodies are read concurrently.</p>
+ *
+ * <p>The parts are read by blocking I/O on the given {@code executor}, or by default
+ * on a dedicated pool of daemon threads rather than the common fork-join pool.</p>
+ */
+@DecoratorPattern(HttpClient.class)
+public final class SegmentedDownloadDecorator implements HttpClientDecorator {
+
+    private static final int DEFAULT_SEGMENTS = 4;
+    private static final long DEFAULT_MIN_CONTENT_LENGTH = 8 * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @lombok.Getter
+    private final HttpClient decorated;
+    private final int segments;
+    private final long minContentLength;
+    private final Executor executor;
+    private final Path tempDir;
+    private final PooledHttpClient pool;
+
+    @lombok.Builder
+    private SegmentedDownloadDecorator(
+            @NonNull HttpClient decorated,
+            @Nullable Integer segments,
+            @Nullable Long minContentLength,
+            @Nullable Executor executor,
+            @Nullable Path tempDir) {
+        if (segments != null && segments < 1) throw new IllegalArgumentException("segments must be positive");
+        if (minContentLength != null && minContentLength < 0) throw new IllegalArgumentException("minContentLength must not be negative");
+        this.decorated = decorated;
+        this.segments = segments != null ? segments : DEFAULT_SEGMENTS;
+        this.minContentLength = minContentLength != null ? minContentLength : DEFAULT_MIN_CONTENT_LENGTH;
+        this.executor = executor != null ? executor : DefaultExecutorHolder.INSTANCE;
+        this.tempDir = tempDir != null ? tempDir : Paths.get(System.getProperty("java.io.tmpdir"));
+        this.pool = decorated instanceof PooledHttpClient ? (PooledHttpClient) decorated : PooledHttpClient.of(decorated);
+    }
+
+    @Override
+    public @NonNull String getDescription() {
+        return "Segmented (" + segments + ") download on " + decorated.getDescription();
+    }
+
+    @Override
+    public @NonNull HttpResponse send(@NonNull HttpRequest request) throws IOException {
+        HttpResponse response = pool.send(request);
+        if (!isSegmentable(request)) {
+            return response;
+        }
+        long length;
+        try {
+            length = getSegmentableLength(response);
+        } catch (IOException ex) {
+            response.close();
+            throw ex;
+        }
+        return length > 0 ? download(request, response, length) : response;
+    }
+
+    private boolean isSegmentable(HttpRequest request) {
+        return segments > 1
+                && request.getMethod() == HttpMethod.GET
+                && !request.getHeaders().firstValue(ByteRanges.RANGE_HEADER).isPresent();
+    }
+
+    private long getSegmentableLength(HttpResponse response) throws IOException {
+        HttpHeaders headers = response.getHeaders();
+        if (response.getStatusCode() != 200
+                || !ByteRanges.acceptsByteRanges(headers)
+                || isEncoded(headers)
+                // without validator, parts of different versions could be mixed
+                || !ByteRanges.getIfRangeValidator(headers).isPresent()) {
+            return -1;
+        }
+        long length = response.getContentLength();
+        return length >= minContentLength ? length : -1;
+    }
+
+    private HttpResponse download(HttpRequest request, HttpResponse response, long length) throws IOException {
+        Path file;
+        try {
+            file = Files.createTempFile(tempDir, "segmented_", ".tmp");
+        } catch (IOException ex) {
+            response.close();
+            throw ex;
+        }
+        try {
+            HttpHeaders headers = response.getHeaders();
+            int statusCode = response.getStatusCode();
+            String validator = ByteRanges.getIfRangeValidator(headers).orElseThrow(IllegalStateException::new);
+            List<long[]> ranges = split(length, segments);
+            AtomicBoolean aborted = new AtomicBoolean(false);
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                // pre-allocates the file so that parts can be written at their offsets
+                channel.write(ByteBuffer.allocate(1), length - 1);
+
+                List<CompletableFuture<Void>> tasks = new ArrayList<>();
+                for (long[] range : ranges.subList(1, ranges.size())) {
+                    tasks.add(CompletableFuture.runAsync(() -> {
+                        try {
+                            downloadRange(request, validator, range[0], range[1], length, channel, aborted);
+                        } catch (IOException ex) {
+                            aborted.set(true);
+                            throw new UncheckedIOException(ex);
+                        }
+                    }, executor));
+                }
+
+                IOException failure = null;
+                try (InputStream body = response.getBody()) {
+                    copyRange(body, channel, 0, ranges.get(0)[1] + 1, aborted);
+                } catch (IOException ex) {
+                    aborted.set(true);
+                    failure = ex;
+                } finally {
+                    response.close();
+                }
+                failure = awaitAll(tasks, aborted, failure);
+                if (failure != null) {
+                    throw failure;
+                }
+            }
+            return new TempFileHttpResponse(statusCode, headers, file);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(file);
+            throw ex;
+        }
+    }
+
+    private void downloadRange(HttpRequest request, String validator, long first, long last, long length, FileChannel channel, AtomicBoolean aborted) throws IOException {
+        HttpRequest rangeRequest = request
+                .toBuilder()
+                .headers(request.getHeaders()
+                        .toBuilder()
+                        .put(ByteRanges.RANGE_HEADER, ByteRanges.formatRange(first, last))
+                        .put(ByteRanges.IF_RANGE_HEADER, validator)
+                        .build())
+                .build();
+        try (HttpResponse response = pool.send(rangeRequest)) {
+            ByteRanges.ContentRange range = ByteRanges.parseContentRange(response.getHeaders().firstValue(ByteRanges.CONTENT_RANGE_HEADER).orElse(null));
+            if (response.getStatusCode() != ByteRanges.HTTP_PARTIAL_CONTENT
+                    || range == null || range.getFirst() != first || range.getLast() != last || range.getLength() != length
+                    || isEncoded(response.getHeaders())) {
+                throw new IOException("Unexpected response to range request '" + ByteRanges.formatRange(first, last) + "' of '" + request.getQuery() + "': status " + response.getStatusCode());
+            }
+            try (InputStream body = response.getBody()) {
+                copyRange(body, channel, first, range.size(), aborted);
+            }
+        }
+    }
+
+    private static void copyRange(InputStream body, FileChannel channel, long position, long count, AtomicBoolean aborted) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long remaining = count;
+        while (remaining > 0) {
+            if (aborted.get()) {
+                throw new InterruptedIOException("Segmented download aborted");
+            }
+            int n = body.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (n == -1) {
+                throw new EOFException("Premature end of range at byte " + position);
+            }
+            ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, n);
+            while (chunk.hasRemaining()) {
+                position += channel.write(chunk, position);
+            }
+            remaining -= n;
+        }
+    }
+
+    private static @Nullable IOException awaitAll(List<CompletableFuture<Void>> tasks, AtomicBoolean aborted, @Nullable IOException failure) {
+        IOException result = failure;
+        for (CompletableFuture<Void> task : tasks) {
+            try {
+                task.join();
+            } catch (RuntimeException ex) {
+                aborted.set(true);
+                Throwable cause = CompletableFutures.unwrap(ex);
+                if (cause instanceof UncheckedIOException) {
+                    cause = cause.getCause();
+                }
+                // keeps the root failure rather than the aborts it triggered
+                if (result == null || result instanceof InterruptedIOException) {
+                    result = cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isEncoded(HttpHeaders headers) {
+        return headers.firstValue(HttpHeaders.HTTP_CONTENT_ENCODING_HEADER)
+                .filter(encoding -> !encoding.equalsIgnoreCase("identity"))
+                .isPresent();
+    }
+
+    @VisibleForTesting
+    static List<long[]> split(long length, int segments) {
+        long size = (length + segments - 1) / segments;
+        List<long[]> result = new ArrayList<>();
+        for (long first = 0; first < length; first += size) {
+            result.add(new long[]{first, Math.min(length, first + size) - 1});
+        }
+        return result;
+    }
+
+    private static final class DefaultExecutorHolder {
+
+        // daemon threads so that an idle pool never prevents the JVM from exiting
+        private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(task -> {
+            Thread result = new Thread(task, "nbbrd-io-http-segmented-download");
+            result.setDaemon(true);
+            return result;
+        });
+    }
+}
@@ -58,7 +58,10 @@ public final class ThrowingStatusDecorator implements HttpClientDecorator {
 
     @Override
     public @NonNull HttpResponse send(@NonNull HttpRequest request) throws IOException {
-        HttpResponse response = decorated.send(request);
+        return checkStatus(decorated.send(request), shouldThrow);
+    }
+
+    static HttpResponse checkStatus(HttpResponse response, IntPredicate shouldThrow) throws IOException {
         try {
             int code = response.getStatusCode();
             if (shouldThrow.test(code)) {
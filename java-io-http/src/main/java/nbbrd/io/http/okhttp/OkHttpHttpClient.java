@@ -1,30 +1,33 @@
 package nbbrd.io.http.okhttp;
 
+import internal.io.http.CompletableFutures;
 import internal.io.http.okhttp.OkHttpHttpResponse;
+import internal.io.http.okhttp.OkHttpSharedResources;
 import internal.io.http.urlconnection.UrlHelper;
 import lombok.AccessLevel;
 import lombok.NonNull;
 import nbbrd.design.NonNegative;
 import nbbrd.io.http.*;
 import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
 import org.jspecify.annotations.Nullable;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLSocketFactory;
-import javax.net.ssl.X509TrustManager;
 import java.io.IOException;
 import java.net.ProxySelector;
 import java.net.URI;
-import java.security.KeyStore;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -42,12 +45,24 @@ import java.util.concurrent.TimeUnit;
  * redirect handling to external decorators such as
  * {@link nbbrd.io.http.ext.RedirectDecorator}.
  * </p>
+ * <p>
+ * Instances share their connection pool with every other instance configured with
+ * the same {@link #maxIdleConnections} and {@link #keepAliveDuration}, so that
+ * short-lived clients still reuse connections. Likewise, they share their dispatcher
+ * with every instance configured with the same {@link #maxRequests} and
+ * {@link #maxRequestsPerHost}: these limits bound the asynchronous calls of all these
+ * instances together.
+ * </p>
  */
 @lombok.Getter
 @lombok.Builder(toBuilder = true)
-public final class OkHttpHttpClient implements HttpClient {
+public final class OkHttpHttpClient implements HttpClient, AsyncHttpClient {
 
     private static final int DEFAULT_TIMEOUT = 2 * 60 * 1000;
+    static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    static final int DEFAULT_KEEP_ALIVE_DURATION = 5 * 60 * 1000;
+    static final int DEFAULT_MAX_REQUESTS = 64;
+    static final int DEFAULT_MAX_REQUESTS_PER_HOST = 5;
 
     /**
      * Read timeout in milliseconds. A value of {@code 0} means no timeout.
@@ -125,16 +140,68 @@ public final class OkHttpHttpClient implements HttpClient {
     @lombok.Builder.Default
     Cache cache = null;
 
+    /**
+     * Maximum number of idle connections kept in the shared connection pool.
+     */
+    @NonNegative
+    @lombok.Builder.Default
+    int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+
+    /**
+     * Time in milliseconds an idle connection is kept in the shared connection pool.
+     * Must be positive.
+     */
+    @lombok.Builder.Default
+    int keepAliveDuration = DEFAULT_KEEP_ALIVE_DURATION;
+
+    /**
+     * Maximum number of asynchronous calls executed concurrently by the shared dispatcher.
+     * Must be positive.
+     */
+    @lombok.Builder.Default
+    int maxRequests = DEFAULT_MAX_REQUESTS;
+
+    /**
+     * Maximum number of asynchronous calls to a single host executed concurrently by the
+     * shared dispatcher. Must be positive.
+     */
+    @lombok.Builder.Default
+    int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+
     /**
      * Lazily-built, reusable OkHttp client shared across all requests.
      * <p>
-     * Building the client once ensures the {@link #cache} and connection pool
-     * are reused instead of being recreated on every request.
+     * Building the client once ensures the {@link #cache} is reused instead of
+     * being recreated on every request.
      * </p>
      */
     @lombok.Getter(value = AccessLevel.PRIVATE, lazy = true)
     private final OkHttpClient client = buildClient();
 
+    // Explicit so that the pool and dispatcher settings fail when the client is built, not on first use.
+    OkHttpHttpClient(int readTimeout, int connectTimeout,
+                     @NonNull ProxySelector proxySelector, @NonNull SSLSocketFactory sslSocketFactory, @NonNull HostnameVerifier hostnameVerifier,
+                     String userAgent, boolean normalizeUri, boolean followRedirects, @Nullable Cache cache,
+                     int maxIdleConnections, int keepAliveDuration, int maxRequests, int maxRequestsPerHost) {
+        if (maxIdleConnections < 0) throw new IllegalArgumentException("maxIdleConnections must not be negative");
+        if (keepAliveDuration <= 0) throw new IllegalArgumentException("keepAliveDuration must be positive");
+        if (maxRequests <= 0) throw new IllegalArgumentException("maxRequests must be positive");
+        if (maxRequestsPerHost <= 0) throw new IllegalArgumentException("maxRequestsPerHost must be positive");
+        this.readTimeout = readTimeout;
+        this.connectTimeout = connectTimeout;
+        this.proxySelector = proxySelector;
+        this.sslSocketFactory = sslSocketFactory;
+        this.hostnameVerifier = hostnameVerifier;
+        this.userAgent = userAgent;
+        this.normalizeUri = normalizeUri;
+        this.followRedirects = followRedirects;
+        this.cache = cache;
+        this.maxIdleConnections = maxIdleConnections;
+        this.keepAliveDuration = keepAliveDuration;
+        this.maxRequests = maxRequests;
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
     @Override
     public @NonNull String getDescription() {
         return "OkHttp client";
@@ -155,19 +222,64 @@ public final class OkHttpHttpClient implements HttpClient {
      */
     @Override
     public @NonNull HttpResponse send(@NonNull HttpRequest request) throws IOException {
+        Response response = getClient().newCall(toOkRequest(request)).execute();
+        return new OkHttpHttpResponse(response);
+    }
+
+    /**
+     * Sends an HTTP request asynchronously using OkHttp's dispatcher.
+     * <p>
+     * No thread is blocked while waiting for the response headers. Cancelling
+     * the returned future cancels the underlying call.
+     * </p>
+     *
+     * @param request the HTTP request to send
+     * @return a future completed with the HTTP response from the server
+     */
+    @Override
+    public @NonNull CompletableFuture<HttpResponse> sendAsync(@NonNull HttpRequest request) {
+        Call call;
+        try {
+            call = getClient().newCall(toOkRequest(request));
+        } catch (IOException ex) {
+            return CompletableFutures.failed(ex);
+        }
+        CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                call.cancel();
+            }
+        });
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException ex) {
+                result.completeExceptionally(ex);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                if (!result.complete(new OkHttpHttpResponse(response))) {
+                    response.close();
+                }
+            }
+        });
+        return result;
+    }
+
+    private Request toOkRequest(HttpRequest request) throws IOException {
         URI query = normalizeUri ? request.getQuery().normalize() : request.getQuery();
 
         if (!UrlHelper.isHttpProtocol(query) && !UrlHelper.isHttpsProtocol(query)) {
             throw new IOException("Unsupported protocol '" + query.getScheme() + "'");
         }
 
-        OkHttpClient client = getClient();
-
         Request.Builder okRequestBuilder = new Request.Builder()
                 .url(UrlHelper.toURL(query));
 
         RequestBody body = request.getBody() != null
                 ? RequestBody.create(request.getBody())
+                : request.getStreamingBody() != null
+                ? toOkBody(request.getStreamingBody())
                 : (requiresBody(request.getMethod()) ? RequestBody.create(new byte[0]) : null);
 
         okRequestBuilder.method(request.getMethod().name(), body);
@@ -180,8 +292,13 @@ public final class OkHttpHttpClient implements HttpClient {
             okRequestBuilder.header(HttpHeaders.HTTP_USER_AGENT_HEADER, userAgent);
         }
 
-        Response response = client.newCall(okRequestBuilder.build()).execute();
-        return new OkHttpHttpResponse(response);
+        return okRequestBuilder.build();
+    }
+
+    private static RequestBody toOkBody(HttpRequestBody body) {
+        return body.getFile().isPresent()
+                ? RequestBody.create(body.getFile().get().toFile(), null)
+                : new StreamingRequestBody(body);
     }
 
     private boolean requiresBody(HttpMethod method) {
@@ -190,6 +307,8 @@ public final class OkHttpHttpClient implements HttpClient {
 
     private OkHttpClient buildClient() {
         OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(OkHttpSharedResources.getConnectionPool(maxIdleConnections, keepAliveDuration))
+                .dispatcher(OkHttpSharedResources.getDispatcher(maxRequests, maxRequestsPerHost))
                 .readTimeout(readTimeout, TimeUnit.MILLISECONDS)
                 .connectTimeout(connectTimeout, TimeUnit.MILLISECONDS)
                 .proxySelector(proxySelector)
@@ -201,29 +320,35 @@ public final class OkHttpHttpClient implements HttpClient {
             builder.cache(cache);
         }
 
-        X509TrustManager trustManager = getDefaultTrustManager();
-        builder.sslSocketFactory(sslSocketFactory, trustManager);
+        builder.sslSocketFactory(sslSocketFactory, OkHttpSharedResources.getDefaultTrustManager());
 
         return builder.build();
     }
 
-    private static X509TrustManager getDefaultTrustManager() {
-        try {
-            javax.net.ssl.TrustManagerFactory tmf = javax.net.ssl.TrustManagerFactory.getInstance(
-                    javax.net.ssl.TrustManagerFactory.getDefaultAlgorithm());
-            tmf.init((KeyStore) null);
-            return Arrays.stream(tmf.getTrustManagers())
-                    .filter(X509TrustManager.class::isInstance)
-                    .map(X509TrustManager.class::cast)
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalStateException("No X509TrustManager found"));
-        } catch (NoSuchAlgorithmException | KeyStoreException ex) {
-            throw new IllegalStateException("Cannot initialize default trust manager", ex);
-        }
-    }
-
     public static class Builder {
         // Fix Javadoc error
     }
-}
 
+    @lombok.AllArgsConstructor
+    private static final class StreamingRequestBody extends RequestBody {
+
+        private final HttpRequestBody body;
+
+        @Override
+        public okhttp3.MediaType contentType() {
+            return null;
+        }
+
+        @Override
+        public long contentLength() {
+            return body.getLength();
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            try (Source source = Okio.source(body.openStream())) {
+                sink.writeAll(source);
+            }
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package nbbrd.io.http.okhttp;
 
 import lombok.NonNull;
+import nbbrd.io.http.AsyncHttpClient;
 import nbbrd.io.http.HttpClient;
 import nbbrd.io.http.HttpClientFactory;
 import nbbrd.io.http.HttpContext;
 import nbbrd.service.ServiceProvider;
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.Executor;
 
 /**
  * {@link HttpClientFactory} backed by {@link OkHttpHttpClient}.
@@ -12,12 +16,54 @@ import nbbrd.service.ServiceProvider;
  * This factory is only available when the optional OkHttp library is present on
  * the classpath.
  * </p>
+ * <p>
+ * The clients it creates are cheap: they all share the same connection
+ * pool, dispatcher and trust manager.
+ * </p>
+ * <p>
+ * The settings of this pool and dispatcher (see {@link OkHttpHttpClient}) are the
+ * defaults of the service-loaded instance; a factory created by the {@link #builder() builder}
+ * passes its own settings to its clients.
+ * </p>
  */
 @ServiceProvider(HttpClientFactory.class)
 public final class OkHttpHttpClientFactory implements HttpClientFactory {
 
     private static final int PRIORITY = 100;
 
+    private final int maxIdleConnections;
+    private final int keepAliveDuration;
+    private final int maxRequests;
+    private final int maxRequestsPerHost;
+
+    public OkHttpHttpClientFactory() {
+        this(null, null, null, null);
+    }
+
+    /**
+     * Creates a factory whose clients use the given pool and dispatcher settings.
+     *
+     * @param maxIdleConnections maximum number of idle connections, see {@link OkHttpHttpClient#getMaxIdleConnections()}
+     * @param keepAliveDuration  keep-alive duration in milliseconds, see {@link OkHttpHttpClient#getKeepAliveDuration()}
+     * @param maxRequests        maximum number of concurrent asynchronous calls, see {@link OkHttpHttpClient#getMaxRequests()}
+     * @param maxRequestsPerHost maximum number of concurrent asynchronous calls per host, see {@link OkHttpHttpClient#getMaxRequestsPerHost()}
+     */
+    @lombok.Builder
+    private OkHttpHttpClientFactory(
+            @Nullable Integer maxIdleConnections,
+            @Nullable Integer keepAliveDuration,
+            @Nullable Integer maxRequests,
+            @Nullable Integer maxRequestsPerHost) {
+        if (maxIdleConnections != null && maxIdleConnections < 0) throw new IllegalArgumentException("maxIdleConnections must not be negative");
+        if (keepAliveDuration != null && keepAliveDuration <= 0) throw new IllegalArgumentException("keepAliveDuration must be positive");
+        if (maxRequests != null && maxRequests <= 0) throw new IllegalArgumentException("maxRequests must be positive");
+        if (maxRequestsPerHost != null && maxRequestsPerHost <= 0) throw new IllegalArgumentException("maxRequestsPerHost must be positive");
+        this.maxIdleConnections = maxIdleConnections != null ? maxIdleConnections : OkHttpHttpClient.DEFAULT_MAX_IDLE_CONNECTIONS;
+        this.keepAliveDuration = keepAliveDuration != null ? keepAliveDuration : OkHttpHttpClient.DEFAULT_KEEP_ALIVE_DURATION;
+        this.maxRequests = maxRequests != null ? maxRequests : OkHttpHttpClient.DEFAULT_MAX_REQUESTS;
+        this.maxRequestsPerHost = maxRequestsPerHost != null ? maxRequestsPerHost : OkHttpHttpClient.DEFAULT_MAX_REQUESTS_PER_HOST;
+    }
+
     @Override
     public @NonNull String getFactoryId() {
         return "okhttp";
@@ -35,6 +81,15 @@ public final class OkHttpHttpClientFactory implements HttpClientFactory {
 
     @Override
     public @NonNull HttpClient getClient(@NonNull HttpContext context) {
+        return newClient(context);
+    }
+
+    @Override
+    public @NonNull AsyncHttpClient getAsyncClient(@NonNull HttpContext context, @NonNull Executor executor) {
+        return newClient(context);
+    }
+
+    private OkHttpHttpClient newClient(HttpContext context) {
         return OkHttpHttpClient
                 .builder()
                 .readTimeout(context.getReadTimeout())
@@ -45,6 +100,10 @@ public final class OkHttpHttpClientFactory implements HttpClientFactory {
                 .userAgent(context.getUserAgent())
                 .followRedirects(false)
                 .normalizeUri(context.isNormalizeUri())
+                .maxIdleConnections(maxIdleConnections)
+                .keepAliveDuration(keepAliveDuration)
+                .maxRequests(maxRequests)
+                .maxRequestsPerHost(maxRequestsPerHost)
                 .build();
     }
 
@@ -23,7 +23,9 @@ import nbbrd.design.NonNegative;
 import nbbrd.io.http.HttpClient;
 import nbbrd.io.http.HttpHeaders;
 import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpRequestBody;
 import nbbrd.io.http.HttpResponse;
+import nbbrd.io.http.ext.MetricsListener;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
@@ -44,6 +46,11 @@ import java.util.stream.Collectors;
  * {@link nbbrd.io.http.ext.AuthenticatingDecorator},
  * {@link nbbrd.io.http.ext.RetryDecorator}).
  * </p>
+ * <p>
+ * Closing a response drains its unread body within {@link #getDrainLimit()} and
+ * {@link #getDrainTimeout()} so that the connection stays in the keep-alive cache of
+ * {@link HttpURLConnection}; only larger or slower bodies disconnect it.
+ * </p>
  *
  * @author Philippe Charles
  */
@@ -63,6 +70,8 @@ public final class UrlConnectionHttpClient implements HttpClient {
     }
 
     private static final int DEFAULT_TIMEOUT = 2 * 60 * 1000;
+    private static final long DEFAULT_DRAIN_LIMIT = 64 * 1024;
+    private static final int DEFAULT_DRAIN_TIMEOUT = 1000;
 
     /**
      * Read timeout in milliseconds. A value of {@code 0} means no timeout.
@@ -119,6 +128,29 @@ public final class UrlConnectionHttpClient implements HttpClient {
     @lombok.Builder.Default
     boolean normalizeUri = false;
 
+    /**
+     * Maximum number of unread body bytes drained when a response is closed, so that
+     * its connection can be reused instead of being disconnected.
+     */
+    @NonNegative
+    @lombok.Builder.Default
+    long drainLimit = DEFAULT_DRAIN_LIMIT;
+
+    /**
+     * Maximum time in milliseconds spent draining an unread body when a response is closed.
+     * It is checked between reads, so a stalled body may hold the caller up to {@code readTimeout}.
+     */
+    @NonNegative
+    @lombok.Builder.Default
+    int drainTimeout = DEFAULT_DRAIN_TIMEOUT;
+
+    /**
+     * Listener notified of keep-alive hits and misses when responses are closed.
+     */
+    @lombok.NonNull
+    @lombok.Builder.Default
+    MetricsListener metricsListener = MetricsListener.noOp();
+
     @Override
     public @NonNull String getDescription() {
         return "URL connection client";
@@ -171,11 +203,22 @@ public final class UrlConnectionHttpClient implements HttpClient {
             try (OutputStream stream = conn.getOutputStream()) {
                 stream.write(request.getBody());
             }
+        } else if (request.getStreamingBody() != null) {
+            HttpRequestBody body = request.getStreamingBody();
+            if (body.hasKnownLength()) {
+                conn.setFixedLengthStreamingMode(body.getLength());
+            } else {
+                conn.setChunkedStreamingMode(0);
+            }
+            conn.setDoOutput(true);
+            try (OutputStream stream = conn.getOutputStream()) {
+                body.writeTo(stream);
+            }
         }
 
         conn.connect();
 
-        return new UrlConnectionHttpResponse(conn, decoders);
+        return new UrlConnectionHttpResponse(conn, decoders, query, drainLimit, drainTimeout, metricsListener);
     }
 
     private String getEncodingHeader() {
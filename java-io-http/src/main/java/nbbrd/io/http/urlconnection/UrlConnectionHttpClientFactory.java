@@ -4,6 +4,7 @@ import lombok.NonNull;
 import nbbrd.io.http.HttpClient;
 import nbbrd.io.http.HttpClientFactory;
 import nbbrd.io.http.HttpContext;
+import nbbrd.io.http.ext.MetricsListener;
 import nbbrd.service.ServiceProvider;
 
 /**
@@ -12,12 +13,26 @@ import nbbrd.service.ServiceProvider;
  * This factory is always available since it relies solely on the JDK
  * {@link java.net.HttpURLConnection}.
  * </p>
+ * <p>
+ * The connection events of its clients (keep-alive hits and misses) are reported
+ * to the {@link MetricsListener} given at construction, if any.
+ * </p>
  */
 @ServiceProvider(HttpClientFactory.class)
 public final class UrlConnectionHttpClientFactory implements HttpClientFactory {
 
     private static final int PRIORITY = 50;
 
+    private final MetricsListener metricsListener;
+
+    public UrlConnectionHttpClientFactory() {
+        this(MetricsListener.noOp());
+    }
+
+    public UrlConnectionHttpClientFactory(@NonNull MetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
     @Override
     public @NonNull String getFactoryId() {
         return "urlconnection";
@@ -44,6 +59,7 @@ public final class UrlConnectionHttpClientFactory implements HttpClientFactory {
                 .hostnameVerifier(context.getHostnameVerifier().get())
                 .userAgent(context.getUserAgent())
                 .normalizeUri(context.isNormalizeUri())
+                .metricsListener(metricsListener)
                 .build();
     }
 }
@@ -0,0 +1,117 @@
+package _test.io.http;
+
+import lombok.NonNull;
+import nbbrd.io.function.IOFunction;
+import nbbrd.io.http.HttpHeaders;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Request handler for {@link MockedHttpClient} that serves a byte array with
+ * support for {@code Range} and {@code If-Range} requests.
+ */
+@lombok.Builder(toBuilder = true)
+public final class RangeHandler implements IOFunction<HttpRequest, HttpResponse> {
+
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d*)");
+
+    @lombok.NonNull
+    private final byte[] content;
+
+    @lombok.Builder.Default
+    private final String etag = "\"v1\"";
+
+    @lombok.Builder.Default
+    private final boolean acceptRanges = true;
+
+    /**
+     * Complete length reported in {@code Content-Range}, or {@code -1} for the actual one.
+     */
+    @lombok.Builder.Default
+    private final int completeLength = -1;
+
+    /**
+     * Number of responses whose body fails with a {@link SocketException} after {@link #failAfter} bytes.
+     */
+    @lombok.Builder.Default
+    private final int failures = 0;
+
+    @lombok.Builder.Default
+    private final int failAfter = 0;
+
+    private final AtomicInteger failureCount = new AtomicInteger();
+
+    @Override
+    public HttpResponse applyWithIO(@NonNull HttpRequest request) throws IOException {
+        String range = request.getHeaders().firstValue("Range").orElse(null);
+        String ifRange = request.getHeaders().firstValue("If-Range").orElse(null);
+        if (range == null || !acceptRanges || (ifRange != null && !ifRange.equals(etag))) {
+            return responseOf(200, 0, content.length - 1, null);
+        }
+        Matcher m = RANGE.matcher(range);
+        if (!m.matches()) {
+            throw new IOException("Invalid range: " + range);
+        }
+        int first = Integer.parseInt(m.group(1));
+        int last = m.group(2).isEmpty() ? content.length - 1 : Math.min(content.length - 1, Integer.parseInt(m.group(2)));
+        return responseOf(206, first, last, "bytes " + first + "-" + last + "/" + (completeLength >= 0 ? completeLength : content.length));
+    }
+
+    private HttpResponse responseOf(int statusCode, int first, int last, String contentRange) {
+        int length = last - first + 1;
+        return MockedHttpResponse
+                .builder()
+                .statusCode(statusCode)
+                .contentLength(length)
+                .headers(HttpHeaders
+                        .builder()
+                        .put(HttpHeaders.HTTP_CONTENT_TYPE_HEADER, "application/octet-stream")
+                        .put(HttpHeaders.HTTP_CONTENT_LENGTH_HEADER, String.valueOf(length))
+                        .put("Accept-Ranges", acceptRanges ? "bytes" : "none")
+                        .put("ETag", etag)
+                        .put("Content-Range", contentRange)
+                        .build())
+                .body(failureCount.getAndIncrement() < failures
+                        ? () -> new FailingInputStream(new ByteArrayInputStream(content, first, length), failAfter)
+                        : () -> new ByteArrayInputStream(content, first, length))
+                .build();
+    }
+
+    private static final class FailingInputStream extends FilterInputStream {
+
+        private int remaining;
+
+        private FailingInputStream(InputStream delegate, int failAfter) {
+            super(delegate);
+            this.remaining = failAfter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int n = read(single, 0, 1);
+            return n == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                throw new SocketException("Connection reset");
+            }
+            int n = super.read(b, off, Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+    }
+}
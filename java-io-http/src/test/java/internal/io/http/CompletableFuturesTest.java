@@ -0,0 +1,44 @@
+package internal.io.http;
+
+import _test.io.http.MockedHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompletableFuturesTest {
+
+    @Test
+    void thenApplyIOPropagatesCancellation() {
+        CompletableFuture<MockedHttpResponse> source = new CompletableFuture<>();
+
+        CompletableFutures.thenApplyIO(source, response -> response).cancel(true);
+        assertThat(source).isCancelled();
+    }
+
+    @Test
+    void thenApplyIOClosesLateValue() {
+        CompletableFuture<MockedHttpResponse> source = new CompletableFuture<>();
+        CompletableFuture<MockedHttpResponse> result = CompletableFutures.thenApplyIO(source, response -> response);
+
+        result.complete(null);
+        MockedHttpResponse late = MockedHttpResponse.builder().build();
+        source.complete(late);
+        assertThat(late.isClosed()).isTrue();
+    }
+
+    @Test
+    void thenApplyIOUnwrapsFailures() {
+        IOException failure = new IOException("boom");
+        CompletableFuture<Object> result = CompletableFutures.thenApplyIO(CompletableFutures.failed(failure), value -> value);
+
+        assertThat(result)
+                .failsWithin(0, TimeUnit.SECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .withCause(failure);
+    }
+}
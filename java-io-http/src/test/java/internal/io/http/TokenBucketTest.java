@@ -2,6 +2,15 @@ package internal.io.http;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -79,5 +88,128 @@ class TokenBucketTest {
         assertThat(bucket.getPermitsPerSecond()).isEqualTo(2);
         assertThatIllegalArgumentException().isThrownBy(() -> bucket.setPermitsPerSecond(0));
     }
-}
 
+    @Test
+    void setPermitsPerSecondConvertsReservationsAhead() {
+        TokenBucket bucket = new TokenBucket(1, 1, TimeUnit.HOURS.toNanos(1));
+        long now = 1_000_000_000L;
+
+        assertThat(bucket.reserve(now)).isEqualTo(0);
+        assertThat(bucket.reserve(now)).isEqualTo(SECOND_NANOS);
+
+        // Two permits are now reserved ahead; at half the rate they last twice as long.
+        bucket.setPermitsPerSecond(0.5, now);
+        assertThat(bucket.reserve(now)).isEqualTo(4 * SECOND_NANOS);
+    }
+
+    @Test
+    void setPermitsPerSecondKeepsAvailableTokens() {
+        TokenBucket bucket = new TokenBucket(10, 4, TimeUnit.HOURS.toNanos(1));
+        long now = 1_000_000_000L;
+
+        assertThat(bucket.reserve(now)).isEqualTo(0);
+        assertThat(bucket.reserve(now)).isEqualTo(0);
+        bucket.setPermitsPerSecond(1, now);
+
+        assertThat(bucket.reserve(now)).isEqualTo(0);
+        assertThat(bucket.reserve(now)).isEqualTo(0);
+        assertThat(bucket.reserve(now)).isEqualTo(SECOND_NANOS);
+    }
+
+    @Test
+    void setLimitsCapsAvailableTokens() {
+        TokenBucket bucket = new TokenBucket(1, 4, TimeUnit.HOURS.toNanos(1));
+        long now = 1_000_000_000L;
+
+        assertThat(bucket.reserve(now)).isEqualTo(0);
+        bucket.setLimits(1, 2, now);
+        assertThat(bucket.getMaxBurst()).isEqualTo(2);
+
+        assertThat(bucket.reserve(now)).isEqualTo(0);
+        assertThat(bucket.reserve(now)).isEqualTo(0);
+        assertThat(bucket.reserve(now)).isEqualTo(SECOND_NANOS);
+    }
+
+    @Test
+    void setLimitsWithZeroBurstStoresNoToken() {
+        TokenBucket bucket = new TokenBucket(1, 4, TimeUnit.HOURS.toNanos(1));
+        long now = 1_000_000_000L;
+
+        bucket.setLimits(0.5, 0, now);
+        assertThat(bucket.reserve(now + 10 * SECOND_NANOS)).isEqualTo(2 * SECOND_NANOS);
+        assertThatIllegalArgumentException().isThrownBy(() -> bucket.setLimits(1, -1, now));
+    }
+
+    @Test
+    void reserveSeveralPermits() {
+        TokenBucket bucket = new TokenBucket(1, 2, TimeUnit.HOURS.toNanos(1));
+        long now = 1_000_000_000L;
+
+        assertThat(bucket.reserve(now, 2)).isEqualTo(0);
+        assertThat(bucket.reserve(now, 3)).isEqualTo(3 * SECOND_NANOS);
+        assertThat(bucket.reserve(now)).isEqualTo(4 * SECOND_NANOS);
+        assertThatIllegalArgumentException().isThrownBy(() -> bucket.reserve(now, 0));
+    }
+
+    @Test
+    void tryReserveDoesNotBookAhead() {
+        TokenBucket bucket = new TokenBucket(1, 1, TimeUnit.HOURS.toNanos(1));
+        long now = 1_000_000_000L;
+
+        assertThat(bucket.tryReserve(now, 1)).isEqualTo(0);
+        assertThat(bucket.tryReserve(now, 1)).isEqualTo(SECOND_NANOS);
+        assertThat(bucket.tryReserve(now, 1)).isEqualTo(SECOND_NANOS);
+
+        // queued reservations go first
+        assertThat(bucket.reserve(now)).isEqualTo(SECOND_NANOS);
+        assertThat(bucket.tryReserve(now + SECOND_NANOS, 1)).isEqualTo(SECOND_NANOS);
+        assertThat(bucket.tryReserve(now + 2 * SECOND_NANOS, 1)).isEqualTo(0);
+    }
+
+    @Test
+    void tryReserveBorrowsCostAboveBurst() {
+        TokenBucket bucket = new TokenBucket(1, 2, TimeUnit.HOURS.toNanos(1));
+        long now = 1_000_000_000L;
+
+        assertThat(bucket.tryReserve(now, 5)).isEqualTo(0);
+        assertThat(bucket.reserve(now)).isEqualTo(4 * SECOND_NANOS);
+        assertThat(bucket.tryReserve(now, 1)).isEqualTo(5 * SECOND_NANOS);
+    }
+
+    @Test
+    void reserveDoesNotLoseConcurrentReservations() throws Exception {
+        int threads = 8;
+        int reservationsPerThread = 10_000;
+        TokenBucket bucket = new TokenBucket(1_000_000, 1, Long.MAX_VALUE);
+        long now = 1_000_000_000L;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    long[] waits = new long[reservationsPerThread];
+                    for (int i = 0; i < reservationsPerThread; i++) {
+                        waits[i] = bucket.reserve(now);
+                    }
+                    return waits;
+                }));
+            }
+            start.countDown();
+
+            // Every reservation gets its own slot, one microsecond apart.
+            Set<Long> waits = new HashSet<>();
+            for (Future<long[]> result : results) {
+                for (long wait : result.get(1, TimeUnit.MINUTES)) {
+                    assertThat(waits.add(wait)).isTrue();
+                }
+            }
+            assertThat(waits).hasSize(threads * reservationsPerThread);
+            assertThat(Collections.max(waits)).isEqualTo((threads * reservationsPerThread - 1) * 1_000L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
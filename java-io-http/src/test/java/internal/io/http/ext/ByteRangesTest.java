@@ -0,0 +1,48 @@
+package internal.io.http.ext;
+
+import nbbrd.io.http.HttpHeaders;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ByteRangesTest {
+
+    @Test
+    public void testAcceptsByteRanges() {
+        assertThat(ByteRanges.acceptsByteRanges(HttpHeaders.builder().put("Accept-Ranges", "bytes").build())).isTrue();
+        assertThat(ByteRanges.acceptsByteRanges(HttpHeaders.builder().put("accept-ranges", "Bytes").build())).isTrue();
+        assertThat(ByteRanges.acceptsByteRanges(HttpHeaders.builder().put("Accept-Ranges", "none").build())).isFalse();
+        assertThat(ByteRanges.acceptsByteRanges(HttpHeaders.EMPTY)).isFalse();
+    }
+
+    @Test
+    public void testGetIfRangeValidator() {
+        assertThat(ByteRanges.getIfRangeValidator(HttpHeaders.builder().put("ETag", "\"abc\"").put("Last-Modified", "x").build()))
+                .hasValue("\"abc\"");
+        assertThat(ByteRanges.getIfRangeValidator(HttpHeaders.builder().put("ETag", "W/\"abc\"").put("Last-Modified", "x").build()))
+                .isEmpty();
+        assertThat(ByteRanges.getIfRangeValidator(HttpHeaders.builder().put("Last-Modified", "x").build()))
+                .hasValue("x");
+        assertThat(ByteRanges.getIfRangeValidator(HttpHeaders.EMPTY))
+                .isEmpty();
+    }
+
+    @Test
+    public void testFormatRange() {
+        assertThat(ByteRanges.formatRange(0, 99)).isEqualTo("bytes=0-99");
+        assertThat(ByteRanges.formatRange(100, -1)).isEqualTo("bytes=100-");
+    }
+
+    @Test
+    public void testParseContentRange() {
+        assertThat(ByteRanges.parseContentRange("bytes 0-99/1000"))
+                .isEqualTo(new ByteRanges.ContentRange(0, 99, 1000))
+                .extracting(ByteRanges.ContentRange::size)
+                .isEqualTo(100L);
+        assertThat(ByteRanges.parseContentRange("bytes 10-19/*"))
+                .isEqualTo(new ByteRanges.ContentRange(10, 19, -1));
+        assertThat(ByteRanges.parseContentRange(null)).isNull();
+        assertThat(ByteRanges.parseContentRange("bytes */1000")).isNull();
+        assertThat(ByteRanges.parseContentRange("bytes 20-10/1000")).isNull();
+    }
+}
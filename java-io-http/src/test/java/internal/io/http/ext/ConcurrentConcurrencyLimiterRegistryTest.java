@@ -0,0 +1,71 @@
+package internal.io.http.ext;
+
+import _test.io.http.MutableClock;
+import nbbrd.io.http.ext.ConcurrencyLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ConcurrentConcurrencyLimiterRegistryTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    private static ConcurrencyLimiter fixed() {
+        return ConcurrencyLimiter.fixed(2, Duration.ofSeconds(60));
+    }
+
+    @Test
+    void testExpireAfterAccess() {
+        MutableClock clock = new MutableClock(T0);
+        ConcurrentConcurrencyLimiterRegistry x = new ConcurrentConcurrencyLimiterRegistry(ConcurrentConcurrencyLimiterRegistryTest::fixed, Integer.MAX_VALUE, Duration.ofMinutes(10), clock);
+
+        ConcurrencyLimiter active = x.forKey("active");
+        ConcurrencyLimiter idle = x.forKey("idle");
+        ConcurrencyLimiter busy = x.forKey("busy");
+        assertThat(busy.tryAcquire()).isTrue();
+
+        for (int i = 0; i < 4; i++) {
+            clock.plus(Duration.ofMinutes(3));
+            assertThat(x.forKey("active")).isSameAs(active);
+        }
+        assertThat(x.size()).isEqualTo(2);
+        assertThat(x.forKey("busy")).isSameAs(busy);
+        assertThat(x.forKey("idle")).isNotSameAs(idle);
+    }
+
+    @Test
+    void testMaxSize() {
+        MutableClock clock = new MutableClock(T0);
+        ConcurrentConcurrencyLimiterRegistry x = new ConcurrentConcurrencyLimiterRegistry(ConcurrentConcurrencyLimiterRegistryTest::fixed, 20, null, clock);
+
+        ConcurrencyLimiter first = x.forKey("key-0");
+        ConcurrencyLimiter busy = x.forKey("key-1");
+        assertThat(busy.tryAcquire()).isTrue();
+        for (int i = 2; i < 20; i++) {
+            clock.plusSeconds(1);
+            x.forKey("key-" + i);
+            // keeps the first key active
+            x.forKey("key-0");
+        }
+        assertThat(x.size()).isEqualTo(20);
+
+        clock.plusSeconds(1);
+        x.forKey("key-20");
+        // down to 90% of the maximum, least recently used idle limiters first
+        assertThat(x.size()).isEqualTo(18);
+        assertThat(x.forKey("key-0")).isSameAs(first);
+        assertThat(x.forKey("key-1")).isSameAs(busy);
+    }
+
+    @Test
+    void testArguments() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ConcurrentConcurrencyLimiterRegistry(ConcurrentConcurrencyLimiterRegistryTest::fixed, 0, null, new MutableClock(T0)));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ConcurrentConcurrencyLimiterRegistry(ConcurrentConcurrencyLimiterRegistryTest::fixed, 1, Duration.ofSeconds(-1), new MutableClock(T0)));
+    }
+}
@@ -0,0 +1,110 @@
+package internal.io.http.ext;
+
+import _test.io.http.MutableClock;
+import nbbrd.io.http.ext.RateLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ConcurrentRateLimiterRegistryTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    private static RateLimiter adaptive() {
+        return RateLimiter.adaptive(10, 1, Duration.ofSeconds(60));
+    }
+
+    @Test
+    void testExpireAfterAccess() {
+        MutableClock clock = new MutableClock(T0);
+        ConcurrentRateLimiterRegistry x = new ConcurrentRateLimiterRegistry(ConcurrentRateLimiterRegistryTest::adaptive, Integer.MAX_VALUE, Duration.ofMinutes(10), clock);
+
+        RateLimiter active = x.forKey("active");
+        active.onThrottled(Duration.ofSeconds(1));
+        RateLimiter idle = x.forKey("idle");
+
+        for (int i = 0; i < 4; i++) {
+            clock.plus(Duration.ofMinutes(3));
+            assertThat(x.forKey("active")).isSameAs(active);
+        }
+        assertThat(x.size()).isEqualTo(1);
+        assertThat(x.forKey("active").getPermitsPerSecond()).isEqualTo(5);
+        assertThat(x.forKey("idle")).isNotSameAs(idle);
+    }
+
+    @Test
+    void testMaxSize() {
+        MutableClock clock = new MutableClock(T0);
+        ConcurrentRateLimiterRegistry x = new ConcurrentRateLimiterRegistry(ConcurrentRateLimiterRegistryTest::adaptive, 20, null, clock);
+
+        RateLimiter first = x.forKey("key-0");
+        for (int i = 1; i < 20; i++) {
+            clock.plusSeconds(1);
+            x.forKey("key-" + i);
+            // keeps the first key active
+            x.forKey("key-0");
+        }
+        assertThat(x.size()).isEqualTo(20);
+
+        clock.plusSeconds(1);
+        x.forKey("key-20");
+        // down to 90% of the maximum, least recently used first
+        assertThat(x.size()).isEqualTo(18);
+        assertThat(x.forKey("key-0")).isSameAs(first);
+        assertThat(x.getRates()).containsKeys("key-1", "key-2", "key-3", "key-4", "key-20");
+    }
+
+    @Test
+    void testEvictionKeepsLearnedRate() {
+        MutableClock clock = new MutableClock(T0);
+        ConcurrentRateLimiterRegistry x = new ConcurrentRateLimiterRegistry(ConcurrentRateLimiterRegistryTest::adaptive, 10, Duration.ofMinutes(10), clock);
+
+        RateLimiter throttled = x.forKey("throttled");
+        throttled.onThrottled(Duration.ofSeconds(1));
+        clock.plus(Duration.ofMinutes(20));
+        x.forKey("other");
+        assertThat(x.size()).isEqualTo(1);
+
+        assertThat(x.getRates()).containsEntry("throttled", 5.0);
+        RateLimiter recreated = x.forKey("throttled");
+        assertThat(recreated).isNotSameAs(throttled);
+        assertThat(recreated.getPermitsPerSecond()).isEqualTo(5);
+    }
+
+    @Test
+    void testQuotaIsNotPersisted() {
+        ConcurrentRateLimiterRegistry x = new ConcurrentRateLimiterRegistry(ConcurrentRateLimiterRegistryTest::adaptive, Integer.MAX_VALUE, null, new MutableClock(T0));
+
+        RateLimiter limiter = x.forKey("quota");
+        limiter.onQuota(2, Duration.ofSeconds(10));
+        assertThat(limiter.getPermitsPerSecond()).isLessThan(10);
+        assertThat(limiter.getLearnedPermitsPerSecond()).isEqualTo(10);
+        assertThat(x.getRates()).containsEntry("quota", 10.0);
+    }
+
+    @Test
+    void testRestoreRates() {
+        ConcurrentRateLimiterRegistry x = new ConcurrentRateLimiterRegistry(ConcurrentRateLimiterRegistryTest::adaptive, Integer.MAX_VALUE, null, new MutableClock(T0));
+
+        RateLimiter existing = x.forKey("existing");
+        x.restoreRates(Collections.singletonMap("existing", 2.0));
+        assertThat(existing.getPermitsPerSecond()).isEqualTo(2);
+
+        x.restoreRates(Collections.singletonMap("pending", 3.0));
+        assertThat(x.getRates()).containsEntry("pending", 3.0);
+        assertThat(x.forKey("pending").getPermitsPerSecond()).isEqualTo(3);
+    }
+
+    @Test
+    void testArguments() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ConcurrentRateLimiterRegistry(ConcurrentRateLimiterRegistryTest::adaptive, 0, null, new MutableClock(T0)));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ConcurrentRateLimiterRegistry(ConcurrentRateLimiterRegistryTest::adaptive, 1, Duration.ofSeconds(-1), new MutableClock(T0)));
+    }
+}
@@ -0,0 +1,36 @@
+package internal.io.http.ext;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class LatencyTrackerTest {
+
+    @Test
+    public void testPercentile() {
+        LatencyTracker x = new LatencyTracker(100, 10);
+        for (int i = 1; i <= 9; i++) {
+            x.record(i);
+        }
+        assertThat(x.percentile(0.5)).isEqualTo(-1);
+
+        x.record(10);
+        assertThat(x.percentile(0.5)).isEqualTo(5);
+        assertThat(x.percentile(0.9)).isEqualTo(9);
+        assertThat(x.percentile(1)).isEqualTo(10);
+    }
+
+    @Test
+    public void testSlidingWindow() {
+        LatencyTracker x = new LatencyTracker(4, 1);
+        for (int i = 1; i <= 10; i++) {
+            x.record(i * 100L);
+        }
+        assertThat(x.getCount()).isEqualTo(4);
+        assertThat(x.percentile(0.01)).isEqualTo(700);
+        assertThat(x.percentile(1)).isEqualTo(1000);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> new LatencyTracker(0, 1));
+    }
+}
@@ -0,0 +1,189 @@
+package internal.io.http.ext;
+
+import _test.io.http.MutableClock;
+import nbbrd.io.http.ext.RateLimiter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class MappedFileRateLimiterTest {
+
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void sharesQuotaBetweenInstances(@TempDir Path temp) throws IOException {
+        Path file = temp.resolve("quota");
+        MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        MappedFileRateLimiter first = new MappedFileRateLimiter(file, 1, 2, Duration.ofHours(1), clock);
+        MappedFileRateLimiter second = new MappedFileRateLimiter(file, 1, 2, Duration.ofHours(1), clock);
+
+        assertThat(first.reserve()).isEqualTo(RateLimiter.NO_WAIT);
+        assertThat(second.reserve()).isEqualTo(RateLimiter.NO_WAIT);
+        assertThat(first.reserve()).isEqualTo(SECOND_NANOS);
+        assertThat(second.reserve(2)).isEqualTo(3 * SECOND_NANOS);
+
+        clock.plusSeconds(10);
+        assertThat(second.reserve()).isEqualTo(RateLimiter.NO_WAIT);
+        assertThat(first.reserve()).isEqualTo(RateLimiter.NO_WAIT);
+        assertThat(first.reserve()).isEqualTo(SECOND_NANOS);
+    }
+
+    @Test
+    void forgetsLocksOfDiscardedLimiters(@TempDir Path temp) throws Exception {
+        int before = MappedFileRateLimiter.getJvmLockCount();
+        MappedFileRateLimiter limiter = new MappedFileRateLimiter(temp.resolve("quota"), 1, 1, Duration.ofHours(1), Clock.systemUTC());
+        assertThat(MappedFileRateLimiter.getJvmLockCount()).isEqualTo(before + 1);
+        assertThat(limiter.reserve()).isEqualTo(RateLimiter.NO_WAIT);
+
+        limiter = null;
+        for (int i = 0; i < 50 && MappedFileRateLimiter.getJvmLockCount() > before; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(MappedFileRateLimiter.getJvmLockCount()).isLessThanOrEqualTo(before);
+    }
+
+    @Test
+    void keepsStateAcrossReopening(@TempDir Path temp) throws IOException {
+        Path file = temp.resolve("quota");
+        MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+
+        assertThat(new MappedFileRateLimiter(file, 1, 1, Duration.ofHours(1), clock).reserve()).isEqualTo(RateLimiter.NO_WAIT);
+        assertThat(new MappedFileRateLimiter(file, 1, 1, Duration.ofHours(1), clock).reserve()).isEqualTo(SECOND_NANOS);
+    }
+
+    @Test
+    void tryReserveDoesNotBookAhead(@TempDir Path temp) throws IOException {
+        MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        MappedFileRateLimiter limiter = new MappedFileRateLimiter(temp.resolve("quota"), 1, 1, Duration.ofSeconds(5), clock);
+
+        assertThat(limiter.tryReserve(1)).isEqualTo(RateLimiter.NO_WAIT);
+        assertThat(limiter.tryReserve(1)).isEqualTo(SECOND_NANOS);
+        assertThat(limiter.reserve()).isEqualTo(SECOND_NANOS);
+        assertThat(limiter.reserve(10)).isEqualTo(RateLimiter.WAIT_EXCEEDED);
+        assertThatIllegalArgumentException().isThrownBy(() -> limiter.reserve(0));
+    }
+
+    @Test
+    void rejectsForeignFiles(@TempDir Path temp) throws IOException {
+        Path file = temp.resolve("foreign");
+        Files.write(file, "hello world, not a quota".getBytes(StandardCharsets.UTF_8));
+
+        assertThatIOException()
+                .isThrownBy(() -> new MappedFileRateLimiter(file, 1, 1, Duration.ofHours(1), Clock.systemUTC()))
+                .withMessageContaining("Not a rate limiter file");
+    }
+
+    @Test
+    void doesNotAdapt(@TempDir Path temp) throws IOException {
+        RateLimiter limiter = RateLimiter.fixed(temp.resolve("quota"), 10, 1, Duration.ofSeconds(1));
+        assertThat(limiter.onSuccess()).isNull();
+        assertThat(limiter.onThrottled(Duration.ofSeconds(1))).isNull();
+        assertThat(limiter.onQuota(0, Duration.ofSeconds(1))).isNull();
+        limiter.restorePermitsPerSecond(1);
+        assertThat(limiter.getPermitsPerSecond()).isEqualTo(10);
+    }
+
+    @Test
+    void sharesQuotaBetweenProcesses(@TempDir Path temp) throws Exception {
+        Path file = temp.resolve("quota");
+        int permitsPerProcess = 10;
+        long intervalMicros = 100_000;
+
+        List<Process> processes = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            processes.add(new ProcessBuilder(getJava(), "-cp", getClassPath(), Child.class.getName(), file.toString(), String.valueOf(permitsPerProcess))
+                    .redirectErrorStream(true)
+                    .start());
+        }
+
+        List<Long> permitTimes = new ArrayList<>();
+        for (Process process : processes) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    permitTimes.add(Long.parseLong(line.trim()));
+                }
+            }
+            assertThat(process.waitFor(30, TimeUnit.SECONDS)).isTrue();
+            assertThat(process.exitValue()).isZero();
+        }
+
+        // the permits of both processes are spaced as if they came from a single one;
+        // the times are those computed by the limiters so the spacing is exact
+        assertThat(permitTimes).hasSize(2 * permitsPerProcess);
+        Collections.sort(permitTimes);
+        for (int i = 1; i < permitTimes.size(); i++) {
+            assertThat(permitTimes.get(i) - permitTimes.get(i - 1)).isGreaterThanOrEqualTo(intervalMicros);
+        }
+    }
+
+    private static String getJava() {
+        return Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static String getClassPath() throws Exception {
+        return Paths.get(MappedFileRateLimiter.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                + File.pathSeparator
+                + Paths.get(Child.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    /**
+     * Reserves permits at 10 per second and prints the time at which each one may be used,
+     * based on the instant read by the limiter.
+     */
+    public static final class Child {
+
+        public static void main(String[] args) throws IOException {
+            RecordingClock clock = new RecordingClock();
+            RateLimiter limiter = new MappedFileRateLimiter(Paths.get(args[0]), 10, 1, Duration.ofMinutes(1), clock);
+            for (int i = 0; i < Integer.parseInt(args[1]); i++) {
+                long waitNanos = limiter.reserve();
+                Instant now = clock.last;
+                System.out.println(now.getEpochSecond() * 1_000_000 + now.getNano() / 1_000 + waitNanos / 1_000);
+            }
+        }
+    }
+
+    private static final class RecordingClock extends Clock {
+
+        private final Clock delegate = Clock.systemUTC();
+        private Instant last;
+
+        @Override
+        public Instant instant() {
+            last = delegate.instant();
+            return last;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return delegate.getZone();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
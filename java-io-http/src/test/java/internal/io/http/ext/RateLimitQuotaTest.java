@@ -0,0 +1,64 @@
+package internal.io.http.ext;
+
+import nbbrd.io.http.HttpHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitQuotaTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private static RateLimitQuota parse(String... keyValues) {
+        HttpHeaders.Builder headers = HttpHeaders.builder();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            headers.put(keyValues[i], keyValues[i + 1]);
+        }
+        return RateLimitQuota.parse(headers.build(), NOW);
+    }
+
+    @Test
+    void parseMissingOrIncomplete() {
+        assertThat(parse()).isNull();
+        assertThat(parse("RateLimit-Remaining", "10")).isNull();
+        assertThat(parse("X-RateLimit-Reset", "10")).isNull();
+        assertThat(parse("RateLimit-Remaining", "abc", "RateLimit-Reset", "10")).isNull();
+        assertThat(parse("RateLimit", "limit=100")).isNull();
+    }
+
+    @Test
+    void parseRateLimitField() {
+        assertThat(parse("RateLimit", "limit=100, remaining=50, reset=30"))
+                .isEqualTo(new RateLimitQuota(50, Duration.ofSeconds(30)));
+        assertThat(parse("RateLimit", "\"default\";r=5;t=2"))
+                .isEqualTo(new RateLimitQuota(5, Duration.ofSeconds(2)));
+    }
+
+    @Test
+    void parseSeparateFields() {
+        assertThat(parse("RateLimit-Remaining", "50", "RateLimit-Reset", "30"))
+                .isEqualTo(new RateLimitQuota(50, Duration.ofSeconds(30)));
+        assertThat(parse("ratelimit-remaining", " 50 ", "ratelimit-reset", "1.5"))
+                .isEqualTo(new RateLimitQuota(50, Duration.ofMillis(1500)));
+    }
+
+    @Test
+    void parseLegacyFieldsWithTimestampReset() {
+        assertThat(parse("X-RateLimit-Remaining", "4999", "X-RateLimit-Reset", "60"))
+                .isEqualTo(new RateLimitQuota(4999, Duration.ofSeconds(60)));
+        assertThat(parse("X-RateLimit-Remaining", "4999", "X-RateLimit-Reset", String.valueOf(NOW / 1000 + 60)))
+                .isEqualTo(new RateLimitQuota(4999, Duration.ofSeconds(60)));
+        assertThat(parse("X-RateLimit-Remaining", "4999", "X-RateLimit-Reset", String.valueOf(NOW + 60_000)))
+                .isEqualTo(new RateLimitQuota(4999, Duration.ofSeconds(60)));
+        assertThat(parse("X-RateLimit-Remaining", "0", "X-RateLimit-Reset", String.valueOf(NOW / 1000 - 60)))
+                .isEqualTo(new RateLimitQuota(0, Duration.ZERO));
+    }
+
+    @Test
+    void parsePrefersStandardFields() {
+        assertThat(parse("RateLimit-Remaining", "1", "RateLimit-Reset", "2", "X-RateLimit-Remaining", "3", "X-RateLimit-Reset", "4"))
+                .isEqualTo(new RateLimitQuota(1, Duration.ofSeconds(2)));
+    }
+}
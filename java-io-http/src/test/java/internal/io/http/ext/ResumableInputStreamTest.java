@@ -0,0 +1,67 @@
+package internal.io.http.ext;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ResumableInputStreamTest {
+
+    private static final byte[] CONTENT = "hello world".getBytes();
+
+    private static byte[] readAll(InputStream stream) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        int b;
+        while ((b = stream.read()) != -1) {
+            result.write(b);
+        }
+        return result.toByteArray();
+    }
+
+    @Test
+    public void testResumeOnPrematureEnd() throws IOException {
+        List<Long> positions = new ArrayList<>();
+        ResumableInputStream x = new ResumableInputStream(new ByteArrayInputStream(CONTENT, 0, 5), CONTENT.length, 1, (position, attempt, cause) -> {
+            assertThat(cause).isInstanceOf(EOFException.class);
+            positions.add(position);
+            return new ByteArrayInputStream(CONTENT, (int) position, CONTENT.length - (int) position);
+        });
+
+        assertThat(readAll(x)).isEqualTo(CONTENT);
+        assertThat(x.getPosition()).isEqualTo(CONTENT.length);
+        assertThat(positions).containsExactly(5L);
+    }
+
+    @Test
+    public void testNoResumeOnTimeout() {
+        InputStream timingOut = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new SocketTimeoutException("Read timed out");
+            }
+        };
+        ResumableInputStream x = new ResumableInputStream(timingOut, -1, 3, (position, attempt, cause) -> {
+            throw new AssertionError();
+        });
+
+        assertThatExceptionOfType(SocketTimeoutException.class)
+                .isThrownBy(() -> readAll(x));
+    }
+
+    @Test
+    public void testUnknownLength() throws IOException {
+        ResumableInputStream x = new ResumableInputStream(new ByteArrayInputStream(CONTENT, 0, 5), -1, 1, (position, attempt, cause) -> {
+            throw new AssertionError();
+        });
+
+        assertThat(readAll(x)).hasSize(5);
+    }
+}
@@ -0,0 +1,41 @@
+package internal.io.http.okhttp;
+
+import okhttp3.Dispatcher;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class OkHttpSharedResourcesTest {
+
+    @Test
+    void sharesPoolsPerConfiguration() {
+        assertThat(OkHttpSharedResources.getConnectionPool(5, 1000))
+                .isSameAs(OkHttpSharedResources.getConnectionPool(5, 1000))
+                .isNotSameAs(OkHttpSharedResources.getConnectionPool(5, 2000))
+                .isNotSameAs(OkHttpSharedResources.getConnectionPool(6, 1000));
+
+        assertThatIllegalArgumentException().isThrownBy(() -> OkHttpSharedResources.getConnectionPool(-1, 1000));
+        assertThatIllegalArgumentException().isThrownBy(() -> OkHttpSharedResources.getConnectionPool(5, 0));
+    }
+
+    @Test
+    void sharesDispatchersPerConfiguration() {
+        assertThat(OkHttpSharedResources.getDispatcher(64, 5))
+                .isSameAs(OkHttpSharedResources.getDispatcher(64, 5))
+                .isNotSameAs(OkHttpSharedResources.getDispatcher(64, 10))
+                .isNotSameAs(OkHttpSharedResources.getDispatcher(32, 5));
+
+        assertThat(OkHttpSharedResources.getDispatcher(32, 10))
+                .returns(32, Dispatcher::getMaxRequests)
+                .returns(10, Dispatcher::getMaxRequestsPerHost);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> OkHttpSharedResources.getDispatcher(0, 5));
+        assertThatIllegalArgumentException().isThrownBy(() -> OkHttpSharedResources.getDispatcher(64, 0));
+    }
+
+    @Test
+    void sharesTrustManager() {
+        assertThat(OkHttpSharedResources.getDefaultTrustManager()).isSameAs(OkHttpSharedResources.getDefaultTrustManager());
+    }
+}
@@ -0,0 +1,95 @@
+package nbbrd.io.http;
+
+import _test.io.http.MockedHttpClient;
+import _test.io.http.MockedHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AsyncHttpClientTest {
+
+    private final HttpRequest request = HttpRequest.builder().query(URI.create("http://localhost/test")).build();
+
+    @SuppressWarnings("DataFlowIssue")
+    @Test
+    void testBridgeFactory() {
+        assertThatNullPointerException().isThrownBy(() -> AsyncHttpClient.bridge(null, Runnable::run));
+        assertThatNullPointerException().isThrownBy(() -> AsyncHttpClient.bridge(() -> null, null));
+    }
+
+    @Test
+    void testBridgeResponse() throws Exception {
+        MockedHttpClient client = MockedHttpClient.ofResponse(MockedHttpResponse.builder().statusCode(200).build());
+        AsyncHttpClient x = AsyncHttpClient.bridge(() -> client, Runnable::run);
+
+        try (HttpResponse response = x.sendAsync(request).get()) {
+            assertThat(response.getStatusCode()).isEqualTo(200);
+        }
+        assertThat(client.getRequests()).containsExactly(request);
+    }
+
+    @Test
+    void testBridgeError() {
+        IOException error = new IOException("boom");
+        AsyncHttpClient x = AsyncHttpClient.bridge(() -> MockedHttpClient.ofException(error), Runnable::run);
+
+        assertThat(x.sendAsync(request))
+                .failsWithin(0, TimeUnit.SECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .withCause(error);
+    }
+
+    @Test
+    void testBridgeClientPerRequest() throws Exception {
+        AtomicInteger clientCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            AsyncHttpClient x = AsyncHttpClient.bridge(() -> {
+                clientCount.incrementAndGet();
+                return MockedHttpClient.ofResponse(MockedHttpResponse.builder().statusCode(200).build()).withDelay(20);
+            }, executor);
+
+            List<CompletableFuture<HttpResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(x.sendAsync(request));
+            }
+            for (CompletableFuture<HttpResponse> future : futures) {
+                try (HttpResponse response = future.get(10, TimeUnit.SECONDS)) {
+                    assertThat(response.getStatusCode()).isEqualTo(200);
+                }
+            }
+            assertThat(clientCount).hasValue(8);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testBridgeClosesResponseOfCancelledFuture() {
+        MockedHttpResponse response = MockedHttpResponse.builder().build();
+        AtomicReference<CompletableFuture<HttpResponse>> future = new AtomicReference<>();
+        List<Runnable> tasks = new ArrayList<>();
+        AsyncHttpClient x = AsyncHttpClient.bridge(() -> new MockedHttpClient(ignore -> {
+            future.get().cancel(false);
+            return response;
+        }), tasks::add);
+
+        future.set(x.sendAsync(request));
+        tasks.forEach(Runnable::run);
+
+        assertThat(future.get()).isCancelled();
+        assertThat(response.isClosed()).isTrue();
+    }
+}
@@ -25,14 +25,20 @@ import nbbrd.io.net.MediaType;
 import org.assertj.core.api.Assumptions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 
 import javax.net.ssl.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.ProxySelector;
 import java.net.URI;
 import java.net.UnknownHostException;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Locale;
@@ -182,6 +188,68 @@ public abstract class HttpClientTest {
         );
     }
 
+    @Test
+    public void testHttpOK_POST_FileBody(@TempDir Path temp) throws IOException {
+        HttpContext context = HttpContext
+                .builder()
+                .sslSocketFactory(this::wireSSLSocketFactory)
+                .hostnameVerifier(this::wireHostnameVerifier)
+                .build();
+        HttpClient x = getClient(context);
+
+        wire.resetAll();
+        wire.stubFor(post(SAMPLE_URL).willReturn(okXml(SAMPLE_XML)));
+
+        Path file = Files.write(temp.resolve("body.txt"), "some file content".getBytes(UTF_8));
+
+        HttpRequest request = HttpRequest
+                .builder()
+                .query(wireURL(SAMPLE_URL))
+                .headers(GENERIC_DATA_21_HEADER)
+                .method(POST)
+                .bodyOf(file)
+                .build();
+
+        try (HttpResponse response = x.send(request)) {
+            assertSameSampleContent(response);
+        }
+
+        wire.verify(1, postRequestedFor(urlEqualTo(SAMPLE_URL))
+                .withHeader(HttpHeaders.HTTP_CONTENT_LENGTH_HEADER, equalTo("17"))
+                .withRequestBody(new EqualToPattern("some file content"))
+        );
+        assertThat(file).exists();
+    }
+
+    @Test
+    public void testHttpOK_POST_StreamingBody() throws IOException {
+        HttpContext context = HttpContext
+                .builder()
+                .sslSocketFactory(this::wireSSLSocketFactory)
+                .hostnameVerifier(this::wireHostnameVerifier)
+                .build();
+        HttpClient x = getClient(context);
+
+        wire.resetAll();
+        wire.stubFor(post(SAMPLE_URL).willReturn(okXml(SAMPLE_XML)));
+
+        HttpRequest request = HttpRequest
+                .builder()
+                .query(wireURL(SAMPLE_URL))
+                .headers(GENERIC_DATA_21_HEADER)
+                .method(POST)
+                .streamingBody(HttpRequestBody.ofStream(() -> new ByteArrayInputStream("some streamed content".getBytes(UTF_8))))
+                .build();
+
+        try (HttpResponse response = x.send(request)) {
+            assertSameSampleContent(response);
+        }
+
+        wire.verify(1, postRequestedFor(urlEqualTo(SAMPLE_URL))
+                .withRequestBody(new EqualToPattern("some streamed content"))
+        );
+    }
+
     @Test
     public void testGetHeaders() throws IOException {
         HttpContext context = HttpContext
@@ -441,6 +509,59 @@ public abstract class HttpClientTest {
         }
     }
 
+    @Test
+    public void testTransferToFile(@TempDir Path temp) throws IOException {
+        HttpContext context = HttpContext
+                .builder()
+                .sslSocketFactory(this::wireSSLSocketFactory)
+                .hostnameVerifier(this::wireHostnameVerifier)
+                .build();
+        HttpClient x = getClient(context);
+
+        wire.resetAll();
+        wire.stubFor(get(SAMPLE_URL).willReturn(okXml(SAMPLE_XML)));
+
+        HttpRequest request = HttpRequest
+                .builder()
+                .query(wireURL(SAMPLE_URL))
+                .headers(GENERIC_DATA_21_HEADER)
+                .build();
+
+        Path file = Files.write(temp.resolve("download.xml"), "previous content that is longer than the sample".getBytes(UTF_8));
+
+        try (HttpResponse response = x.send(request)) {
+            assertThat(response.transferTo(file)).isEqualTo(SAMPLE_XML.getBytes(UTF_8).length);
+        }
+
+        assertThat(file).hasContent(SAMPLE_XML);
+    }
+
+    @Test
+    public void testTransferToChannel() throws IOException {
+        HttpContext context = HttpContext
+                .builder()
+                .sslSocketFactory(this::wireSSLSocketFactory)
+                .hostnameVerifier(this::wireHostnameVerifier)
+                .build();
+        HttpClient x = getClient(context);
+
+        wire.resetAll();
+        wire.stubFor(get(SAMPLE_URL).willReturn(okXml(SAMPLE_XML)));
+
+        HttpRequest request = HttpRequest
+                .builder()
+                .query(wireURL(SAMPLE_URL))
+                .headers(GENERIC_DATA_21_HEADER)
+                .build();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (HttpResponse response = x.send(request)) {
+            assertThat(response.transferTo(Channels.newChannel(output))).isEqualTo(SAMPLE_XML.getBytes(UTF_8).length);
+        }
+
+        assertThat(new String(output.toByteArray(), UTF_8)).isEqualTo(SAMPLE_XML);
+    }
+
 
     private static void drain(InputStream stream) throws IOException {
         byte[] buf = new byte[8192];
@@ -450,10 +571,14 @@ public abstract class HttpClientTest {
     }
 
     protected SSLSocketFactory wireSSLSocketFactory() {
+        return wireSSLContext().getSocketFactory();
+    }
+
+    protected SSLContext wireSSLContext() {
         try {
             SSLContext result = SSLContext.getInstance("TLS");
             result.init(null, wireTrustManagers(), null);
-            return result.getSocketFactory();
+            return result;
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         }
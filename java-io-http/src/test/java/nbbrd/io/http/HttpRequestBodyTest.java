@@ -0,0 +1,58 @@
+package nbbrd.io.http;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class HttpRequestBodyTest {
+
+    @Test
+    public void testOfBytes() throws IOException {
+        HttpRequestBody x = HttpRequestBody.ofBytes("hello".getBytes(UTF_8));
+
+        assertThat(x.getLength()).isEqualTo(5);
+        assertThat(x.hasKnownLength()).isTrue();
+        assertThat(x.getFile()).isEmpty();
+        assertThat(writeToString(x)).isEqualTo("hello");
+    }
+
+    @Test
+    public void testOfStream() throws IOException {
+        HttpRequestBody x = HttpRequestBody.ofStream(() -> new ByteArrayInputStream("hello".getBytes(UTF_8)));
+
+        assertThat(x.getLength()).isEqualTo(HttpRequestBody.UNKNOWN_LENGTH);
+        assertThat(x.hasKnownLength()).isFalse();
+        assertThat(x.getFile()).isEmpty();
+        assertThat(writeToString(x)).isEqualTo("hello");
+        assertThat(writeToString(x)).describedAs("reopenable").isEqualTo("hello");
+
+        assertThat(HttpRequestBody.ofStream(() -> new ByteArrayInputStream(new byte[3]), 3).getLength()).isEqualTo(3);
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> HttpRequestBody.ofStream(() -> new ByteArrayInputStream(new byte[0]), -2));
+    }
+
+    @Test
+    public void testOfFile(@TempDir Path temp) throws IOException {
+        Path file = Files.write(temp.resolve("body.txt"), "hello".getBytes(UTF_8));
+        HttpRequestBody x = HttpRequestBody.ofFile(file);
+
+        assertThat(x.getLength()).isEqualTo(5);
+        assertThat(x.getFile()).hasValue(file);
+        assertThat(writeToString(x)).isEqualTo("hello");
+    }
+
+    private static String writeToString(HttpRequestBody body) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        assertThat(body.writeTo(result)).isEqualTo(result.size());
+        return new String(result.toByteArray(), UTF_8);
+    }
+}
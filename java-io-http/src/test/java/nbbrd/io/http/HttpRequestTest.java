@@ -3,10 +3,13 @@ package nbbrd.io.http;
 import nbbrd.io.net.MediaType;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 public class HttpRequestTest {
 
@@ -53,7 +56,24 @@ public class HttpRequestTest {
         assertThat(modified.getBody()).isEqualTo("hello".getBytes(StandardCharsets.UTF_8));
         assertThat(modified.getQuery()).isEqualTo(URI.create("https://localhost/b"));
     }
-}
 
+    @Test
+    public void testStreamingBody() throws IOException {
+        HttpRequestBody body = HttpRequestBody.ofStream(() -> new ByteArrayInputStream(new byte[0]));
+
+        HttpRequest request = HttpRequest.builder()
+                .query(URI.create("https://localhost"))
+                .streamingBody(body)
+                .build();
+
+        assertThat(request.getBody()).isNull();
+        assertThat(request.getEffectiveBody()).isSameAs(body);
 
+        assertThat(HttpRequest.builder().query(URI.create("https://localhost")).bodyOf("abc").build().getEffectiveBody())
+                .extracting(HttpRequestBody::getLength)
+                .isEqualTo(3L);
 
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> request.toBuilder().bodyOf("abc").build());
+    }
+}
@@ -4,12 +4,17 @@ import _test.io.http.MockedHttpResponse;
 import lombok.NonNull;
 import nbbrd.io.net.MediaType;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Random;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,6 +34,42 @@ public class HttpResponseTest {
         }
     }
 
+    @Test
+    public void testTransferToFile(@TempDir Path temp) throws IOException {
+        byte[] expected = new byte[3 * 1024 * 1024 + 17];
+        new Random(123).nextBytes(expected);
+        TrackingInputStream body = new TrackingInputStream(expected);
+        Path file = temp.resolve("body.bin");
+
+        try (HttpResponse response = MockedHttpResponse
+                .builder()
+                .body(() -> body)
+                .build()) {
+            assertThat(response.transferTo(file))
+                    .isEqualTo(expected.length);
+        }
+
+        assertThat(file).hasBinaryContent(expected);
+        assertThat(body.isClosed())
+                .isTrue();
+    }
+
+    @Test
+    public void testTransferToChannel() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (HttpResponse response = MockedHttpResponse
+                .builder()
+                .bodyOf("hello", UTF_8)
+                .build()) {
+            assertThat(response.transferTo(Channels.newChannel(output)))
+                    .isEqualTo(5);
+        }
+
+        assertThat(output.toByteArray())
+                .isEqualTo("hello".getBytes(UTF_8));
+    }
+
     @Test
     public void testGetBodyAsStringWithExplicitCharset() throws IOException {
         String expected = "caf\u00e9";
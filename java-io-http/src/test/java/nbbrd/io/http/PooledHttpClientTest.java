@@ -0,0 +1,209 @@
+package nbbrd.io.http;
+
+import _test.io.http.MockedHttpClient;
+import _test.io.http.MockedHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.*;
+
+class PooledHttpClientTest {
+
+    private static HttpRequest requestOf(String uri) {
+        return HttpRequest.builder().query(URI.create(uri)).build();
+    }
+
+    @SuppressWarnings("DataFlowIssue")
+    @Test
+    void testBuilder() {
+        assertThatIllegalStateException().isThrownBy(() -> PooledHttpClient.builder().build());
+        assertThatIllegalArgumentException().isThrownBy(() -> PooledHttpClient.builder().clients(() -> null).maxClients(0).build());
+        assertThatIllegalArgumentException().isThrownBy(() -> PooledHttpClient.builder().clients(() -> null).maxClientsPerHost(0).build());
+        assertThatIllegalArgumentException().isThrownBy(() -> PooledHttpClient.builder().clients(() -> null).acquireTimeout(Duration.ofSeconds(-1)).build());
+        assertThatNullPointerException().isThrownBy(() -> PooledHttpClient.of(null));
+
+        assertThat(PooledHttpClient.builder().clients(() -> null).maxClients(4).maxClientsPerHost(10).build())
+                .returns(4, PooledHttpClient::getMaxClients)
+                .returns(4, PooledHttpClient::getMaxClientsPerHost);
+    }
+
+    @Test
+    void testHostKey() {
+        assertThat(PooledHttpClient.getHostKey(URI.create("http://LocalHost:8080/a")))
+                .isEqualTo(PooledHttpClient.getHostKey(URI.create("http://localhost:8080/b")))
+                .isNotEqualTo(PooledHttpClient.getHostKey(URI.create("http://localhost:8081/b")));
+    }
+
+    @Test
+    void testReuseClients() throws IOException {
+        AtomicInteger created = new AtomicInteger();
+        PooledHttpClient x = PooledHttpClient.builder()
+                .clients(() -> {
+                    created.incrementAndGet();
+                    return MockedHttpClient.ofResponse(MockedHttpResponse.builder().statusCode(200).build());
+                })
+                .build();
+
+        for (int i = 0; i < 5; i++) {
+            try (HttpResponse response = x.send(requestOf("http://localhost/" + i))) {
+                assertThat(response.getStatusCode()).isEqualTo(200);
+            }
+        }
+        assertThat(created).hasValue(1);
+        assertThat(x.getIdleClientCount()).isEqualTo(1);
+        assertThat(x.getDescription()).isEqualTo("Pool (8) of Fake client");
+    }
+
+    @Test
+    void testDescriptionDoesNotQueueClient() throws IOException {
+        HttpClient client = MockedHttpClient.ofResponse(MockedHttpResponse.builder().statusCode(200).build());
+        PooledHttpClient x = PooledHttpClient.builder().clients(() -> client).maxClients(1).build();
+
+        try (HttpResponse response = x.send(requestOf("http://localhost/"))) {
+            assertThat(x.getDescription()).isEqualTo("Pool (1) of Fake client");
+            assertThat(x.getIdleClientCount()).isEqualTo(0);
+        }
+        assertThat(x.getIdleClientCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testConcurrencyLimits() throws Exception {
+        ConcurrentMap<String, AtomicInteger> concurrentPerHost = new ConcurrentHashMap<>();
+        ConcurrentMap<String, AtomicInteger> maxConcurrentPerHost = new ConcurrentHashMap<>();
+        List<MockedHttpClient> clients = new CopyOnWriteArrayList<>();
+        PooledHttpClient x = PooledHttpClient.builder()
+                .clients(() -> {
+                    MockedHttpClient result = new MockedHttpClient(request -> {
+                        String host = request.getQuery().getHost();
+                        int current = concurrentPerHost.computeIfAbsent(host, ignore -> new AtomicInteger()).incrementAndGet();
+                        maxConcurrentPerHost.computeIfAbsent(host, ignore -> new AtomicInteger()).accumulateAndGet(current, Math::max);
+                        try {
+                            Thread.sleep(50);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                        concurrentPerHost.get(host).decrementAndGet();
+                        return MockedHttpResponse.builder().build();
+                    });
+                    clients.add(result);
+                    return result;
+                })
+                .maxClients(4)
+                .maxClientsPerHost(2)
+                .build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CompletableFuture<?>[] futures = new CompletableFuture[16];
+            for (int i = 0; i < futures.length; i++) {
+                String uri = i % 2 == 0 ? "http://a" : "http://b";
+                futures[i] = CompletableFuture.runAsync(() -> {
+                    try {
+                        x.send(requestOf(uri)).close();
+                    } catch (IOException ex) {
+                        throw new CompletionException(ex);
+                    }
+                }, executor);
+            }
+            CompletableFuture.allOf(futures).get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(clients)
+                .hasSizeBetween(1, 4)
+                .allSatisfy(client -> assertThat(client.getMaxConcurrentCalls()).isEqualTo(1));
+        assertThat(clients.stream().mapToInt(MockedHttpClient::getCallCount).sum()).isEqualTo(16);
+        assertThat(maxConcurrentPerHost.values())
+                .hasSize(2)
+                .allSatisfy(max -> assertThat(max.get()).isBetween(1, 2));
+    }
+
+    @Test
+    void testAcquireTimeout() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PooledHttpClient x = PooledHttpClient.builder()
+                .clients(() -> new MockedHttpClient(request -> {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return MockedHttpResponse.builder().build();
+                }))
+                .maxClients(1)
+                .acquireTimeout(Duration.ofMillis(50))
+                .build();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<HttpResponse> busy = executor.submit(() -> x.send(requestOf("http://localhost")));
+            entered.await();
+            assertThatThrownBy(() -> x.send(requestOf("http://localhost")))
+                    .isInstanceOf(InterruptedIOException.class)
+                    .hasMessageContaining("Timed out");
+            release.countDown();
+            busy.get(10, TimeUnit.SECONDS).close();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailureReturnsClient() {
+        PooledHttpClient x = PooledHttpClient.of(MockedHttpClient.ofException(new IOException("boom")));
+
+        assertThatIOException().isThrownBy(() -> x.send(requestOf("http://localhost"))).withMessage("boom");
+        assertThatIOException().isThrownBy(() -> x.send(requestOf("http://localhost"))).withMessage("boom");
+        assertThat(x.getIdleClientCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testLeaseUntilClosed() throws IOException {
+        PooledHttpClient x = PooledHttpClient.builder()
+                .clients(() -> MockedHttpClient.ofResponse(MockedHttpResponse.builder().bodyOf("hello", UTF_8).build()))
+                .maxClients(1)
+                .acquireTimeout(Duration.ofMillis(50))
+                .build();
+
+        HttpResponse first = x.send(requestOf("http://a"));
+        assertThat(x.getHostCount()).isEqualTo(1);
+        assertThatThrownBy(() -> x.send(requestOf("http://b")))
+                .isInstanceOf(InterruptedIOException.class)
+                .hasMessageContaining("Timed out");
+        first.close();
+        first.close();
+
+        // closing the body also ends the lease
+        HttpResponse second = x.send(requestOf("http://b"));
+        try (InputStream body = second.getBody()) {
+            assertThat(body).hasContent("hello");
+        }
+        x.send(requestOf("http://c")).close();
+
+        assertThat(x.getIdleClientCount()).isEqualTo(1);
+        assertThat(x.getHostCount()).isZero();
+    }
+
+    @Test
+    void testLeaseUntilHeaders() throws IOException {
+        PooledHttpClient x = PooledHttpClient.of(MockedHttpClient.ofResponse(MockedHttpResponse.builder().build()));
+        assertThat(x.isLeaseUntilClosed()).isFalse();
+
+        try (HttpResponse first = x.send(requestOf("http://a")); HttpResponse second = x.send(requestOf("http://a"))) {
+            assertThat(x.getIdleClientCount()).isEqualTo(1);
+            assertThat(x.getHostCount()).isZero();
+        }
+    }
+}
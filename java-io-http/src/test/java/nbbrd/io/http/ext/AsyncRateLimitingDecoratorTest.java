@@ -0,0 +1,205 @@
+package nbbrd.io.http.ext;
+
+import _test.io.http.MockedHttpClient;
+import _test.io.http.MockedHttpResponse;
+import lombok.NonNull;
+import nbbrd.io.http.AsyncHttpClient;
+import nbbrd.io.http.HttpHeaders;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncRateLimitingDecoratorTest {
+
+    private static final URI SAMPLE_URI = URI.create("https://example.com/api");
+
+    private static HttpRequest sampleRequest() {
+        return HttpRequest.builder().query(SAMPLE_URI).build();
+    }
+
+    private static HttpResponse status(int code, String retryAfter) {
+        MockedHttpResponse.Builder result = MockedHttpResponse.builder().statusCode(code).contentTypeOf("text/plain");
+        if (retryAfter != null) {
+            result.headers(HttpHeaders.builder().put("Retry-After", retryAfter).build());
+        }
+        return result.build();
+    }
+
+    private static AsyncHttpClient async(MockedHttpClient client) {
+        return AsyncHttpClient.bridge(() -> client, Runnable::run);
+    }
+
+    @Test
+    void throttledRequestsDoNotBlockCaller() throws Exception {
+        MockedHttpClient backend = MockedHttpClient.ofResponse(status(200, null));
+        List<Duration> waits = new ArrayList<>();
+        AsyncRateLimitingDecorator x = AsyncRateLimitingDecorator
+                .builder()
+                .decorated(async(backend))
+                .rateLimiter(RateLimiter.fixed(10, 1, Duration.ofSeconds(60)))
+                .listener(new RateLimitingListener() {
+                    @Override
+                    public void onRateLimited(HttpRequest request, Duration waitTime) {
+                        waits.add(waitTime);
+                    }
+                })
+                .build();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(x.sendAsync(sampleRequest()));
+        }
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(results.get(0)).isDone();
+        assertThat(results.get(2)).isNotDone();
+        assertThat(waits).hasSize(2);
+
+        for (CompletableFuture<HttpResponse> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(200);
+        }
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(150));
+        assertThat(backend.getCallCount()).isEqualTo(3);
+    }
+
+    @Test
+    void retries429AfterScheduledRetryAfter() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        MockedHttpClient backend = new MockedHttpClient(request -> calls.getAndIncrement() == 0 ? status(429, "0") : status(200, null));
+        AsyncRateLimitingDecorator x = AsyncRateLimitingDecorator
+                .builder()
+                .decorated(async(backend))
+                .rateLimiter(RateLimiter.fixed(1_000_000, 1, Duration.ofSeconds(60)))
+                .build();
+
+        try (HttpResponse response = x.sendAsync(sampleRequest()).get(5, TimeUnit.SECONDS)) {
+            assertThat(response.getStatusCode()).isEqualTo(200);
+        }
+        assertThat(backend.getCallCount()).isEqualTo(2);
+    }
+
+    @Test
+    void failsWhenRetryAfterExceedsMaxWait() {
+        MockedHttpClient backend = MockedHttpClient.ofResponse(status(429, "120"));
+        AsyncRateLimitingDecorator x = AsyncRateLimitingDecorator
+                .builder()
+                .decorated(async(backend))
+                .rateLimiter(RateLimiter.fixed(1_000_000, 1, Duration.ofSeconds(60)))
+                .build();
+
+        assertThat(x.sendAsync(sampleRequest()))
+                .failsWithin(5, TimeUnit.SECONDS)
+                .withThrowableOfType(java.util.concurrent.ExecutionException.class)
+                .withCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    void cancelledWhileWaitingIsNotSent() throws Exception {
+        MockedHttpClient backend = MockedHttpClient.ofResponse(status(200, null));
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            AsyncRateLimitingDecorator x = AsyncRateLimitingDecorator
+                    .builder()
+                    .decorated(async(backend))
+                    .rateLimiter(RateLimiter.fixed(20, 1, Duration.ofSeconds(60)))
+                    .scheduler(scheduler)
+                    .build();
+
+            x.sendAsync(sampleRequest()).get(5, TimeUnit.SECONDS).close();
+            x.sendAsync(sampleRequest()).cancel(false);
+            scheduler.schedule(() -> null, 100, TimeUnit.MILLISECONDS).get();
+        } finally {
+            scheduler.shutdownNow();
+        }
+        assertThat(backend.getCallCount()).isEqualTo(1);
+    }
+
+    @Test
+    void bulkRequestsGiveWayToQueuedReservations() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            AtomicInteger waits = new AtomicInteger();
+            RateLimiter limiter = RateLimiter.fixed(10, 1, Duration.ofSeconds(60));
+            AsyncRateLimitingDecorator decorator = AsyncRateLimitingDecorator.builder()
+                    .decorated(async(new MockedHttpClient(req -> status(200, null))))
+                    .rateLimiter(limiter)
+                    .priority(request -> RateLimitPriority.BULK)
+                    .cost(request -> 2)
+                    .scheduler(scheduler)
+                    .listener(new RateLimitingListener() {
+                        @Override
+                        public void onRateLimited(HttpRequest request, Duration waitTime) {
+                            waits.incrementAndGet();
+                        }
+                    })
+                    .build();
+
+            assertThat(limiter.reserve()).isEqualTo(RateLimiter.NO_WAIT);
+            long interactiveWait = limiter.reserve();
+
+            long start = System.nanoTime();
+            CompletableFuture<HttpResponse> response = decorator.sendAsync(sampleRequest());
+            assertThat(response.isDone()).isFalse();
+            assertThat(response.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(200);
+            assertThat(System.nanoTime() - start).isGreaterThan(interactiveWait);
+            assertThat(waits.get()).isPositive();
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static RateLimiter failingIO(IOException failure) {
+        return new RateLimiter() {
+            @Override
+            public long reserve() {
+                throw new UncheckedIOException(failure);
+            }
+
+            @Override
+            public @NonNull Duration getMaxWait() {
+                return Duration.ofSeconds(60);
+            }
+
+            @Override
+            public RateChange onSuccess() {
+                return null;
+            }
+
+            @Override
+            public RateChange onThrottled(@NonNull Duration retryAfter) {
+                return null;
+            }
+        };
+    }
+
+    @Test
+    void unwrapsLimiterIOFailures() {
+        IOException failure = new IOException("Failed to update rate limiter file");
+        MockedHttpClient backend = MockedHttpClient.ofResponse(status(200, null));
+        AsyncRateLimitingDecorator x = AsyncRateLimitingDecorator
+                .builder()
+                .decorated(async(backend))
+                .rateLimiter(failingIO(failure))
+                .build();
+
+        assertThat(x.sendAsync(sampleRequest()))
+                .failsWithin(5, TimeUnit.SECONDS)
+                .withThrowableOfType(java.util.concurrent.ExecutionException.class)
+                .withCause(failure);
+        assertThat(backend.getCallCount()).isZero();
+    }
+}
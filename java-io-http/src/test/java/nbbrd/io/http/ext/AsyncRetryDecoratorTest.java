@@ -0,0 +1,248 @@
+package nbbrd.io.http.ext;
+
+import _test.io.http.MockedHttpClient;
+import _test.io.http.MockedHttpResponse;
+import lombok.NonNull;
+import nbbrd.io.http.AsyncHttpClient;
+import nbbrd.io.http.HttpHeaders;
+import nbbrd.io.http.HttpMethod;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncRetryDecoratorTest {
+
+    private final URI uri = URI.create("http://localhost/test");
+
+    private HttpRequest requestOf(HttpMethod method) {
+        return HttpRequest.builder().query(uri).method(method).build();
+    }
+
+    private static MockedHttpClient failingThenOk(int failures, IOException exception) {
+        AtomicInteger remaining = new AtomicInteger(failures);
+        return new MockedHttpClient(ignore -> {
+            if (remaining.getAndDecrement() > 0) {
+                throw exception;
+            }
+            return MockedHttpResponse.builder().statusCode(200).build();
+        });
+    }
+
+    @Test
+    void retriesOnTransientErrorThenSucceeds() throws Exception {
+        MockedHttpClient delegate = failingThenOk(2, new SocketException("Connection reset"));
+        List<Integer> attempts = new ArrayList<>();
+        AsyncRetryDecorator x = new AsyncRetryDecorator(AsyncHttpClient.bridge(() -> delegate, Runnable::run), 2, (request, attempt, cause) -> attempts.add(attempt));
+
+        try (HttpResponse response = x.sendAsync(requestOf(HttpMethod.GET)).get()) {
+            assertThat(response.getStatusCode()).isEqualTo(200);
+        }
+        assertThat(delegate.getCallCount()).isEqualTo(3);
+        assertThat(attempts).containsExactly(1, 2);
+    }
+
+    @Test
+    void exhaustsRetriesThenFailsWithLastException() {
+        SocketException failure = new SocketException("Connection reset");
+        MockedHttpClient delegate = MockedHttpClient.ofException(failure);
+        AsyncRetryDecorator x = new AsyncRetryDecorator(AsyncHttpClient.bridge(() -> delegate, Runnable::run), 3, RetryListener.noOp());
+
+        assertThat(x.sendAsync(requestOf(HttpMethod.GET)))
+                .failsWithin(0, TimeUnit.SECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .withCause(failure);
+        assertThat(delegate.getCallCount()).isEqualTo(4);
+    }
+
+    @Test
+    void doesNotRetryNonIdempotentRequests() {
+        MockedHttpClient delegate = failingThenOk(1, new SocketException("Connection reset"));
+        AsyncRetryDecorator x = new AsyncRetryDecorator(AsyncHttpClient.bridge(() -> delegate, Runnable::run), 3, RetryListener.noOp());
+
+        assertThat(x.sendAsync(requestOf(HttpMethod.POST)))
+                .failsWithin(0, TimeUnit.SECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(SocketException.class);
+        assertThat(delegate.getCallCount()).isEqualTo(1);
+    }
+
+    @Test
+    void composesWithOtherAsyncDecorators() {
+        MockedHttpClient delegate = new MockedHttpClient(ignore -> MockedHttpResponse.builder().statusCode(503).build());
+        AsyncHttpClient x = new AsyncThrowingStatusDecorator(
+                new AsyncRetryDecorator(AsyncHttpClient.bridge(() -> delegate, Runnable::run), 3, RetryListener.noOp()),
+                ThrowingStatusDecorator.DEFAULT_SHOULD_THROW);
+
+        assertThat(x.sendAsync(requestOf(HttpMethod.GET)))
+                .failsWithin(0, TimeUnit.SECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(ThrowingStatusException.class);
+        assertThat(delegate.getCallCount()).isEqualTo(1);
+    }
+
+    private static AsyncHttpClient pendingClient(CompletableFuture<HttpResponse> pending) {
+        return new AsyncHttpClient() {
+            @Override
+            public @NonNull String getDescription() {
+                return "pending";
+            }
+
+            @Override
+            public @NonNull CompletableFuture<HttpResponse> sendAsync(@NonNull HttpRequest request) {
+                return pending;
+            }
+        };
+    }
+
+    @Test
+    void propagatesCancellationToPendingAttempt() {
+        CompletableFuture<HttpResponse> pending = new CompletableFuture<>();
+        AsyncRetryDecorator x = new AsyncRetryDecorator(pendingClient(pending), 3, RetryListener.noOp());
+
+        x.sendAsync(requestOf(HttpMethod.GET)).cancel(true);
+        assertThat(pending).isCancelled();
+    }
+
+    @Test
+    void closesResponseArrivingAfterCompletion() {
+        CompletableFuture<HttpResponse> pending = new CompletableFuture<>();
+        AsyncRetryDecorator x = new AsyncRetryDecorator(pendingClient(pending), 3, RetryListener.noOp());
+
+        x.sendAsync(requestOf(HttpMethod.GET)).complete(null);
+        MockedHttpResponse late = MockedHttpResponse.builder().statusCode(200).build();
+        pending.complete(late);
+        assertThat(late.isClosed()).isTrue();
+    }
+
+    private static HttpResponse statusResponse(int code, String retryAfter) {
+        MockedHttpResponse.Builder result = MockedHttpResponse.builder().statusCode(code);
+        if (retryAfter != null) {
+            result.headers(HttpHeaders.builder().put("Retry-After", retryAfter).build());
+        }
+        return result.build();
+    }
+
+    @Test
+    void builderRetriesUnavailableStatusWithBackoff() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        List<HttpResponse> responses = new ArrayList<>();
+        MockedHttpClient delegate = new MockedHttpClient(ignore -> {
+            HttpResponse result = calls.getAndIncrement() < 2 ? statusResponse(503, null) : statusResponse(200, null);
+            responses.add(result);
+            return result;
+        });
+        List<String> events = new ArrayList<>();
+        AsyncRetryDecorator x = AsyncRetryDecorator
+                .builder()
+                .decorated(AsyncHttpClient.bridge(() -> delegate, Runnable::run))
+                .backoff(BackoffPolicy.fixed(Duration.ofMillis(1)))
+                .listener(new RetryListener() {
+                    @Override
+                    public void onRetry(HttpRequest request, int attempt, IOException cause) {
+                        events.add("error " + attempt);
+                    }
+
+                    @Override
+                    public void onRetryStatus(HttpRequest request, int attempt, int statusCode) {
+                        events.add(statusCode + " " + attempt);
+                    }
+
+                    @Override
+                    public void onBackoff(HttpRequest request, int attempt, Duration delay) {
+                        events.add("wait " + delay.toMillis());
+                    }
+                })
+                .build();
+
+        try (HttpResponse response = x.sendAsync(requestOf(HttpMethod.GET)).get(5, TimeUnit.SECONDS)) {
+            assertThat(response.getStatusCode()).isEqualTo(200);
+        }
+        assertThat(events).containsExactly("503 1", "wait 1", "503 2", "wait 1");
+        assertThat(responses).hasSize(3).allMatch(response -> ((MockedHttpResponse) response).isClosed());
+    }
+
+    @Test
+    void builderHonorsRetryAfterWithoutBlocking() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        MockedHttpClient delegate = new MockedHttpClient(ignore -> calls.getAndIncrement() == 0 ? statusResponse(502, "1") : statusResponse(200, null));
+        AsyncRetryDecorator x = AsyncRetryDecorator
+                .builder()
+                .decorated(AsyncHttpClient.bridge(() -> delegate, Runnable::run))
+                .backoff(BackoffPolicy.none())
+                .build();
+
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse> result = x.sendAsync(requestOf(HttpMethod.GET));
+        assertThat(result).isNotDone();
+        try (HttpResponse response = result.get(5, TimeUnit.SECONDS)) {
+            assertThat(response.getStatusCode()).isEqualTo(200);
+        }
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(Duration.ofSeconds(1).toNanos());
+    }
+
+    @Test
+    void builderReturnsResponseWhenRetryAfterTooLong() throws Exception {
+        MockedHttpClient delegate = MockedHttpClient.ofResponse(statusResponse(503, "3600"));
+        AsyncRetryDecorator x = AsyncRetryDecorator.builder().decorated(AsyncHttpClient.bridge(() -> delegate, Runnable::run)).build();
+
+        try (HttpResponse response = x.sendAsync(requestOf(HttpMethod.GET)).get(5, TimeUnit.SECONDS)) {
+            assertThat(response.getStatusCode()).isEqualTo(503);
+        }
+        assertThat(delegate.getCallCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cancellationStopsScheduledRetry() throws Exception {
+        MockedHttpClient delegate = MockedHttpClient.ofException(new SocketException("Connection reset"));
+        AsyncRetryDecorator x = AsyncRetryDecorator
+                .builder()
+                .decorated(AsyncHttpClient.bridge(() -> delegate, Runnable::run))
+                .backoff(BackoffPolicy.fixed(Duration.ofMillis(200)))
+                .build();
+
+        x.sendAsync(requestOf(HttpMethod.GET)).cancel(true);
+        Thread.sleep(400);
+        assertThat(delegate.getCallCount()).isEqualTo(1);
+    }
+
+    @Test
+    void budgetBoundsRetriesAcrossRequests() {
+        MockedHttpClient delegate = MockedHttpClient.ofException(new SocketException("Connection reset"));
+        AtomicInteger exhausted = new AtomicInteger();
+        AsyncRetryDecorator x = AsyncRetryDecorator
+                .builder()
+                .decorated(AsyncHttpClient.bridge(() -> delegate, Runnable::run))
+                .maxRetries(3)
+                .backoff(BackoffPolicy.none())
+                .budget(RetryBudget.of(0, 4))
+                .listener(new RetryListener() {
+                    @Override
+                    public void onRetry(HttpRequest request, int attempt, IOException cause) {
+                    }
+
+                    @Override
+                    public void onBudgetExhausted(HttpRequest request, int attempt) {
+                        exhausted.incrementAndGet();
+                    }
+                })
+                .build();
+
+        assertThat(x.sendAsync(requestOf(HttpMethod.GET))).failsWithin(0, TimeUnit.SECONDS);
+        assertThat(x.sendAsync(requestOf(HttpMethod.GET))).failsWithin(0, TimeUnit.SECONDS);
+        assertThat(delegate.getCallCount()).isEqualTo(4 + 2);
+        assertThat(exhausted).hasValue(1);
+    }
+}
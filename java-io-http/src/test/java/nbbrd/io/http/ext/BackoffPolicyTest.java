@@ -0,0 +1,51 @@
+package nbbrd.io.http.ext;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class BackoffPolicyTest {
+
+    private static final Duration MS_100 = Duration.ofMillis(100);
+    private static final Duration SEC_1 = Duration.ofSeconds(1);
+
+    @Test
+    void testNoneAndFixed() {
+        assertThat(BackoffPolicy.none().getDelay(3, SEC_1)).isZero();
+        assertThat(BackoffPolicy.fixed(MS_100).getDelay(3, SEC_1)).isEqualTo(MS_100);
+        assertThatIllegalArgumentException().isThrownBy(() -> BackoffPolicy.fixed(Duration.ofMillis(-1)));
+    }
+
+    @Test
+    void testExponential() {
+        BackoffPolicy x = BackoffPolicy.exponential(MS_100, SEC_1);
+        assertThat(x.getDelay(1, Duration.ZERO)).isEqualTo(MS_100);
+        assertThat(x.getDelay(2, Duration.ZERO)).isEqualTo(Duration.ofMillis(200));
+        assertThat(x.getDelay(4, Duration.ZERO)).isEqualTo(Duration.ofMillis(800));
+        assertThat(x.getDelay(5, Duration.ZERO)).isEqualTo(SEC_1);
+        assertThat(x.getDelay(Integer.MAX_VALUE, Duration.ZERO)).isEqualTo(SEC_1);
+        assertThat(BackoffPolicy.exponential(Duration.ofDays(100_000), Duration.ofDays(100_001)).getDelay(100, Duration.ZERO))
+                .isEqualTo(Duration.ofDays(100_001));
+        assertThatIllegalArgumentException().isThrownBy(() -> BackoffPolicy.exponential(SEC_1, MS_100));
+    }
+
+    @RepeatedTest(10)
+    void testExponentialWithJitter() {
+        BackoffPolicy x = BackoffPolicy.exponentialWithJitter(MS_100, SEC_1);
+        assertThat(x.getDelay(1, Duration.ZERO)).isBetween(Duration.ZERO, MS_100);
+        assertThat(x.getDelay(3, Duration.ZERO)).isBetween(Duration.ZERO, Duration.ofMillis(400));
+        assertThat(x.getDelay(10, Duration.ZERO)).isBetween(Duration.ZERO, SEC_1);
+    }
+
+    @RepeatedTest(10)
+    void testDecorrelatedJitter() {
+        BackoffPolicy x = BackoffPolicy.decorrelatedJitter(MS_100, SEC_1);
+        assertThat(x.getDelay(1, Duration.ZERO)).isBetween(MS_100, Duration.ofMillis(300));
+        assertThat(x.getDelay(2, Duration.ofMillis(200))).isBetween(MS_100, Duration.ofMillis(600));
+        assertThat(x.getDelay(3, Duration.ofMillis(900))).isBetween(MS_100, SEC_1);
+    }
+}
@@ -17,6 +17,7 @@ import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicReference;
@@ -395,6 +396,56 @@ public class CachingDecoratorTest {
                 .isEqualTo(1);
     }
 
+    @Test
+    public void testParallelMissesWithPooledClient() throws Exception {
+        List<MockedHttpClient> origins = new CopyOnWriteArrayList<>();
+        PooledHttpClient pool = PooledHttpClient.builder()
+                .clients(() -> {
+                    MockedHttpClient result = new MockedHttpClient(request ->
+                            MockedHttpResponse
+                                    .builder()
+                                    .statusCode(200)
+                                    .headers(headers("Cache-Control", "max-age=300"))
+                                    .bodyOf(request.getQuery().getPath(), UTF_8)
+                                    .build())
+                            .withDelay(200);
+                    origins.add(result);
+                    return result;
+                })
+                .maxClients(4)
+                .build();
+
+        CachingDecorator client = CachingDecorator.builder().decorated(pool).build();
+
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CompletableFuture<?>[] futures = new CompletableFuture[threads];
+        try {
+            for (int i = 0; i < threads; i++) {
+                HttpRequest request = HttpRequest.builder().query(URI.create("http://localhost/" + i)).build();
+                futures[i] = CompletableFuture.runAsync(() -> {
+                    try {
+                        start.await();
+                        assertThat(bodyOf(client.send(request))).isEqualTo(request.getQuery().getPath());
+                    } catch (Exception ex) {
+                        throw new CompletionException(ex);
+                    }
+                }, executor);
+            }
+            start.countDown();
+            CompletableFuture.allOf(futures).get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(origins)
+                .describedAs("cache misses on distinct keys run in parallel on distinct clients")
+                .hasSizeGreaterThan(1)
+                .allSatisfy(origin -> assertThat(origin.getMaxConcurrentCalls()).isEqualTo(1));
+        assertThat(client.getDecorated()).isSameAs(pool);
+    }
+
     private static void awaitUntil(BooleanSupplierWithTimeout condition) throws InterruptedException {
         long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
         while (System.nanoTime() < deadline) {
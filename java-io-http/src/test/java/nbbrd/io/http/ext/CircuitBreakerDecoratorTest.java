@@ -0,0 +1,273 @@
+package nbbrd.io.http.ext;
+
+import _test.io.http.MockedHttpClient;
+import _test.io.http.MockedHttpResponse;
+import _test.io.http.MutableClock;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static nbbrd.io.http.ext.CircuitBreakerDecorator.State.*;
+import static org.assertj.core.api.Assertions.*;
+
+class CircuitBreakerDecoratorTest {
+
+    private static final URI A = URI.create("https://a.example.com/api");
+    private static final URI B = URI.create("https://b.example.com/api");
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    private static HttpRequest get(URI uri) {
+        return HttpRequest.builder().query(uri).build();
+    }
+
+    private static HttpResponse status(int code) {
+        return MockedHttpResponse.builder().statusCode(code).contentTypeOf("text/plain").build();
+    }
+
+    private static void sendQuietly(CircuitBreakerDecorator x, URI uri) {
+        try {
+            x.send(get(uri)).close();
+        } catch (IOException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testOpensOnFailureRateAndFailsFast() throws IOException {
+        MutableClock clock = new MutableClock(T0);
+        MockedHttpClient backend = MockedHttpClient.ofException(new ConnectException("refused"));
+        List<String> events = new ArrayList<>();
+        AtomicInteger rejections = new AtomicInteger();
+
+        CircuitBreakerDecorator x = CircuitBreakerDecorator
+                .builder()
+                .decorated(backend)
+                .windowSize(4)
+                .minimumCalls(4)
+                .openDuration(Duration.ofSeconds(30))
+                .clock(clock)
+                .listener(new CircuitBreakerListener() {
+                    @Override
+                    public void onStateChanged(String host, CircuitBreakerDecorator.State from, CircuitBreakerDecorator.State to) {
+                        events.add(host + " " + from + ">" + to);
+                    }
+
+                    @Override
+                    public void onRejected(HttpRequest request, Duration retryAfter) {
+                        rejections.incrementAndGet();
+                    }
+                })
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            sendQuietly(x, A);
+        }
+        assertThat(x.getState(A)).isEqualTo(CLOSED);
+
+        sendQuietly(x, A);
+        assertThat(x.getState(A)).isEqualTo(OPEN);
+        assertThat(x.getState(B)).isEqualTo(CLOSED);
+        assertThat(events).containsExactly("a.example.com:-1 CLOSED>OPEN");
+
+        clock.plusSeconds(10);
+        assertThatExceptionOfType(CircuitBreakerOpenException.class)
+                .isThrownBy(() -> x.send(get(A)))
+                .satisfies(ex -> {
+                    assertThat(ex.getHost()).isEqualTo("a.example.com:-1");
+                    assertThat(ex.getRetryAfter()).isEqualTo(Duration.ofSeconds(20));
+                });
+        assertThat(backend.getCallCount()).isEqualTo(4);
+        assertThat(rejections).hasValue(1);
+
+        // other hosts are not affected
+        sendQuietly(x, B);
+        assertThat(backend.getCallCount()).isEqualTo(5);
+    }
+
+    @Test
+    public void testHalfOpenClosesOnSuccess() throws IOException {
+        MutableClock clock = new MutableClock(T0);
+        AtomicInteger code = new AtomicInteger(503);
+        MockedHttpClient backend = new MockedHttpClient(request -> status(code.get()));
+
+        CircuitBreakerDecorator x = CircuitBreakerDecorator
+                .builder()
+                .decorated(backend)
+                .windowSize(2)
+                .minimumCalls(2)
+                .halfOpenCalls(2)
+                .openDuration(Duration.ofSeconds(30))
+                .clock(clock)
+                .build();
+
+        sendQuietly(x, A);
+        sendQuietly(x, A);
+        assertThat(x.getState(A)).isEqualTo(OPEN);
+
+        clock.plusSeconds(30);
+        assertThat(x.getState(A)).isEqualTo(HALF_OPEN);
+
+        code.set(200);
+        try (HttpResponse response = x.send(get(A))) {
+            assertThat(response.getStatusCode()).isEqualTo(200);
+        }
+        assertThat(x.getState(A)).isEqualTo(HALF_OPEN);
+        x.send(get(A)).close();
+        assertThat(x.getState(A)).isEqualTo(CLOSED);
+    }
+
+    @Test
+    public void testHalfOpenReopensOnFailure() {
+        MutableClock clock = new MutableClock(T0);
+        MockedHttpClient backend = new MockedHttpClient(request -> status(500));
+
+        CircuitBreakerDecorator x = CircuitBreakerDecorator
+                .builder()
+                .decorated(backend)
+                .windowSize(2)
+                .minimumCalls(2)
+                .halfOpenCalls(1)
+                .openDuration(Duration.ofSeconds(30))
+                .clock(clock)
+                .build();
+
+        sendQuietly(x, A);
+        sendQuietly(x, A);
+        clock.plusSeconds(30);
+
+        sendQuietly(x, A);
+        assertThat(x.getState(A)).isEqualTo(OPEN);
+        assertThat(backend.getCallCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testHalfOpenLimitsTrialCalls() {
+        MutableClock clock = new MutableClock(T0);
+        List<CircuitBreakerDecorator> self = new ArrayList<>();
+        List<Class<?>> nested = new ArrayList<>();
+        MockedHttpClient backend = new MockedHttpClient(request -> {
+            if (clock.instant().isAfter(T0)) {
+                // a concurrent request during the trial call
+                try {
+                    self.get(0).send(get(A));
+                } catch (IOException ex) {
+                    nested.add(ex.getClass());
+                }
+            }
+            return status(500);
+        });
+
+        CircuitBreakerDecorator x = CircuitBreakerDecorator
+                .builder()
+                .decorated(backend)
+                .windowSize(1)
+                .minimumCalls(1)
+                .halfOpenCalls(1)
+                .openDuration(Duration.ofSeconds(30))
+                .clock(clock)
+                .build();
+        self.add(x);
+
+        sendQuietly(x, A);
+        clock.plusSeconds(30);
+        sendQuietly(x, A);
+
+        assertThat(nested).containsExactly(CircuitBreakerOpenException.class);
+        assertThat(backend.getCallCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testSlowCalls() {
+        MutableClock clock = new MutableClock(T0);
+        MockedHttpClient backend = new MockedHttpClient(request -> {
+            clock.plusSeconds(5);
+            return status(200);
+        });
+
+        CircuitBreakerDecorator x = CircuitBreakerDecorator
+                .builder()
+                .decorated(backend)
+                .windowSize(2)
+                .minimumCalls(2)
+                .slowCallDuration(Duration.ofSeconds(5))
+                .slowCallRateThreshold(1.0)
+                .clock(clock)
+                .build();
+
+        sendQuietly(x, A);
+        sendQuietly(x, A);
+        assertThat(x.getState(A)).isEqualTo(OPEN);
+    }
+
+    @Test
+    public void testSlidingWindow() {
+        MutableClock clock = new MutableClock(T0);
+        AtomicInteger code = new AtomicInteger(200);
+        MockedHttpClient backend = new MockedHttpClient(request -> status(code.get()));
+
+        CircuitBreakerDecorator x = CircuitBreakerDecorator
+                .builder()
+                .decorated(backend)
+                .windowSize(4)
+                .minimumCalls(4)
+                .failureRateThreshold(0.75)
+                .clock(clock)
+                .build();
+
+        // F S S F F: at most 2 failures among the last 4 calls until the last one
+        for (int c : new int[]{500, 200, 200, 500, 500}) {
+            assertThat(x.getState(A)).isEqualTo(CLOSED);
+            code.set(c);
+            sendQuietly(x, A);
+        }
+        assertThat(x.getState(A)).isEqualTo(CLOSED);
+
+        sendQuietly(x, A);
+        assertThat(x.getState(A)).isEqualTo(OPEN);
+    }
+
+    @Test
+    public void testClientErrorsAreNotFailures() {
+        MockedHttpClient backend = MockedHttpClient.ofException(new ThrowingStatusException(404));
+
+        CircuitBreakerDecorator x = CircuitBreakerDecorator
+                .builder()
+                .decorated(backend)
+                .windowSize(2)
+                .minimumCalls(2)
+                .build();
+
+        sendQuietly(x, A);
+        sendQuietly(x, A);
+        assertThat(x.getState(A)).isEqualTo(CLOSED);
+    }
+
+    @Test
+    public void testBuilder() {
+        MockedHttpClient backend = MockedHttpClient.ofResponse(status(200));
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> CircuitBreakerDecorator.builder().decorated(backend).failureRateThreshold(0.0).build());
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> CircuitBreakerDecorator.builder().decorated(backend).windowSize(0).build());
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> CircuitBreakerDecorator.builder().decorated(backend).windowSize(5).minimumCalls(6).build());
+        assertThatNullPointerException()
+                .isThrownBy(() -> CircuitBreakerDecorator.builder().build());
+    }
+
+    @Test
+    public void testGetHostKey() {
+        assertThat(CircuitBreakerDecorator.getHostKey(URI.create("https://Example.com:8443/x")))
+                .isEqualTo("example.com:8443");
+    }
+}
@@ -0,0 +1,135 @@
+package nbbrd.io.http.ext;
+
+import _test.io.http.MockedHttpClient;
+import _test.io.http.MockedHttpResponse;
+import nbbrd.io.http.HttpMethod;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpResponse;
+import nbbrd.io.http.PooledHttpClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.SocketException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.*;
+
+@SuppressWarnings("resource")
+class CoalescingDecoratorTest {
+
+    private final URI uri = URI.create("http://localhost/test");
+
+    private static HttpResponse okResponse(String body) {
+        return MockedHttpResponse
+                .builder()
+                .statusCode(200)
+                .contentTypeOf("text/plain")
+                .body(() -> new ByteArrayInputStream(body.getBytes(UTF_8)))
+                .build();
+    }
+
+    private static List<String> sendConcurrently(CoalescingDecorator x, HttpRequest request, int count) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try (HttpResponse response = x.send(request)) {
+                        return response.getBodyAsString();
+                    }
+                }));
+            }
+            start.countDown();
+            List<String> result = new ArrayList<>();
+            for (Future<String> future : futures) {
+                result.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void coalescesConcurrentIdenticalRequests(@TempDir Path temp) throws Exception {
+        MockedHttpClient delegate = new MockedHttpClient(ignore -> okResponse("hello")).withDelay(300);
+        CoalescingDecorator x = CoalescingDecorator.builder().decorated(delegate).tempDir(temp).build();
+
+        assertThat(sendConcurrently(x, HttpRequest.builder().query(uri).build(), 8))
+                .hasSize(8)
+                .containsOnly("hello");
+
+        assertThat(delegate.getCallCount()).isEqualTo(1);
+        assertThat(x.getInFlightCount()).isZero();
+    }
+
+    @Test
+    void spoolsLargeBodiesToTempFile(@TempDir Path temp) throws Exception {
+        MockedHttpClient delegate = new MockedHttpClient(ignore -> okResponse("hello world")).withDelay(300);
+        CoalescingDecorator x = CoalescingDecorator.builder().decorated(delegate).maxBufferSize(4).tempDir(temp).build();
+
+        assertThat(sendConcurrently(x, HttpRequest.builder().query(uri).build(), 4))
+                .containsOnly("hello world");
+
+        assertThat(delegate.getCallCount()).isEqualTo(1);
+        assertThat(temp).isEmptyDirectory();
+    }
+
+    @Test
+    void sharesFailures() throws Exception {
+        MockedHttpClient delegate = MockedHttpClient.ofException(new SocketException("Connection reset")).withDelay(300);
+        CoalescingDecorator x = CoalescingDecorator.builder().decorated(delegate).build();
+
+        assertThatExceptionOfType(ExecutionException.class)
+                .isThrownBy(() -> sendConcurrently(x, HttpRequest.builder().query(uri).build(), 4))
+                .withCauseInstanceOf(SocketException.class);
+
+        assertThat(delegate.getCallCount()).isEqualTo(1);
+        assertThat(x.getInFlightCount()).isZero();
+    }
+
+    @Test
+    void doesNotCoalesceUnsafeOrDistinctRequests() throws Exception {
+        MockedHttpClient delegate = new MockedHttpClient(ignore -> okResponse("hello")).withDelay(100);
+        CoalescingDecorator x = CoalescingDecorator
+                .builder()
+                .decorated(PooledHttpClient.builder().clients(() -> delegate).maxClients(4).build())
+                .build();
+
+        sendConcurrently(x, HttpRequest.builder().query(uri).method(HttpMethod.POST).build(), 4);
+        assertThat(delegate.getCallCount()).isEqualTo(4);
+
+        try (HttpResponse first = x.send(HttpRequest.builder().query(uri).build());
+             HttpResponse second = x.send(HttpRequest.builder().query(uri).build())) {
+            assertThat(first.getBodyAsString()).isEqualTo("hello");
+            assertThat(second.getBodyAsString()).isEqualTo("hello");
+        }
+        assertThat(delegate.getCallCount()).isEqualTo(6);
+    }
+
+    @Test
+    void keepsContentLengthOfHeadResponses() throws IOException {
+        HttpResponse head = MockedHttpResponse.builder().statusCode(200).contentLength(1234).build();
+        CoalescingDecorator x = CoalescingDecorator.builder().decorated(MockedHttpClient.ofResponse(head)).build();
+
+        try (HttpResponse response = x.send(HttpRequest.builder().query(uri).method(HttpMethod.HEAD).build())) {
+            assertThat(response.getContentLength()).isEqualTo(1234);
+            assertThat(response.getBodyAsString()).isEmpty();
+        }
+    }
+
+    @Test
+    void testDescription() throws IOException {
+        assertThat(CoalescingDecorator.builder().decorated(MockedHttpClient.ofResponse(okResponse(""))).build().getDescription())
+                .isEqualTo("Coalescing of Fake client");
+    }
+}
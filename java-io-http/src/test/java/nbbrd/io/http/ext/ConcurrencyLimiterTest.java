@@ -0,0 +1,117 @@
+package nbbrd.io.http.ext;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ConcurrencyLimiterTest {
+
+    private static final Duration RTT = Duration.ofMillis(10);
+
+    @Test
+    void fixedLimitsInFlight() throws InterruptedException {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.fixed(2, Duration.ZERO);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.acquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+
+        assertThat(limiter.release(RTT, true)).isNull();
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void acquireWaitsForRelease() throws Exception {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.fixed(1, Duration.ofSeconds(10));
+        assertThat(limiter.tryAcquire()).isTrue();
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire();
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        Thread.sleep(50);
+        assertThat(waiter).isNotDone();
+
+        limiter.release(RTT, false);
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void aimdDecreasesOnDropAndGrowsWhenUsed() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.aimd(10, 2, 20, 0.5, Duration.ZERO);
+
+        limiter.tryAcquire();
+        assertThat(limiter.release(RTT, true)).isEqualTo(new ConcurrencyLimiter.LimitChange(10, 5));
+        limiter.tryAcquire();
+        limiter.release(RTT, true);
+        limiter.tryAcquire();
+        limiter.release(RTT, true);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        // under-used limit does not grow
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(RTT, false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        // saturated limit grows by one per window
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.release(RTT, false);
+            limiter.release(RTT, false);
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(2);
+    }
+
+    @Test
+    void gradientShrinksWhenLatencyRises() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.gradient(20, 1, 100, Duration.ZERO);
+
+        for (int i = 0; i < 50; i++) {
+            saturate(limiter, RTT);
+        }
+        int steady = limiter.getLimit();
+        assertThat(steady).isGreaterThan(20);
+
+        saturate(limiter, RTT.multipliedBy(10));
+        assertThat(limiter.getLimit()).isLessThan(steady / 2);
+    }
+
+    @Test
+    void validatesArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ConcurrencyLimiter.fixed(0, Duration.ZERO));
+        assertThatIllegalArgumentException().isThrownBy(() -> ConcurrencyLimiter.aimd(1, 2, 3, 0.5, Duration.ZERO));
+        assertThatIllegalArgumentException().isThrownBy(() -> ConcurrencyLimiter.aimd(2, 1, 3, 1.5, Duration.ZERO));
+        assertThatIllegalArgumentException().isThrownBy(() -> ConcurrencyLimiter.gradient(2, 1, 3, Duration.ofSeconds(-1)));
+    }
+
+    @Test
+    void registryReturnsOneLimiterPerKey() {
+        ConcurrencyLimiterRegistry registry = ConcurrencyLimiterRegistry.of(() -> ConcurrencyLimiter.fixed(1, Duration.ZERO));
+        assertThat(registry.forKey("host-a")).isSameAs(registry.forKey("host-a"));
+        assertThat(registry.forKey("host-a")).isNotSameAs(registry.forKey("host-b"));
+    }
+
+    private static void saturate(ConcurrencyLimiter limiter, Duration rtt) {
+        int n = limiter.getLimit();
+        for (int i = 0; i < n; i++) {
+            limiter.tryAcquire();
+        }
+        for (int i = 0; i < n; i++) {
+            limiter.release(rtt, false);
+        }
+    }
+}
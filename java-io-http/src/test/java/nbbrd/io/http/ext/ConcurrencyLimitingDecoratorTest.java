@@ -0,0 +1,154 @@
+package nbbrd.io.http.ext;
+
+import _test.io.http.MockedHttpClient;
+import _test.io.http.MockedHttpResponse;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ConcurrencyLimitingDecoratorTest {
+
+    private static final URI A = URI.create("https://a.example.com/api");
+    private static final URI B = URI.create("https://b.example.com/api");
+
+    private static HttpRequest get(URI uri) {
+        return HttpRequest.builder().query(uri).build();
+    }
+
+    private static HttpResponse status(int code) {
+        return MockedHttpResponse.builder().statusCode(code).contentTypeOf("text/plain").build();
+    }
+
+    @Test
+    void boundsConcurrentRequests() throws Exception {
+        MockedHttpClient backend = new MockedHttpClient(request -> status(200)).withDelay(50);
+        ConcurrencyLimitingDecorator x = ConcurrencyLimitingDecorator.of(backend, ConcurrencyLimiter.fixed(2, Duration.ofSeconds(10)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                results.add(executor.submit(() -> {
+                    try (HttpResponse response = x.send(get(A))) {
+                        return response.getStatusCode();
+                    }
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(200);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(backend.getCallCount()).isEqualTo(6);
+        assertThat(backend.getMaxConcurrentCalls()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsAboveLimitWithoutWait() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch exit = new CountDownLatch(1);
+        MockedHttpClient backend = new MockedHttpClient(request -> {
+            if (request.getQuery().equals(A)) {
+                entered.countDown();
+                try {
+                    exit.await();
+                } catch (InterruptedException ex) {
+                    throw new IOException(ex);
+                }
+            }
+            return status(200);
+        });
+        List<String> events = new ArrayList<>();
+        ConcurrencyLimitingDecorator x = ConcurrencyLimitingDecorator
+                .builder()
+                .decorated(backend)
+                .registry(ConcurrencyLimiterRegistry.of(() -> ConcurrencyLimiter.fixed(1, Duration.ZERO)))
+                .listener(new ConcurrencyLimitingListener() {
+                    @Override
+                    public void onQueued(HttpRequest request, int inFlight) {
+                        events.add("queued " + inFlight);
+                    }
+
+                    @Override
+                    public void onRejected(HttpRequest request) {
+                        events.add("rejected");
+                    }
+                })
+                .build();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> first = executor.submit(() -> {
+                x.send(get(A)).close();
+                return null;
+            });
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatIOException()
+                    .isThrownBy(() -> x.send(get(A)))
+                    .withMessageContaining("Concurrency limit (1)");
+            assertThat(events).containsExactly("queued 1", "rejected");
+
+            // other hosts have their own limiter
+            x.send(get(B)).close();
+
+            exit.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(backend.getCallCount()).isEqualTo(2);
+    }
+
+    @Test
+    void reportsDroppedRequests() throws IOException {
+        List<String> events = new ArrayList<>();
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.aimd(8, 1, 8, 0.5, Duration.ZERO);
+        ConcurrencyLimitingDecorator x = ConcurrencyLimitingDecorator
+                .builder()
+                .decorated(new MockedHttpClient(request -> status(503)))
+                .limiter(limiter)
+                .listener(new ConcurrencyLimitingListener() {
+                    @Override
+                    public void onLimitAdjusted(int oldLimit, int newLimit) {
+                        events.add(oldLimit + ">" + newLimit);
+                    }
+                })
+                .build();
+
+        x.send(get(A)).close();
+        assertThat(events).containsExactly("8>4");
+        assertThat(limiter.getInFlight()).isZero();
+
+        ConcurrencyLimitingDecorator failing = ConcurrencyLimitingDecorator.of(MockedHttpClient.ofException(new IOException("boom")), limiter);
+        assertThatIOException().isThrownBy(() -> failing.send(get(A)));
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void requiresExactlyOneLimiterSource() {
+        MockedHttpClient backend = MockedHttpClient.ofResponse(status(200));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ConcurrencyLimitingDecorator.builder().decorated(backend).build());
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ConcurrencyLimitingDecorator.builder().decorated(backend)
+                        .limiter(ConcurrencyLimiter.fixed(1, Duration.ZERO))
+                        .registry(ConcurrencyLimiterRegistry.of(() -> ConcurrencyLimiter.fixed(1, Duration.ZERO)))
+                        .build());
+    }
+}
@@ -0,0 +1,334 @@
+package nbbrd.io.http.ext;
+
+import _test.io.http.MockedHttpResponse;
+import nbbrd.io.http.AsyncHttpClient;
+import nbbrd.io.http.HttpMethod;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SuppressWarnings("resource")
+class HedgingDecoratorTest {
+
+    private final HttpRequest request = HttpRequest.builder().query(URI.create("http://localhost/test")).build();
+
+    /**
+     * Async client whose n-th call is answered by the n-th future.
+     */
+    private static final class ScriptedClient implements AsyncHttpClient {
+
+        private final List<CompletableFuture<HttpResponse>> futures = new CopyOnWriteArrayList<>();
+        private final AtomicInteger calls = new AtomicInteger();
+
+        ScriptedClient(int count) {
+            for (int i = 0; i < count; i++) {
+                futures.add(new CompletableFuture<>());
+            }
+        }
+
+        @Override
+        public String getDescription() {
+            return "Scripted client";
+        }
+
+        @Override
+        public CompletableFuture<HttpResponse> sendAsync(HttpRequest request) {
+            return futures.get(calls.getAndIncrement());
+        }
+    }
+
+    private static MockedHttpResponse okResponse() {
+        return MockedHttpResponse.builder().statusCode(200).build();
+    }
+
+    @Test
+    void hedgesSlowRequestAndKeepsFirstResponse() throws Exception {
+        ScriptedClient client = new ScriptedClient(2);
+        List<Integer> hedges = new CopyOnWriteArrayList<>();
+        HedgingDecorator x = HedgingDecorator
+                .builder()
+                .decorated(client)
+                .delay(Duration.ofMillis(20))
+                .listener((r, attempt, delay) -> hedges.add(attempt))
+                .build();
+
+        CompletableFuture<HttpResponse> result = x.sendAsync(request);
+        waitForCalls(client, 2);
+        assertThat(hedges).containsExactly(1);
+
+        MockedHttpResponse winner = okResponse();
+        client.futures.get(1).complete(winner);
+        assertThat(result.get(1, TimeUnit.SECONDS)).isSameAs(winner);
+        assertThat(client.futures.get(0)).isCancelled();
+    }
+
+    @Test
+    void closesLateResponses() throws Exception {
+        ScriptedClient client = new ScriptedClient(2);
+        // simulates a response that arrives while the attempt is being cancelled
+        CompletableFuture<HttpResponse> lateAttempt = new CompletableFuture<HttpResponse>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                return false;
+            }
+        };
+        client.futures.set(0, lateAttempt);
+        HedgingDecorator x = HedgingDecorator.builder().decorated(client).delay(Duration.ofMillis(20)).build();
+
+        CompletableFuture<HttpResponse> result = x.sendAsync(request);
+        waitForCalls(client, 2);
+
+        MockedHttpResponse winner = okResponse();
+        client.futures.get(1).complete(winner);
+        assertThat(result.get(1, TimeUnit.SECONDS)).isSameAs(winner);
+
+        MockedHttpResponse loser = okResponse();
+        lateAttempt.complete(loser);
+        assertThat(loser.isClosed()).isTrue();
+        assertThat(winner.isClosed()).isFalse();
+    }
+
+    @Test
+    void closesLosingResponsesThroughDecoratorChain() throws Exception {
+        ScriptedClient client = new ScriptedClient(2);
+        // simulates a response that is already in flight when the copy loses
+        CompletableFuture<HttpResponse> lateAttempt = new CompletableFuture<HttpResponse>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                return false;
+            }
+        };
+        client.futures.set(0, lateAttempt);
+        AsyncHttpClient chain = new AsyncThrowingStatusDecorator(
+                new AsyncMetricsDecorator(
+                        new AsyncLoggingDecorator(client, LoggingHandler.basic(ignore -> {
+                        })),
+                        MetricsListener.noOp()),
+                ThrowingStatusDecorator.DEFAULT_SHOULD_THROW);
+        HedgingDecorator x = HedgingDecorator.builder().decorated(chain).delay(Duration.ofMillis(20)).build();
+
+        CompletableFuture<HttpResponse> result = x.sendAsync(request);
+        waitForCalls(client, 2);
+
+        MockedHttpResponse winner = okResponse();
+        client.futures.get(1).complete(winner);
+        result.get(1, TimeUnit.SECONDS).close();
+        assertThat(winner.isClosed()).isTrue();
+
+        MockedHttpResponse loser = okResponse();
+        lateAttempt.complete(loser);
+        assertThat(loser.isClosed()).isTrue();
+    }
+
+    @Test
+    void doesNotHedgeFastRequests() throws Exception {
+        ScriptedClient client = new ScriptedClient(2);
+        MockedHttpResponse response = okResponse();
+        client.futures.get(0).complete(response);
+        HedgingDecorator x = HedgingDecorator.builder().decorated(client).delay(Duration.ofMillis(10)).build();
+
+        assertThat(x.sendAsync(request).get(1, TimeUnit.SECONDS)).isSameAs(response);
+        Thread.sleep(50);
+        assertThat(client.calls).hasValue(1);
+    }
+
+    @Test
+    void hedgesImmediatelyOnTransientFailure() throws Exception {
+        ScriptedClient client = new ScriptedClient(3);
+        client.futures.get(0).completeExceptionally(new SocketException("Connection reset"));
+        client.futures.get(1).completeExceptionally(new SocketException("Connection reset"));
+        HedgingDecorator x = HedgingDecorator.builder().decorated(client).maxHedges(2).delay(Duration.ofHours(1)).build();
+
+        assertThatThrownBy(() -> x.sendAsync(request).get(1, TimeUnit.SECONDS))
+                .isInstanceOf(TimeoutException.class);
+        assertThat(client.calls).hasValue(3);
+
+        client.futures.get(2).completeExceptionally(new SocketException("Connection reset"));
+    }
+
+    @Test
+    void failsWhenAllCopiesFail() {
+        ScriptedClient client = new ScriptedClient(2);
+        client.futures.get(0).completeExceptionally(new SocketException("first"));
+        client.futures.get(1).completeExceptionally(new SocketException("second"));
+        HedgingDecorator x = HedgingDecorator.builder().decorated(client).delay(Duration.ofHours(1)).build();
+
+        assertThatThrownBy(() -> x.sendAsync(request).get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOf(SocketException.class)
+                .hasMessage("first");
+    }
+
+    @Test
+    void failsAtOnceOnNonTransientFailure() {
+        ScriptedClient client = new ScriptedClient(2);
+        client.futures.get(0).completeExceptionally(new UnknownHostException("localhost"));
+        HedgingDecorator x = HedgingDecorator.builder().decorated(client).delay(Duration.ofHours(1)).build();
+
+        assertThatThrownBy(() -> x.sendAsync(request).get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOf(UnknownHostException.class);
+        assertThat(client.calls).hasValue(1);
+    }
+
+    @Test
+    void doesNotHedgeNonIdempotentRequests() throws Exception {
+        ScriptedClient client = new ScriptedClient(1);
+        HedgingDecorator x = HedgingDecorator.builder().decorated(client).delay(Duration.ZERO).build();
+
+        CompletableFuture<HttpResponse> result = x.sendAsync(request.toBuilder().method(HttpMethod.POST).build());
+        Thread.sleep(50);
+        assertThat(client.calls).hasValue(1);
+        client.futures.get(0).complete(okResponse());
+        assertThat(result.get(1, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    void adaptsDelayToLatencyPercentile() throws Exception {
+        AsyncHttpClient fast = new AsyncHttpClient() {
+            @Override
+            public String getDescription() {
+                return "Fast client";
+            }
+
+            @Override
+            public CompletableFuture<HttpResponse> sendAsync(HttpRequest request) {
+                return CompletableFuture.completedFuture(okResponse());
+            }
+        };
+        HedgingDecorator x = HedgingDecorator.builder().decorated(fast).delay(Duration.ofSeconds(10)).latencyPercentile(0.95).build();
+
+        assertThat(x.getHedgeDelay()).isEqualTo(Duration.ofSeconds(10));
+        for (int i = 0; i < 20; i++) {
+            x.sendAsync(request).get().close();
+        }
+        assertThat(x.getHedgeDelay()).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void serverErrorsDoNotWin() throws Exception {
+        ScriptedClient client = new ScriptedClient(2);
+        MockedHttpResponse unavailable = MockedHttpResponse.builder().statusCode(503).build();
+        client.futures.get(0).complete(unavailable);
+        HedgingDecorator x = HedgingDecorator.builder().decorated(client).delay(Duration.ofHours(1)).build();
+
+        CompletableFuture<HttpResponse> result = x.sendAsync(request);
+        waitForCalls(client, 2);
+        assertThat(result).isNotDone();
+
+        MockedHttpResponse winner = okResponse();
+        client.futures.get(1).complete(winner);
+        assertThat(result.get(1, TimeUnit.SECONDS)).isSameAs(winner);
+        assertThat(unavailable.isClosed()).isTrue();
+    }
+
+    @Test
+    void returnsLastServerErrorWhenAllCopiesFail() throws Exception {
+        ScriptedClient client = new ScriptedClient(3);
+        MockedHttpResponse first = MockedHttpResponse.builder().statusCode(503).build();
+        MockedHttpResponse second = MockedHttpResponse.builder().statusCode(502).build();
+        client.futures.get(0).complete(first);
+        client.futures.get(1).completeExceptionally(new SocketException("Connection reset"));
+        client.futures.get(2).complete(second);
+        HedgingDecorator x = HedgingDecorator.builder().decorated(client).maxHedges(2).delay(Duration.ofHours(1)).build();
+
+        assertThat(x.sendAsync(request).get(1, TimeUnit.SECONDS)).isSameAs(second);
+        assertThat(first.isClosed()).isTrue();
+        assertThat(second.isClosed()).isFalse();
+    }
+
+    @Test
+    void boundsHedgesWithBudget() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        AsyncHttpClient slow = new AsyncHttpClient() {
+            @Override
+            public String getDescription() {
+                return "Slow client";
+            }
+
+            @Override
+            public CompletableFuture<HttpResponse> sendAsync(HttpRequest request) {
+                calls.incrementAndGet();
+                return new CompletableFuture<>();
+            }
+        };
+        AtomicInteger hedges = new AtomicInteger();
+        HedgingDecorator x = HedgingDecorator
+                .builder()
+                .decorated(slow)
+                .delay(Duration.ofMillis(1))
+                .maxHedgeRatio(0.0)
+                .listener((r, attempt, delay) -> hedges.incrementAndGet())
+                .build();
+
+        List<CompletableFuture<HttpResponse>> results = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            results.add(x.sendAsync(request));
+        }
+        Thread.sleep(100);
+        // only the initial burst is allowed when no request earns credit
+        assertThat(hedges).hasValue(10);
+        assertThat(calls).hasValue(25);
+        results.forEach(result -> result.cancel(true));
+    }
+
+    @Test
+    void recordsLatencyOfOriginalRequests() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        // originals never answer, hedges answer at once
+        AsyncHttpClient client = new AsyncHttpClient() {
+            @Override
+            public String getDescription() {
+                return "Client";
+            }
+
+            @Override
+            public CompletableFuture<HttpResponse> sendAsync(HttpRequest request) {
+                return calls.getAndIncrement() % 2 == 0 ? new CompletableFuture<>() : CompletableFuture.completedFuture(okResponse());
+            }
+        };
+        HedgingDecorator x = HedgingDecorator
+                .builder()
+                .decorated(client)
+                .delay(Duration.ofMillis(20))
+                .latencyPercentile(0.5)
+                .maxHedgeRatio(1.0)
+                .build();
+
+        for (int i = 0; i < 20; i++) {
+            x.sendAsync(request).get(1, TimeUnit.SECONDS).close();
+        }
+        // the winners took no time, but the originals were still pending after the delay
+        assertThat(x.getHedgeDelay()).isGreaterThanOrEqualTo(Duration.ofMillis(20));
+    }
+
+    @Test
+    void testBuilder() {
+        ScriptedClient client = new ScriptedClient(0);
+        assertThatIllegalArgumentException().isThrownBy(() -> HedgingDecorator.builder().decorated(client).maxHedges(-1).build());
+        assertThatIllegalArgumentException().isThrownBy(() -> HedgingDecorator.builder().decorated(client).latencyPercentile(1.5).build());
+        assertThatIllegalArgumentException().isThrownBy(() -> HedgingDecorator.builder().decorated(client).maxHedgeRatio(-0.1).build());
+        assertThat(HedgingDecorator.builder().decorated(client).build().getDescription()).isEqualTo("Hedging (1) on Scripted client");
+    }
+
+    private static void waitForCalls(ScriptedClient client, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (client.calls.get() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(client.calls).hasValue(count);
+    }
+}
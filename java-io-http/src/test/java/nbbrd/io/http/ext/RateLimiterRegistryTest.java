@@ -1,7 +1,10 @@
 package nbbrd.io.http.ext;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -35,5 +38,25 @@ class RateLimiterRegistryTest {
         registry.forKey("host-b");
         assertThat(count).hasValue(2);
     }
-}
 
+    @Test
+    void storeAndLoadRates(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("rates.properties");
+        RateLimiterRegistry first = RateLimiterRegistry.of(() -> RateLimiter.unlimitedAdaptive(Duration.ofSeconds(60)));
+        first.forKey("host-a").onThrottled(Duration.ofSeconds(4));
+        first.storeRates(file);
+
+        RateLimiterRegistry second = RateLimiterRegistry.of(() -> RateLimiter.unlimitedAdaptive(Duration.ofSeconds(60)));
+        second.loadRates(file);
+        assertThat(second.getRates()).containsEntry("host-a", 0.25);
+        assertThat(second.forKey("host-a").getPermitsPerSecond()).isEqualTo(0.25);
+        assertThat(second.forKey("host-b").getPermitsPerSecond()).isEqualTo(first.forKey("host-b").getPermitsPerSecond());
+    }
+
+    @Test
+    void loadRatesIgnoresMissingFile(@TempDir Path dir) throws IOException {
+        RateLimiterRegistry registry = RateLimiterRegistry.of(() -> RateLimiter.fixed(10, 1, Duration.ofSeconds(60)));
+        registry.loadRates(dir.resolve("missing.properties"));
+        assertThat(registry.getRates()).isEmpty();
+    }
+}
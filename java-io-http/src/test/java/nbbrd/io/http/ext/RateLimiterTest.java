@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import java.time.Duration;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 class RateLimiterTest {
 
@@ -84,5 +85,150 @@ class RateLimiterTest {
         assertThat(limiter.onSuccess()).isNull();
         assertThat(limiter.onSuccess()).isNotNull(); // 5th triggers recovery
     }
-}
 
+    @Test
+    void restorePermitsPerSecondOnlyAppliesToAdaptiveLimiters() {
+        RateLimiter fixed = RateLimiter.fixed(10, 1, Duration.ofSeconds(60));
+        fixed.restorePermitsPerSecond(2);
+        assertThat(fixed.getPermitsPerSecond()).isEqualTo(10);
+
+        RateLimiter adaptive = RateLimiter.adaptive(10, 1, Duration.ofSeconds(60));
+        adaptive.restorePermitsPerSecond(2);
+        assertThat(adaptive.getPermitsPerSecond()).isEqualTo(2);
+        adaptive.restorePermitsPerSecond(100);
+        assertThat(adaptive.getPermitsPerSecond()).isEqualTo(10);
+    }
+
+    @Test
+    void onQuotaOnlyAppliesToAdaptiveLimiters() {
+        RateLimiter fixed = RateLimiter.fixed(10, 1, Duration.ofSeconds(60));
+        assertThat(fixed.onQuota(0, Duration.ofSeconds(10))).isNull();
+        assertThat(fixed.getPermitsPerSecond()).isEqualTo(10);
+    }
+
+    @Test
+    void onQuotaSpreadsRemainingRequestsOverWindow() {
+        RateLimiter limiter = RateLimiter.adaptive(100, 10, Duration.ofMillis(1));
+
+        // half of the quota as burst, the other half over the window
+        RateLimiter.RateChange change = limiter.onQuota(20, Duration.ofSeconds(10));
+        assertThat(change).isNotNull();
+        assertThat(change.getOldRate()).isEqualTo(100.0);
+        assertThat(change.getNewRate()).isEqualTo(1.0);
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.reserve()).isEqualTo(RateLimiter.NO_WAIT);
+        }
+        assertThat(limiter.reserve()).isEqualTo(RateLimiter.WAIT_EXCEEDED);
+
+        // blind recovery is disabled while the quota applies
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.onSuccess()).isNull();
+        }
+        assertThat(limiter.getPermitsPerSecond()).isEqualTo(1.0);
+    }
+
+    @Test
+    void onQuotaWithExhaustedQuotaWaitsForReset() {
+        RateLimiter limiter = RateLimiter.unlimitedAdaptive(Duration.ofMillis(1));
+
+        assertThat(limiter.onQuota(0, Duration.ofMillis(200))).isNotNull();
+        assertThat(limiter.reserve()).isEqualTo(RateLimiter.WAIT_EXCEEDED);
+    }
+
+    @Test
+    void onQuotaEndsWhenWindowResets() throws InterruptedException {
+        RateLimiter limiter = RateLimiter.adaptive(100, 10, Duration.ofMillis(1));
+
+        limiter.onQuota(0, Duration.ofMillis(50));
+        assertThat(limiter.getPermitsPerSecond()).isEqualTo(20.0);
+        Thread.sleep(100);
+        assertThat(limiter.reserve()).isEqualTo(RateLimiter.NO_WAIT);
+        assertThat(limiter.getPermitsPerSecond()).isEqualTo(100.0);
+    }
+
+    @Test
+    void onQuotaIgnoresLooserQuota() {
+        RateLimiter limiter = RateLimiter.adaptive(10, 1, Duration.ofSeconds(60));
+        assertThat(limiter.onQuota(1000, Duration.ofSeconds(1))).isNull();
+        assertThat(limiter.getPermitsPerSecond()).isEqualTo(10);
+        assertThat(limiter.onQuota(0, Duration.ZERO)).isNull();
+    }
+
+    @Test
+    void onThrottledEndsQuota() {
+        RateLimiter limiter = RateLimiter.adaptive(100, 10, Duration.ofSeconds(60));
+        limiter.onQuota(20, Duration.ofSeconds(10));
+        RateLimiter.RateChange change = limiter.onThrottled(Duration.ofSeconds(1));
+        assertThat(change).isNotNull();
+        assertThat(change.getNewRate()).isEqualTo(0.5);
+        assertThat(limiter.onSuccess()).isNull(); // recovery streak restarts
+    }
+
+    @Test
+    void reserveAndTryReserveSeveralPermits() {
+        RateLimiter limiter = RateLimiter.fixed(1, 2, Duration.ofMillis(1));
+        assertThat(limiter.reserve(2)).isEqualTo(RateLimiter.NO_WAIT);
+        assertThat(limiter.reserve(1)).isEqualTo(RateLimiter.WAIT_EXCEEDED);
+        assertThat(limiter.tryReserve(1)).isEqualTo(RateLimiter.WAIT_EXCEEDED);
+
+        // a cost above the burst only needs a full bucket
+        RateLimiter borrowing = RateLimiter.fixed(1, 2, Duration.ofMillis(1));
+        assertThat(borrowing.tryReserve(3)).isEqualTo(RateLimiter.NO_WAIT);
+        assertThat(borrowing.tryReserve(1)).isEqualTo(RateLimiter.WAIT_EXCEEDED);
+
+        RateLimiter unlimited = RateLimiter.unlimitedAdaptive(Duration.ofMillis(1));
+        assertThat(unlimited.reserve(1000)).isEqualTo(RateLimiter.NO_WAIT);
+        assertThat(unlimited.tryReserve(1000)).isEqualTo(RateLimiter.NO_WAIT);
+    }
+
+    @Test
+    void defaultMethodsKeepLegacyLimitersWorking() {
+        LegacyLimiter limiter = new LegacyLimiter(3);
+
+        assertThat(limiter.reserve(2)).isEqualTo(RateLimiter.NO_WAIT);
+        assertThat(limiter.reservations).isEqualTo(2);
+        assertThat(limiter.tryReserve(2)).isEqualTo(RateLimiter.WAIT_EXCEEDED);
+        assertThat(limiter.reservations).isEqualTo(4);
+        assertThatIllegalArgumentException().isThrownBy(() -> limiter.reserve(0));
+
+        assertThat(limiter.onQuota(10, Duration.ofSeconds(1))).isNull();
+        assertThat(limiter.successes).isEqualTo(1);
+
+        assertThat(limiter.getPermitsPerSecond()).isNaN();
+        limiter.restorePermitsPerSecond(5);
+        assertThat(limiter.getPermitsPerSecond()).isNaN();
+    }
+
+    // implements only the methods of the first release of the interface
+    private static final class LegacyLimiter implements RateLimiter {
+
+        final int capacity;
+        int reservations = 0;
+        int successes = 0;
+
+        LegacyLimiter(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public long reserve() {
+            return ++reservations <= capacity ? NO_WAIT : WAIT_EXCEEDED;
+        }
+
+        @Override
+        public Duration getMaxWait() {
+            return Duration.ZERO;
+        }
+
+        @Override
+        public RateChange onSuccess() {
+            successes++;
+            return null;
+        }
+
+        @Override
+        public RateChange onThrottled(Duration retryAfter) {
+            return null;
+        }
+    }
+}
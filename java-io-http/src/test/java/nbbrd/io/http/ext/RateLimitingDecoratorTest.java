@@ -2,10 +2,12 @@ package nbbrd.io.http.ext;
 
 import _test.io.http.MockedHttpClient;
 import _test.io.http.MockedHttpResponse;
+import lombok.NonNull;
 import nbbrd.io.http.*;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -234,6 +236,89 @@ class RateLimitingDecoratorTest {
         assertThat(adjustments.get(1)).containsExactly(50.0, 100.0); // recovery up
     }
 
+    @Test
+    void adaptiveFollowsAdvertisedQuota() throws IOException {
+        List<double[]> adjustments = new ArrayList<>();
+
+        MockedHttpClient backend = new MockedHttpClient(req -> MockedHttpResponse.builder()
+                .statusCode(200)
+                .contentTypeOf("text/plain")
+                .headers(HttpHeaders.builder().put("RateLimit", "limit=100, remaining=20, reset=10").build())
+                .build());
+
+        RateLimitingListener listener = new RateLimitingListener() {
+            @Override
+            public void onRateAdjusted(double oldRate, double newRate) {
+                adjustments.add(new double[]{oldRate, newRate});
+            }
+        };
+
+        RateLimitingDecorator decorator = RateLimitingDecorator.builder()
+                .decorated(backend)
+                .rateLimiter(RateLimiter.adaptive(100, 1000, Duration.ofSeconds(60)))
+                .listener(listener)
+                .build();
+
+        assertThat(decorator.send(sampleRequest()).getStatusCode()).isEqualTo(200);
+        assertThat(decorator.send(sampleRequest()).getStatusCode()).isEqualTo(200);
+
+        // 20 remaining requests: 10 kept as burst and 10 spread over 10s
+        assertThat(adjustments).hasSize(1);
+        assertThat(adjustments.get(0)).containsExactly(100.0, 1.0);
+    }
+
+    @Test
+    void costlyRequestsReserveSeveralPermits() throws IOException {
+        List<Duration> waits = new ArrayList<>();
+        MockedHttpClient backend = new MockedHttpClient(req -> MockedHttpResponse.builder().statusCode(200).contentTypeOf("text/plain").build());
+
+        RateLimitingDecorator decorator = RateLimitingDecorator.builder()
+                .decorated(backend)
+                .rateLimiter(RateLimiter.fixed(100, 1, Duration.ofSeconds(60)))
+                .cost(request -> 10)
+                .listener(new RateLimitingListener() {
+                    @Override
+                    public void onRateLimited(HttpRequest request, Duration waitTime) {
+                        waits.add(waitTime);
+                    }
+                })
+                .build();
+
+        assertThat(decorator.send(sampleRequest()).getStatusCode()).isEqualTo(200);
+        assertThat(waits).hasSize(1);
+        assertThat(waits.get(0)).isBetween(Duration.ofMillis(50), Duration.ofMillis(90));
+    }
+
+    @Test
+    void bulkRequestsGiveWayToQueuedReservations() throws IOException {
+        List<Duration> waits = new ArrayList<>();
+        MockedHttpClient backend = new MockedHttpClient(req -> MockedHttpResponse.builder().statusCode(200).contentTypeOf("text/plain").build());
+        RateLimiter limiter = RateLimiter.fixed(10, 1, Duration.ofSeconds(60));
+
+        RateLimitingDecorator decorator = RateLimitingDecorator.builder()
+                .decorated(backend)
+                .rateLimiter(limiter)
+                .priority(request -> RateLimitPriority.BULK)
+                .listener(new RateLimitingListener() {
+                    @Override
+                    public void onRateLimited(HttpRequest request, Duration waitTime) {
+                        waits.add(waitTime);
+                    }
+                })
+                .build();
+
+        assertThat(limiter.reserve()).isEqualTo(RateLimiter.NO_WAIT);
+        long interactiveWait = limiter.reserve();
+        assertThat(interactiveWait).isPositive();
+
+        long start = System.nanoTime();
+        assertThat(decorator.send(sampleRequest()).getStatusCode()).isEqualTo(200);
+
+        // the bulk request waits for the queued interactive permit to be used
+        assertThat(System.nanoTime() - start).isGreaterThan(interactiveWait);
+        assertThat(waits).isNotEmpty();
+    }
+
     @Test
     void adaptiveFactoryMethod() throws IOException {
         MockedHttpResponse response = MockedHttpResponse.builder()
@@ -341,5 +426,43 @@ class RateLimitingDecoratorTest {
         assertThatIOException().isThrownBy(() -> decorator.send(sampleRequest()))
                 .withMessage("network error");
     }
-}
 
+    private static RateLimiter failingIO(IOException failure) {
+        return new RateLimiter() {
+            @Override
+            public long reserve() {
+                throw new UncheckedIOException(failure);
+            }
+
+            @Override
+            public @NonNull Duration getMaxWait() {
+                return Duration.ofSeconds(60);
+            }
+
+            @Override
+            public RateChange onSuccess() {
+                return null;
+            }
+
+            @Override
+            public RateChange onThrottled(@NonNull Duration retryAfter) {
+                return null;
+            }
+        };
+    }
+
+    @Test
+    void unwrapsLimiterIOFailures() {
+        IOException failure = new IOException("Failed to update rate limiter file");
+        MockedHttpClient backend = MockedHttpClient.ofResponse(MockedHttpResponse.builder().statusCode(200).build());
+        RateLimitingDecorator decorator = RateLimitingDecorator.builder()
+                .decorated(backend)
+                .rateLimiter(failingIO(failure))
+                .build();
+
+        assertThatIOException()
+                .isThrownBy(() -> decorator.send(sampleRequest()))
+                .isSameAs(failure);
+        assertThat(backend.getCallCount()).isZero();
+    }
+}
@@ -0,0 +1,129 @@
+package nbbrd.io.http.ext;
+
+import _test.io.http.MockedHttpClient;
+import _test.io.http.RangeHandler;
+import nbbrd.io.http.HttpMethod;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SuppressWarnings("resource")
+class ResumingDecoratorTest {
+
+    private final URI uri = URI.create("http://localhost/data.bin");
+
+    private final HttpRequest request = HttpRequest.builder().query(uri).build();
+
+    private final byte[] content = randomBytes(10_000);
+
+    private static byte[] randomBytes(int length) {
+        byte[] result = new byte[length];
+        new Random(123).nextBytes(result);
+        return result;
+    }
+
+    private static byte[] readAll(HttpResponse response) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (InputStream body = response.getBody()) {
+            byte[] buffer = new byte[1000];
+            int n;
+            while ((n = body.read(buffer)) != -1) {
+                result.write(buffer, 0, n);
+            }
+        }
+        return result.toByteArray();
+    }
+
+    @Test
+    void resumesAfterReadFailure() throws IOException {
+        MockedHttpClient delegate = new MockedHttpClient(RangeHandler.builder().content(content).failures(2).failAfter(3000).build());
+        List<Integer> attempts = new ArrayList<>();
+        ResumingDecorator x = new ResumingDecorator(delegate, 3, (r, attempt, cause) -> attempts.add(attempt));
+
+        try (HttpResponse response = x.send(request)) {
+            assertThat(readAll(response)).isEqualTo(content);
+        }
+
+        assertThat(attempts).containsExactly(1, 2);
+        assertThat(delegate.getRequests())
+                .extracting(r -> r.getHeaders().firstValue("Range").orElse("none"))
+                .containsExactly("none", "bytes=3000-", "bytes=6000-");
+        assertThat(delegate.getRequests().subList(1, 3))
+                .allSatisfy(r -> assertThat(r.getHeaders().firstValue("If-Range")).hasValue("\"v1\""));
+    }
+
+    @Test
+    void failsWhenBudgetIsExhausted() throws IOException {
+        MockedHttpClient delegate = new MockedHttpClient(RangeHandler.builder().content(content).failures(3).failAfter(1000).build());
+        ResumingDecorator x = new ResumingDecorator(delegate, 2, RetryListener.noOp());
+
+        try (HttpResponse response = x.send(request)) {
+            assertThatExceptionOfType(SocketException.class)
+                    .isThrownBy(() -> readAll(response));
+        }
+
+        assertThat(delegate.getCallCount()).isEqualTo(3);
+    }
+
+    @Test
+    void failsWhenResourceChanges() throws IOException {
+        RangeHandler original = RangeHandler.builder().content(content).failures(1).failAfter(1000).build();
+        RangeHandler changed = RangeHandler.builder().content(content).etag("\"v2\"").build();
+        MockedHttpClient delegate = new MockedHttpClient(r -> r.getHeaders().firstValue("Range").isPresent() ? changed.applyWithIO(r) : original.applyWithIO(r));
+        ResumingDecorator x = new ResumingDecorator(delegate, 3, RetryListener.noOp());
+
+        try (HttpResponse response = x.send(request)) {
+            assertThatIOException()
+                    .isThrownBy(() -> readAll(response))
+                    .withMessageContaining("at byte 1000: status 200");
+        }
+
+        assertThat(delegate.getCallCount()).isEqualTo(2);
+    }
+
+    @Test
+    void failsWhenCompleteLengthChanges() throws IOException {
+        RangeHandler original = RangeHandler.builder().content(content).failures(1).failAfter(1000).build();
+        RangeHandler changed = RangeHandler.builder().content(content).completeLength(content.length + 1).build();
+        MockedHttpClient delegate = new MockedHttpClient(r -> r.getHeaders().firstValue("Range").isPresent() ? changed.applyWithIO(r) : original.applyWithIO(r));
+        ResumingDecorator x = new ResumingDecorator(delegate, 3, RetryListener.noOp());
+
+        try (HttpResponse response = x.send(request)) {
+            assertThatIOException()
+                    .isThrownBy(() -> readAll(response))
+                    .withMessageContaining("at byte 1000: status 206");
+        }
+
+        assertThat(delegate.getCallCount()).isEqualTo(2);
+    }
+
+    @Test
+    void ignoresNonResumableResponses() throws IOException {
+        RangeHandler noRanges = RangeHandler.builder().content(content).acceptRanges(false).failures(1).failAfter(1000).build();
+        ResumingDecorator x = new ResumingDecorator(new MockedHttpClient(noRanges), 3, RetryListener.noOp());
+
+        try (HttpResponse response = x.send(request)) {
+            assertThatExceptionOfType(SocketException.class)
+                    .isThrownBy(() -> readAll(response));
+        }
+
+        RangeHandler failing = RangeHandler.builder().content(content).failures(1).failAfter(1000).build();
+        MockedHttpClient delegate = new MockedHttpClient(failing);
+        try (HttpResponse response = new ResumingDecorator(delegate, 3, RetryListener.noOp()).send(request.toBuilder().method(HttpMethod.POST).build())) {
+            assertThatExceptionOfType(SocketException.class)
+                    .isThrownBy(() -> readAll(response));
+        }
+        assertThat(delegate.getCallCount()).isEqualTo(1);
+    }
+}
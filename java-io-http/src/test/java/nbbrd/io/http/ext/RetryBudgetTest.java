@@ -0,0 +1,46 @@
+package nbbrd.io.http.ext;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class RetryBudgetTest {
+
+    @Test
+    void testUnlimited() {
+        RetryBudget x = RetryBudget.unlimited();
+        for (int i = 0; i < 100; i++) {
+            assertThat(x.tryRetry()).isTrue();
+        }
+    }
+
+    @Test
+    void testTokens() {
+        RetryBudget x = RetryBudget.of(0.2, 2);
+        assertThat(x.tryRetry()).isTrue();
+        assertThat(x.tryRetry()).isTrue();
+        assertThat(x.tryRetry()).isFalse();
+
+        for (int i = 0; i < 4; i++) {
+            x.onRequest();
+            assertThat(x.tryRetry()).isFalse();
+        }
+        x.onRequest();
+        assertThat(x.tryRetry()).isTrue();
+
+        // the balance is capped
+        for (int i = 0; i < 100; i++) {
+            x.onRequest();
+        }
+        assertThat(x.tryRetry()).isTrue();
+        assertThat(x.tryRetry()).isTrue();
+        assertThat(x.tryRetry()).isFalse();
+    }
+
+    @Test
+    void testArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> RetryBudget.of(1.5, 1));
+        assertThatIllegalArgumentException().isThrownBy(() -> RetryBudget.of(0.1, -1));
+    }
+}
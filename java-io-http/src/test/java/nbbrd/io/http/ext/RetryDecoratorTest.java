@@ -2,6 +2,7 @@ package nbbrd.io.http.ext;
 
 import _test.io.http.MockedHttpClient;
 import _test.io.http.MockedHttpResponse;
+import nbbrd.io.http.HttpHeaders;
 import nbbrd.io.http.HttpMethod;
 import nbbrd.io.http.HttpRequest;
 import nbbrd.io.http.HttpResponse;
@@ -10,10 +11,12 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.UnknownHostException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -179,6 +182,158 @@ class RetryDecoratorTest {
         assertThatNullPointerException()
                 .isThrownBy(() -> x.send(null));
     }
-}
 
+    private static HttpResponse statusResponse(int code, String retryAfter) {
+        MockedHttpResponse.Builder result = MockedHttpResponse.builder().statusCode(code).contentType(ANY_TYPE);
+        if (retryAfter != null) {
+            result.headers(HttpHeaders.builder().put("Retry-After", retryAfter).build());
+        }
+        return result.build();
+    }
+
+    @Test
+    void builderRetriesUnavailableStatus() throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        MockedHttpClient delegate = new MockedHttpClient(ignore -> calls.getAndIncrement() < 2 ? statusResponse(503, null) : statusResponse(200, null));
+        List<String> events = new ArrayList<>();
+        RetryDecorator x = RetryDecorator
+                .builder()
+                .decorated(delegate)
+                .backoff(BackoffPolicy.fixed(Duration.ofMillis(1)))
+                .listener(new RetryListener() {
+                    @Override
+                    public void onRetry(HttpRequest request, int attempt, IOException cause) {
+                        events.add("error " + attempt);
+                    }
+
+                    @Override
+                    public void onRetryStatus(HttpRequest request, int attempt, int statusCode) {
+                        events.add(statusCode + " " + attempt);
+                    }
+
+                    @Override
+                    public void onBackoff(HttpRequest request, int attempt, Duration delay) {
+                        events.add("wait " + delay.toMillis());
+                    }
+                })
+                .build();
+
+        try (HttpResponse response = x.send(requestOf(HttpMethod.GET))) {
+            assertThat(response.getStatusCode()).isEqualTo(200);
+        }
+        assertThat(events).containsExactly("503 1", "wait 1", "503 2", "wait 1");
+    }
+
+    @Test
+    void builderHonorsRetryAfter() throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        MockedHttpClient delegate = new MockedHttpClient(ignore -> calls.getAndIncrement() == 0 ? statusResponse(502, "1") : statusResponse(200, null));
+        List<Duration> delays = new ArrayList<>();
+        RetryDecorator x = RetryDecorator
+                .builder()
+                .decorated(delegate)
+                .backoff(BackoffPolicy.none())
+                .listener(new RetryListener() {
+                    @Override
+                    public void onRetry(HttpRequest request, int attempt, IOException cause) {
+                    }
+
+                    @Override
+                    public void onBackoff(HttpRequest request, int attempt, Duration delay) {
+                        delays.add(delay);
+                    }
+                })
+                .build();
+
+        long start = System.nanoTime();
+        try (HttpResponse response = x.send(requestOf(HttpMethod.GET))) {
+            assertThat(response.getStatusCode()).isEqualTo(200);
+        }
+        assertThat(delays).containsExactly(Duration.ofSeconds(1));
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(Duration.ofSeconds(1).toNanos());
+    }
+
+    @Test
+    void throwsInterruptedIOExceptionWhenInterruptedDuringBackoff() {
+        MockedHttpClient delegate = MockedHttpClient.ofResponse(statusResponse(503, "1"));
+        RetryDecorator x = RetryDecorator.builder().decorated(delegate).build();
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThatExceptionOfType(InterruptedIOException.class)
+                    .isThrownBy(() -> x.send(requestOf(HttpMethod.GET)))
+                    .withCauseInstanceOf(InterruptedException.class);
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+        assertThat(delegate.getCallCount()).isEqualTo(1);
+    }
+
+    @Test
+    void builderReturnsResponseWhenRetryAfterTooLong() throws IOException {
+        MockedHttpClient delegate = MockedHttpClient.ofResponse(statusResponse(503, "3600"));
+        RetryDecorator x = RetryDecorator.builder().decorated(delegate).build();
+
+        try (HttpResponse response = x.send(requestOf(HttpMethod.GET))) {
+            assertThat(response.getStatusCode()).isEqualTo(503);
+        }
+        assertThat(delegate.getCallCount()).isEqualTo(1);
+    }
 
+    @Test
+    void builderDoesNotRetryStatusOfNonIdempotentRequests() throws IOException {
+        MockedHttpClient delegate = MockedHttpClient.ofResponse(statusResponse(503, null));
+        RetryDecorator x = RetryDecorator.builder().decorated(delegate).backoff(BackoffPolicy.none()).build();
+
+        try (HttpResponse response = x.send(requestOf(HttpMethod.POST))) {
+            assertThat(response.getStatusCode()).isEqualTo(503);
+        }
+        assertThat(delegate.getCallCount()).isEqualTo(1);
+    }
+
+    @Test
+    void constructorDoesNotRetryStatus() throws IOException {
+        MockedHttpClient delegate = MockedHttpClient.ofResponse(statusResponse(503, null));
+        RetryDecorator x = new RetryDecorator(delegate, 3, RetryListener.noOp());
+
+        try (HttpResponse response = x.send(requestOf(HttpMethod.GET))) {
+            assertThat(response.getStatusCode()).isEqualTo(503);
+        }
+        assertThat(delegate.getCallCount()).isEqualTo(1);
+    }
+
+    @Test
+    void budgetBoundsRetriesAcrossRequests() {
+        MockedHttpClient delegate = MockedHttpClient.ofException(new SocketException("Connection reset"));
+        AtomicInteger exhausted = new AtomicInteger();
+        RetryDecorator x = RetryDecorator
+                .builder()
+                .decorated(delegate)
+                .maxRetries(3)
+                .backoff(BackoffPolicy.none())
+                .budget(RetryBudget.of(0, 4))
+                .listener(new RetryListener() {
+                    @Override
+                    public void onRetry(HttpRequest request, int attempt, IOException cause) {
+                    }
+
+                    @Override
+                    public void onBudgetExhausted(HttpRequest request, int attempt) {
+                        exhausted.incrementAndGet();
+                    }
+                })
+                .build();
+
+        assertThatIOException().isThrownBy(() -> x.send(requestOf(HttpMethod.GET)));
+        assertThat(delegate.getCallCount()).isEqualTo(4);
+
+        assertThatIOException().isThrownBy(() -> x.send(requestOf(HttpMethod.GET)));
+        assertThat(delegate.getCallCount()).isEqualTo(6);
+        assertThat(exhausted).hasValue(1);
+
+        assertThatIOException().isThrownBy(() -> x.send(requestOf(HttpMethod.GET)));
+        assertThat(delegate.getCallCount()).isEqualTo(7);
+        assertThat(exhausted).hasValue(2);
+    }
+}
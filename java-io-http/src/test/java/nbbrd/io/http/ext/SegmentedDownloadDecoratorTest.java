@@ -0,0 +1,197 @@
+package nbbrd.io.http.ext;
+
+import _test.io.http.MockedHttpClient;
+import _test.io.http.RangeHandler;
+import nbbrd.io.http.HttpMethod;
+import nbbrd.io.http.HttpRequest;
+import nbbrd.io.http.HttpResponse;
+import nbbrd.io.http.PooledHttpClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SuppressWarnings("resource")
+class SegmentedDownloadDecoratorTest {
+
+    private final URI uri = URI.create("http://localhost/data.bin");
+
+    private final HttpRequest request = HttpRequest.builder().query(uri).build();
+
+    private static byte[] randomBytes(int length) {
+        byte[] result = new byte[length];
+        new Random(123).nextBytes(result);
+        return result;
+    }
+
+    private static byte[] readAll(HttpResponse response) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (InputStream body = response.getBody()) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = body.read(buffer)) != -1) {
+                result.write(buffer, 0, n);
+            }
+        }
+        return result.toByteArray();
+    }
+
+    @Test
+    void downloadsRangesInParallel(@TempDir Path temp) throws IOException {
+        byte[] content = randomBytes(100_003);
+        MockedHttpClient delegate = new MockedHttpClient(RangeHandler.builder().content(content).build()).withDelay(50);
+
+        SegmentedDownloadDecorator x = SegmentedDownloadDecorator
+                .builder()
+                .decorated(PooledHttpClient.builder().clients(() -> delegate).maxClients(4).build())
+                .segments(4)
+                .minContentLength(1000L)
+                .tempDir(temp)
+                .build();
+
+        try (HttpResponse response = x.send(request)) {
+            assertThat(response.getStatusCode()).isEqualTo(200);
+            assertThat(response.getContentLength()).isEqualTo(content.length);
+            assertThat(readAll(response)).isEqualTo(content);
+        }
+
+        assertThat(delegate.getCallCount()).isEqualTo(4);
+        assertThat(delegate.getMaxConcurrentCalls()).isGreaterThan(1);
+        List<String> ranges = delegate.getRequests().stream()
+                .map(r -> r.getHeaders().firstValue("Range").orElse("none"))
+                .sorted()
+                .collect(Collectors.toList());
+        assertThat(ranges).containsExactly("bytes=25001-50001", "bytes=50002-75002", "bytes=75003-100002", "none");
+        assertThat(delegate.getRequests())
+                .filteredOn(r -> r.getHeaders().firstValue("Range").isPresent())
+                .allSatisfy(r -> assertThat(r.getHeaders().firstValue("If-Range")).hasValue("\"v1\""));
+        assertThat(temp).isEmptyDirectory();
+    }
+
+    @Test
+    void movesTempFileOnTransfer(@TempDir Path temp) throws IOException {
+        byte[] content = randomBytes(10_000);
+        SegmentedDownloadDecorator x = SegmentedDownloadDecorator
+                .builder()
+                .decorated(new MockedHttpClient(RangeHandler.builder().content(content).build()))
+                .segments(3)
+                .minContentLength(0L)
+                .tempDir(temp)
+                .build();
+
+        Path target = temp.resolve("target.bin");
+        try (HttpResponse response = x.send(request)) {
+            assertThat(response.transferTo(target)).isEqualTo(content.length);
+        }
+
+        assertThat(target).hasBinaryContent(content);
+        try (java.util.stream.Stream<Path> files = Files.list(temp)) {
+            assertThat(files).containsExactly(target);
+        }
+    }
+
+    @Test
+    void skipsSmallOrUnsupportedResponses(@TempDir Path temp) throws IOException {
+        byte[] content = randomBytes(10_000);
+
+        MockedHttpClient small = new MockedHttpClient(RangeHandler.builder().content(content).build());
+        try (HttpResponse response = SegmentedDownloadDecorator.builder().decorated(small).minContentLength(20_000L).tempDir(temp).build().send(request)) {
+            assertThat(readAll(response)).isEqualTo(content);
+        }
+        assertThat(small.getCallCount()).isEqualTo(1);
+
+        MockedHttpClient noRanges = new MockedHttpClient(RangeHandler.builder().content(content).acceptRanges(false).build());
+        try (HttpResponse response = SegmentedDownloadDecorator.builder().decorated(noRanges).minContentLength(0L).tempDir(temp).build().send(request)) {
+            assertThat(readAll(response)).isEqualTo(content);
+        }
+        assertThat(noRanges.getCallCount()).isEqualTo(1);
+
+        MockedHttpClient post = new MockedHttpClient(RangeHandler.builder().content(content).build());
+        try (HttpResponse response = SegmentedDownloadDecorator.builder().decorated(post).minContentLength(0L).tempDir(temp).build()
+                .send(request.toBuilder().method(HttpMethod.POST).build())) {
+            assertThat(readAll(response)).isEqualTo(content);
+        }
+        assertThat(post.getCallCount()).isEqualTo(1);
+
+        MockedHttpClient noValidator = new MockedHttpClient(RangeHandler.builder().content(content).etag(null).build());
+        try (HttpResponse response = SegmentedDownloadDecorator.builder().decorated(noValidator).minContentLength(0L).tempDir(temp).build().send(request)) {
+            assertThat(readAll(response)).isEqualTo(content);
+        }
+        assertThat(noValidator.getCallCount()).isEqualTo(1);
+
+        MockedHttpClient weakValidator = new MockedHttpClient(RangeHandler.builder().content(content).etag("W/\"v1\"").build());
+        try (HttpResponse response = SegmentedDownloadDecorator.builder().decorated(weakValidator).minContentLength(0L).tempDir(temp).build().send(request)) {
+            assertThat(readAll(response)).isEqualTo(content);
+        }
+        assertThat(weakValidator.getCallCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failsWhenResourceChanges(@TempDir Path temp) {
+        byte[] content = randomBytes(10_000);
+        RangeHandler original = RangeHandler.builder().content(content).build();
+        RangeHandler changed = original.toBuilder().etag("\"v2\"").build();
+        MockedHttpClient delegate = new MockedHttpClient(r -> r.getHeaders().firstValue("Range").isPresent() ? changed.applyWithIO(r) : original.applyWithIO(r));
+
+        SegmentedDownloadDecorator x = SegmentedDownloadDecorator
+                .builder()
+                .decorated(delegate)
+                .minContentLength(0L)
+                .tempDir(temp)
+                .build();
+
+        assertThatIOException()
+                .isThrownBy(() -> x.send(request))
+                .withMessageContaining("status 200");
+        assertThat(temp).isEmptyDirectory();
+    }
+
+    @Test
+    void failsWhenCompleteLengthChanges(@TempDir Path temp) {
+        byte[] content = randomBytes(10_000);
+        RangeHandler original = RangeHandler.builder().content(content).build();
+        RangeHandler changed = original.toBuilder().completeLength(20_000).build();
+        MockedHttpClient delegate = new MockedHttpClient(r -> r.getHeaders().firstValue("Range").isPresent() ? changed.applyWithIO(r) : original.applyWithIO(r));
+
+        SegmentedDownloadDecorator x = SegmentedDownloadDecorator
+                .builder()
+                .decorated(delegate)
+                .minContentLength(0L)
+                .tempDir(temp)
+                .build();
+
+        assertThatIOException()
+                .isThrownBy(() -> x.send(request))
+                .withMessageContaining("status 206");
+        assertThat(temp).isEmptyDirectory();
+    }
+
+    @Test
+    void testSplit() {
+        assertThat(SegmentedDownloadDecorator.split(10, 3))
+                .containsExactly(new long[]{0, 3}, new long[]{4, 7}, new long[]{8, 9});
+        assertThat(SegmentedDownloadDecorator.split(2, 4))
+                .containsExactly(new long[]{0, 0}, new long[]{1, 1});
+    }
+
+    @Test
+    void testBuilder() {
+        MockedHttpClient delegate = new MockedHttpClient(RangeHandler.builder().content(new byte[0]).build());
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> SegmentedDownloadDecorator.builder().decorated(delegate).segments(0).build());
+        assertThatNullPointerException()
+                .isThrownBy(() -> SegmentedDownloadDecorator.builder().build());
+        assertThat(SegmentedDownloadDecorator.builder().decorated(delegate).build().getDescription())
+                .isEqualTo("Segmented (4) download on Fake client");
+    }
+}
@@ -6,6 +6,7 @@ import nbbrd.io.http.HttpClientFactoryLoader;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 /**
  * @author Philippe Charles
@@ -42,5 +43,26 @@ public class OkHttpHttpClientFactoryTest {
                 .extracting(HttpClient::getDescription)
                 .isEqualTo("OkHttp client");
     }
-}
 
+    @Test
+    public void testBuilder() {
+        HttpClient client = OkHttpHttpClientFactory
+                .builder()
+                .maxIdleConnections(2)
+                .keepAliveDuration(1000)
+                .maxRequests(8)
+                .maxRequestsPerHost(4)
+                .build()
+                .getClient(HttpContext.builder().build());
+
+        assertThat(client)
+                .isInstanceOf(OkHttpHttpClient.class)
+                .extracting("maxIdleConnections", "keepAliveDuration", "maxRequests", "maxRequestsPerHost")
+                .containsExactly(2, 1000, 8, 4);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> OkHttpHttpClientFactory.builder().maxIdleConnections(-1).build());
+        assertThatIllegalArgumentException().isThrownBy(() -> OkHttpHttpClientFactory.builder().keepAliveDuration(0).build());
+        assertThatIllegalArgumentException().isThrownBy(() -> OkHttpHttpClientFactory.builder().maxRequests(0).build());
+        assertThatIllegalArgumentException().isThrownBy(() -> OkHttpHttpClientFactory.builder().maxRequestsPerHost(0).build());
+    }
+}
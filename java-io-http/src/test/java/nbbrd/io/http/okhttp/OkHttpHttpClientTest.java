@@ -3,23 +3,33 @@ package nbbrd.io.http.okhttp;
 import com.github.tomakehurst.wiremock.matching.AbsentPattern;
 import com.github.tomakehurst.wiremock.matching.AnythingPattern;
 import com.github.tomakehurst.wiremock.matching.EqualToPattern;
+import internal.io.http.okhttp.OkHttpSharedResources;
 import nbbrd.io.http.*;
 import okhttp3.Cache;
+import okhttp3.ConnectionPool;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
 import java.io.IOException;
 import java.net.URI;
 import java.net.UnknownHostException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static nbbrd.io.http.HttpMethod.POST;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIOException;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 public class OkHttpHttpClientTest extends HttpClientTest {
 
@@ -297,4 +307,85 @@ public class OkHttpHttpClientTest extends HttpClientTest {
 
         wire.verify(2, getRequestedFor(urlEqualTo(SAMPLE_URL)));
     }
+
+    @Test
+    public void testInvalidPoolSettings() {
+        assertThatIllegalArgumentException().isThrownBy(() -> OkHttpHttpClient.builder().keepAliveDuration(0).build());
+        assertThatIllegalArgumentException().isThrownBy(() -> OkHttpHttpClient.builder().maxIdleConnections(-1).build());
+        assertThatIllegalArgumentException().isThrownBy(() -> OkHttpHttpClient.builder().maxRequests(0).build());
+        assertThatIllegalArgumentException().isThrownBy(() -> OkHttpHttpClient.builder().maxRequestsPerHost(0).build());
+    }
+
+    @Test
+    public void testSharedConnectionPool() throws IOException {
+        // unusual settings so that no other test uses the same pool
+        int maxIdleConnections = 3;
+        int keepAliveDuration = 123_456;
+        ConnectionPool pool = OkHttpSharedResources.getConnectionPool(maxIdleConnections, keepAliveDuration);
+        pool.evictAll();
+
+        wire.resetAll();
+        wire.stubFor(get(SAMPLE_URL).willReturn(okXml(SAMPLE_XML)));
+
+        HttpRequest request = HttpRequest.builder().query(wireURL(SAMPLE_URL)).headers(GENERIC_DATA_21_HEADER).build();
+
+        // connections are only reused by clients with the same socket factory and hostname verifier
+        SSLSocketFactory sslSocketFactory = wireSSLSocketFactory();
+        HostnameVerifier hostnameVerifier = wireHostnameVerifier();
+
+        for (int i = 0; i < 3; i++) {
+            OkHttpHttpClient x = OkHttpHttpClient
+                    .builder()
+                    .sslSocketFactory(sslSocketFactory)
+                    .hostnameVerifier(hostnameVerifier)
+                    .maxIdleConnections(maxIdleConnections)
+                    .keepAliveDuration(keepAliveDuration)
+                    .build();
+            try (HttpResponse response = x.send(request)) {
+                assertSameSampleContent(response);
+            }
+        }
+
+        wire.verify(3, getRequestedFor(urlEqualTo(SAMPLE_URL)));
+        assertThat(pool.connectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testSendAsync() throws Exception {
+        OkHttpHttpClient x = OkHttpHttpClient
+                .builder()
+                .sslSocketFactory(wireSSLSocketFactory())
+                .hostnameVerifier(wireHostnameVerifier())
+                .build();
+
+        wire.resetAll();
+        wire.stubFor(get(SAMPLE_URL).willReturn(okXml(SAMPLE_XML)));
+
+        HttpRequest request = HttpRequest.builder().query(wireURL(SAMPLE_URL)).headers(GENERIC_DATA_21_HEADER).build();
+
+        List<CompletableFuture<HttpResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(x.sendAsync(request));
+        }
+        for (CompletableFuture<HttpResponse> future : futures) {
+            try (HttpResponse response = future.get(10, TimeUnit.SECONDS)) {
+                assertSameSampleContent(response);
+            }
+        }
+
+        wire.verify(10, getRequestedFor(urlEqualTo(SAMPLE_URL)));
+    }
+
+    @Test
+    public void testSendAsyncInvalidHost() {
+        OkHttpHttpClient x = OkHttpHttpClient.builder().build();
+
+        assertThat(x.sendAsync(HttpRequest.builder().query(URI.create("http://localhoooooost")).build()))
+                .failsWithin(10, TimeUnit.SECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(UnknownHostException.class);
+
+        assertThat(x.sendAsync(HttpRequest.builder().query(URI.create("ftp://localhost")).build()))
+                .isCompletedExceptionally();
+    }
 }
@@ -1,10 +1,16 @@
 package nbbrd.io.http.urlconnection;
 
 import nbbrd.io.http.*;
+import nbbrd.io.http.ext.MetricsEvent;
+import nbbrd.io.http.ext.MetricsListener;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.ProxySelector;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -76,4 +82,84 @@ public class UrlConnectionHttpClientTest extends HttpClientTest {
 
         wire.verify(1, getRequestedFor(urlEqualTo("/first.xml")));
     }
+
+    @Test
+    public void keepsConnectionAliveByDrainingUnreadBody() throws IOException {
+        List<Boolean> releases = new ArrayList<>();
+        HttpClient x = UrlConnectionHttpClient
+                .builder()
+                .sslSocketFactory(wireSSLSocketFactory())
+                .hostnameVerifier(wireHostnameVerifier())
+                .metricsListener(new RecordingListener(releases))
+                .build();
+
+        wire.resetAll();
+        wire.stubFor(get(SAMPLE_URL).willReturn(okXml(SAMPLE_XML)));
+        wire.stubFor(get("/missing").willReturn(notFound().withBody(SAMPLE_XML)));
+
+        x.send(HttpRequest.builder().query(wireURL(SAMPLE_URL)).build()).close();
+        try (HttpResponse response = x.send(HttpRequest.builder().query(wireURL("/missing")).build())) {
+            assertThat(response.getStatusCode()).isEqualTo(404);
+        }
+        try (HttpResponse response = x.send(HttpRequest.builder().query(wireURL(SAMPLE_URL)).build())) {
+            try (InputStream body = response.getBody()) {
+                assertThat(body.read()).isNotEqualTo(-1);
+            }
+        }
+
+        assertThat(releases).containsExactly(true, true, true);
+    }
+
+    @Test
+    public void disconnectsWhenUnreadBodyExceedsDrainLimit() throws IOException {
+        List<Boolean> releases = new ArrayList<>();
+        HttpClient x = UrlConnectionHttpClient
+                .builder()
+                .sslSocketFactory(wireSSLSocketFactory())
+                .hostnameVerifier(wireHostnameVerifier())
+                .drainLimit(10)
+                .metricsListener(new RecordingListener(releases))
+                .build();
+
+        wire.resetAll();
+        wire.stubFor(get(SAMPLE_URL).willReturn(okXml(SAMPLE_XML)));
+        wire.stubFor(get("/empty").willReturn(noContent()));
+
+        x.send(HttpRequest.builder().query(wireURL(SAMPLE_URL)).build()).close();
+        x.send(HttpRequest.builder().query(wireURL("/empty")).build()).close();
+
+        assertThat(releases).containsExactly(false, true);
+    }
+
+    @Test
+    public void reportsConnectionReleasesThroughFactory() throws IOException {
+        List<Boolean> releases = new ArrayList<>();
+        HttpClient x = new UrlConnectionHttpClientFactory(new RecordingListener(releases)).getClient(HttpContext
+                .builder()
+                .sslSocketFactory(this::wireSSLSocketFactory)
+                .hostnameVerifier(this::wireHostnameVerifier)
+                .build());
+
+        wire.resetAll();
+        wire.stubFor(get(SAMPLE_URL).willReturn(okXml(SAMPLE_XML)));
+
+        x.send(HttpRequest.builder().query(wireURL(SAMPLE_URL)).build()).close();
+
+        assertThat(releases).containsExactly(true);
+    }
+
+    @lombok.AllArgsConstructor
+    private static final class RecordingListener implements MetricsListener {
+
+        private final List<Boolean> releases;
+
+        @Override
+        public void onCompleted(MetricsEvent event) {
+        }
+
+        @Override
+        public void onConnectionReleased(URI requestUri, boolean keptAlive) {
+            releases.add(keptAlive);
+        }
+    }
 }
@@ -38,7 +38,7 @@ public class RegWrapper {
     public static final String COMMAND = "reg";
 
     public @NonNull Map<String, List<RegValue>> query(@NonNull String keyName, boolean recursive) throws IOException {
-        try (BufferedReader reader = ProcessReader.newReader(Charset.defaultCharset(), getArgs(keyName, recursive))) {
+        try (BufferedReader reader = ProcessReader.newReader(Charset.defaultCharset(), new ProcessBuilder(getArgs(keyName, recursive)))) {
             return parse(reader);
         } catch (EndOfProcessException ex) {
             if (ex.getExitValue() == 1) {